@@ -0,0 +1,58 @@
+package com.upokecenter.benchmarks;
+/*
+Written by Peter O.
+Any copyright to this work is released to the Public Domain.
+In case this is not possible, this work is also
+licensed under the Unlicense: https://unlicense.org/
+
+ */
+
+import java.util.Random;
+import com.upokecenter.numbers.*;
+
+  final class BenchmarkData {
+    private BenchmarkData() {
+    }
+
+    /**
+     * Generates a nonnegative arbitrary-precision integer whose magnitude has
+     * exactly the given number of 16-bit words, that is, whose highest bit is
+     * bit number <code>(words * 16) - 1</code>. The same size and seed always
+     * produce the same value, so that benchmark results from different runs
+     * and releases are comparable.
+     * @param words Number of 16-bit words. Must be 1 or greater.
+     * @param seed Seed for the pseudorandom number generator.
+     * @return An arbitrary-precision integer.
+     */
+    static EInteger RandomEInteger(int words, long seed) {
+      if (words < 1) {
+        throw new IllegalArgumentException("words (" + words +
+          ") is less than 1");
+      }
+      Random rand = new Random(seed + ((long)words << 20));
+      // Two bytes per word, plus a zero byte so the value is nonnegative
+      byte[] bytes = new byte[(words * 2) + 1];
+      rand.nextBytes(bytes);
+      bytes[bytes.length - 1] = 0;
+      bytes[bytes.length - 2] |= (byte)0x80;
+      return EInteger.FromBytes(bytes, true);
+    }
+
+    /**
+     * Gets an arithmetic context by the name used in benchmark parameters.
+     * @param name Either "Decimal128", "Binary64" or "Unlimited".
+     * @return The arithmetic context with that name.
+     */
+    static EContext ContextByName(String name) {
+      if (name.equals("Decimal128")) {
+        return EContext.Decimal128;
+      }
+      if (name.equals("Binary64")) {
+        return EContext.Binary64;
+      }
+      if (name.equals("Unlimited")) {
+        return EContext.Unlimited;
+      }
+      throw new IllegalArgumentException("Unknown context: " + name);
+    }
+  }
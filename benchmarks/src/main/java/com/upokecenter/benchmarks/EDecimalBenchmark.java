@@ -0,0 +1,87 @@
+package com.upokecenter.benchmarks;
+/*
+Written by Peter O.
+Any copyright to this work is released to the Public Domain.
+In case this is not possible, this work is also
+licensed under the Unlicense: https://unlicense.org/
+
+ */
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import com.upokecenter.numbers.*;
+
+  /**
+   * Benchmarks for arbitrary-precision decimal arithmetic and conversion. The
+   * <code>words</code> parameter is the size of each operand's significand in
+   * 16-bit words, and <code>context</code> names the arithmetic context
+   * used by the operations that take one. The dividend is the product of the
+   * two operands, so that division is exact under the unlimited context.
+   */
+  @State(Scope.Thread)
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.NANOSECONDS)
+  @Warmup(iterations = 5, time = 1)
+  @Measurement(iterations = 5, time = 1)
+  @Fork(1)
+  public class EDecimalBenchmark {
+    @Param({ "1", "10", "100", "1000", "10000", "100000", "1000000" })
+    public int words;
+
+    @Param({ "Decimal128", "Binary64", "Unlimited" })
+    public String context;
+
+    private EContext ctx;
+    private EDecimal valueA;
+    private EDecimal valueB;
+    private EDecimal valueProduct;
+    private String valueAString;
+
+    @Setup
+    public void Setup() {
+      this.ctx = BenchmarkData.ContextByName(this.context);
+      this.valueA = EDecimal.Create(
+        BenchmarkData.RandomEInteger(this.words, 1),
+        EInteger.FromInt32(-(this.words * 2)));
+      this.valueB = EDecimal.Create(
+        BenchmarkData.RandomEInteger(this.words, 2),
+        EInteger.FromInt32(-3));
+      this.valueProduct = this.valueA.Multiply(this.valueB);
+      this.valueAString = this.valueA.toString();
+    }
+
+    @Benchmark
+    public EDecimal Add() {
+      return this.valueA.Add(this.valueB, this.ctx);
+    }
+
+    @Benchmark
+    public EDecimal Multiply() {
+      return this.valueA.Multiply(this.valueB, this.ctx);
+    }
+
+    @Benchmark
+    public EDecimal Divide() {
+      return this.valueProduct.Divide(this.valueB, this.ctx);
+    }
+
+    @Benchmark
+    public EDecimal RoundToPrecision() {
+      return this.valueA.RoundToPrecision(this.ctx);
+    }
+
+    @Benchmark
+    public EDecimal FromString() {
+      return EDecimal.FromString(this.valueAString, this.ctx);
+    }
+
+    @Benchmark
+    public String ToPlainString() {
+      return this.valueA.ToPlainString();
+    }
+
+    @Benchmark
+    public double ToDouble() {
+      return this.valueA.ToDouble();
+    }
+  }
@@ -0,0 +1,88 @@
+package com.upokecenter.benchmarks;
+/*
+Written by Peter O.
+Any copyright to this work is released to the Public Domain.
+In case this is not possible, this work is also
+licensed under the Unlicense: https://unlicense.org/
+
+ */
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import com.upokecenter.numbers.*;
+
+  /**
+   * Benchmarks for arbitrary-precision binary floating-point arithmetic and
+   * conversion. The <code>words</code> parameter is the size of each
+   * operand's significand in 16-bit words, and <code>context</code> names
+   * the arithmetic context used by the operations that take one. The
+   * dividend is the product of the two operands, so that division is exact
+   * under the unlimited context.
+   */
+  @State(Scope.Thread)
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.NANOSECONDS)
+  @Warmup(iterations = 5, time = 1)
+  @Measurement(iterations = 5, time = 1)
+  @Fork(1)
+  public class EFloatBenchmark {
+    @Param({ "1", "10", "100", "1000", "10000", "100000", "1000000" })
+    public int words;
+
+    @Param({ "Decimal128", "Binary64", "Unlimited" })
+    public String context;
+
+    private EContext ctx;
+    private EFloat valueA;
+    private EFloat valueB;
+    private EFloat valueProduct;
+    private String valueAString;
+
+    @Setup
+    public void Setup() {
+      this.ctx = BenchmarkData.ContextByName(this.context);
+      this.valueA = EFloat.Create(
+        BenchmarkData.RandomEInteger(this.words, 1),
+        EInteger.FromInt32(-(this.words * 8)));
+      this.valueB = EFloat.Create(
+        BenchmarkData.RandomEInteger(this.words, 2),
+        EInteger.FromInt32(-3));
+      this.valueProduct = this.valueA.Multiply(this.valueB);
+      this.valueAString = this.valueA.toString();
+    }
+
+    @Benchmark
+    public EFloat Add() {
+      return this.valueA.Add(this.valueB, this.ctx);
+    }
+
+    @Benchmark
+    public EFloat Multiply() {
+      return this.valueA.Multiply(this.valueB, this.ctx);
+    }
+
+    @Benchmark
+    public EFloat Divide() {
+      return this.valueProduct.Divide(this.valueB, this.ctx);
+    }
+
+    @Benchmark
+    public EFloat RoundToPrecision() {
+      return this.valueA.RoundToPrecision(this.ctx);
+    }
+
+    @Benchmark
+    public EFloat FromString() {
+      return EFloat.FromString(this.valueAString, this.ctx);
+    }
+
+    @Benchmark
+    public String ToShortestString() {
+      return this.valueA.ToShortestString(this.ctx);
+    }
+
+    @Benchmark
+    public double ToDouble() {
+      return this.valueA.ToDouble();
+    }
+  }
@@ -0,0 +1,78 @@
+package com.upokecenter.benchmarks;
+/*
+Written by Peter O.
+Any copyright to this work is released to the Public Domain.
+In case this is not possible, this work is also
+licensed under the Unlicense: https://unlicense.org/
+
+ */
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import com.upokecenter.numbers.*;
+
+  /**
+   * Benchmarks for arbitrary-precision integer arithmetic and conversion. The
+   * <code>words</code> parameter is the size of each operand in 16-bit
+   * words; the divisor in the division benchmarks is half that size.
+   */
+  @State(Scope.Thread)
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.NANOSECONDS)
+  @Warmup(iterations = 5, time = 1)
+  @Measurement(iterations = 5, time = 1)
+  @Fork(1)
+  public class EIntegerBenchmark {
+    @Param({ "1", "10", "100", "1000", "10000", "100000", "1000000" })
+    public int words;
+
+    private EInteger valueA;
+    private EInteger valueB;
+    private EInteger valueDivisor;
+    private String valueAString;
+
+    @Setup
+    public void Setup() {
+      this.valueA = BenchmarkData.RandomEInteger(this.words, 1);
+      this.valueB = BenchmarkData.RandomEInteger(this.words, 2);
+      this.valueDivisor = BenchmarkData.RandomEInteger(
+        Math.max(1, this.words / 2),
+        3);
+      this.valueAString = this.valueA.toString();
+    }
+
+    @Benchmark
+    public EInteger Multiply() {
+      return this.valueA.Multiply(this.valueB);
+    }
+
+    @Benchmark
+    public EInteger Square() {
+      return this.valueA.Multiply(this.valueA);
+    }
+
+    @Benchmark
+    public EInteger Divide() {
+      return this.valueA.Divide(this.valueDivisor);
+    }
+
+    @Benchmark
+    public EInteger[] DivRem() {
+      return this.valueA.DivRem(this.valueDivisor);
+    }
+
+    @Benchmark
+    public EInteger Gcd() {
+      return this.valueA.Gcd(this.valueB);
+    }
+
+    @Benchmark
+    public String ToRadixString() {
+      return this.valueA.ToRadixString(10);
+    }
+
+    @Benchmark
+    public EInteger FromString() {
+      return EInteger.FromString(this.valueAString);
+    }
+  }
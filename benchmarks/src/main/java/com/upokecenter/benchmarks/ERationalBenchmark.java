@@ -0,0 +1,76 @@
+package com.upokecenter.benchmarks;
+/*
+Written by Peter O.
+Any copyright to this work is released to the Public Domain.
+In case this is not possible, this work is also
+licensed under the Unlicense: https://unlicense.org/
+
+ */
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import com.upokecenter.numbers.*;
+
+  /**
+   * Benchmarks for arbitrary-precision rational number arithmetic and
+   * conversion. The <code>words</code> parameter is the size of each
+   * operand's numerator and denominator in 16-bit words. Rational arithmetic
+   * is exact, so <code>context</code> is used only when converting to a
+   * decimal number; the unlimited context is omitted because most of these
+   * quotients have no terminating decimal expansion.
+   */
+  @State(Scope.Thread)
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.NANOSECONDS)
+  @Warmup(iterations = 5, time = 1)
+  @Measurement(iterations = 5, time = 1)
+  @Fork(1)
+  public class ERationalBenchmark {
+    @Param({ "1", "10", "100", "1000", "10000", "100000", "1000000" })
+    public int words;
+
+    @Param({ "Decimal128", "Binary64" })
+    public String context;
+
+    private EContext ctx;
+    private ERational valueA;
+    private ERational valueB;
+    private String valueAString;
+
+    @Setup
+    public void Setup() {
+      this.ctx = BenchmarkData.ContextByName(this.context);
+      this.valueA = ERational.Create(
+        BenchmarkData.RandomEInteger(this.words, 1),
+        BenchmarkData.RandomEInteger(this.words, 2));
+      this.valueB = ERational.Create(
+        BenchmarkData.RandomEInteger(this.words, 3),
+        BenchmarkData.RandomEInteger(this.words, 4));
+      this.valueAString = this.valueA.toString();
+    }
+
+    @Benchmark
+    public ERational Add() {
+      return this.valueA.Add(this.valueB);
+    }
+
+    @Benchmark
+    public ERational Multiply() {
+      return this.valueA.Multiply(this.valueB);
+    }
+
+    @Benchmark
+    public ERational Divide() {
+      return this.valueA.Divide(this.valueB);
+    }
+
+    @Benchmark
+    public ERational FromString() {
+      return ERational.FromString(this.valueAString);
+    }
+
+    @Benchmark
+    public EDecimal ToEDecimal() {
+      return this.valueA.ToEDecimal(this.ctx);
+    }
+  }
@@ -0,0 +1,72 @@
+package com.upokecenter.numbers;
+/*
+Written by Peter O.
+Any copyright to this work is released to the Public Domain.
+In case this is not possible, this work is also
+licensed under the Unlicense: https://unlicense.org/
+
+ */
+
+import java.nio.ByteBuffer;
+
+  // Presents the bytes of a byte buffer from its position to its limit as
+  // a sequence of chars, one char per byte, so that the parsers for
+  // CharSequence can read a direct or read-only byte buffer in place.
+  // (Byte buffers with an accessible array are parsed from that array
+  // instead.)  Bytes are read with absolute gets, so the buffer's
+  // position doesn't change.
+  final class ByteBufferChars implements CharSequence {
+    private final ByteBuffer buffer;
+    private final int start;
+    private final int length;
+
+    ByteBufferChars(ByteBuffer buffer) {
+      this(buffer, buffer.position(), buffer.remaining());
+    }
+
+    private ByteBufferChars(ByteBuffer buffer, int start, int length) {
+      this.buffer = buffer;
+      this.start = start;
+      this.length = length;
+    }
+
+    // Returns the index of the buffer's position in its backing array, so
+    // that the byte array parsers can read the array directly, or -1 if
+    // the buffer has no accessible array
+    static int ArrayStart(ByteBuffer buffer) {
+      if (buffer == null) {
+        throw new NullPointerException("buffer");
+      }
+      return buffer.hasArray() ? buffer.arrayOffset() + buffer.position() :
+        -1;
+    }
+
+    public int length() {
+      return this.length;
+    }
+
+    public char charAt(int index) {
+      if (index < 0 || index >= this.length) {
+        throw new IndexOutOfBoundsException("index");
+      }
+      return (char)(this.buffer.get(this.start + index) & 0xff);
+    }
+
+    public CharSequence subSequence(int startIndex, int endIndex) {
+      if (startIndex < 0 || endIndex > this.length || startIndex > endIndex) {
+        throw new IndexOutOfBoundsException("startIndex");
+      }
+      return new ByteBufferChars(
+          this.buffer,
+          this.start + startIndex,
+          endIndex - startIndex);
+    }
+
+    @Override public String toString() {
+      StringBuilder builder = new StringBuilder(this.length);
+      for (int i = 0; i < this.length; ++i) {
+        builder.append(this.charAt(i));
+      }
+      return builder.toString();
+    }
+  }
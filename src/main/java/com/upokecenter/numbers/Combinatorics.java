@@ -0,0 +1,224 @@
+package com.upokecenter.numbers;
+/*
+Written by Peter O.
+Any copyright to this work is released to the Public Domain.
+In case this is not possible, this work is also
+licensed under the Unlicense: https://unlicense.org/
+
+ */
+
+  // Factorials, binomial coefficients, and primorials.  Large values are
+  // found from their prime factorizations: the exponent of each prime
+  // comes from Legendre's formula, and the prime powers are multiplied
+  // bit by bit of the exponents, from the highest bit down, squaring the
+  // result at each step and multiplying it by the product of the primes
+  // whose exponents have that bit set.  Those products are found with
+  // product trees (see ProductTree), so that the multiplications are
+  // balanced and most of the work is done by the fast multiplication
+  // methods.
+  final class Combinatorics {
+    private Combinatorics() {
+    }
+
+    // n! for n from 0 through 20
+    private static final long[] ValueSmallFactorials = {
+      1L, 1L, 2L, 6L, 24L, 120L, 720L, 5040L, 40320L, 362880L,
+      3628800L, 39916800L, 479001600L, 6227020800L, 87178291200L,
+      1307674368000L, 20922789888000L, 355687428096000L,
+      6402373705728000L, 121645100408832000L, 2432902008176640000L,
+    };
+
+    // Greatest odd n for which n!! fits in a 64-bit signed integer
+    private static final int MaxSmallOddDoubleFactorial = 33;
+
+    // Greatest n for which every binomial coefficient C(n, k) can be
+    // found by the multiplicative formula in a 64-bit signed integer
+    // without overflowing
+    private static final int MaxSmallBinomial = 56;
+
+    static EInteger Factorial(int n) {
+      if (n < ValueSmallFactorials.length) {
+        return EInteger.FromInt64(ValueSmallFactorials[n]);
+      }
+      int[] primes = OddPrimes(n);
+      int[] exponents = new int[primes.length];
+      for (int i = 0; i < primes.length; ++i) {
+        exponents[i] = LegendreExponent(n, primes[i]);
+      }
+      return PrimePowerProduct(primes, exponents).ShiftLeft(
+          LegendreExponent(n, 2));
+    }
+
+    static EInteger DoubleFactorial(int n) {
+      if (n <= 0) {
+        // 0!! and (-1)!! are both 1
+        return EInteger.FromInt32(1);
+      }
+      if ((n & 1) == 0) {
+        // (2m)!! = 2^m * m!
+        return Factorial(n >> 1).ShiftLeft(n >> 1);
+      }
+      if (n <= MaxSmallOddDoubleFactorial) {
+        long ret = 1;
+        for (int i = 3; i <= n; i += 2) {
+          ret *= i;
+        }
+        return EInteger.FromInt64(ret);
+      }
+      // (2m+1)!! = (2m+1)! / (2^m * m!), and neither 2^m nor m! has odd
+      // prime factors greater than m
+      int m = n >> 1;
+      int[] primes = OddPrimes(n);
+      int[] exponents = new int[primes.length];
+      for (int i = 0; i < primes.length; ++i) {
+        exponents[i] = LegendreExponent(n, primes[i]) -
+          LegendreExponent(m, primes[i]);
+      }
+      return PrimePowerProduct(primes, exponents);
+    }
+
+    static EInteger Binomial(int n, int k) {
+      if (k < 0 || k > n) {
+        return EInteger.FromInt32(0);
+      }
+      k = Math.min(k, n - k);
+      if (k == 0) {
+        return EInteger.FromInt32(1);
+      }
+      if (n <= MaxSmallBinomial) {
+        long ret = 1;
+        for (int i = 1; i <= k; ++i) {
+          // Exact, since the product of i consecutive integers is
+          // divisible by i!
+          ret = (ret * (n - k + i)) / i;
+        }
+        return EInteger.FromInt64(ret);
+      }
+      if (k < 64 || (long)k * 32 < n) {
+        // Few factors compared to n, so multiply (n-k+1)...n and divide
+        // by k!, rather than find the primes up to n
+        int[] factors = new int[k];
+        for (int i = 0; i < k; ++i) {
+          factors[i] = n - k + 1 + i;
+        }
+        return ProductOfInts(factors, k).Divide(Factorial(k));
+      }
+      int[] primes = OddPrimes(n);
+      int[] exponents = new int[primes.length];
+      for (int i = 0; i < primes.length; ++i) {
+        int p = primes[i];
+        exponents[i] = LegendreExponent(n, p) - LegendreExponent(k, p) -
+          LegendreExponent(n - k, p);
+      }
+      int exponent2 = LegendreExponent(n, 2) - LegendreExponent(k, 2) -
+        LegendreExponent(n - k, 2);
+      return PrimePowerProduct(primes, exponents).ShiftLeft(exponent2);
+    }
+
+    static EInteger Primorial(int n) {
+      if (n < 2) {
+        return EInteger.FromInt32(1);
+      }
+      int[] primes = OddPrimes(n);
+      return ProductOfInts(primes, primes.length).ShiftLeft(1);
+    }
+
+    // Finds the exponent of the prime p in the prime factorization of n!
+    private static int LegendreExponent(int n, int p) {
+      int ret = 0;
+      while (n >= p) {
+        n /= p;
+        ret += n;
+      }
+      return ret;
+    }
+
+    // Finds the product of primes[i]^exponents[i] for each i
+    private static EInteger PrimePowerProduct(int[] primes, int[] exponents) {
+      int maxExponent = 0;
+      for (int exponent : exponents) {
+        maxExponent = Math.max(maxExponent, exponent);
+      }
+      EInteger ret = EInteger.FromInt32(1);
+      int[] selected = new int[primes.length];
+      for (int bit = 31 - Integer.numberOfLeadingZeros(maxExponent); bit >= 0;
+        --bit) {
+        int count = 0;
+        for (int i = 0; i < primes.length; ++i) {
+          if (((exponents[i] >> bit) & 1) != 0) {
+            selected[count++] = primes[i];
+          }
+        }
+        // Squaring goes through Multiply's dedicated squaring methods
+        ret = ret.Multiply(ret);
+        if (count > 0) {
+          ret = ret.Multiply(ProductOfInts(selected, count));
+        }
+      }
+      return ret;
+    }
+
+    // Finds the product of the first 'count' values in the given array,
+    // all of which are positive.  The values are first multiplied
+    // together in groups that fit in 64-bit integers, then the groups
+    // are multiplied in a product tree.
+    private static EInteger ProductOfInts(int[] values, int count) {
+      if (count == 0) {
+        return EInteger.FromInt32(1);
+      }
+      EInteger[] groups = new EInteger[count];
+      int groupCount = 0;
+      long group = 1;
+      for (int i = 0; i < count; ++i) {
+        if (group > Long.MAX_VALUE / values[i]) {
+          groups[groupCount++] = EInteger.FromInt64(group);
+          group = 1;
+        }
+        group *= values[i];
+      }
+      groups[groupCount++] = EInteger.FromInt64(group);
+      if (groupCount < groups.length) {
+        EInteger[] newGroups = new EInteger[groupCount];
+        System.arraycopy(groups, 0, newGroups, 0, groupCount);
+        groups = newGroups;
+      }
+      return EInteger.Product(groups);
+    }
+
+    // Lists the odd primes less than or equal to n, in ascending order,
+    // using a sieve of Eratosthenes over the odd numbers only
+    static int[] OddPrimes(int n) {
+      if (n < 3) {
+        return new int[0];
+      }
+      // Bit i of the sieve is set if 2*i+1 is composite
+      int size = ((n - 1) >> 1) + 1;
+      long[] composite = new long[(size + 63) >> 6];
+      composite[0] |= 1L; // 1 is not prime
+      for (int i = 1; ; ++i) {
+        long p = (i << 1) + 1;
+        if (p * p > n) {
+          break;
+        }
+        if ((composite[i >> 6] & (1L << (i & 63))) == 0) {
+          for (long j = (p * p) >> 1; j < size; j += p) {
+            composite[(int)(j >> 6)] |= 1L << (int)(j & 63);
+          }
+        }
+      }
+      int primeCount = 0;
+      for (int i = 0; i < composite.length; ++i) {
+        int bits = Math.min(64, size - (i << 6));
+        long mask = (bits == 64) ? -1L : ((1L << bits) - 1);
+        primeCount += Long.bitCount(~composite[i] & mask);
+      }
+      int[] primes = new int[primeCount];
+      int index = 0;
+      for (int i = 1; i < size; ++i) {
+        if ((composite[i >> 6] & (1L << (i & 63))) == 0) {
+          primes[index++] = (i << 1) + 1;
+        }
+      }
+      return primes;
+    }
+  }
@@ -24,7 +24,9 @@ licensed under the Unlicense: https://unlicense.org/
    * example, by passing the context to most methods of {@code EDecimal} such as
    * {@code Add}).</p>
    */
-  public final class EContext {
+  public final class EContext implements java.io.Serializable {
+    private static final long serialVersionUID = 1L;
+
     /**
      * Signals that the exponent was adjusted to fit the exponent range.
      */
@@ -184,7 +186,7 @@ licensed under the Unlicense: https://unlicense.org/
     public static final EContext UnlimitedHalfEven =
       EContext.ForPrecision(0).WithRounding(ERounding.HalfEven);
 
-    private EContext(
+    EContext(
       boolean adjustExponent,
       EInteger bigintPrecision,
       boolean clampNormalExponents,
@@ -340,6 +342,13 @@ licensed under the Unlicense: https://unlicense.org/
         return this.hasExponentRange && this.clampNormalExponents;
       }
 
+    // Gets whether exponent clamping was requested, even if it has no
+    // effect because this context has no exponent range; a copy made by
+    // WithExponentRange clamps exponents if this is true
+    boolean IsExponentClampSet() {
+      return this.clampNormalExponents;
+    }
+
     /**
      * Gets the highest exponent possible when a converted number is expressed in
      * scientific notation with one nonzero digit before the radix point. For
@@ -655,6 +664,21 @@ public final void setFlags(int value) {
         return this.getHasFlags() || this.getTraps() != 0;
       }
 
+    // Gets whether this context rounds numbers the same way as 'other':
+    // whether the two have the same precision, exponent range, rounding
+    // mode and other settings, not counting their flags and traps
+    boolean RoundsLike(EContext other) {
+      return this == other || (this.rounding == other.rounding &&
+          this.precisionInBits == other.precisionInBits &&
+          this.hasExponentRange == other.hasExponentRange &&
+          this.clampNormalExponents == other.clampNormalExponents &&
+          this.adjustExponent == other.adjustExponent &&
+          this.simplified == other.simplified &&
+          this.bigintPrecision.equals(other.bigintPrecision) &&
+          this.exponentMin.equals(other.exponentMin) &&
+          this.exponentMax.equals(other.exponentMax));
+    }
+
     /**
      * Copies this EContext and sets the copy's "AdjustExponent" property to the
      * specified value.
@@ -946,6 +970,106 @@ public final void setFlags(int value) {
           this.traps);
     }
 
+    /**
+     * Gets the number of bytes in this context's compact binary encoding, as
+     * returned by the {@code ToEncodedBytes} method.
+     * @return The number of bytes in the encoded form.
+     */
+    public int GetEncodedLength() {
+      return NumberCodec.EncodedLength(this);
+    }
+
+    /**
+     * Converts this context to a compact binary encoding, which stores all of
+     * this context's properties, including its flags. The encoding begins with
+     * a format version, so that encodings from later versions of this library
+     * are rejected rather than misread.
+     * @return A byte array holding the encoded form of this context.
+     */
+    public byte[] ToEncodedBytes() {
+      return NumberCodec.ToBytes(this);
+    }
+
+    /**
+     * Creates an arithmetic context from its compact binary encoding (see
+     * {@code ToEncodedBytes}).
+     * @param bytes A byte array holding exactly one encoded context.
+     * @return An arithmetic context.
+     * @throws NullPointerException The parameter {@code bytes} is null.
+     * @throws IllegalArgumentException The parameter {@code bytes} does not
+     * hold a valid encoded context, or has bytes after the encoded context.
+     */
+    public static EContext FromEncodedBytes(byte[] bytes) {
+      return (EContext)NumberCodec.FromBytes(bytes, NumberCodec.TypeEContext);
+    }
+
+    /**
+     * Writes the compact binary encoding of this context (see {@code
+     * ToEncodedBytes}) to a data output stream.
+     * @param output A data output stream.
+     * @throws NullPointerException The parameter {@code output} is null.
+     * @throws java.io.IOException An I/O error occurred.
+     */
+    public void WriteEncoded(java.io.DataOutput output)
+      throws java.io.IOException {
+      NumberCodec.Write(this, output);
+    }
+
+    /**
+     * Writes the compact binary encoding of this context (see {@code
+     * ToEncodedBytes}) to a byte buffer at its current position, and advances
+     * the position past the encoded context.
+     * @param buffer A byte buffer.
+     * @throws NullPointerException The parameter {@code buffer} is null.
+     * @throws java.nio.BufferOverflowException The buffer has fewer bytes
+     * remaining than the encoded length, in which case nothing is written.
+     */
+    public void WriteEncoded(java.nio.ByteBuffer buffer) {
+      NumberCodec.Write(this, buffer);
+    }
+
+    /**
+     * Reads an arithmetic context in compact binary encoding (see {@code
+     * ToEncodedBytes}) from a data input stream.
+     * @param input A data input stream.
+     * @return An arithmetic context.
+     * @throws NullPointerException The parameter {@code input} is null.
+     * @throws java.io.IOException An I/O error occurred, the stream ended
+     * before the end of the encoded context, or the data is not a valid encoded
+     * context.
+     */
+    public static EContext ReadEncoded(java.io.DataInput input)
+      throws java.io.IOException {
+      return (EContext)NumberCodec.Read(input, NumberCodec.TypeEContext);
+    }
+
+    /**
+     * Reads an arithmetic context in compact binary encoding (see {@code
+     * ToEncodedBytes}) from a byte buffer at its current position, and advances
+     * the position past the encoded context.
+     * @param buffer A byte buffer.
+     * @return An arithmetic context.
+     * @throws NullPointerException The parameter {@code buffer} is null.
+     * @throws java.nio.BufferUnderflowException The buffer ends before the end
+     * of the encoded context, in which case its position is unchanged.
+     * @throws IllegalArgumentException The data is not a valid encoded context,
+     * in which case the buffer's position is unchanged.
+     */
+    public static EContext ReadEncoded(java.nio.ByteBuffer buffer) {
+      return (EContext)NumberCodec.Read(buffer, NumberCodec.TypeEContext);
+    }
+
+    // Serialization writes the compact binary encoding in place of this
+    // object's fields (see NumberCodec.SerialForm)
+    private Object writeReplace() {
+      return new NumberCodec.SerialForm(NumberCodec.TypeEContext, this);
+    }
+
+    private void readObject(java.io.ObjectInputStream stream)
+      throws java.io.InvalidObjectException {
+      throw new java.io.InvalidObjectException("Serialized form required");
+    }
+
     /**
      * Returns this context if it doesn't set traps, or a context without traps and
      * with blank flags if it does, so that the resulting context does not cause
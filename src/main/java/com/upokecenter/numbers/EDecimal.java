@@ -214,7 +214,10 @@ rather than properties
    * first or least significant first.</p>
    */
 
-  public final class EDecimal implements Comparable<EDecimal> {
+  public final class EDecimal implements Comparable<EDecimal>,
+    java.io.Serializable {
+    private static final long serialVersionUID = 1L;
+
     private static final int RepeatDivideThreshold = 10000;
     static final int MaxSafeInt = 214748363;
 
@@ -342,27 +345,136 @@ rather than properties
       1000000000,
     };
 
-    private final FastIntegerFixed unsignedMantissa;
-    private final FastIntegerFixed exponent;
+    static final long[] ValueTenPowersLong = {
+      1L, 10L, 100L, 1000L, 10000L, 100000L,
+      1000000L, 10000000L, 100000000L,
+      1000000000L,
+      10000000000L,
+      100000000000L,
+      1000000000000L,
+      10000000000000L,
+      100000000000000L,
+      1000000000000000L,
+      10000000000000000L,
+      100000000000000000L,
+      1000000000000000000L,
+    };
+
+    // The absolute value of the significand, stored inline in
+    // 'smallMantissa' if it fits in a 64-bit signed integer (in which
+    // case 'largeMantissa' is null), and the exponent, likewise stored
+    // in 'smallExponent' if it fits in a 32-bit signed integer.  Most
+    // numbers thus need no objects other than this one.
+    private final long smallMantissa;
+    private final int smallExponent;
+    private final EInteger largeMantissa;
+    private final EInteger largeExponent;
     private final byte flags;
 
     EDecimal(
       FastIntegerFixed unsignedMantissa,
       FastIntegerFixed exponent,
       byte flags) {
-      this.unsignedMantissa = unsignedMantissa;
-      this.exponent = exponent;
+      if (unsignedMantissa.CanFitInInt64()) {
+        this.smallMantissa = unsignedMantissa.ToInt64();
+        this.largeMantissa = null;
+      } else {
+        this.smallMantissa = 0;
+        this.largeMantissa = unsignedMantissa.ToEInteger();
+      }
+      if (exponent.CanFitInInt32()) {
+        this.smallExponent = exponent.ToInt32();
+        this.largeExponent = null;
+      } else {
+        this.smallExponent = 0;
+        this.largeExponent = exponent.ToEInteger();
+      }
+      this.flags = flags;
+    }
+
+    private EDecimal(long smallMantissa, int smallExponent, byte flags) {
+      this.smallMantissa = smallMantissa;
+      this.smallExponent = smallExponent;
+      this.largeMantissa = null;
+      this.largeExponent = null;
+      this.flags = flags;
+    }
+
+    // Creates a copy of the given number with different flags
+    private EDecimal(EDecimal value, byte flags) {
+      this.smallMantissa = value.smallMantissa;
+      this.smallExponent = value.smallExponent;
+      this.largeMantissa = value.largeMantissa;
+      this.largeExponent = value.largeExponent;
       this.flags = flags;
     }
 
+    private FastIntegerFixed GetUnsignedMantissaFixed() {
+      return (this.largeMantissa == null) ?
+        FastIntegerFixed.FromInt64(this.smallMantissa) :
+        FastIntegerFixed.FromBig(this.largeMantissa);
+    }
+
+    private FastIntegerFixed GetExponentFixed() {
+      return (this.largeExponent == null) ?
+        FastIntegerFixed.FromInt32(this.smallExponent) :
+        FastIntegerFixed.FromBig(this.largeExponent);
+    }
+
+    private boolean IsMantissaZero() {
+      return this.largeMantissa == null && this.smallMantissa == 0;
+    }
+
+    private String UnsignedMantissaToString() {
+      return (this.largeMantissa == null) ?
+        Long.toString(this.smallMantissa) : this.largeMantissa.toString();
+    }
+
+    private boolean CanMantissaFitInInt32() {
+      return this.largeMantissa == null &&
+        this.smallMantissa <= Integer.MAX_VALUE;
+    }
+
+    // Returns whether this object is finite and its significand and
+    // exponent are stored inline
+    private boolean IsInlineFinite() {
+      return this.largeMantissa == null && this.largeExponent == null &&
+        (this.flags & BigNumberFlags.FlagSpecial) == 0;
+    }
+
+    // Multiplies a nonnegative 64-bit integer by 10^power, where power is
+    // 0 or greater, or returns -1 if the result doesn't fit in a 64-bit
+    // signed integer
+    private static long ScaleByPowerOfTenInline(long value, long power) {
+      if (power == 0 || value == 0) {
+        return value;
+      }
+      if (power >= ValueTenPowersLong.length) {
+        return -1;
+      }
+      // 10^power is less than 2^powerBits; the check is conservative but
+      // avoids a division
+      int powerBits = (((int)power * 3402) >> 10) + 1;
+      return ((value >> (63 - powerBits)) == 0) ?
+        value * ValueTenPowersLong[(int)power] : -1;
+    }
+
+    // Compares this object's exponent with a 32-bit signed integer
+    private int CompareExponentToInt(int value) {
+      if (this.largeExponent != null) {
+        return this.largeExponent.signum();
+      }
+      return (this.smallExponent == value) ? 0 :
+        ((this.smallExponent < value) ? -1 : 1);
+    }
+
     /**
      * Creates a copy of this arbitrary-precision binary number.
      * @return An arbitrary-precision decimal floating-point number.
      */
     public EDecimal Copy() {
       return new EDecimal(
-          this.unsignedMantissa.Copy(),
-          this.exponent.Copy(),
+          this,
           this.flags);
     }
 
@@ -373,7 +485,8 @@ rather than properties
      * the exponent is positive or zero.
      */
     public final EInteger getExponent() {
-        return this.exponent.ToEInteger();
+        return (this.largeExponent == null) ?
+          EInteger.FromInt32(this.smallExponent) : this.largeExponent;
       }
 
     /**
@@ -404,7 +517,7 @@ rather than properties
      */
     public final boolean isZero() {
         return ((this.flags & BigNumberFlags.FlagSpecial) == 0) &&
-          this.unsignedMantissa.isValueZero();
+          this.IsMantissaZero();
       }
 
     /**
@@ -416,11 +529,11 @@ rather than properties
       if (!this.isFinite()) {
         return false;
       }
-      if (this.isZero() || this.exponent.CompareToInt(0) >= 0) {
+      if (this.isZero() || this.CompareExponentToInt(0) >= 0) {
         return true;
       } else {
         EDecimal r = this.Reduce(null);
-        return r.exponent.CompareToInt(0) >= 0;
+        return r.CompareExponentToInt(0) >= 0;
       }
     }
 
@@ -432,8 +545,8 @@ rather than properties
      * value is negative (including a negative NaN).
      */
     public final EInteger getMantissa() {
-        return this.isNegative() ? this.unsignedMantissa.ToEInteger().Negate() :
-          this.unsignedMantissa.ToEInteger();
+        return this.isNegative() ? this.getUnsignedMantissa().Negate() :
+          this.getUnsignedMantissa();
       }
 
     /**
@@ -442,7 +555,7 @@ rather than properties
      */
     public final int signum() {
         return (((this.flags & BigNumberFlags.FlagSpecial) == 0) &&
-          this.unsignedMantissa.isValueZero()) ? 0 : (((this.flags &
+          this.IsMantissaZero()) ? 0 : (((this.flags &
           BigNumberFlags.FlagNegative) != 0) ? -1 : 1);
       }
 
@@ -453,12 +566,13 @@ rather than properties
      * @return The absolute value of this object's unscaled value.
      */
     public final EInteger getUnsignedMantissa() {
-        return this.unsignedMantissa.ToEInteger();
+        return (this.largeMantissa == null) ?
+          EInteger.FromInt64(this.smallMantissa) : this.largeMantissa;
       }
 
     static EDecimal ChangeExponent(EDecimal ret, EInteger exponent) {
       return new EDecimal(
-          ret.unsignedMantissa,
+          ret.GetUnsignedMantissaFixed(),
           FastIntegerFixed.FromBig(exponent),
           (byte)ret.flags);
     }
@@ -474,29 +588,13 @@ rather than properties
         mantissaSmall <= CacheLast) {
         return Cache[mantissaSmall - CacheFirst];
       }
-      if (mantissaSmall < 0) {
-        if (mantissaSmall == Integer.MIN_VALUE) {
-          FastIntegerFixed fi = FastIntegerFixed.FromInt64(Integer.MIN_VALUE);
-          return new EDecimal(
-              fi.Negate(),
-              FastIntegerFixed.FromInt32(exponentSmall),
-              (byte)BigNumberFlags.FlagNegative);
-        }
-        return new EDecimal(
-            FastIntegerFixed.FromInt32(-mantissaSmall),
-            FastIntegerFixed.FromInt32(exponentSmall),
-            (byte)BigNumberFlags.FlagNegative);
-      } else if (mantissaSmall == 0) {
-        return new EDecimal(
-            FastIntegerFixed.Zero,
-            FastIntegerFixed.FromInt32(exponentSmall),
-            (byte)0);
-      } else {
-        return new EDecimal(
-            FastIntegerFixed.FromInt32(mantissaSmall),
-            FastIntegerFixed.FromInt32(exponentSmall),
-            (byte)0);
-      }
+      return (mantissaSmall < 0) ? new EDecimal(
+          -(long)mantissaSmall,
+          exponentSmall,
+          (byte)BigNumberFlags.FlagNegative) : new EDecimal(
+          mantissaSmall,
+          exponentSmall,
+          (byte)0);
     }
 
     /**
@@ -602,6 +700,15 @@ rather than properties
       if (mantissaLong >= Integer.MIN_VALUE && mantissaLong <= Integer.MAX_VALUE &&
         exponentLong >= Integer.MIN_VALUE && exponentLong <= Integer.MAX_VALUE) {
         return Create((int)mantissaLong, (int)exponentLong);
+      } else if (mantissaLong != Long.MIN_VALUE &&
+        exponentLong == (int)exponentLong) {
+        return (mantissaLong < 0) ? new EDecimal(
+            -mantissaLong,
+            (int)exponentLong,
+            (byte)BigNumberFlags.FlagNegative) : new EDecimal(
+            mantissaLong,
+            (int)exponentLong,
+            (byte)0);
       } else if (mantissaLong == Long.MIN_VALUE) {
         FastIntegerFixed fi = FastIntegerFixed.FromInt64(mantissaLong);
         return new EDecimal(
@@ -679,8 +786,7 @@ rather than properties
         newFlags |= signaling ? BigNumberFlags.FlagSignalingNaN :
           BigNumberFlags.FlagQuietNaN;
         return new EDecimal(
-            ef.unsignedMantissa,
-            ef.exponent,
+            ef,
             (byte)newFlags);
       }
       flags |= signaling ? BigNumberFlags.FlagSignalingNaN :
@@ -905,20 +1011,13 @@ rather than properties
       if (valueSmaller >= CacheFirst && valueSmaller <= CacheLast) {
         return Cache[valueSmaller - CacheFirst];
       }
-      if (valueSmaller == Integer.MIN_VALUE) {
-        return Create(EInteger.FromInt32(valueSmaller), EInteger.FromInt32(0));
-      }
-      if (valueSmaller < 0) {
-        return new EDecimal(
-            FastIntegerFixed.FromInt32(valueSmaller).Negate(),
-            FastIntegerFixed.Zero,
-            (byte)BigNumberFlags.FlagNegative);
-      } else {
-        return new EDecimal(
-            FastIntegerFixed.FromInt32(valueSmaller),
-            FastIntegerFixed.Zero,
-            (byte)0);
-      }
+      return (valueSmaller < 0) ? new EDecimal(
+          -(long)valueSmaller,
+          0,
+          (byte)BigNumberFlags.FlagNegative) : new EDecimal(
+          valueSmaller,
+          0,
+          (byte)0);
     }
 
     /**
@@ -948,18 +1047,14 @@ rather than properties
       if (valueSmall >= CacheFirst && valueSmall <= CacheLast) {
         return Cache[(int)(valueSmall - CacheFirst)];
       }
-      if (valueSmall > Integer.MIN_VALUE && valueSmall <= Integer.MAX_VALUE) {
-        if (valueSmall < 0) {
-          return new EDecimal(
-              FastIntegerFixed.FromInt32((int)valueSmall).Negate(),
-              FastIntegerFixed.Zero,
-              (byte)BigNumberFlags.FlagNegative);
-        } else {
-          return new EDecimal(
-              FastIntegerFixed.FromInt32((int)valueSmall),
-              FastIntegerFixed.Zero,
-              (byte)0);
-        }
+      if (valueSmall != Long.MIN_VALUE) {
+        return (valueSmall < 0) ? new EDecimal(
+            -valueSmall,
+            0,
+            (byte)BigNumberFlags.FlagNegative) : new EDecimal(
+            valueSmall,
+            0,
+            (byte)0);
       }
       EInteger bigint = EInteger.FromInt64(valueSmall);
       return EDecimal.Create(bigint, EInteger.FromInt32(0));
@@ -1526,6 +1621,155 @@ rather than properties
       return EDecimalTextString.FromString(str, offset, length, ctx, true);
     }
 
+    /**
+     * Creates an arbitrary-precision decimal number from a sequence of
+     * characters, such as a {@code StringBuilder} or a {@code
+     * java.nio.CharBuffer}, that represents a number, reading the characters in
+     * place. See {@code FromString(String, int, int, EContext)} for more
+     * information.
+     * @param cs A sequence of characters that represents a number.
+     * @return An arbitrary-precision decimal number with the same value as the
+     * specified sequence.
+     * @throws NumberFormatException The parameter {@code cs} is not a correctly
+     * formatted number.
+     * @throws NullPointerException The parameter {@code cs} is null.
+     */
+    public static EDecimal FromString(CharSequence cs) {
+      return FromString(cs, 0, cs == null ? 0 : cs.length(), null);
+    }
+
+    /**
+     * Creates an arbitrary-precision decimal number from a sequence of
+     * characters, such as a {@code StringBuilder} or a {@code
+     * java.nio.CharBuffer}, that represents a number, reading the characters in
+     * place. See {@code FromString(String, int, int, EContext)} for more
+     * information.
+     * @param cs A sequence of characters that represents a number.
+     * @param ctx An arithmetic context to control the precision, rounding, and
+     * exponent range of the result, as in {@code FromString(String, int, int,
+     * EContext)}. Can be null.
+     * @return An arbitrary-precision decimal number with the same value as the
+     * specified sequence.
+     * @throws NumberFormatException The parameter {@code cs} is not a correctly
+     * formatted number.
+     * @throws NullPointerException The parameter {@code cs} is null.
+     */
+    public static EDecimal FromString(CharSequence cs, EContext ctx) {
+      return FromString(cs, 0, cs == null ? 0 : cs.length(), ctx);
+    }
+
+    /**
+     * Creates an arbitrary-precision decimal number from a portion of a
+     * sequence of characters that represents a number, reading the characters
+     * in place. See {@code FromString(String, int, int, EContext)} for more
+     * information.
+     * @param cs A sequence of characters, a portion of which represents a
+     * number.
+     * @param offset An index starting at 0 showing where the desired portion of
+     * {@code cs} begins.
+     * @param length The length of the desired portion of {@code cs}.
+     * @return An arbitrary-precision decimal number with the same value as the
+     * desired portion.
+     * @throws NumberFormatException The desired portion is not a correctly
+     * formatted number.
+     * @throws NullPointerException The parameter {@code cs} is null.
+     * @throws IllegalArgumentException Either {@code offset} or {@code length}
+     * is less than 0 or greater than {@code cs} 's length, or {@code cs} 's
+     * length minus {@code offset} is less than {@code length}.
+     */
+    public static EDecimal FromString(
+      CharSequence cs,
+      int offset,
+      int length) {
+      return FromString(cs, offset, length, null);
+    }
+
+    /**
+     * Creates an arbitrary-precision decimal number from a portion of a
+     * sequence of characters that represents a number, reading the characters
+     * in place. See {@code FromString(String, int, int, EContext)} for more
+     * information.
+     * @param cs A sequence of characters, a portion of which represents a
+     * number.
+     * @param offset An index starting at 0 showing where the desired portion of
+     * {@code cs} begins.
+     * @param length The length of the desired portion of {@code cs}.
+     * @param ctx An arithmetic context to control the precision, rounding, and
+     * exponent range of the result, as in {@code FromString(String, int, int,
+     * EContext)}. Can be null.
+     * @return An arbitrary-precision decimal number with the same value as the
+     * desired portion.
+     * @throws NumberFormatException The desired portion is not a correctly
+     * formatted number.
+     * @throws NullPointerException The parameter {@code cs} is null.
+     * @throws IllegalArgumentException Either {@code offset} or {@code length}
+     * is less than 0 or greater than {@code cs} 's length, or {@code cs} 's
+     * length minus {@code offset} is less than {@code length}.
+     */
+    public static EDecimal FromString(
+      CharSequence cs,
+      int offset,
+      int length,
+      EContext ctx) {
+      if (cs == null) {
+        throw new NullPointerException("cs");
+      }
+      return EDecimalTextString.FromString(cs, offset, length, ctx, true);
+    }
+
+    /**
+     * Creates an arbitrary-precision decimal number from the bytes of a byte
+     * buffer from its position to its limit, which represent a number in the
+     * form described in {@code FromString(String, int, int, EContext)} with one
+     * byte per character. The bytes are read in place, whether the buffer is
+     * direct or not, and the buffer's position is unchanged.
+     * @param buffer A byte buffer.
+     * @return An arbitrary-precision decimal number with the same value as
+     * given in the buffer.
+     * @throws NumberFormatException The bytes are not a correctly formatted
+     * number.
+     * @throws NullPointerException The parameter {@code buffer} is null.
+     */
+    public static EDecimal FromString(java.nio.ByteBuffer buffer) {
+      return FromString(buffer, null);
+    }
+
+    /**
+     * Creates an arbitrary-precision decimal number from the bytes of a byte
+     * buffer from its position to its limit, which represent a number in the
+     * form described in {@code FromString(String, int, int, EContext)} with one
+     * byte per character. The bytes are read in place, whether the buffer is
+     * direct or not, and the buffer's position is unchanged.
+     * @param buffer A byte buffer.
+     * @param ctx An arithmetic context to control the precision, rounding, and
+     * exponent range of the result, as in {@code FromString(String, int, int,
+     * EContext)}. Can be null.
+     * @return An arbitrary-precision decimal number with the same value as
+     * given in the buffer.
+     * @throws NumberFormatException The bytes are not a correctly formatted
+     * number.
+     * @throws NullPointerException The parameter {@code buffer} is null.
+     */
+    public static EDecimal FromString(
+      java.nio.ByteBuffer buffer,
+      EContext ctx) {
+      int start = ByteBufferChars.ArrayStart(buffer);
+      if (start >= 0) {
+        return EDecimalByteArrayString.FromString(
+            buffer.array(),
+            start,
+            buffer.remaining(),
+            ctx,
+            true);
+      }
+      return EDecimalTextString.FromString(
+          new ByteBufferChars(buffer),
+          0,
+          buffer.remaining(),
+          ctx,
+          true);
+    }
+
     static EDecimal SignalUnderflow(EContext ec, boolean negative, boolean
       zeroSignificand) {
       EInteger eTiny = ec.getEMin().Subtract(ec.getPrecision().Subtract(1));
@@ -1854,8 +2098,7 @@ rather than properties
     public EDecimal Abs() {
       if (this.isNegative()) {
         EDecimal er = new EDecimal(
-          this.unsignedMantissa,
-          this.exponent,
+          this,
           (byte)(this.flags & ~BigNumberFlags.FlagNegative));
         return er;
       }
@@ -1911,13 +2154,42 @@ rather than properties
      * number is not-a-number (NaN), returns NaN.
      */
     public EDecimal Add(EDecimal otherValue) {
+      if (otherValue != null && this.IsInlineFinite() &&
+        otherValue.IsInlineFinite()) {
+        // Bring both significands to the lower exponent, and add them as
+        // 64-bit integers if neither they nor their sum overflow.  A zero
+        // sum is left to the general case, which decides its sign.
+        int exp = Math.min(this.smallExponent, otherValue.smallExponent);
+        long longA = ScaleByPowerOfTenInline(
+            this.smallMantissa,
+            (long)this.smallExponent - exp);
+        long longB = ScaleByPowerOfTenInline(
+            otherValue.smallMantissa,
+            (long)otherValue.smallExponent - exp);
+        if (longA >= 0 && longB >= 0) {
+          longA = this.isNegative() ? -longA : longA;
+          longB = otherValue.isNegative() ? -longB : longB;
+          long sum = longA + longB;
+          if (((longA ^ sum) & (longB ^ sum)) >= 0 && sum != 0 &&
+            sum != Long.MIN_VALUE) {
+            return (sum < 0) ? new EDecimal(
+                -sum,
+                exp,
+                (byte)BigNumberFlags.FlagNegative) : new EDecimal(
+                sum,
+                exp,
+                (byte)0);
+          }
+        }
+      }
       if (this.isFinite() && otherValue != null && otherValue.isFinite() &&
         ((this.flags | otherValue.flags) & BigNumberFlags.FlagNegative) == 0 &&
-        this.exponent.compareTo(otherValue.exponent) == 0) {
+        this.largeExponent == null && otherValue.largeExponent == null &&
+        this.smallExponent == otherValue.smallExponent) {
         FastIntegerFixed result = FastIntegerFixed.Add(
-            this.unsignedMantissa,
-            otherValue.unsignedMantissa);
-        return new EDecimal(result, this.exponent, (byte)0);
+            this.GetUnsignedMantissaFixed(),
+            otherValue.GetUnsignedMantissaFixed());
+        return new EDecimal(result, this.GetExponentFixed(), (byte)0);
       }
       return this.Add(otherValue, EContext.UnlimitedHalfEven);
     }
@@ -2038,6 +2310,28 @@ rather than properties
      * returns a positive number if.
      */
     public int CompareToValue(EDecimal other) {
+      if (other != null && this.IsInlineFinite() && other.IsInlineFinite()) {
+        int signA = this.signum();
+        int signB = other.signum();
+        if (signA != signB) {
+          return (signA < signB) ? -1 : 1;
+        }
+        if (signA == 0) {
+          return 0;
+        }
+        // Bring both significands to the lower exponent, if they fit
+        int exp = Math.min(this.smallExponent, other.smallExponent);
+        long longA = ScaleByPowerOfTenInline(
+            this.smallMantissa,
+            (long)this.smallExponent - exp);
+        long longB = ScaleByPowerOfTenInline(
+            other.smallMantissa,
+            (long)other.smallExponent - exp);
+        if (longA >= 0 && longB >= 0) {
+          int cmp = (longA == longB) ? 0 : ((longA < longB) ? -1 : 1);
+          return (signA < 0) ? -cmp : cmp;
+        }
+      }
       return ExtendedMathValue.compareTo(this, other);
     }
 
@@ -2307,16 +2601,16 @@ rather than properties
         return -1;
       }
       if (valueIThis >= 2) {
-        cmp = this.unsignedMantissa.compareTo(
-            other.unsignedMantissa);
+        cmp = this.GetUnsignedMantissaFixed().compareTo(
+            other.GetUnsignedMantissaFixed());
         return cmp;
       } else if (valueIThis == 1) {
         return 0;
       } else {
         cmp = this.Abs().compareTo(other.Abs());
         if (cmp == 0) {
-          cmp = this.exponent.compareTo(
-              other.exponent);
+          cmp = this.GetExponentFixed().compareTo(
+              other.GetExponentFixed());
           return cmp;
         }
         return cmp;
@@ -2444,16 +2738,16 @@ rather than properties
         return neg1 ? 1 : -1;
       }
       if (valueIThis >= 2) {
-        cmp = this.unsignedMantissa.compareTo(
-            other.unsignedMantissa);
+        cmp = this.GetUnsignedMantissaFixed().compareTo(
+            other.GetUnsignedMantissaFixed());
         return neg1 ? -cmp : cmp;
       } else if (valueIThis == 1) {
         return 0;
       } else {
         cmp = this.compareTo(other);
         if (cmp == 0) {
-          cmp = this.exponent.compareTo(
-              other.exponent);
+          cmp = this.GetExponentFixed().compareTo(
+              other.GetExponentFixed());
           return neg1 ? -cmp : cmp;
         }
         return cmp;
@@ -2949,7 +3243,7 @@ rather than properties
       ERounding rounding) {
       return this.DivideToExponent(
           divisor,
-          this.exponent.ToEInteger(),
+          this.getExponent(),
           EContext.ForRounding(rounding));
     }
 
@@ -3085,8 +3379,10 @@ rather than properties
     @Override public int hashCode() {
       int valueHashCode = 964453631;
       {
-        valueHashCode += 964453723 * this.exponent.hashCode();
-        valueHashCode += 964453939 * this.unsignedMantissa.hashCode();
+        valueHashCode += 964453723 * ((this.largeExponent == null) ?
+          this.smallExponent : this.largeExponent.hashCode());
+        valueHashCode += 964453939 * ((this.largeMantissa == null) ?
+          Long.hashCode(this.smallMantissa) : this.largeMantissa.hashCode());
         valueHashCode += 964453967 * this.flags;
       }
       return valueHashCode;
@@ -3483,7 +3779,7 @@ rather than properties
       EInteger bigExp = this.getExponent();
       bigExp = bigExp.Add(bigPlaces);
       if (bigExp.signum() > 0) {
-        EInteger mant = this.unsignedMantissa.ToEInteger();
+        EInteger mant = this.getUnsignedMantissa();
         EInteger bigPower = NumberUtility.FindPowerOfTenFromBig(bigExp);
         mant = mant.Multiply(bigPower);
         return CreateWithFlags(
@@ -3492,7 +3788,7 @@ rather than properties
             this.flags).RoundToPrecision(ctx);
       }
       return CreateWithFlags(
-          this.unsignedMantissa,
+          this.GetUnsignedMantissaFixed(),
           FastIntegerFixed.FromBig(bigExp),
           this.flags).RoundToPrecision(ctx);
     }
@@ -3515,33 +3811,26 @@ rather than properties
       }
       if (this.isFinite() && otherValue.isFinite()) {
         int newflags = otherValue.flags ^ this.flags;
-        if (this.unsignedMantissa.CanFitInInt32() &&
-          otherValue.unsignedMantissa.CanFitInInt32()) {
-          int integerA = this.unsignedMantissa.ToInt32();
-          int integerB = otherValue.unsignedMantissa.ToInt32();
-          long longA = ((long)integerA) * ((long)integerB);
-          FastIntegerFixed exp = FastIntegerFixed.Add(
-              this.exponent,
-              otherValue.exponent);
-          if ((longA >> 31) == 0) {
-            return new EDecimal(
-                FastIntegerFixed.FromInt32((int)longA),
-                exp,
-                (byte)newflags);
-          } else {
-            return new EDecimal(
-                FastIntegerFixed.FromBig(EInteger.FromInt64(longA)),
-                exp,
-                (byte)newflags);
+        if (this.largeMantissa == null && otherValue.largeMantissa == null &&
+          this.largeExponent == null && otherValue.largeExponent == null) {
+          // Both significands are nonnegative
+          long longA = this.smallMantissa;
+          long longB = otherValue.smallMantissa;
+          long product = longA * longB;
+          long exp = (long)this.smallExponent + otherValue.smallExponent;
+          if (exp == (int)exp && (((longA | longB) >> 31) == 0 ||
+            longB == 0 || product / longB == longA)) {
+            return new EDecimal(product, (int)exp, (byte)newflags);
           }
-        } else {
-          EInteger eintA = this.unsignedMantissa.ToEInteger().Multiply(
-            otherValue.unsignedMantissa.ToEInteger());
-          return new EDecimal(
-              FastIntegerFixed.FromBig(eintA),
-              FastIntegerFixed.Add(this.exponent, otherValue.exponent),
-              (byte)newflags);
         }
+        EInteger eintA = this.getUnsignedMantissa().Multiply(
+          otherValue.getUnsignedMantissa());
+        return new EDecimal(
+            FastIntegerFixed.FromBig(eintA),
+            FastIntegerFixed.Add(
+              this.GetExponentFixed(),
+              otherValue.GetExponentFixed()),
+            (byte)newflags);
       }
       return this.Multiply(otherValue, EContext.UnlimitedHalfEven);
     }
@@ -3755,10 +4044,7 @@ rather than properties
       EDecimal negated = subtrahend;
       if ((subtrahend.flags & BigNumberFlags.FlagNaN) == 0) {
         int newflags = subtrahend.flags ^ BigNumberFlags.FlagNegative;
-        negated = CreateWithFlags(
-            subtrahend.unsignedMantissa,
-            subtrahend.exponent,
-            newflags);
+        negated = new EDecimal(subtrahend, (byte)newflags);
       }
       return GetMathValue(ctx)
         .MultiplyAndAdd(this, op, negated, ctx);
@@ -3774,8 +4060,7 @@ rather than properties
      */
     public EDecimal Negate() {
       return new EDecimal(
-          this.unsignedMantissa,
-          this.exponent,
+          this,
           (byte)(this.flags ^ BigNumberFlags.FlagNegative));
     }
 
@@ -3936,7 +4221,7 @@ rather than properties
         return EInteger.FromInt32(0);
       }
       return this.isZero() ? EInteger.FromInt32(1) :
-        this.unsignedMantissa.ToEInteger().GetDigitCountAsEInteger();
+        this.getUnsignedMantissa().GetDigitCountAsEInteger();
     }
 
     /**
@@ -4698,7 +4983,7 @@ rather than properties
       EInteger bigExp = this.getExponent();
       bigExp = bigExp.Add(bigPlaces);
       return CreateWithFlags(
-          this.unsignedMantissa,
+          this.GetUnsignedMantissaFixed(),
           FastIntegerFixed.FromBig(bigExp),
           this.flags).RoundToPrecision(ctx);
     }
@@ -4785,10 +5070,7 @@ rather than properties
       EDecimal negated = otherValue;
       if ((otherValue.flags & BigNumberFlags.FlagNaN) == 0) {
         int newflags = otherValue.flags ^ BigNumberFlags.FlagNegative;
-        negated = CreateWithFlags(
-            otherValue.unsignedMantissa,
-            otherValue.exponent,
-            newflags);
+        negated = new EDecimal(otherValue, (byte)newflags);
       }
       return this.Add(negated, ctx);
     }
@@ -4869,19 +5151,19 @@ rather than properties
         return 0;
       }
       if (this.isFinite()) {
-        if (this.exponent.CompareToInt(0) == 0 &&
-          this.unsignedMantissa.CanFitInInt64()) {
-          long v = this.unsignedMantissa.ToInt64();
+        if (this.CompareExponentToInt(0) == 0 &&
+          this.largeMantissa == null) {
+          long v = this.smallMantissa;
           if (v < (1L << 53)) {
             // This integer fits exactly in double
             return IntegerToDoubleBits(v, 0, this.isNegative());
           }
         }
-        if (this.exponent.CompareToInt(0) < 0 &&
-          this.exponent.CompareToInt(-8) >= 0 &&
-          this.unsignedMantissa.CanFitInInt32()) {
-          int m = this.unsignedMantissa.ToInt32();
-          int iex = -this.exponent.ToInt32();
+        if (this.CompareExponentToInt(0) < 0 &&
+          this.CompareExponentToInt(-8) >= 0 &&
+          this.CanMantissaFitInInt32()) {
+          int m = (int)this.smallMantissa;
+          int iex = -this.smallExponent;
           int vtp = ValueTenPowers[iex];
           if (m != Integer.MIN_VALUE) {
             if (m % vtp == 0) {
@@ -4952,7 +5234,16 @@ rather than properties
             }
           }
         }
-        if (this.exponent.CompareToInt(309) > 0) {
+        if (this.IsInlineFinite()) {
+          long bits = NearestBinary.ToDoubleBits(
+              this.smallMantissa,
+              this.smallExponent,
+              this.isNegative());
+          if (bits != -1) {
+            return bits;
+          }
+        }
+        if (this.CompareExponentToInt(309) > 0) {
           // Very high exponent, treat as infinity
           return this.isNegative() ? ((long)0xfff0000000000000L) :
             0x7ff0000000000000L;
@@ -5105,21 +5396,21 @@ rather than properties
         return 0;
       }
       if (this.isFinite()) {
-        if (this.exponent.CompareToInt(0) == 0 &&
-          this.unsignedMantissa.CanFitInInt32()) {
-          int v = this.unsignedMantissa.ToInt32();
+        if (this.CompareExponentToInt(0) == 0 &&
+          this.CanMantissaFitInInt32()) {
+          int v = (int)this.smallMantissa;
           if (v < (1 << EFloat.Binary16SignifBits)) {
             // This integer fits exactly in float
             return IntegerToHalfBits(v, 0, this.isNegative());
           }
         }
-        if (this.exponent.CompareToInt(0) < 0 &&
-          this.exponent.CompareToInt(-6) >= 0 &&
-          this.unsignedMantissa.CanFitInInt32()) {
+        if (this.CompareExponentToInt(0) < 0 &&
+          this.CompareExponentToInt(-6) >= 0 &&
+          this.CanMantissaFitInInt32()) {
           return this.ToEFloat(EContext.Binary16).ToHalfBits();
           // TODO: Find out what's wrong with the code commented out below
-          /* int m = this.unsignedMantissa.ToInt32();
-          int iex = -this.exponent.ToInt32();
+          /* int m = (int)this.smallMantissa;
+          int iex = -this.smallExponent;
           int vtp = ValueTenPowers[iex];
           if (m >= -(1 << EFloat.Binary16SignifAreaBits) && m < (1 <<
           EFloat.Binary16SignifAreaBits)) {
@@ -5188,7 +5479,7 @@ rather than properties
             }
           }
           */ }
-        if (this.exponent.CompareToInt(39) > 0) {
+        if (this.CompareExponentToInt(39) > 0) {
           // Very high exponent, treat as infinity
           return this.isNegative() ? ((short)(EFloat.Binary16Infinity +
             (1 << (EFloat.Binary16Bits - 1)))) : (short)EFloat.Binary16Infinity;
@@ -5226,19 +5517,19 @@ rather than properties
         return 0;
       }
       if (this.isFinite()) {
-        if (this.exponent.CompareToInt(0) == 0 &&
-          this.unsignedMantissa.CanFitInInt32()) {
-          int v = this.unsignedMantissa.ToInt32();
+        if (this.CompareExponentToInt(0) == 0 &&
+          this.CanMantissaFitInInt32()) {
+          int v = (int)this.smallMantissa;
           if (v < (1 << EFloat.Binary32SignifBits)) {
             // This integer fits exactly in float
             return IntegerToSingleBits(v, 0, this.isNegative());
           }
         }
-        if (this.exponent.CompareToInt(0) < 0 &&
-          this.exponent.CompareToInt(-6) >= 0 &&
-          this.unsignedMantissa.CanFitInInt32()) {
-          int m = this.unsignedMantissa.ToInt32();
-          int iex = -this.exponent.ToInt32();
+        if (this.CompareExponentToInt(0) < 0 &&
+          this.CompareExponentToInt(-6) >= 0 &&
+          this.CanMantissaFitInInt32()) {
+          int m = (int)this.smallMantissa;
+          int iex = -this.smallExponent;
           int vtp = ValueTenPowers[iex];
           if (m >= -(1 << EFloat.Binary32SignifAreaBits) && m < (1 <<
             EFloat.Binary32SignifAreaBits)) {
@@ -5307,7 +5598,16 @@ rather than properties
             }
           }
         }
-        if (this.exponent.CompareToInt(39) > 0) {
+        if (this.IsInlineFinite()) {
+          int bits = NearestBinary.ToSingleBits(
+              this.smallMantissa,
+              this.smallExponent,
+              this.isNegative());
+          if (bits != -1) {
+            return bits;
+          }
+        }
+        if (this.CompareExponentToInt(39) > 0) {
           // Very high exponent, treat as infinity
           return this.isNegative() ? ((int)(EFloat.Binary32Infinity +
             (1 << (EFloat.Binary32Bits - 1)))) : EFloat.Binary32Infinity;
@@ -5359,6 +5659,331 @@ rather than properties
         EDecimal.Create(EInteger.FromInt32(1), this.getExponent());
     }
 
+    /**
+     * Gets the number of bytes in this number's compact binary encoding, as
+     * returned by the {@code ToEncodedBytes} method.
+     * @return The number of bytes in the encoded form.
+     */
+    public int GetEncodedLength() {
+      return NumberCodec.EncodedLength(this);
+    }
+
+    /**
+     * Converts this number to a compact binary encoding, which stores the sign,
+     * the unsigned mantissa, and the exponent in variable-length form, and
+     * stores infinity, not-a-number values (with their diagnostic information),
+     * and negative zero exactly. The encoding begins with a format version, so
+     * that encodings from later versions of this library are rejected rather
+     * than misread.
+     * @return A byte array holding the encoded form of this number.
+     */
+    public byte[] ToEncodedBytes() {
+      return NumberCodec.ToBytes(this);
+    }
+
+    /**
+     * Creates an arbitrary-precision decimal number from its compact binary
+     * encoding (see {@code ToEncodedBytes}).
+     * @param bytes A byte array holding exactly one encoded number.
+     * @return An arbitrary-precision decimal number.
+     * @throws NullPointerException The parameter {@code bytes} is null.
+     * @throws IllegalArgumentException The parameter {@code bytes} does not
+     * hold a valid encoded number, or has bytes after the encoded number.
+     */
+    public static EDecimal FromEncodedBytes(byte[] bytes) {
+      return (EDecimal)NumberCodec.FromBytes(bytes, NumberCodec.TypeEDecimal);
+    }
+
+    /**
+     * Writes the compact binary encoding of this number (see {@code
+     * ToEncodedBytes}) to a data output stream.
+     * @param output A data output stream.
+     * @throws NullPointerException The parameter {@code output} is null.
+     * @throws java.io.IOException An I/O error occurred.
+     */
+    public void WriteEncoded(java.io.DataOutput output)
+      throws java.io.IOException {
+      NumberCodec.Write(this, output);
+    }
+
+    /**
+     * Writes the compact binary encoding of this number (see {@code
+     * ToEncodedBytes}) to a byte buffer at its current position, and advances
+     * the position past the encoded number.
+     * @param buffer A byte buffer.
+     * @throws NullPointerException The parameter {@code buffer} is null.
+     * @throws java.nio.BufferOverflowException The buffer has fewer bytes
+     * remaining than the encoded length, in which case nothing is written.
+     */
+    public void WriteEncoded(java.nio.ByteBuffer buffer) {
+      NumberCodec.Write(this, buffer);
+    }
+
+    /**
+     * Reads an arbitrary-precision decimal number in compact binary encoding
+     * (see {@code ToEncodedBytes}) from a data input stream.
+     * @param input A data input stream.
+     * @return An arbitrary-precision decimal number.
+     * @throws NullPointerException The parameter {@code input} is null.
+     * @throws java.io.IOException An I/O error occurred, the stream ended
+     * before the end of the encoded number, or the data is not a valid encoded
+     * number.
+     */
+    public static EDecimal ReadEncoded(java.io.DataInput input)
+      throws java.io.IOException {
+      return (EDecimal)NumberCodec.Read(input, NumberCodec.TypeEDecimal);
+    }
+
+    /**
+     * Reads an arbitrary-precision decimal number in compact binary encoding
+     * (see {@code ToEncodedBytes}) from a byte buffer at its current position,
+     * and advances the position past the encoded number.
+     * @param buffer A byte buffer.
+     * @return An arbitrary-precision decimal number.
+     * @throws NullPointerException The parameter {@code buffer} is null.
+     * @throws java.nio.BufferUnderflowException The buffer ends before the end
+     * of the encoded number, in which case its position is unchanged.
+     * @throws IllegalArgumentException The data is not a valid encoded number,
+     * in which case the buffer's position is unchanged.
+     */
+    public static EDecimal ReadEncoded(java.nio.ByteBuffer buffer) {
+      return (EDecimal)NumberCodec.Read(buffer, NumberCodec.TypeEDecimal);
+    }
+
+    /**
+     * Gets the number of characters in this number's text form, the same as
+     * returned by the {@code toString} method, without building that string if
+     * the number's parts are small.
+     * @return The number of characters in the text form.
+     * @throws UnsupportedOperationException The text form is longer than
+     * Integer.MAX_VALUE characters.
+     */
+    public int GetStringLength() {
+      return NumberText.Length(this, NumberText.FormString);
+    }
+
+    /**
+     * Writes this number's text form, the same as returned by the {@code
+     * toString} method, to an Appendable such as a StringBuilder or a Writer,
+     * without building that string if the number's parts are small.
+     * @param output An object that receives the text.
+     * @throws NullPointerException The parameter {@code output} is null.
+     * @throws java.io.IOException An I/O error occurred.
+     */
+    public void WriteString(Appendable output)
+      throws java.io.IOException {
+      NumberText.Write(this, NumberText.FormString, output);
+    }
+
+    /**
+     * Writes this number's text form, the same as returned by the {@code
+     * toString} method, to a character array.
+     * @param chars A character array.
+     * @param offset An index starting at 0 showing where to write the text in
+     * {@code chars}.
+     * @return The number of characters written.
+     * @throws NullPointerException The parameter {@code chars} is null.
+     * @throws IllegalArgumentException The parameter {@code offset} is less
+     * than 0 or greater than {@code chars}'s length, or {@code chars} has too
+     * little room after {@code offset} for the text, in which case some of the
+     * text may have been written.
+     */
+    public int WriteString(char[] chars, int offset) {
+      return NumberText.Write(this, NumberText.FormString, chars, offset);
+    }
+
+    /**
+     * Writes this number's text form, the same as returned by the {@code
+     * toString} method, to a byte array in UTF-8, in which each character of
+     * the text form is one byte.
+     * @param bytes A byte array.
+     * @param offset An index starting at 0 showing where to write the text in
+     * {@code bytes}.
+     * @return The number of bytes written.
+     * @throws NullPointerException The parameter {@code bytes} is null.
+     * @throws IllegalArgumentException The parameter {@code offset} is less
+     * than 0 or greater than {@code bytes}'s length, or {@code bytes} has too
+     * little room after {@code offset} for the text, in which case some of the
+     * text may have been written.
+     */
+    public int WriteStringUtf8(byte[] bytes, int offset) {
+      return NumberText.WriteUtf8(this, NumberText.FormString, bytes, offset);
+    }
+
+    /**
+     * Writes this number's text form, the same as returned by the {@code
+     * toString} method, to a byte buffer in UTF-8 at its current position, and
+     * advances the position past the text.
+     * @param buffer A byte buffer.
+     * @throws NullPointerException The parameter {@code buffer} is null.
+     * @throws java.nio.BufferOverflowException The buffer has too little room
+     * for the text, in which case its position is unchanged.
+     */
+    public void WriteStringUtf8(java.nio.ByteBuffer buffer) {
+      NumberText.WriteUtf8(this, NumberText.FormString, buffer);
+    }
+
+    /**
+     * Gets the number of characters in this number's text form, the same as
+     * returned by the {@code ToEngineeringString} method, without building that
+     * string if the number's parts are small.
+     * @return The number of characters in the text form.
+     * @throws UnsupportedOperationException The text form is longer than
+     * Integer.MAX_VALUE characters.
+     */
+    public int GetEngineeringStringLength() {
+      return NumberText.Length(this, NumberText.FormEngineering);
+    }
+
+    /**
+     * Writes this number's text form, the same as returned by the {@code
+     * ToEngineeringString} method, to an Appendable such as a StringBuilder or
+     * a Writer, without building that string if the number's parts are small.
+     * @param output An object that receives the text.
+     * @throws NullPointerException The parameter {@code output} is null.
+     * @throws java.io.IOException An I/O error occurred.
+     */
+    public void WriteEngineeringString(Appendable output)
+      throws java.io.IOException {
+      NumberText.Write(this, NumberText.FormEngineering, output);
+    }
+
+    /**
+     * Writes this number's text form, the same as returned by the {@code
+     * ToEngineeringString} method, to a character array.
+     * @param chars A character array.
+     * @param offset An index starting at 0 showing where to write the text in
+     * {@code chars}.
+     * @return The number of characters written.
+     * @throws NullPointerException The parameter {@code chars} is null.
+     * @throws IllegalArgumentException The parameter {@code offset} is less
+     * than 0 or greater than {@code chars}'s length, or {@code chars} has too
+     * little room after {@code offset} for the text, in which case some of the
+     * text may have been written.
+     */
+    public int WriteEngineeringString(char[] chars, int offset) {
+      return NumberText.Write(this, NumberText.FormEngineering, chars, offset);
+    }
+
+    /**
+     * Writes this number's text form, the same as returned by the {@code
+     * ToEngineeringString} method, to a byte array in UTF-8, in which each
+     * character of the text form is one byte.
+     * @param bytes A byte array.
+     * @param offset An index starting at 0 showing where to write the text in
+     * {@code bytes}.
+     * @return The number of bytes written.
+     * @throws NullPointerException The parameter {@code bytes} is null.
+     * @throws IllegalArgumentException The parameter {@code offset} is less
+     * than 0 or greater than {@code bytes}'s length, or {@code bytes} has too
+     * little room after {@code offset} for the text, in which case some of the
+     * text may have been written.
+     */
+    public int WriteEngineeringStringUtf8(byte[] bytes, int offset) {
+      return NumberText.WriteUtf8(
+          this,
+          NumberText.FormEngineering,
+          bytes,
+          offset);
+    }
+
+    /**
+     * Writes this number's text form, the same as returned by the {@code
+     * ToEngineeringString} method, to a byte buffer in UTF-8 at its current
+     * position, and advances the position past the text.
+     * @param buffer A byte buffer.
+     * @throws NullPointerException The parameter {@code buffer} is null.
+     * @throws java.nio.BufferOverflowException The buffer has too little room
+     * for the text, in which case its position is unchanged.
+     */
+    public void WriteEngineeringStringUtf8(java.nio.ByteBuffer buffer) {
+      NumberText.WriteUtf8(this, NumberText.FormEngineering, buffer);
+    }
+
+    /**
+     * Gets the number of characters in this number's text form, the same as
+     * returned by the {@code ToPlainString} method, without building that
+     * string if the number's parts are small.
+     * @return The number of characters in the text form.
+     * @throws UnsupportedOperationException The text form is longer than
+     * Integer.MAX_VALUE characters.
+     */
+    public int GetPlainStringLength() {
+      return NumberText.Length(this, NumberText.FormPlain);
+    }
+
+    /**
+     * Writes this number's text form, the same as returned by the {@code
+     * ToPlainString} method, to an Appendable such as a StringBuilder or a
+     * Writer, without building that string if the number's parts are small.
+     * @param output An object that receives the text.
+     * @throws NullPointerException The parameter {@code output} is null.
+     * @throws java.io.IOException An I/O error occurred.
+     */
+    public void WritePlainString(Appendable output)
+      throws java.io.IOException {
+      NumberText.Write(this, NumberText.FormPlain, output);
+    }
+
+    /**
+     * Writes this number's text form, the same as returned by the {@code
+     * ToPlainString} method, to a character array.
+     * @param chars A character array.
+     * @param offset An index starting at 0 showing where to write the text in
+     * {@code chars}.
+     * @return The number of characters written.
+     * @throws NullPointerException The parameter {@code chars} is null.
+     * @throws IllegalArgumentException The parameter {@code offset} is less
+     * than 0 or greater than {@code chars}'s length, or {@code chars} has too
+     * little room after {@code offset} for the text, in which case some of the
+     * text may have been written.
+     */
+    public int WritePlainString(char[] chars, int offset) {
+      return NumberText.Write(this, NumberText.FormPlain, chars, offset);
+    }
+
+    /**
+     * Writes this number's text form, the same as returned by the {@code
+     * ToPlainString} method, to a byte array in UTF-8, in which each character
+     * of the text form is one byte.
+     * @param bytes A byte array.
+     * @param offset An index starting at 0 showing where to write the text in
+     * {@code bytes}.
+     * @return The number of bytes written.
+     * @throws NullPointerException The parameter {@code bytes} is null.
+     * @throws IllegalArgumentException The parameter {@code offset} is less
+     * than 0 or greater than {@code bytes}'s length, or {@code bytes} has too
+     * little room after {@code offset} for the text, in which case some of the
+     * text may have been written.
+     */
+    public int WritePlainStringUtf8(byte[] bytes, int offset) {
+      return NumberText.WriteUtf8(this, NumberText.FormPlain, bytes, offset);
+    }
+
+    /**
+     * Writes this number's text form, the same as returned by the {@code
+     * ToPlainString} method, to a byte buffer in UTF-8 at its current position,
+     * and advances the position past the text.
+     * @param buffer A byte buffer.
+     * @throws NullPointerException The parameter {@code buffer} is null.
+     * @throws java.nio.BufferOverflowException The buffer has too little room
+     * for the text, in which case its position is unchanged.
+     */
+    public void WritePlainStringUtf8(java.nio.ByteBuffer buffer) {
+      NumberText.WriteUtf8(this, NumberText.FormPlain, buffer);
+    }
+
+    // Serialization writes the compact binary encoding in place of this
+    // object's fields (see NumberCodec.SerialForm)
+    private Object writeReplace() {
+      return new NumberCodec.SerialForm(NumberCodec.TypeEDecimal, this);
+    }
+
+    private void readObject(java.io.ObjectInputStream stream)
+      throws java.io.InvalidObjectException {
+      throw new java.io.InvalidObjectException("Serialized form required");
+    }
+
     static EDecimal CreateWithFlags(
       FastIntegerFixed mantissa,
       FastIntegerFixed exponent,
@@ -5432,9 +6057,15 @@ rather than properties
     }
 
     private boolean EqualsInternal(EDecimal otherValue) {
+      // Values are stored inline whenever they fit, so two numbers are
+      // equal only if they store the same values the same way
       return (otherValue != null) && (this.flags == otherValue.flags &&
-        this.unsignedMantissa.equals(otherValue.unsignedMantissa) &&
-        this.exponent.equals(otherValue.exponent));
+        this.smallMantissa == otherValue.smallMantissa &&
+        this.smallExponent == otherValue.smallExponent &&
+        (this.largeMantissa == null ? otherValue.largeMantissa == null :
+          this.largeMantissa.equals(otherValue.largeMantissa)) &&
+        (this.largeExponent == null ? otherValue.largeExponent == null :
+          this.largeExponent.equals(otherValue.largeExponent)));
     }
 
     private static EInteger[] GetAdjustedExponentDecimalBounds(
@@ -5473,9 +6104,9 @@ rather than properties
     private EDecimal RoundToExponentFast(
       int exponentSmall,
       ERounding rounding) {
-      if (this.isFinite() && this.exponent.CanFitInInt32() &&
-        this.unsignedMantissa.CanFitInInt32()) {
-        int thisExponentSmall = this.exponent.ToInt32();
+      if (this.isFinite() && this.largeExponent == null &&
+        this.CanMantissaFitInInt32()) {
+        int thisExponentSmall = this.smallExponent;
         if (thisExponentSmall == exponentSmall) {
           return this;
         }
@@ -5484,7 +6115,7 @@ rather than properties
           if (rounding == ERounding.Down) {
             int diff = exponentSmall - thisExponentSmall;
             if (diff >= 1 && diff <= 9) {
-              int thisMantissaSmall = this.unsignedMantissa.ToInt32();
+              int thisMantissaSmall = (int)this.smallMantissa;
               thisMantissaSmall /= ValueTenPowers[diff];
               return new EDecimal(
                   FastIntegerFixed.FromInt32(thisMantissaSmall),
@@ -5493,7 +6124,7 @@ rather than properties
             }
           } else if (rounding == ERounding.HalfEven) {
             int diff = exponentSmall - thisExponentSmall;
-            int thisMantissaSmall = this.unsignedMantissa.ToInt32();
+            int thisMantissaSmall = (int)this.smallMantissa;
             if (diff >= 1 && diff <= 9 && thisMantissaSmall != Integer.MAX_VALUE) {
               int pwr = ValueTenPowers[diff - 1];
               int div = thisMantissaSmall / pwr;
@@ -5524,7 +6155,7 @@ rather than properties
       if (!this.isFinite()) {
         return false;
       }
-      if (this.unsignedMantissa.isValueZero()) {
+      if (this.IsMantissaZero()) {
         return true;
       }
       int sign = this.getExponent().signum();
@@ -5568,13 +6199,14 @@ rather than properties
         bigmantissa = bigmantissa.Multiply(bigexponent);
         return bigmantissa;
       } else {
-        if (exact && !this.unsignedMantissa.isEvenNumber()) {
+        if (exact && !this.getUnsignedMantissa().isEven()) {
           // Mantissa is odd and will have to shift a nonzero
           // number of digits, so can't be an exact integer
           throw new ArithmeticException("Not an exact integer");
         }
-        FastInteger bigexponent = this.exponent.ToFastInteger().Negate();
-        EInteger bigmantissa = this.unsignedMantissa.ToEInteger();
+        FastInteger bigexponent =
+          this.GetExponentFixed().ToFastInteger().Negate();
+        EInteger bigmantissa = this.getUnsignedMantissa();
         DigitShiftAccumulator acc = new DigitShiftAccumulator(bigmantissa, 0, 0);
         if (exact) {
           if (!acc.TruncateRightExact(bigexponent)) {
@@ -5879,6 +6511,93 @@ rather than properties
       }
     }
 
+    // Writes the same text as ToStringInternal, without building a string
+    // if this number is finite and its parts are stored inline
+    void WriteText(NumberText.Sink sink, int mode) {
+      if (!this.IsInlineFinite()) {
+        sink.Append(this.ToStringInternal(mode));
+        return;
+      }
+      long mantissa = this.smallMantissa;
+      int exponent = this.smallExponent;
+      boolean iszero = mantissa == 0;
+      if ((this.flags & BigNumberFlags.FlagNegative) != 0) {
+        sink.Append('-');
+      }
+      if (exponent == 0 || (mode == 2 && iszero && exponent > 0)) {
+        sink.AppendDigits(mantissa, 10, 1);
+        return;
+      }
+      int digits = NumberText.DigitCount(mantissa, 10);
+      long adjustedExponent = (long)exponent + digits - 1;
+      int decimalPointAdjust = 1;
+      int threshold = -6;
+      if (mode == 1) {
+        // Make the exponent a multiple of 3 by moving the decimal point
+        // right, or for some zeros, by raising the exponent instead
+        boolean adjExponentNegative = adjustedExponent < 0;
+        boolean raise = iszero && (adjustedExponent < threshold ||
+          exponent > 0);
+        int intphase = (int)(Math.abs(adjustedExponent) % 3);
+        if (intphase != 0) {
+          int move = ((intphase == 1) == adjExponentNegative) ? 2 : 1;
+          if (raise) {
+            move = 3 - move;
+            adjustedExponent += move;
+          } else {
+            adjustedExponent -= move;
+          }
+          decimalPointAdjust += move;
+        }
+        if (raise) {
+          ++threshold;
+        }
+      }
+      if (mode == 2 || (adjustedExponent >= threshold && exponent < 0)) {
+        if (exponent > 0) {
+          sink.AppendDigits(mantissa, 10, 1);
+          sink.AppendZeros(exponent);
+        } else {
+          long decimalPoint = (long)exponent + digits;
+          if (decimalPoint <= 0) {
+            sink.Append('0');
+            sink.Append('.');
+            sink.AppendZeros(-decimalPoint);
+            sink.AppendDigits(mantissa, 10, 1);
+          } else {
+            this.AppendSplitDigits(sink, digits - (int)decimalPoint);
+          }
+        }
+        return;
+      }
+      if (mode == 1 && iszero && decimalPointAdjust > 1) {
+        sink.Append('0');
+        sink.Append('.');
+        sink.AppendZeros(decimalPointAdjust - 1);
+      } else if (decimalPointAdjust > digits) {
+        sink.AppendDigits(mantissa, 10, 1);
+        sink.AppendZeros(decimalPointAdjust - digits);
+      } else if (decimalPointAdjust < digits) {
+        this.AppendSplitDigits(sink, digits - decimalPointAdjust);
+      } else {
+        sink.AppendDigits(mantissa, 10, 1);
+      }
+      if (adjustedExponent != 0) {
+        sink.Append('E');
+        sink.Append(adjustedExponent < 0 ? '-' : '+');
+        sink.AppendDigits(Math.abs(adjustedExponent), 10, 1);
+      }
+    }
+
+    // Appends the inline significand with a decimal point before its last
+    // 'fractionDigits' digits, which is 1 through 18
+    private void AppendSplitDigits(NumberText.Sink sink, int fractionDigits) {
+      long power = ValueTenPowersLong[fractionDigits];
+      sink.AppendDigits(this.smallMantissa / power, 10, 1);
+      sink.Append('.');
+      sink.AppendDigits(this.smallMantissa % power, 10, fractionDigits);
+    }
+
     // TODO: Add option to always display exponential notation
     private String ToStringInternal(int mode) {
       boolean negative = (this.flags & BigNumberFlags.FlagNegative) != 0;
@@ -5887,33 +6606,34 @@ rather than properties
           return negative ? "-Infinity" : "Infinity";
         }
         if ((this.flags & BigNumberFlags.FlagSignalingNaN) != 0) {
-          return this.unsignedMantissa.isValueZero() ?
+          return this.IsMantissaZero() ?
             (negative ? "-sNaN" : "sNaN") :
-            (negative ? "-sNaN" + this.unsignedMantissa :
-              "sNaN" + this.unsignedMantissa);
+            (negative ? "-sNaN" + this.UnsignedMantissaToString() :
+              "sNaN" + this.UnsignedMantissaToString());
         }
         if ((this.flags & BigNumberFlags.FlagQuietNaN) != 0) {
-          return this.unsignedMantissa.isValueZero() ? (negative ?
-              "-NaN" : "NaN") : (negative ? "-NaN" + this.unsignedMantissa :
-              "NaN" + this.unsignedMantissa);
+          return this.IsMantissaZero() ? (negative ?
+              "-NaN" : "NaN") : (negative ? "-NaN" +
+              this.UnsignedMantissaToString() :
+              "NaN" + this.UnsignedMantissaToString());
         }
       }
-      int scaleSign = -this.exponent.signum();
+      int scaleSign = -this.CompareExponentToInt(0);
       String mantissaString;
       if (scaleSign == 0) {
-        mantissaString = this.unsignedMantissa.toString();
+        mantissaString = this.UnsignedMantissaToString();
         return negative ? "-" + mantissaString : mantissaString;
       }
-      boolean iszero = this.unsignedMantissa.isValueZero();
+      boolean iszero = this.IsMantissaZero();
       if (mode == 2 && iszero && scaleSign < 0) {
         // special case for zero in plain
-        mantissaString = this.unsignedMantissa.toString();
+        mantissaString = this.UnsignedMantissaToString();
         return negative ? "-" + mantissaString : mantissaString;
       }
-      if (mode == 0 && this.unsignedMantissa.CanFitInInt32() &&
-        this.exponent.CanFitInInt32()) {
-        int intExp = this.exponent.ToInt32();
-        int intMant = this.unsignedMantissa.ToInt32();
+      if (mode == 0 && this.CanMantissaFitInInt32() &&
+        this.largeExponent == null) {
+        int intExp = this.smallExponent;
+        int intMant = (int)this.smallMantissa;
         if (intMant < 1000 && intExp == -2) {
           int a, b, c;
           int i = 0;
@@ -5949,10 +6669,10 @@ rather than properties
           return new String(chars, 0, clength);
         }
       }
-      mantissaString = this.unsignedMantissa.toString();
+      mantissaString = this.UnsignedMantissaToString();
       if (mode == 0 && mantissaString.length() < 100 &&
-        this.exponent.CanFitInInt32()) {
-        int intExp = this.exponent.ToInt32();
+        this.largeExponent == null) {
+        int intExp = this.smallExponent;
         if (intExp > -100 && intExp < 100) {
           int adj = (intExp + mantissaString.length()) - 1;
           if (scaleSign >= 0 && adj >= -6) {
@@ -6230,7 +6950,7 @@ rather than properties
        * @return An arbitrary-precision integer.
        */
       public EInteger GetMantissa(EDecimal value) {
-        return value.unsignedMantissa.ToEInteger();
+        return value.getUnsignedMantissa();
       }
 
       /**
@@ -6239,15 +6959,15 @@ rather than properties
        * @return An arbitrary-precision integer.
        */
       public EInteger GetExponent(EDecimal value) {
-        return value.exponent.ToEInteger();
+        return value.getExponent();
       }
 
       public FastIntegerFixed GetMantissaFastInt(EDecimal value) {
-        return value.unsignedMantissa;
+        return value.GetUnsignedMantissaFixed();
       }
 
       public FastIntegerFixed GetExponentFastInt(EDecimal value) {
-        return value.exponent;
+        return value.GetExponentFixed();
       }
 
       public FastInteger GetDigitLength(EInteger ei) {
@@ -6448,7 +7168,7 @@ rather than properties
       if (this.isZero()) {
         return;
       }
-      if (this.exponent.signum() < 0) {
+      if (this.CompareExponentToInt(0) < 0) {
         EInteger bigexponent = this.getExponent();
         EInteger bigmantissa = this.getUnsignedMantissa();
         bigexponent = bigexponent.Abs();
@@ -6459,7 +7179,7 @@ rather than properties
           throw new ArithmeticException("Value out of range");
         }
       } else {
-        if (this.exponent.CompareToInt(maxDigits) >= 0) {
+        if (this.CompareExponentToInt(maxDigits) >= 0) {
           throw new ArithmeticException("Value out of range");
         }
       }
@@ -6499,7 +7219,7 @@ rather than properties
         if (this.IsIntegerPartZero()) {
           return (byte)0;
         }
-        if (this.exponent.CompareToInt(8) >= 0) {
+        if (this.CompareExponentToInt(8) >= 0) {
           /* Whether positive or negative, 10^x mod 256 is always 0
               for x >= 8 */ return (byte)0;
         }
@@ -6566,7 +7286,7 @@ rather than properties
         if (this.IsIntegerPartZero()) {
           return (short)0;
         }
-        if (this.exponent.CompareToInt(16) >= 0) {
+        if (this.CompareExponentToInt(16) >= 0) {
           /* Whether positive or negative, 10^x mod 65536 is always 0
               for x >= 16 */ return (short)0;
         }
@@ -6630,7 +7350,7 @@ rather than properties
         if (this.IsIntegerPartZero()) {
           return 0;
         }
-        if (this.exponent.CompareToInt(32) >= 0) {
+        if (this.CompareExponentToInt(32) >= 0) {
           /* Whether positive or negative, 10^x mod 2^32 is always 0
               for x >= 32 */ return 0;
         }
@@ -6686,7 +7406,7 @@ rather than properties
         if (this.IsIntegerPartZero()) {
           return 0L;
         }
-        if (this.exponent.CompareToInt(64) >= 0) {
+        if (this.CompareExponentToInt(64) >= 0) {
           /* Whether positive or negative, 10^x mod 2^64 is always 0
               for x >= 64 */ return 0L;
         }
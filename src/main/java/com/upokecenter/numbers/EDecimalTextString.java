@@ -6,7 +6,7 @@ private EDecimalTextString() {
     private static final int MaxSafeInt = EDecimal.MaxSafeInt;
 
     static EDecimal FromString(
-      String chars,
+      CharSequence chars,
       int offset,
       int length,
       EContext ctx,
@@ -126,7 +126,7 @@ private EDecimalTextString() {
     }
 
     private static EDecimal ParseSpecialValue(
-      String chars,
+      CharSequence chars,
       int i,
       int endStr,
       boolean negative,
@@ -321,7 +321,7 @@ private EDecimalTextString() {
     }
 
     private static EDecimal ParseOrdinaryNumberLimitedPrecision(
-      String chars,
+      CharSequence chars,
       int offset,
       int endStr,
       boolean negative,
@@ -571,7 +571,7 @@ private EDecimalTextString() {
     }
 
     private static EDecimal ParseOrdinaryNumberNoContext(
-      String chars,
+      CharSequence chars,
       int i,
       int endStr,
       boolean negative,
@@ -851,7 +851,7 @@ private EDecimalTextString() {
     }
 
     private static EDecimal ParseOrdinaryNumber(
-      String chars,
+      CharSequence chars,
       int i,
       int endStr,
       boolean negative,
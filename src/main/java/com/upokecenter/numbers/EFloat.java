@@ -69,7 +69,10 @@ licensed under the Unlicense: https://unlicense.org/
    * the reproducibility note in the EDecimal class's documentation.</p>
    */
 
-  public final class EFloat implements Comparable<EFloat> {
+  public final class EFloat implements Comparable<EFloat>,
+    java.io.Serializable {
+    private static final long serialVersionUID = 1L;
+
     //-----------------------------------------------
     private static final int CacheFirst = -24;
     private static final int CacheLast = 128;
@@ -201,19 +204,102 @@ licensed under the Unlicense: https://unlicense.org/
       return MathValue;
     }
 
-    private final FastIntegerFixed exponent;
-    private final FastIntegerFixed unsignedMantissa;
+    // The exponent, stored inline in 'smallExponent' if it fits in a
+    // 32-bit signed integer (in which case 'largeExponent' is null), and
+    // the absolute value of the significand, likewise stored in
+    // 'smallMantissa' if it fits in a 64-bit signed integer.  Most
+    // numbers thus need no objects other than this one.
+    private final int smallExponent;
+    private final long smallMantissa;
+    private final EInteger largeExponent;
+    private final EInteger largeMantissa;
     private final byte flags;
 
     private EFloat(
       FastIntegerFixed unsignedMantissa,
       FastIntegerFixed exponent,
       byte flags) {
-      this.unsignedMantissa = unsignedMantissa;
-      this.exponent = exponent;
+      if (unsignedMantissa.CanFitInInt64()) {
+        this.smallMantissa = unsignedMantissa.ToInt64();
+        this.largeMantissa = null;
+      } else {
+        this.smallMantissa = 0;
+        this.largeMantissa = unsignedMantissa.ToEInteger();
+      }
+      if (exponent.CanFitInInt32()) {
+        this.smallExponent = exponent.ToInt32();
+        this.largeExponent = null;
+      } else {
+        this.smallExponent = 0;
+        this.largeExponent = exponent.ToEInteger();
+      }
+      this.flags = flags;
+    }
+
+    private EFloat(long smallMantissa, int smallExponent, byte flags) {
+      this.smallMantissa = smallMantissa;
+      this.smallExponent = smallExponent;
+      this.largeMantissa = null;
+      this.largeExponent = null;
+      this.flags = flags;
+    }
+
+    // Creates a copy of the given number with different flags
+    private EFloat(EFloat value, byte flags) {
+      this.smallMantissa = value.smallMantissa;
+      this.smallExponent = value.smallExponent;
+      this.largeMantissa = value.largeMantissa;
+      this.largeExponent = value.largeExponent;
       this.flags = flags;
     }
 
+    private FastIntegerFixed GetUnsignedMantissaFixed() {
+      return (this.largeMantissa == null) ?
+        FastIntegerFixed.FromInt64(this.smallMantissa) :
+        FastIntegerFixed.FromBig(this.largeMantissa);
+    }
+
+    private FastIntegerFixed GetExponentFixed() {
+      return (this.largeExponent == null) ?
+        FastIntegerFixed.FromInt32(this.smallExponent) :
+        FastIntegerFixed.FromBig(this.largeExponent);
+    }
+
+    private boolean IsMantissaZero() {
+      return this.largeMantissa == null && this.smallMantissa == 0;
+    }
+
+    private boolean IsMantissaLessThan(long value) {
+      return this.largeMantissa == null && this.smallMantissa < value;
+    }
+
+    // Returns whether this object is finite and its significand and
+    // exponent are stored inline
+    private boolean IsInlineFinite() {
+      return this.largeMantissa == null && this.largeExponent == null &&
+        (this.flags & BigNumberFlags.FlagSpecial) == 0;
+    }
+
+    // Shifts a nonnegative 64-bit integer left by the given number of
+    // bits, which is 0 or greater, or returns -1 if the result doesn't
+    // fit in a 64-bit signed integer
+    private static long ShiftLeftInline(long value, long bits) {
+      if (bits == 0 || value == 0) {
+        return value;
+      }
+      return (bits < 63 && (value >> (63 - (int)bits)) == 0) ?
+        value << (int)bits : -1;
+    }
+
+    // Compares this object's exponent with a 32-bit signed integer
+    private int CompareExponentToInt(int value) {
+      if (this.largeExponent != null) {
+        return this.largeExponent.signum();
+      }
+      return (this.smallExponent == value) ? 0 :
+        ((this.smallExponent < value) ? -1 : 1);
+    }
+
     /**
      * Gets this object's exponent. This object's value will be an integer if the
      * exponent is positive or zero.
@@ -221,7 +307,8 @@ licensed under the Unlicense: https://unlicense.org/
      * the exponent is positive or zero.
      */
     public final EInteger getExponent() {
-        return this.exponent.ToEInteger();
+        return (this.largeExponent == null) ?
+          EInteger.FromInt32(this.smallExponent) : this.largeExponent;
       }
 
     /**
@@ -253,7 +340,7 @@ licensed under the Unlicense: https://unlicense.org/
      */
     public final boolean isZero() {
         return ((this.flags & BigNumberFlags.FlagSpecial) == 0) &&
-          this.unsignedMantissa.isValueZero();
+          this.IsMantissaZero();
       }
 
     /**
@@ -264,8 +351,8 @@ licensed under the Unlicense: https://unlicense.org/
      * value is negative (including a negative NaN).
      */
     public final EInteger getMantissa() {
-        return this.isNegative() ? this.unsignedMantissa.ToEInteger().Negate() :
-          this.unsignedMantissa.ToEInteger();
+        return this.isNegative() ? this.getUnsignedMantissa().Negate() :
+          this.getUnsignedMantissa();
       }
 
     /**
@@ -274,7 +361,7 @@ licensed under the Unlicense: https://unlicense.org/
      */
     public final int signum() {
         return (((this.flags & BigNumberFlags.FlagSpecial) == 0) &&
-          this.unsignedMantissa.isValueZero()) ? 0 :
+          this.IsMantissaZero()) ? 0 :
           (((this.flags & BigNumberFlags.FlagNegative) != 0) ? -1 : 1);
       }
 
@@ -285,7 +372,8 @@ licensed under the Unlicense: https://unlicense.org/
      * @return The absolute value of this object's unscaled value.
      */
     public final EInteger getUnsignedMantissa() {
-        return this.unsignedMantissa.ToEInteger();
+        return (this.largeMantissa == null) ?
+          EInteger.FromInt64(this.smallMantissa) : this.largeMantissa;
       }
 
     /**
@@ -293,7 +381,7 @@ licensed under the Unlicense: https://unlicense.org/
      * @return An arbitrary-precision binary floating-point number.
      */
     public EFloat Copy() {
-      return new EFloat(this.unsignedMantissa, this.exponent, this.flags);
+      return new EFloat(this, this.flags);
     }
 
     /**
@@ -308,29 +396,13 @@ licensed under the Unlicense: https://unlicense.org/
         mantissaSmall <= CacheLast) {
         return Cache[mantissaSmall - CacheFirst];
       }
-      if (mantissaSmall < 0) {
-        if (mantissaSmall == Integer.MIN_VALUE) {
-          FastIntegerFixed fi = FastIntegerFixed.FromInt64(Integer.MIN_VALUE);
-          return new EFloat(
-              fi.Negate(),
-              FastIntegerFixed.FromInt32(exponentSmall),
-              (byte)BigNumberFlags.FlagNegative);
-        }
-        return new EFloat(
-            FastIntegerFixed.FromInt32(-mantissaSmall),
-            FastIntegerFixed.FromInt32(exponentSmall),
-            (byte)BigNumberFlags.FlagNegative);
-      } else if (mantissaSmall == 0) {
-        return new EFloat(
-            FastIntegerFixed.Zero,
-            FastIntegerFixed.FromInt32(exponentSmall),
-            (byte)0);
-      } else {
-        return new EFloat(
-            FastIntegerFixed.FromInt32(mantissaSmall),
-            FastIntegerFixed.FromInt32(exponentSmall),
-            (byte)0);
-      }
+      return (mantissaSmall < 0) ? new EFloat(
+          -(long)mantissaSmall,
+          exponentSmall,
+          (byte)BigNumberFlags.FlagNegative) : new EFloat(
+          mantissaSmall,
+          exponentSmall,
+          (byte)0);
     }
 
     /**
@@ -441,6 +513,15 @@ licensed under the Unlicense: https://unlicense.org/
       if (mantissaLong >= Integer.MIN_VALUE && mantissaLong <= Integer.MAX_VALUE &&
         exponentLong >= Integer.MIN_VALUE && exponentLong <= Integer.MAX_VALUE) {
         return Create((int)mantissaLong, (int)exponentLong);
+      } else if (mantissaLong != Long.MIN_VALUE &&
+        exponentLong == (int)exponentLong) {
+        return (mantissaLong < 0) ? new EFloat(
+            -mantissaLong,
+            (int)exponentLong,
+            (byte)BigNumberFlags.FlagNegative) : new EFloat(
+            mantissaLong,
+            (int)exponentLong,
+            (byte)0);
       } else if (mantissaLong == Long.MIN_VALUE) {
         FastIntegerFixed fi = FastIntegerFixed.FromInt64(mantissaLong);
         return new EFloat(
@@ -518,8 +599,7 @@ licensed under the Unlicense: https://unlicense.org/
         newFlags |= signaling ? BigNumberFlags.FlagSignalingNaN :
           BigNumberFlags.FlagQuietNaN;
         return new EFloat(
-            ef.unsignedMantissa,
-            ef.exponent,
+            ef,
             (byte)newFlags);
       }
       flags |= signaling ? BigNumberFlags.FlagSignalingNaN :
@@ -712,6 +792,151 @@ licensed under the Unlicense: https://unlicense.org/
       return EFloatTextString.FromString(str, offset, length, ctx, true);
     }
 
+    /**
+     * Creates a binary floating-point number from a sequence of characters,
+     * such as a {@code StringBuilder} or a {@code java.nio.CharBuffer}, that
+     * represents a number, reading the characters in place. See {@code
+     * FromString(String, int, int, EContext)} for more information.
+     * @param cs A sequence of characters that represents a number.
+     * @return A binary floating-point number with the same value as the
+     * specified sequence.
+     * @throws NumberFormatException The parameter {@code cs} is not a correctly
+     * formatted number.
+     * @throws NullPointerException The parameter {@code cs} is null.
+     */
+    public static EFloat FromString(CharSequence cs) {
+      return FromString(cs, 0, cs == null ? 0 : cs.length(), null);
+    }
+
+    /**
+     * Creates a binary floating-point number from a sequence of characters,
+     * such as a {@code StringBuilder} or a {@code java.nio.CharBuffer}, that
+     * represents a number, reading the characters in place. See {@code
+     * FromString(String, int, int, EContext)} for more information.
+     * @param cs A sequence of characters that represents a number.
+     * @param ctx An arithmetic context to control the precision, rounding, and
+     * exponent range of the result, as in {@code FromString(String, int, int,
+     * EContext)}. Can be null.
+     * @return A binary floating-point number with the same value as the
+     * specified sequence.
+     * @throws NumberFormatException The parameter {@code cs} is not a correctly
+     * formatted number.
+     * @throws NullPointerException The parameter {@code cs} is null.
+     */
+    public static EFloat FromString(CharSequence cs, EContext ctx) {
+      return FromString(cs, 0, cs == null ? 0 : cs.length(), ctx);
+    }
+
+    /**
+     * Creates a binary floating-point number from a portion of a sequence of
+     * characters that represents a number, reading the characters in place. See
+     * {@code FromString(String, int, int, EContext)} for more information.
+     * @param cs A sequence of characters, a portion of which represents a
+     * number.
+     * @param offset An index starting at 0 showing where the desired portion of
+     * {@code cs} begins.
+     * @param length The length of the desired portion of {@code cs}.
+     * @return A binary floating-point number with the same value as the desired
+     * portion.
+     * @throws NumberFormatException The desired portion is not a correctly
+     * formatted number.
+     * @throws NullPointerException The parameter {@code cs} is null.
+     * @throws IllegalArgumentException Either {@code offset} or {@code length}
+     * is less than 0 or greater than {@code cs} 's length, or {@code cs} 's
+     * length minus {@code offset} is less than {@code length}.
+     */
+    public static EFloat FromString(
+      CharSequence cs,
+      int offset,
+      int length) {
+      return FromString(cs, offset, length, null);
+    }
+
+    /**
+     * Creates a binary floating-point number from a portion of a sequence of
+     * characters that represents a number, reading the characters in place. See
+     * {@code FromString(String, int, int, EContext)} for more information.
+     * @param cs A sequence of characters, a portion of which represents a
+     * number.
+     * @param offset An index starting at 0 showing where the desired portion of
+     * {@code cs} begins.
+     * @param length The length of the desired portion of {@code cs}.
+     * @param ctx An arithmetic context to control the precision, rounding, and
+     * exponent range of the result, as in {@code FromString(String, int, int,
+     * EContext)}. Can be null.
+     * @return A binary floating-point number with the same value as the desired
+     * portion.
+     * @throws NumberFormatException The desired portion is not a correctly
+     * formatted number.
+     * @throws NullPointerException The parameter {@code cs} is null.
+     * @throws IllegalArgumentException Either {@code offset} or {@code length}
+     * is less than 0 or greater than {@code cs} 's length, or {@code cs} 's
+     * length minus {@code offset} is less than {@code length}.
+     */
+    public static EFloat FromString(
+      CharSequence cs,
+      int offset,
+      int length,
+      EContext ctx) {
+      if (cs == null) {
+        throw new NullPointerException("cs");
+      }
+      return EFloatTextString.FromString(cs, offset, length, ctx, true);
+    }
+
+    /**
+     * Creates a binary floating-point number from the bytes of a byte buffer
+     * from its position to its limit, which represent a number in the form
+     * described in {@code FromString(String, int, int, EContext)} with one byte
+     * per character. The bytes are read in place, whether the buffer is direct
+     * or not, and the buffer's position is unchanged.
+     * @param buffer A byte buffer.
+     * @return A binary floating-point number with the same value as given in
+     * the buffer.
+     * @throws NumberFormatException The bytes are not a correctly formatted
+     * number.
+     * @throws NullPointerException The parameter {@code buffer} is null.
+     */
+    public static EFloat FromString(java.nio.ByteBuffer buffer) {
+      return FromString(buffer, null);
+    }
+
+    /**
+     * Creates a binary floating-point number from the bytes of a byte buffer
+     * from its position to its limit, which represent a number in the form
+     * described in {@code FromString(String, int, int, EContext)} with one byte
+     * per character. The bytes are read in place, whether the buffer is direct
+     * or not, and the buffer's position is unchanged.
+     * @param buffer A byte buffer.
+     * @param ctx An arithmetic context to control the precision, rounding, and
+     * exponent range of the result, as in {@code FromString(String, int, int,
+     * EContext)}. Can be null.
+     * @return A binary floating-point number with the same value as given in
+     * the buffer.
+     * @throws NumberFormatException The bytes are not a correctly formatted
+     * number.
+     * @throws NullPointerException The parameter {@code buffer} is null.
+     */
+    public static EFloat FromString(
+      java.nio.ByteBuffer buffer,
+      EContext ctx) {
+      int start = ByteBufferChars.ArrayStart(buffer);
+      if (start >= 0) {
+        return EFloatByteArrayString.FromString(
+            buffer.array(),
+            start,
+            buffer.remaining(),
+            ctx,
+            true);
+      }
+      return EFloatTextString.FromString(
+          new ByteBufferChars(buffer),
+          0,
+          buffer.remaining(),
+          ctx,
+          true);
+    }
+
     /**
      * Creates a binary floating-point number from a text string that represents a
      * number, using an unlimited precision context. For more information, see the
@@ -1215,8 +1440,7 @@ licensed under the Unlicense: https://unlicense.org/
     public EFloat Abs() {
       if (this.isNegative()) {
         EFloat er = new EFloat(
-          this.unsignedMantissa,
-          this.exponent,
+          this,
           (byte)(this.flags & ~BigNumberFlags.FlagNegative));
         return er;
       }
@@ -1384,6 +1608,34 @@ licensed under the Unlicense: https://unlicense.org/
      * not-a-number (NaN), returns NaN.
      */
     public EFloat Add(EFloat otherValue) {
+      if (otherValue != null && this.IsInlineFinite() &&
+        otherValue.IsInlineFinite()) {
+        // Bring both significands to the lower exponent, and add them as
+        // 64-bit integers if neither they nor their sum overflow.  A zero
+        // sum is left to the general case, which decides its sign.
+        int exp = Math.min(this.smallExponent, otherValue.smallExponent);
+        long longA = ShiftLeftInline(
+            this.smallMantissa,
+            (long)this.smallExponent - exp);
+        long longB = ShiftLeftInline(
+            otherValue.smallMantissa,
+            (long)otherValue.smallExponent - exp);
+        if (longA >= 0 && longB >= 0) {
+          longA = this.isNegative() ? -longA : longA;
+          longB = otherValue.isNegative() ? -longB : longB;
+          long sum = longA + longB;
+          if (((longA ^ sum) & (longB ^ sum)) >= 0 && sum != 0 &&
+            sum != Long.MIN_VALUE) {
+            return (sum < 0) ? new EFloat(
+                -sum,
+                exp,
+                (byte)BigNumberFlags.FlagNegative) : new EFloat(
+                sum,
+                exp,
+                (byte)0);
+          }
+        }
+      }
       return this.Add(otherValue, EContext.UnlimitedHalfEven);
     }
 
@@ -1419,7 +1671,7 @@ licensed under the Unlicense: https://unlicense.org/
      * {@code other} is null, or 0 if both values are equal.
      */
     public int compareTo(EFloat other) {
-      return MathValue.compareTo(this, other);
+      return this.CompareToValue(other);
     }
 
     /**
@@ -1437,6 +1689,28 @@ licensed under the Unlicense: https://unlicense.org/
      * {@code other} is null, or 0 if both values are equal.
      */
     public int CompareToValue(EFloat other) {
+      if (other != null && this.IsInlineFinite() && other.IsInlineFinite()) {
+        int signA = this.signum();
+        int signB = other.signum();
+        if (signA != signB) {
+          return (signA < signB) ? -1 : 1;
+        }
+        if (signA == 0) {
+          return 0;
+        }
+        // Bring both significands to the lower exponent, if they fit
+        int exp = Math.min(this.smallExponent, other.smallExponent);
+        long longA = ShiftLeftInline(
+            this.smallMantissa,
+            (long)this.smallExponent - exp);
+        long longB = ShiftLeftInline(
+            other.smallMantissa,
+            (long)other.smallExponent - exp);
+        if (longA >= 0 && longB >= 0) {
+          int cmp = (longA == longB) ? 0 : ((longA < longB) ? -1 : 1);
+          return (signA < 0) ? -cmp : cmp;
+        }
+      }
       return MathValue.compareTo(this, other);
     }
 
@@ -1650,16 +1924,16 @@ licensed under the Unlicense: https://unlicense.org/
         return neg1 ? 1 : -1;
       }
       if (valueIThis >= 2) {
-        cmp = this.unsignedMantissa.compareTo(
-            other.unsignedMantissa);
+        cmp = this.GetUnsignedMantissaFixed().compareTo(
+            other.GetUnsignedMantissaFixed());
         return neg1 ? -cmp : cmp;
       } else if (valueIThis == 1) {
         return 0;
       } else {
         cmp = this.compareTo(other);
         if (cmp == 0) {
-          cmp = this.exponent.compareTo(
-              other.exponent);
+          cmp = this.GetExponentFixed().compareTo(
+              other.GetExponentFixed());
           return neg1 ? -cmp : cmp;
         }
         return cmp;
@@ -1710,16 +1984,16 @@ licensed under the Unlicense: https://unlicense.org/
         return -1;
       }
       if (valueIThis >= 2) {
-        cmp = this.unsignedMantissa.compareTo(
-            other.unsignedMantissa);
+        cmp = this.GetUnsignedMantissaFixed().compareTo(
+            other.GetUnsignedMantissaFixed());
         return cmp;
       } else if (valueIThis == 1) {
         return 0;
       } else {
         cmp = this.Abs().compareTo(other.Abs());
         if (cmp == 0) {
-          cmp = this.exponent.compareTo(
-              other.exponent);
+          cmp = this.GetExponentFixed().compareTo(
+              other.GetExponentFixed());
           return cmp;
         }
         return cmp;
@@ -2050,7 +2324,7 @@ licensed under the Unlicense: https://unlicense.org/
       ERounding rounding) {
       return this.DivideToExponent(
           divisor,
-          this.exponent.ToEInteger(),
+          this.getExponent(),
           EContext.ForRounding(rounding));
     }
 
@@ -2144,8 +2418,14 @@ licensed under the Unlicense: https://unlicense.org/
       if (otherValue == null) {
         return false;
       }
-      return this.exponent.equals(otherValue.exponent) &&
-        this.unsignedMantissa.equals(otherValue.unsignedMantissa) &&
+      // Values are stored inline whenever they fit, so two numbers are
+      // equal only if they store the same values the same way
+      return this.smallExponent == otherValue.smallExponent &&
+        this.smallMantissa == otherValue.smallMantissa &&
+        (this.largeExponent == null ? otherValue.largeExponent == null :
+          this.largeExponent.equals(otherValue.largeExponent)) &&
+        (this.largeMantissa == null ? otherValue.largeMantissa == null :
+          this.largeMantissa.equals(otherValue.largeMantissa)) &&
         this.flags == otherValue.flags;
     }
 
@@ -2255,8 +2535,10 @@ licensed under the Unlicense: https://unlicense.org/
     @Override public int hashCode() {
       int valueHashCode = 403796923;
       {
-        valueHashCode += 403797019 * this.exponent.hashCode();
-        valueHashCode += 403797059 * this.unsignedMantissa.hashCode();
+        valueHashCode += 403797019 * ((this.largeExponent == null) ?
+          this.smallExponent : this.largeExponent.hashCode());
+        valueHashCode += 403797059 * ((this.largeMantissa == null) ?
+          Long.hashCode(this.smallMantissa) : this.largeMantissa.hashCode());
         valueHashCode += 403797127 * this.flags;
       }
       return valueHashCode;
@@ -2685,19 +2967,23 @@ licensed under the Unlicense: https://unlicense.org/
         throw new NullPointerException("otherValue");
       }
       if (this.isFinite() && otherValue.isFinite()) {
-        EInteger exp = this.getExponent().Add(otherValue.getExponent());
         int newflags = otherValue.flags ^ this.flags;
-        if (this.unsignedMantissa.CanFitInInt32() &&
-          otherValue.unsignedMantissa.CanFitInInt32()) {
-          int integerA = this.unsignedMantissa.ToInt32();
-          int integerB = otherValue.unsignedMantissa.ToInt32();
-          long longA = ((long)integerA) * ((long)integerB);
-          return CreateWithFlags(longA, exp, newflags);
-        } else {
-          EInteger eintA = this.getUnsignedMantissa().Multiply(
-              otherValue.getUnsignedMantissa());
-          return CreateWithFlags(eintA, exp, newflags);
+        if (this.largeMantissa == null && otherValue.largeMantissa == null &&
+          this.largeExponent == null && otherValue.largeExponent == null) {
+          // Both significands are nonnegative
+          long longA = this.smallMantissa;
+          long longB = otherValue.smallMantissa;
+          long product = longA * longB;
+          long smallExp = (long)this.smallExponent + otherValue.smallExponent;
+          if (smallExp == (int)smallExp && (((longA | longB) >> 31) == 0 ||
+            longB == 0 || product / longB == longA)) {
+            return new EFloat(product, (int)smallExp, (byte)newflags);
+          }
         }
+        EInteger exp = this.getExponent().Add(otherValue.getExponent());
+        EInteger eintA = this.getUnsignedMantissa().Multiply(
+            otherValue.getUnsignedMantissa());
+        return CreateWithFlags(eintA, exp, newflags);
       }
       return this.Multiply(otherValue, EContext.UnlimitedHalfEven);
     }
@@ -2783,8 +3069,7 @@ licensed under the Unlicense: https://unlicense.org/
       if ((subtrahend.flags & BigNumberFlags.FlagNaN) == 0) {
         int newflags = subtrahend.flags ^ BigNumberFlags.FlagNegative;
         negated = new EFloat(
-          subtrahend.unsignedMantissa,
-          subtrahend.exponent,
+          subtrahend,
           (byte)newflags);
       }
       return MathValue.MultiplyAndAdd(this, op, negated, ctx);
@@ -2800,8 +3085,7 @@ licensed under the Unlicense: https://unlicense.org/
      */
     public EFloat Negate() {
       return new EFloat(
-          this.unsignedMantissa,
-          this.exponent,
+          this,
           (byte)(this.flags ^ BigNumberFlags.FlagNegative));
     }
 
@@ -3565,7 +3849,7 @@ licensed under the Unlicense: https://unlicense.org/
       EInteger bigExp = this.getExponent();
       bigExp = bigExp.Add(bigPlaces);
       return new EFloat(
-          this.unsignedMantissa,
+          this.GetUnsignedMantissaFixed(),
           FastIntegerFixed.FromBig(bigExp),
           (byte)this.flags).RoundToPrecision(ctx);
     }
@@ -3653,8 +3937,7 @@ licensed under the Unlicense: https://unlicense.org/
       if ((otherValue.flags & BigNumberFlags.FlagNaN) == 0) {
         int newflags = otherValue.flags ^ BigNumberFlags.FlagNegative;
         negated = new EFloat(
-          otherValue.unsignedMantissa,
-          otherValue.exponent,
+          otherValue,
           (byte)newflags);
       }
       return this.Add(negated, ctx);
@@ -3841,9 +4124,9 @@ licensed under the Unlicense: https://unlicense.org/
       int exponentZone = ((1 << (Binary32ExponentArea - 1)) - 2) -
         Binary32SignifBits;
       if (!thisValue.isFinite() ||
-        thisValue.unsignedMantissa.CompareToInt(1 << Binary32SignifBits) >= 0 ||
-        thisValue.exponent.CompareToInt(-exponentZone) < 0 ||
-        thisValue.exponent.CompareToInt(exponentZone) > 0) {
+        !thisValue.IsMantissaLessThan(1 << Binary32SignifBits) ||
+        thisValue.CompareExponentToInt(-exponentZone) < 0 ||
+        thisValue.CompareExponentToInt(exponentZone) > 0) {
         thisValue = this.RoundToPrecision(EContext.Binary32);
       }
       // System.out.println("afterround=" +thisValue + " ["+
@@ -3851,14 +4134,14 @@ licensed under the Unlicense: https://unlicense.org/
       if (!thisValue.isFinite()) {
         return thisValue.ToSingleBits();
       }
-      int intmant = thisValue.unsignedMantissa.ToInt32();
+      int intmant = (int)thisValue.smallMantissa;
       if (thisValue.isNegative() && intmant == 0) {
         return (int)1 << (Binary32Bits - 1);
       } else if (intmant == 0) {
         return 0;
       }
       int intBitLength = NumberUtility.BitLength(intmant);
-      int expo = thisValue.exponent.ToInt32();
+      int expo = thisValue.smallExponent;
       boolean subnormal = false;
       if (intBitLength < Binary32SignifBits) {
         int diff = Binary32SignifBits - intBitLength;
@@ -3940,9 +4223,9 @@ licensed under the Unlicense: https://unlicense.org/
       int exponentZone = ((1 << (Binary16ExponentArea - 1)) - 2) -
         Binary16SignifBits;
       if (!thisValue.isFinite() ||
-        thisValue.unsignedMantissa.CompareToInt(1 << Binary16SignifBits) >= 0 ||
-        thisValue.exponent.CompareToInt(-exponentZone) < 0 ||
-        thisValue.exponent.CompareToInt(exponentZone) > 0) {
+        !thisValue.IsMantissaLessThan(1 << Binary16SignifBits) ||
+        thisValue.CompareExponentToInt(-exponentZone) < 0 ||
+        thisValue.CompareExponentToInt(exponentZone) > 0) {
         thisValue = this.RoundToPrecision(EContext.Binary16);
       }
       // System.out.println("afterround=" +thisValue + " ["+
@@ -3950,14 +4233,14 @@ licensed under the Unlicense: https://unlicense.org/
       if (!thisValue.isFinite()) {
         return thisValue.ToHalfBits();
       }
-      int intmant = thisValue.unsignedMantissa.ToInt32();
+      int intmant = (int)thisValue.smallMantissa;
       if (thisValue.isNegative() && intmant == 0) {
         return (short)(1 << (Binary16Bits - 1));
       } else if (intmant == 0) {
         return (short)0;
       }
       int intBitLength = NumberUtility.BitLength(intmant);
-      int expo = thisValue.exponent.ToInt32();
+      int expo = thisValue.smallExponent;
       boolean subnormal = false;
       if (intBitLength < Binary16SignifBits) {
         int diff = Binary16SignifBits - intBitLength;
@@ -4040,15 +4323,15 @@ licensed under the Unlicense: https://unlicense.org/
       // Check whether rounding can be avoided for common cases
       // where the value already fits a double
       if (!thisValue.isFinite() ||
-        thisValue.unsignedMantissa.CompareToInt64(1L << 52) >= 0 ||
-        thisValue.exponent.CompareToInt(-900) < 0 ||
-        thisValue.exponent.CompareToInt(900) > 0) {
+        !thisValue.IsMantissaLessThan(1L << 52) ||
+        thisValue.CompareExponentToInt(-900) < 0 ||
+        thisValue.CompareExponentToInt(900) > 0) {
         thisValue = this.RoundToPrecision(EContext.Binary64);
       }
       if (!thisValue.isFinite()) {
         return thisValue.ToDoubleBits();
       }
-      long longmant = thisValue.unsignedMantissa.ToInt64();
+      long longmant = thisValue.smallMantissa;
       if (thisValue.isNegative() && longmant == 0) {
         return 1L << 63;
       } else if (longmant == 0) {
@@ -4056,7 +4339,7 @@ licensed under the Unlicense: https://unlicense.org/
       }
       // System.out.println("todouble -->" + this);
       long longBitLength = NumberUtility.BitLength(longmant);
-      int expo = thisValue.exponent.ToInt32();
+      int expo = thisValue.smallExponent;
       boolean subnormal = false;
       if (longBitLength < 53) {
         int diff = 53 - (int)longBitLength;
@@ -4212,6 +4495,16 @@ licensed under the Unlicense: https://unlicense.org/
       if (this.IsInfinity()) {
         return this.RoundToPrecision(ctx).toString();
       }
+      // Values exactly representable in binary16, binary32, or binary64
+      // take a table-driven path
+      String shortest = ShortestDigits.ToShortestString(this, ctx);
+      if (shortest != null) {
+        if (ctx.getHasFlagsOrTraps()) {
+          // Set flags and trigger traps as the general case below does
+          this.RoundToPrecision(ctx);
+        }
+        return shortest;
+      }
       EContext ctx2 = ctx.WithNoFlags();
       EFloat valueEfRnd = this.RoundToPrecision(ctx);
       if (valueEfRnd.IsInfinity()) {
@@ -4260,20 +4553,27 @@ licensed under the Unlicense: https://unlicense.org/
             nextCtx = ctx2.WithBigPrecision(nextPrecision);
 
             EDecimal nextDec2 = dec.RoundToPrecision(nextCtx);
-            nextDec2 = nextDec2.NextPlus(nextCtx);
+            // The wider gap is away from zero, which is downward for
+            // negative values
+            nextDec2 = dec.isNegative() ? nextDec2.NextMinus(nextCtx) :
+              nextDec2.NextPlus(nextCtx);
             newFloat = nextDec2.ToEFloat(ctx2);
             if (newFloat.compareTo(valueEfRnd) == 0) {
               nextDec = nextDec2;
             }
           }
-          return (nextDec.getExponent().signum() > 0 &&
-              nextDec.Abs().compareTo(EDecimal.FromInt32(10000000)) < 0) ?
-            nextDec.ToPlainString() : nextDec.toString();
+          return ShortestToString(nextDec);
         }
         eprecision = nextPrecision;
       }
     }
 
+    private static String ShortestToString(EDecimal dec) {
+      return (dec.getExponent().signum() > 0 &&
+          dec.Abs().compareTo(EDecimal.FromInt32(10000000)) < 0) ?
+        dec.ToPlainString() : dec.toString();
+    }
+
     /**
      * <p>Converts this value to its closest equivalent as a 32-bit floating-point
      * number. The half-even rounding mode is used. </p> <p>If this value is a NaN,
@@ -4318,6 +4618,181 @@ licensed under the Unlicense: https://unlicense.org/
         EFloat.Create(EInteger.FromInt32(1), this.getExponent());
     }
 
+    /**
+     * Gets the number of bytes in this number's compact binary encoding, as
+     * returned by the {@code ToEncodedBytes} method.
+     * @return The number of bytes in the encoded form.
+     */
+    public int GetEncodedLength() {
+      return NumberCodec.EncodedLength(this);
+    }
+
+    /**
+     * Converts this number to a compact binary encoding, which stores the sign,
+     * the unsigned mantissa, and the exponent in variable-length form, and
+     * stores infinity, not-a-number values (with their diagnostic information),
+     * and negative zero exactly. The encoding begins with a format version, so
+     * that encodings from later versions of this library are rejected rather
+     * than misread.
+     * @return A byte array holding the encoded form of this number.
+     */
+    public byte[] ToEncodedBytes() {
+      return NumberCodec.ToBytes(this);
+    }
+
+    /**
+     * Creates an arbitrary-precision binary floating-point number from its
+     * compact binary encoding (see {@code ToEncodedBytes}).
+     * @param bytes A byte array holding exactly one encoded number.
+     * @return An arbitrary-precision binary floating-point number.
+     * @throws NullPointerException The parameter {@code bytes} is null.
+     * @throws IllegalArgumentException The parameter {@code bytes} does not
+     * hold a valid encoded number, or has bytes after the encoded number.
+     */
+    public static EFloat FromEncodedBytes(byte[] bytes) {
+      return (EFloat)NumberCodec.FromBytes(bytes, NumberCodec.TypeEFloat);
+    }
+
+    /**
+     * Writes the compact binary encoding of this number (see {@code
+     * ToEncodedBytes}) to a data output stream.
+     * @param output A data output stream.
+     * @throws NullPointerException The parameter {@code output} is null.
+     * @throws java.io.IOException An I/O error occurred.
+     */
+    public void WriteEncoded(java.io.DataOutput output)
+      throws java.io.IOException {
+      NumberCodec.Write(this, output);
+    }
+
+    /**
+     * Writes the compact binary encoding of this number (see {@code
+     * ToEncodedBytes}) to a byte buffer at its current position, and advances
+     * the position past the encoded number.
+     * @param buffer A byte buffer.
+     * @throws NullPointerException The parameter {@code buffer} is null.
+     * @throws java.nio.BufferOverflowException The buffer has fewer bytes
+     * remaining than the encoded length, in which case nothing is written.
+     */
+    public void WriteEncoded(java.nio.ByteBuffer buffer) {
+      NumberCodec.Write(this, buffer);
+    }
+
+    /**
+     * Reads an arbitrary-precision binary floating-point number in compact
+     * binary encoding (see {@code ToEncodedBytes}) from a data input stream.
+     * @param input A data input stream.
+     * @return An arbitrary-precision binary floating-point number.
+     * @throws NullPointerException The parameter {@code input} is null.
+     * @throws java.io.IOException An I/O error occurred, the stream ended
+     * before the end of the encoded number, or the data is not a valid encoded
+     * number.
+     */
+    public static EFloat ReadEncoded(java.io.DataInput input)
+      throws java.io.IOException {
+      return (EFloat)NumberCodec.Read(input, NumberCodec.TypeEFloat);
+    }
+
+    /**
+     * Reads an arbitrary-precision binary floating-point number in compact
+     * binary encoding (see {@code ToEncodedBytes}) from a byte buffer at its
+     * current position, and advances the position past the encoded number.
+     * @param buffer A byte buffer.
+     * @return An arbitrary-precision binary floating-point number.
+     * @throws NullPointerException The parameter {@code buffer} is null.
+     * @throws java.nio.BufferUnderflowException The buffer ends before the end
+     * of the encoded number, in which case its position is unchanged.
+     * @throws IllegalArgumentException The data is not a valid encoded number,
+     * in which case the buffer's position is unchanged.
+     */
+    public static EFloat ReadEncoded(java.nio.ByteBuffer buffer) {
+      return (EFloat)NumberCodec.Read(buffer, NumberCodec.TypeEFloat);
+    }
+
+    /**
+     * Gets the number of characters in this number's text form, the same as
+     * returned by the {@code toString} method, without building that string if
+     * the number's parts are small.
+     * @return The number of characters in the text form.
+     * @throws UnsupportedOperationException The text form is longer than
+     * Integer.MAX_VALUE characters.
+     */
+    public int GetStringLength() {
+      return NumberText.Length(this, NumberText.FormString);
+    }
+
+    /**
+     * Writes this number's text form, the same as returned by the {@code
+     * toString} method, to an Appendable such as a StringBuilder or a Writer,
+     * without building that string if the number's parts are small.
+     * @param output An object that receives the text.
+     * @throws NullPointerException The parameter {@code output} is null.
+     * @throws java.io.IOException An I/O error occurred.
+     */
+    public void WriteString(Appendable output)
+      throws java.io.IOException {
+      NumberText.Write(this, NumberText.FormString, output);
+    }
+
+    /**
+     * Writes this number's text form, the same as returned by the {@code
+     * toString} method, to a character array.
+     * @param chars A character array.
+     * @param offset An index starting at 0 showing where to write the text in
+     * {@code chars}.
+     * @return The number of characters written.
+     * @throws NullPointerException The parameter {@code chars} is null.
+     * @throws IllegalArgumentException The parameter {@code offset} is less
+     * than 0 or greater than {@code chars}'s length, or {@code chars} has too
+     * little room after {@code offset} for the text, in which case some of the
+     * text may have been written.
+     */
+    public int WriteString(char[] chars, int offset) {
+      return NumberText.Write(this, NumberText.FormString, chars, offset);
+    }
+
+    /**
+     * Writes this number's text form, the same as returned by the {@code
+     * toString} method, to a byte array in UTF-8, in which each character of
+     * the text form is one byte.
+     * @param bytes A byte array.
+     * @param offset An index starting at 0 showing where to write the text in
+     * {@code bytes}.
+     * @return The number of bytes written.
+     * @throws NullPointerException The parameter {@code bytes} is null.
+     * @throws IllegalArgumentException The parameter {@code offset} is less
+     * than 0 or greater than {@code bytes}'s length, or {@code bytes} has too
+     * little room after {@code offset} for the text, in which case some of the
+     * text may have been written.
+     */
+    public int WriteStringUtf8(byte[] bytes, int offset) {
+      return NumberText.WriteUtf8(this, NumberText.FormString, bytes, offset);
+    }
+
+    /**
+     * Writes this number's text form, the same as returned by the {@code
+     * toString} method, to a byte buffer in UTF-8 at its current position, and
+     * advances the position past the text.
+     * @param buffer A byte buffer.
+     * @throws NullPointerException The parameter {@code buffer} is null.
+     * @throws java.nio.BufferOverflowException The buffer has too little room
+     * for the text, in which case its position is unchanged.
+     */
+    public void WriteStringUtf8(java.nio.ByteBuffer buffer) {
+      NumberText.WriteUtf8(this, NumberText.FormString, buffer);
+    }
+
+    // Serialization writes the compact binary encoding in place of this
+    // object's fields (see NumberCodec.SerialForm)
+    private Object writeReplace() {
+      return new NumberCodec.SerialForm(NumberCodec.TypeEFloat, this);
+    }
+
+    private void readObject(java.io.ObjectInputStream stream)
+      throws java.io.InvalidObjectException {
+      throw new java.io.InvalidObjectException("Serialized form required");
+    }
+
     static EFloat CreateWithFlags(
       long mantissa,
       EInteger exponent,
@@ -4376,7 +4851,7 @@ licensed under the Unlicense: https://unlicense.org/
         }
         return bigmantissa;
       } else {
-        if (exact && !this.unsignedMantissa.isEvenNumber()) {
+        if (exact && !this.getUnsignedMantissa().isEven()) {
           // Mantissa is odd and will have to shift a nonzero
           // number of bits, so can't be an exact integer
           throw new ArithmeticException("Not an exact integer");
@@ -4538,7 +5013,7 @@ licensed under the Unlicense: https://unlicense.org/
        * @return An arbitrary-precision integer.
        */
       public EInteger GetMantissa(EFloat value) {
-        return value.unsignedMantissa.ToEInteger();
+        return value.getUnsignedMantissa();
       }
 
       /**
@@ -4547,7 +5022,7 @@ licensed under the Unlicense: https://unlicense.org/
        * @return An arbitrary-precision integer.
        */
       public EInteger GetExponent(EFloat value) {
-        return value.exponent.ToEInteger();
+        return value.getExponent();
       }
 
       public FastInteger GetDigitLength(EInteger ei) {
@@ -4555,11 +5030,11 @@ licensed under the Unlicense: https://unlicense.org/
       }
 
       public FastIntegerFixed GetMantissaFastInt(EFloat value) {
-        return value.unsignedMantissa;
+        return value.GetUnsignedMantissaFixed();
       }
 
       public FastIntegerFixed GetExponentFastInt(EFloat value) {
-        return value.exponent;
+        return value.GetExponentFixed();
       }
 
       /**
@@ -4892,12 +5367,9 @@ licensed under the Unlicense: https://unlicense.org/
       if (inputInt32 >= CacheFirst && inputInt32 <= CacheLast) {
         return Cache[inputInt32 - CacheFirst];
       }
-      if (inputInt32 == Integer.MIN_VALUE) {
-        return FromEInteger(EInteger.FromInt32(inputInt32));
-      }
       return new EFloat(
-          FastIntegerFixed.FromInt32(Math.abs(inputInt32)),
-          FastIntegerFixed.Zero,
+          Math.abs((long)inputInt32),
+          0,
           (byte)((inputInt32 < 0) ? BigNumberFlags.FlagNegative : 0));
     }
 
@@ -4975,8 +5447,8 @@ licensed under the Unlicense: https://unlicense.org/
         return FromEInteger(EInteger.FromInt64(inputInt64));
       }
       return new EFloat(
-          FastIntegerFixed.FromInt64(Math.abs(inputInt64)),
-          FastIntegerFixed.Zero,
+          Math.abs(inputInt64),
+          0,
           (byte)((inputInt64 < 0) ? BigNumberFlags.FlagNegative : 0));
     }
 
@@ -308,7 +308,9 @@ private EFloatCharArrayString() {
         }
         long finalexp = (long)expInt + (long)newScaleInt;
         long ml = mantissaLong;
-        if (finalexp >= -22 && finalexp <= 44) {
+        // Negative exponents are left to the general case below, which
+        // has a faster path than division for common contexts
+        if (finalexp >= 0 && finalexp <= 44) {
           int iexp = (int)finalexp;
           while (ml <= 900719925474099L && iexp > 22) {
             ml *= 10;
@@ -339,6 +341,16 @@ private EFloatCharArrayString() {
         } else if (adjexpLowerBound > 309) {
           return EFloat.SignalOverflow(ctx, negative, zeroMantissa);
         }
+        // For binary64 and binary32, most values need no
+        // arbitrary-precision arithmetic
+        EFloat efnear = NearestBinary.ToEFloat(
+            mantissaLong,
+            (int)finalexp,
+            negative,
+            ctx);
+        if (efnear != null) {
+          return efnear;
+        }
         if (negative) {
           mantissaLong = -mantissaLong;
         }
@@ -43,13 +43,51 @@ licensed under the Unlicense: https://unlicense.org/
    * big numbers in security-sensitive algorithms.</p>
    */
 
-  public final class EInteger implements Comparable<EInteger> {
+  public final class EInteger implements Comparable<EInteger>,
+    java.io.Serializable {
+    private static final long serialVersionUID = 1L;
+
     private static final String Digits = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZ";
 
     private static final int Toom3Threshold = 100;
     private static final int Toom4Threshold = 400;
-    private static final int MultRecursionThreshold = 10;
+    // Minimum word count of both operands for which multiplication uses
+    // number-theoretic transforms rather than Toom-Cook
+    private static final int NttThreshold = 1500;
+    // Squaring needs one fewer transform per prime, so its crossover is
+    // lower
+    private static final int NttSquareThreshold = 1000;
+    // Minimum word counts for which squaring uses Toom-3 and Toom-4.
+    // These are higher than the thresholds for multiplication, since
+    // Karatsuba squaring does fewer word multiplications than Karatsuba
+    // multiplication and so stays faster for longer.  Measured with
+    // EIntegerBenchmark's Square, Karatsuba and Toom-3 squaring take about
+    // the same time at 200 to 300 words, Toom-3 is about 20 percent faster
+    // at 500 words, and Toom-4 is slower than Toom-3 at 500 words
+    private static final int Toom3SquareThreshold = 300;
+    private static final int Toom4SquareThreshold = 800;
+    // Maximum word count for which multiplication and squaring use the
+    // schoolbook method rather than Karatsuba.  Measured with
+    // EIntegerBenchmark's Multiply and Square at 16 to 64 words, 32 is
+    // about 13 percent faster than 24 for multiplication and about 7
+    // percent slower for squaring; summed over both, 32 is faster than
+    // 16, 24 and 48
+    private static final int MultRecursionThreshold = 32;
+    // Minimum word counts of the divisor and the quotient for which
+    // division computes the divisor's reciprocal by Newton's iteration
+    // rather than dividing recursively
+    private static final int NewtonDivisionThreshold = 2000;
+    private static final int NewtonQuotientThreshold = 500;
+    // Minimum word count of both operands for which the schoolbook
+    // methods use 32-bit limbs rather than 16-bit words
+    private static final int Schoolbook32Threshold = 3;
     private static final int RecursiveDivisionLimit = (Toom3Threshold * 2) + 1;
+    // Minimum word count for which radix conversion splits the number by
+    // powers of the radix rather than using repeated short division
+    private static final int RadixConversionThreshold = 64;
+    // Minimum depth in a radix power tree at which divisions by the
+    // level's power use a precomputed reciprocal
+    private static final int RadixReciprocalMinLevel = 3;
 
     private static final int CacheFirst = -24;
     private static final int CacheLast = 128;
@@ -93,7 +131,12 @@ licensed under the Unlicense: https://unlicense.org/
 
     private final boolean negative;
     private final int wordCount;
+    // The words of this value's absolute value, or null if this value fits
+    // in a 64-bit signed integer and is stored inline in 'inlineValue'
+    // instead.  Methods that use the words of a value that may be inline
+    // get them from GetWordsInternal.
     private final short[] words;
+    private final long inlineValue;
 
     private static final EInteger[] Cache = EIntegerCache(CacheFirst,
         CacheLast);
@@ -121,8 +164,71 @@ licensed under the Unlicense: https://unlicense.org/
 
     EInteger(int wordCount, short[] reg, boolean negative) {
       this.wordCount = wordCount;
-      this.words = reg;
       this.negative = negative;
+      long mag = 0;
+      if (wordCount <= 4) {
+        for (int i = wordCount - 1; i >= 0; --i) {
+          mag = (mag << 16) | (((long)reg[i]) & 0xffffL);
+        }
+      }
+      // Store the value inline, rather than keep the array, if it fits in
+      // a 64-bit signed integer, so that a value is stored inline if and
+      // only if CanFitInInt64 is true for it
+      if (wordCount <= 4 && (mag >= 0 || (negative && mag == Long.MIN_VALUE))) {
+        this.words = null;
+        this.inlineValue = negative ? -mag : mag;
+      } else {
+        this.words = reg;
+        this.inlineValue = 0;
+      }
+    }
+
+    // Creates an integer stored inline; any 64-bit value can be stored
+    // this way
+    private EInteger(long value) {
+      // The absolute value of Long.MIN_VALUE is 2^63 if treated as unsigned
+      long mag = Math.abs(value);
+      this.wordCount = (79 - Long.numberOfLeadingZeros(mag)) >> 4;
+      this.negative = value < 0;
+      this.words = null;
+      this.inlineValue = value;
+    }
+
+    // Gets this value's array of words, which callers must not modify.
+    // If this value is stored inline, a new array is created each time.
+    short[] GetWordsInternal() {
+      return (this.words != null) ? this.words : this.InlineWords();
+    }
+
+    private short[] InlineWords() {
+      long mag = Math.abs(this.inlineValue);
+      // Four words, so that the array also has room for the two's
+      // complement form of any inline value
+      short[] ret = new short[4];
+      for (int i = 0; i < this.wordCount; ++i) {
+        ret[i] = (short)mag;
+        mag >>>= 16;
+      }
+      return ret;
+    }
+
+    // Gets this value's array of words, as GetWordsInternal does, except
+    // that a value stored inline is copied into 'scratch', which must have
+    // room for four words, rather than into a new array
+    short[] GetWordsInternal(short[] scratch) {
+      if (this.words != null) {
+        return this.words;
+      }
+      long mag = Math.abs(this.inlineValue);
+      for (int i = 0; i < 4; ++i) {
+        scratch[i] = (short)mag;
+        mag >>>= 16;
+      }
+      return scratch;
+    }
+
+    int GetWordCountInternal() {
+      return this.wordCount;
     }
 
     /**
@@ -164,6 +270,10 @@ licensed under the Unlicense: https://unlicense.org/
      * than 0; otherwise, {@code false}.
      */
     public final boolean isPowerOfTwo() {
+        if (this.words == null) {
+          long v = this.inlineValue;
+          return v > 0 && (v & (v - 1)) == 0;
+        }
         int wc = this.wordCount;
         if (this.negative || wc == 0 ||
           (wc > 1 && this.words[0] != 0)) {
@@ -379,35 +489,7 @@ licensed under the Unlicense: https://unlicense.org/
       if (intValue >= CacheFirst && intValue <= CacheLast) {
         return Cache[intValue - CacheFirst];
       }
-      short[] retreg;
-      boolean retnegative;
-      int retwordcount;
-      retnegative = intValue < 0;
-      if ((intValue >> 15) == 0) {
-        retreg = new short[2];
-        if (retnegative) {
-          intValue = -intValue;
-        }
-        retreg[0] = (short)(intValue & ShortMask);
-        retwordcount = 1;
-      } else if (intValue == Integer.MIN_VALUE) {
-        retreg = new short[2];
-        retreg[0] = 0;
-        retreg[1] = ((short)0x8000);
-        retwordcount = 2;
-      } else {
-        {
-          retreg = new short[2];
-          if (retnegative) {
-            intValue = -intValue;
-          }
-          retreg[0] = (short)(intValue & ShortMask);
-          intValue >>= 16;
-          retreg[1] = (short)(intValue & ShortMask);
-          retwordcount = (retreg[1] == 0) ? 1 : 2;
-        }
-      }
-      return new EInteger(retwordcount, retreg, retnegative);
+      return new EInteger((long)intValue);
     }
 
     /**
@@ -439,58 +521,7 @@ licensed under the Unlicense: https://unlicense.org/
       if (longerValue >= CacheFirst && longerValue <= CacheLast) {
         return Cache[(int)(longerValue - CacheFirst)];
       }
-      short[] retreg;
-      boolean retnegative;
-      int retwordcount;
-      {
-        retnegative = longerValue < 0;
-        if ((longerValue >> 16) == 0) {
-          retreg = new short[1];
-          int intValue = (int)longerValue;
-          if (retnegative) {
-            intValue = -intValue;
-          }
-          retreg[0] = (short)(intValue & ShortMask);
-          retwordcount = 1;
-        } else if ((longerValue >> 31) == 0) {
-          retreg = new short[2];
-          int intValue = (int)longerValue;
-          if (retnegative) {
-            intValue = -intValue;
-          }
-          retreg[0] = (short)(intValue & ShortMask);
-          retreg[1] = (short)((intValue >> 16) & ShortMask);
-          retwordcount = 2;
-        } else if (longerValue == Long.MIN_VALUE) {
-          retreg = new short[4];
-          retreg[0] = 0;
-          retreg[1] = 0;
-          retreg[2] = 0;
-          retreg[3] = ((short)0x8000);
-          retwordcount = 4;
-        } else {
-          retreg = new short[4];
-          long ut = longerValue;
-          if (retnegative) {
-            ut = -ut;
-          }
-          retreg[0] = (short)(ut & ShortMask);
-          ut >>= 16;
-          retreg[1] = (short)(ut & ShortMask);
-          ut >>= 16;
-          retreg[2] = (short)(ut & ShortMask);
-          ut >>= 16;
-          retreg[3] = (short)(ut & ShortMask);
-          // at this point, the word count can't
-          // be 0 (the check for 0 was already done above)
-          retwordcount = 4;
-          while (retwordcount != 0 &&
-            retreg[retwordcount - 1] == 0) {
-            --retwordcount;
-          }
-        }
-      }
-      return new EInteger(retwordcount, retreg, retnegative);
+      return new EInteger(longerValue);
     }
 
     // Approximate number of digits, multiplied by 100, that fit in
@@ -875,13 +906,159 @@ licensed under the Unlicense: https://unlicense.org/
       return FromRadixSubstring(str, 10, index, endIndex);
     }
 
+    /**
+     * Converts a sequence of characters, such as a {@code StringBuilder} or a
+     * {@code java.nio.CharBuffer}, to an arbitrary-precision integer, reading
+     * the characters in place.
+     * @param cs A sequence of characters in the form described by {@code
+     * FromString(String)}.
+     * @return An arbitrary-precision integer with the same value as given in
+     * the sequence.
+     * @throws NumberFormatException The parameter {@code cs} is in an invalid
+     * format.
+     * @throws NullPointerException The parameter {@code cs} is null.
+     */
+    public static EInteger FromString(CharSequence cs) {
+      if (cs == null) {
+        throw new NullPointerException("cs");
+      }
+      return FromRadixSubstring(cs, 10, 0, cs.length());
+    }
+
+    /**
+     * Converts a portion of a sequence of characters to an arbitrary-precision
+     * integer, reading the characters in place.
+     * @param cs A sequence of characters, the desired portion of which is in
+     * the form described by {@code FromString(String)}.
+     * @param index The index of the sequence that starts the desired portion.
+     * @param endIndex The index of the sequence that ends the desired portion.
+     * @return An arbitrary-precision integer with the same value as given in
+     * the desired portion.
+     * @throws IllegalArgumentException The parameter {@code index} is less than
+     * 0, {@code endIndex} is less than 0, or either is greater than the
+     * sequence's length, or {@code endIndex} is less than {@code index}.
+     * @throws NumberFormatException The desired portion is empty or in an
+     * invalid format.
+     * @throws NullPointerException The parameter {@code cs} is null.
+     */
+    public static EInteger FromSubstring(
+      CharSequence cs,
+      int index,
+      int endIndex) {
+      return FromRadixSubstring(cs, 10, index, endIndex);
+    }
+
+    /**
+     * Converts a sequence of characters to an arbitrary-precision integer in a
+     * given radix, reading the characters in place.
+     * @param cs A sequence of characters in the form described by {@code
+     * FromRadixSubstring(String, int, int, int)}.
+     * @param radix A base from 2 to 36.
+     * @return An arbitrary-precision integer with the same value as given in
+     * the sequence.
+     * @throws NullPointerException The parameter {@code cs} is null.
+     * @throws NumberFormatException The sequence is empty or in an invalid
+     * format.
+     */
+    public static EInteger FromRadixString(CharSequence cs, int radix) {
+      if (cs == null) {
+        throw new NullPointerException("cs");
+      }
+      return FromRadixSubstring(cs, radix, 0, cs.length());
+    }
+
+    /**
+     * Converts a portion of a sequence of characters to an arbitrary-precision
+     * integer in a given radix, reading the characters in place.
+     * @param cs A sequence of characters, the desired portion of which is in
+     * the form described by {@code FromRadixSubstring(String, int, int, int)}.
+     * @param radix A base from 2 to 36.
+     * @param index The index of the sequence that starts the desired portion.
+     * @param endIndex The index of the sequence that ends the desired portion.
+     * @return An arbitrary-precision integer with the same value as given in
+     * the desired portion.
+     * @throws NullPointerException The parameter {@code cs} is null.
+     * @throws NumberFormatException The desired portion is empty or in an
+     * invalid format.
+     */
+    public static EInteger FromRadixSubstring(
+      CharSequence cs,
+      int radix,
+      int index,
+      int endIndex) {
+      if (cs == null) {
+        throw new NullPointerException("cs");
+      }
+      return EIntegerTextString.FromRadixSubstringImpl(
+          cs,
+          radix,
+          index,
+          endIndex,
+          true);
+    }
+
+    /**
+     * Converts the bytes of a byte buffer from its position to its limit, which
+     * are in the form described by {@code FromString(String)} with one byte per
+     * character, to an arbitrary-precision integer. The bytes are read in
+     * place, whether the buffer is direct or not, and the buffer's position is
+     * unchanged.
+     * @param buffer A byte buffer.
+     * @return An arbitrary-precision integer with the same value as given in
+     * the buffer.
+     * @throws NullPointerException The parameter {@code buffer} is null.
+     * @throws NumberFormatException The bytes are in an invalid format.
+     */
+    public static EInteger FromString(java.nio.ByteBuffer buffer) {
+      return FromRadixString(buffer, 10);
+    }
+
+    /**
+     * Converts the bytes of a byte buffer from its position to its limit, which
+     * are in the form described by {@code FromRadixSubstring(String, int, int,
+     * int)} with one byte per character, to an arbitrary-precision integer in a
+     * given radix. The bytes are read in place, whether the buffer is direct or
+     * not, and the buffer's position is unchanged.
+     * @param buffer A byte buffer.
+     * @param radix A base from 2 to 36.
+     * @return An arbitrary-precision integer with the same value as given in
+     * the buffer.
+     * @throws NullPointerException The parameter {@code buffer} is null.
+     * @throws NumberFormatException The bytes are empty or in an invalid
+     * format.
+     */
+    public static EInteger FromRadixString(
+      java.nio.ByteBuffer buffer,
+      int radix) {
+      int start = ByteBufferChars.ArrayStart(buffer);
+      if (start >= 0) {
+        return EIntegerByteArrayString.FromRadixSubstringImpl(
+            buffer.array(),
+            radix,
+            start,
+            start + buffer.remaining(),
+            true);
+      }
+      return FromRadixSubstring(
+          new ByteBufferChars(buffer),
+          radix,
+          0,
+          buffer.remaining());
+    }
+
     /**
      * Returns the absolute value of this object's value.
      * @return This object's value with the sign removed.
      */
     public EInteger Abs() {
-      return (this.wordCount == 0 || !this.negative) ? this : new
-        EInteger(this.wordCount, this.words, false);
+      if (this.wordCount == 0 || !this.negative) {
+        return this;
+      }
+      return (this.words == null && this.inlineValue != Long.MIN_VALUE) ?
+        new EInteger(-this.inlineValue) : new EInteger(
+          this.wordCount,
+          this.GetWordsInternal(),
+          false);
     }
 
     /**
@@ -902,82 +1079,27 @@ licensed under the Unlicense: https://unlicense.org/
       if (bigintAugend.wordCount == 0) {
         return this;
       }
-      short[] sumreg;
-      if (bigintAugend.wordCount == 1 && this.wordCount == 1) {
-        if (this.negative == bigintAugend.negative) {
-          int intSum = (((int)this.words[0]) & ShortMask) +
-            (((int)bigintAugend.words[0]) & ShortMask);
-          sumreg = new short[2];
-          sumreg[0] = ((short)intSum);
-          sumreg[1] = ((short)(intSum >> 16));
-          return new EInteger(
-              ((intSum >> 16) == 0) ? 1 : 2,
-              sumreg,
-              this.negative);
-        } else {
-          int a = ((int)this.words[0]) & ShortMask;
-          int b = ((int)bigintAugend.words[0]) & ShortMask;
-          if (a == b) {
-            return EInteger.FromInt32(0);
-          }
-          if (a > b) {
-            a -= b;
-            sumreg = new short[2];
-            sumreg[0] = ((short)a);
-            return new EInteger(1, sumreg, this.negative);
-          }
-          b -= a;
-          sumreg = new short[2];
-          sumreg[0] = ((short)b);
-          return new EInteger(1, sumreg, !this.negative);
+      if (this.words == null && bigintAugend.words == null) {
+        // Both values are stored inline, so add them as 64-bit integers
+        // unless the sum overflows (the same check as Math.addExact)
+        long a = this.inlineValue;
+        long b = bigintAugend.inlineValue;
+        long sum = a + b;
+        if (((a ^ sum) & (b ^ sum)) >= 0) {
+          return FromInt64(sum);
         }
       }
+      short[] thisWords = this.GetWordsInternal();
+      short[] augendWords = bigintAugend.GetWordsInternal();
+      short[] sumreg;
       if ((!this.negative) == (!bigintAugend.negative)) {
         // both nonnegative or both negative
         int addendCount = this.wordCount;
         int augendCount = bigintAugend.wordCount;
-        if (augendCount <= 2 && addendCount <= 2 &&
-          (this.wordCount < 2 || (this.words[1] >> 15) == 0) &&
-          (bigintAugend.wordCount < 2 || (bigintAugend.words[1] >> 15) == 0)) {
-          int a = ((int)this.words[0]) & ShortMask;
-          if (this.wordCount == 2) {
-            a |= (((int)this.words[1]) & ShortMask) << 16;
-          }
-          int b = ((int)bigintAugend.words[0]) & ShortMask;
-          if (bigintAugend.wordCount == 2) {
-            b |= (((int)bigintAugend.words[1]) & ShortMask) << 16;
-          }
-          a = ((int)(a + b));
-          sumreg = new short[2];
-          sumreg[0] = ((short)(a & ShortMask));
-          sumreg[1] = ((short)((a >> 16) & ShortMask));
-          int wcount = (sumreg[1] == 0) ? 1 : 2;
-          return new EInteger(wcount, sumreg, this.negative);
-        }
-        if (augendCount <= 2 && addendCount <= 2) {
-          int a = ((int)this.words[0]) & ShortMask;
-          if (this.wordCount == 2) {
-            a |= (((int)this.words[1]) & ShortMask) << 16;
-          }
-          int b = ((int)bigintAugend.words[0]) & ShortMask;
-          if (bigintAugend.wordCount == 2) {
-            b |= (((int)bigintAugend.words[1]) & ShortMask) << 16;
-          }
-          long longResult = ((long)a) & 0xffffffffL;
-          longResult += ((long)b) & 0xffffffffL;
-          if ((longResult >> 32) == 0) {
-            a = ((int)longResult);
-            sumreg = new short[2];
-            sumreg[0] = ((short)(a & ShortMask));
-            sumreg[1] = ((short)((a >> 16) & ShortMask));
-            int wcount = (sumreg[1] == 0) ? 1 : 2;
-            return new EInteger(wcount, sumreg, this.negative);
-          }
-        }
         // System.out.println("" + this + " + " + bigintAugend);
         int wordLength2 = (int)Math.max(
-          this.words.length,
-          bigintAugend.words.length);
+          thisWords.length,
+          augendWords.length);
         sumreg = new short[wordLength2];
         int carry;
         int desiredLength = Math.max(addendCount, augendCount);
@@ -985,9 +1107,9 @@ licensed under the Unlicense: https://unlicense.org/
           carry = AddInternal(
               sumreg,
               0,
-              this.words,
+              thisWords,
               0,
-              bigintAugend.words,
+              augendWords,
               0,
               addendCount);
         } else if (addendCount > augendCount) {
@@ -995,13 +1117,13 @@ licensed under the Unlicense: https://unlicense.org/
           carry = AddInternal(
               sumreg,
               0,
-              this.words,
+              thisWords,
               0,
-              bigintAugend.words,
+              augendWords,
               0,
               augendCount);
           System.arraycopy(
-            this.words,
+            thisWords,
             augendCount,
             sumreg,
             augendCount,
@@ -1018,13 +1140,13 @@ licensed under the Unlicense: https://unlicense.org/
           carry = AddInternal(
               sumreg,
               0,
-              this.words,
+              thisWords,
               0,
-              bigintAugend.words,
+              augendWords,
               0,
               (int)addendCount);
           System.arraycopy(
-            bigintAugend.words,
+            augendWords,
             addendCount,
             sumreg,
             addendCount,
@@ -1056,10 +1178,14 @@ licensed under the Unlicense: https://unlicense.org/
       }
       EInteger minuend = this;
       EInteger subtrahend = bigintAugend;
+      short[] minuendWords = thisWords;
+      short[] subtrahendWords = augendWords;
       if (this.negative) {
         // this is negative, b is nonnegative
         minuend = bigintAugend;
         subtrahend = this;
+        minuendWords = augendWords;
+        subtrahendWords = thisWords;
       }
       // Do a subtraction
       int words1Size = minuend.wordCount;
@@ -1068,19 +1194,19 @@ licensed under the Unlicense: https://unlicense.org/
 
       short borrow;
       int wordLength = (int)Math.max(
-        minuend.words.length,
-        subtrahend.words.length);
+        minuendWords.length,
+        subtrahendWords.length);
       short[] diffReg = new short[wordLength];
       if (words1Size == words2Size) {
-        if (Compare(minuend.words, 0, subtrahend.words, 0, (int)words1Size) >=
+        if (Compare(minuendWords, 0, subtrahendWords, 0, (int)words1Size) >=
           0) {
           // words1 is at least as high as words2
           SubtractInternal(
             diffReg,
             0,
-            minuend.words,
+            minuendWords,
             0,
-            subtrahend.words,
+            subtrahendWords,
             0,
             words1Size);
         } else {
@@ -1088,9 +1214,9 @@ licensed under the Unlicense: https://unlicense.org/
           SubtractInternal(
             diffReg,
             0,
-            subtrahend.words,
+            subtrahendWords,
             0,
-            minuend.words,
+            minuendWords,
             0,
             words1Size);
           diffNeg = true; // difference will be negative
@@ -1100,13 +1226,13 @@ licensed under the Unlicense: https://unlicense.org/
         borrow = (short)SubtractInternal(
           diffReg,
           0,
-          minuend.words,
+          minuendWords,
           0,
-          subtrahend.words,
+          subtrahendWords,
           0,
           words2Size);
         System.arraycopy(
-          minuend.words,
+          minuendWords,
           words2Size,
           diffReg,
           words2Size,
@@ -1121,13 +1247,13 @@ licensed under the Unlicense: https://unlicense.org/
         borrow = (short)SubtractInternal(
           diffReg,
           0,
-          subtrahend.words,
+          subtrahendWords,
           0,
-          minuend.words,
+          minuendWords,
           0,
           words1Size);
         System.arraycopy(
-          subtrahend.words,
+          subtrahendWords,
           words1Size,
           diffReg,
           words1Size,
@@ -1207,15 +1333,9 @@ licensed under the Unlicense: https://unlicense.org/
      * 2147483647; otherwise, {@code false}.
      */
     public boolean CanFitInInt32() {
-      int c = this.wordCount;
-      if (c > 2) {
-        return false;
-      }
-      if (c == 2 && (this.words[1] & 0x8000) != 0) {
-        return this.negative && this.words[1] == ((short)0x8000) &&
-          this.words[0] == 0;
-      }
-      return true;
+      // Only values stored inline fit in a 64-bit integer
+      return this.words == null &&
+        this.inlineValue == (int)this.inlineValue;
     }
 
     /**
@@ -1224,16 +1344,7 @@ licensed under the Unlicense: https://unlicense.org/
      * through 9223372036854775807; otherwise, {@code false}.
      */
     public boolean CanFitInInt64() {
-      int c = this.wordCount;
-      if (c > 4) {
-        return false;
-      }
-      if (c == 4 && (this.words[3] & 0x8000) != 0) {
-        return this.negative && this.words[3] == ((short)0x8000) &&
-          this.words[2] == 0 && this.words[1] == 0 &&
-          this.words[0] == 0;
-      }
-      return true;
+      return this.words == null;
     }
 
     /**
@@ -1250,6 +1361,10 @@ licensed under the Unlicense: https://unlicense.org/
       if (this == other) {
         return 0;
       }
+      if (this.words == null && other.words == null) {
+        return (this.inlineValue == other.inlineValue) ? 0 :
+          ((this.inlineValue < other.inlineValue) ? -1 : 1);
+      }
       int size = this.wordCount, tempSize = other.wordCount;
       int sa = size == 0 ? 0 : (this.negative ? -1 : 1);
       int sb = tempSize == 0 ? 0 : (other.negative ? -1 : 1);
@@ -1260,23 +1375,19 @@ licensed under the Unlicense: https://unlicense.org/
         return 0;
       }
       if (size == tempSize) {
-        if (size == 1 && this.words[0] == other.words[0]) {
-          return 0;
-        } else {
-          short[] words1 = this.words;
-          short[] words2 = other.words;
-          while ((size--) != 0) {
-            int an = ((int)words1[size]) & ShortMask;
-            int bn = ((int)words2[size]) & ShortMask;
-            if (an > bn) {
-              return (sa > 0) ? 1 : -1;
-            }
-            if (an < bn) {
-              return (sa > 0) ? -1 : 1;
-            }
+        short[] words1 = this.GetWordsInternal();
+        short[] words2 = other.GetWordsInternal();
+        while ((size--) != 0) {
+          int an = ((int)words1[size]) & ShortMask;
+          int bn = ((int)words2[size]) & ShortMask;
+          if (an > bn) {
+            return (sa > 0) ? 1 : -1;
+          }
+          if (an < bn) {
+            return (sa > 0) ? -1 : 1;
           }
-          return 0;
         }
+        return 0;
       }
       return ((size > tempSize) ^ (sa <= 0)) ? 1 : -1;
     }
@@ -1373,46 +1484,11 @@ licensed under the Unlicense: https://unlicense.org/
       if (this.wordCount == 0) {
         return EInteger.FromInt32(intValue);
       }
-      if (this.wordCount == 1 && intValue >= -0x7ffe0000 && intValue <
-        0x7ffe0000) {
-        short[] sumreg;
-        int intSum = this.negative ?
-          intValue - (((int)this.words[0]) & ShortMask) :
-          intValue + (((int)this.words[0]) & ShortMask);
-        if (intSum >= CacheFirst && intSum <= CacheLast) {
-          return Cache[intSum - CacheFirst];
-        } else if ((intSum >> 16) == 0) {
-          sumreg = new short[1];
-          sumreg[0] = ((short)intSum);
-          return new EInteger(
-              1,
-              sumreg,
-              false);
-        } else if (intSum > 0) {
-          sumreg = new short[2];
-          sumreg[0] = ((short)intSum);
-          sumreg[1] = ((short)(intSum >> 16));
-          return new EInteger(
-              2,
-              sumreg,
-              false);
-        } else if (intSum > -65536) {
-          sumreg = new short[1];
-          intSum = -intSum;
-          sumreg[0] = ((short)intSum);
-          return new EInteger(
-              1,
-              sumreg,
-              true);
-        } else {
-          sumreg = new short[2];
-          intSum = -intSum;
-          sumreg[0] = ((short)intSum);
-          sumreg[1] = ((short)(intSum >> 16));
-          return new EInteger(
-              2,
-              sumreg,
-              true);
+      if (this.words == null) {
+        long a = this.inlineValue;
+        long sum = a + intValue;
+        if (((a ^ sum) & (intValue ^ sum)) >= 0) {
+          return FromInt64(sum);
         }
       }
       return this.Add(EInteger.FromInt32(intValue));
@@ -1487,21 +1563,12 @@ licensed under the Unlicense: https://unlicense.org/
      * less, or a positive number if this instance is greater.
      */
     public int compareTo(int intValue) {
-      int c = this.wordCount;
-      if (c > 2) {
-        return this.negative ? -1 : 1;
-      }
-      if (c == 2 && (this.words[1] & 0x8000) != 0) {
-        if (this.negative && this.words[1] == ((short)0x8000) &&
-          this.words[0] == 0) {
-          // This value is Integer.MIN_VALUE
-          return intValue == Integer.MIN_VALUE ? 0 : -1;
-        } else {
-          return this.negative ? -1 : 1;
-        }
+      if (this.words == null) {
+        return (this.inlineValue == intValue) ? 0 :
+          ((this.inlineValue < intValue) ? -1 : 1);
       }
-      int thisInt = this.ToInt32Unchecked();
-      return thisInt == intValue ? 0 : (thisInt < intValue ? -1 : 1);
+      // Values not stored inline are outside the range of a 64-bit integer
+      return this.negative ? -1 : 1;
     }
 
     /**
@@ -1538,31 +1605,23 @@ licensed under the Unlicense: https://unlicense.org/
         return EInteger.FromInt32(0);
       }
       // System.out.println("divide " + this + " " + bigintDivisor);
-      if (words1Size <= 2 && words2Size <= 2 && this.CanFitInInt32() &&
-        bigintDivisor.CanFitInInt32()) {
-        int valueASmall = this.ToInt32Checked();
-        int valueBSmall = bigintDivisor.ToInt32Checked();
-        if (valueASmall != Integer.MIN_VALUE || valueBSmall != -1) {
-          int result = valueASmall / valueBSmall;
-          return EInteger.FromInt32(result);
-        }
-      }
-      if (words1Size <= 4 && words2Size <= 4 && this.CanFitInInt64() &&
-        bigintDivisor.CanFitInInt64()) {
-        long valueALong = this.ToInt64Checked();
-        long valueBLong = bigintDivisor.ToInt64Checked();
+      if (this.words == null && bigintDivisor.words == null) {
+        long valueALong = this.inlineValue;
+        long valueBLong = bigintDivisor.inlineValue;
         if (valueALong != Long.MIN_VALUE || valueBLong != -1) {
           long resultLong = valueALong / valueBLong;
           return EInteger.FromInt64(resultLong);
         }
       }
+      short[] thisWords = this.GetWordsInternal();
+      short[] divisorWords = bigintDivisor.GetWordsInternal();
       short[] quotReg;
       int quotwordCount;
       if (words2Size == 1) {
         // divisor is small, use a fast path
-        quotReg = new short[this.words.length];
+        quotReg = new short[thisWords.length];
         quotwordCount = this.wordCount;
-        FastDivide(quotReg, this.words, words1Size, bigintDivisor.words[0]);
+        FastDivide(quotReg, thisWords, words1Size, divisorWords[0]);
         while (quotwordCount != 0 && quotReg[quotwordCount - 1] == 0) {
           --quotwordCount;
         }
@@ -1572,12 +1631,15 @@ licensed under the Unlicense: https://unlicense.org/
           this.negative ^ bigintDivisor.negative) : EInteger.FromInt32(0);
       }
       // ---- General case
+      if (UseNewtonDivision(words1Size, words2Size)) {
+        return NewtonDivRem(this, bigintDivisor)[0];
+      }
       quotReg = new short[(int)(words1Size - words2Size + 1)];
       GeneralDivide(
-        this.words,
+        thisWords,
         0,
         this.wordCount,
-        bigintDivisor.words,
+        divisorWords,
         0,
         bigintDivisor.wordCount,
         quotReg,
@@ -2323,16 +2385,29 @@ licensed under the Unlicense: https://unlicense.org/
         // where dividend is 0)
         return new EInteger[] { EInteger.FromInt32(0), this };
       }
+      if (this.words == null && divisor.words == null) {
+        long dividendLong = this.inlineValue;
+        long divisorLong = divisor.inlineValue;
+        if (dividendLong != Long.MIN_VALUE || divisorLong != -1) {
+          long quotientLong = dividendLong / divisorLong;
+          long remainderLong = dividendLong - (quotientLong * divisorLong);
+          return new EInteger[] { EInteger.FromInt64(quotientLong),
+            EInteger.FromInt64(remainderLong),
+          };
+        }
+      }
+      short[] thisWords = this.GetWordsInternal();
+      short[] divisorWords = divisor.GetWordsInternal();
       if (words2Size == 1) {
         // divisor is small, use a fast path
         short[] quotient = new short[this.wordCount];
         int smallRemainder;
-        switch (divisor.words[0]) {
+        switch (divisorWords[0]) {
           case 2:
             smallRemainder = (int)FastDivideAndRemainderTwo(
               quotient,
               0,
-              this.words,
+              thisWords,
               0,
               words1Size);
             break;
@@ -2340,19 +2415,19 @@ licensed under the Unlicense: https://unlicense.org/
             smallRemainder = (int)FastDivideAndRemainderTen(
               quotient,
               0,
-              this.words,
+              thisWords,
               0,
               words1Size);
             break;
           default:
-            // System.out.println("smalldiv=" + (divisor.words[0]));
+            // System.out.println("smalldiv=" + (divisorWords[0]));
             smallRemainder = ((int)FastDivideAndRemainder(
               quotient,
               0,
-              this.words,
+              thisWords,
               0,
               words1Size,
-              divisor.words[0])) & ShortMask;
+              divisorWords[0])) & ShortMask;
             break;
         }
         int count = this.wordCount;
@@ -2373,37 +2448,17 @@ licensed under the Unlicense: https://unlicense.org/
         }
         return new EInteger[] { bigquo, EInteger.FromInt64(smallRemainder) };
       }
-      if (this.CanFitInInt32() && divisor.CanFitInInt32()) {
-        long dividendSmall = this.ToInt32Checked();
-        long divisorSmall = divisor.ToInt32Checked();
-        if (dividendSmall != Integer.MIN_VALUE || divisorSmall != -1) {
-          long quotientSmall = dividendSmall / divisorSmall;
-          long remainderSmall = dividendSmall - (quotientSmall * divisorSmall);
-          return new EInteger[] { EInteger.FromInt64(quotientSmall),
-            EInteger.FromInt64(remainderSmall),
-          };
-        }
-      } else if (this.CanFitInInt64() && divisor.CanFitInInt64()) {
-        long dividendLong = this.ToInt64Checked();
-        long divisorLong = divisor.ToInt64Checked();
-        if (dividendLong != Long.MIN_VALUE || divisorLong != -1) {
-          long quotientLong = dividendLong / divisorLong;
-          long remainderLong = dividendLong - (quotientLong * divisorLong);
-          return new EInteger[] { EInteger.FromInt64(quotientLong),
-            EInteger.FromInt64(remainderLong),
-          };
-        }
-        // System.out.println("int64divrem {0}/{1}"
-        // , this.ToInt64Checked(), divisor.ToInt64Checked());
-      }
       // --- General case
+      if (UseNewtonDivision(words1Size, words2Size)) {
+        return NewtonDivRem(this, divisor);
+      }
       short[] bigRemainderreg = new short[(int)words2Size];
       short[] quotientreg = new short[(int)(words1Size - words2Size + 1)];
       GeneralDivide(
-        this.words,
+        thisWords,
         0,
         this.wordCount,
-        divisor.words,
+        divisorWords,
         0,
         divisor.wordCount,
         quotientreg,
@@ -2433,12 +2488,17 @@ licensed under the Unlicense: https://unlicense.org/
       if (other == null) {
         return false;
       }
+      if (this.words == null && other.words == null) {
+        return this.inlineValue == other.inlineValue;
+      }
       if (this.wordCount == other.wordCount) {
         if (this.negative != other.negative) {
           return false;
         }
+        short[] thisWords = this.GetWordsInternal();
+        short[] otherWords = other.GetWordsInternal();
         for (int i = 0; i < this.wordCount; ++i) {
-          if (this.words[i] != other.words[i]) {
+          if (thisWords[i] != otherWords[i]) {
             return false;
           }
         }
@@ -2529,6 +2589,97 @@ licensed under the Unlicense: https://unlicense.org/
       }
     }
 
+    /**
+     * Finds, for each integer in a list, the greatest common divisor of that
+     * integer and the product of all the other integers in the list. This
+     * takes quasi-linear time in the total size of the integers, rather than
+     * the quadratic time of taking pairwise greatest common divisors, and so is
+     * suited to finding which of many integers share factors with others.
+     * @param values A list of arbitrary-precision integers. Can be negative.
+     * @return An array with as many integers as {@code values}, each of which
+     * is the greatest common divisor (which is never negative) of the integer
+     * at the same position and the product of the others. For a list with
+     * only one integer, returns an array containing 1.
+     * @throws NullPointerException The parameter {@code values} or one of its
+     * elements is null.
+     */
+    public static EInteger[] BatchGcd(EInteger[] values) {
+      CheckBatch(values, "values");
+      return ProductTree.BatchGcd(values);
+    }
+
+    /**
+     * Finds, for each integer in a list, the greatest common divisor of that
+     * integer and the product of all the other integers in the list, using the
+     * given thread pool for parts of the work if the integers are large enough
+     * (see SetParallelMultiplication).
+     * @param values A list of arbitrary-precision integers. Can be negative.
+     * @param pool A thread pool to use for this call, or null to use the pool,
+     * if any, given to SetParallelMultiplication.
+     * @return An array with as many integers as {@code values}, each of which
+     * is the greatest common divisor (which is never negative) of the integer
+     * at the same position and the product of the others.
+     * @throws NullPointerException The parameter {@code values} or one of its
+     * elements is null.
+     */
+    public static EInteger[] BatchGcd(
+      EInteger[] values,
+      java.util.concurrent.ForkJoinPool pool) {
+      java.util.concurrent.ForkJoinPool oldPool =
+        ParallelMultiplication.Enter(pool);
+      try {
+        return BatchGcd(values);
+      } finally {
+        ParallelMultiplication.Exit(oldPool);
+      }
+    }
+
+    private static void CheckBatch(EInteger[] values, String name) {
+      if (values == null) {
+        throw new NullPointerException(name);
+      }
+      for (int i = 0; i < values.length; ++i) {
+        if (values[i] == null) {
+          throw new NullPointerException(name + "[" + i + "]");
+        }
+      }
+    }
+
+    /**
+     * Finds the greatest common divisor of this integer and the specified
+     * integer, along with B&#xe9;zout coefficients for them: two integers
+     * <i>x</i> and <i>y</i> such that <i>x</i>*this + <i>y</i>*other equals the
+     * greatest common divisor. This method works even if either or both
+     * integers are negative, and runs in subquadratic time for large integers.
+     * @param bigintSecond Another arbitrary-precision integer. Can be negative.
+     * @return An array of three arbitrary-precision integers: the greatest
+     * common divisor (which is never negative), <i>x</i>, and <i>y</i>. If
+     * {@code bigintSecond} is not 0, <i>x</i> is 0 or greater and less than
+     * the absolute value of {@code bigintSecond} divided by the greatest
+     * common divisor. If both integers are 0, all three are 0.
+     * @throws NullPointerException The parameter {@code bigintSecond} is null.
+     */
+    public EInteger[] ExtendedGcd(EInteger bigintSecond) {
+      if (bigintSecond == null) {
+        throw new NullPointerException("bigintSecond");
+      }
+      if (this.isZero() && bigintSecond.isZero()) {
+        EInteger zero = EInteger.FromInt32(0);
+        return new EInteger[] { zero, zero, zero };
+      }
+      EInteger[] ret = ExtendedGcdInternal(this.Abs(), bigintSecond.Abs());
+      EInteger gcd = ret[0];
+      EInteger eix = this.signum() < 0 ? ret[1].Negate() : ret[1];
+      if (bigintSecond.isZero()) {
+        return new EInteger[] { gcd, eix, EInteger.FromInt32(0) };
+      }
+      // Bring x into the range [0, |bigintSecond|/gcd), then find
+      // the matching y
+      eix = eix.Mod(bigintSecond.Abs().Divide(gcd));
+      EInteger eiy = gcd.Subtract(eix.Multiply(this)).Divide(bigintSecond);
+      return new EInteger[] { gcd, eix, eiy };
+    }
+
     private static EInteger BaseGcd(EInteger thisValue, EInteger bigintSecond) {
       if (thisValue.CanFitInInt64() && bigintSecond.CanFitInInt64()) {
         long u = thisValue.ToInt64Unchecked();
@@ -2746,8 +2897,11 @@ licensed under the Unlicense: https://unlicense.org/
         int ln = Math.max(LBL(longa), LBL(longb));
         int lnmin = Math.min(LBL(longa), LBL(longb));
         int ls = (ln >> 1) + 1;
-        if (lnmin <= ls) {
+        if (lnmin <= ls || LBL(longa - longb) <= ls) {
           // System.out.println("LHalfGCD failed: nmin<= s");
+          // Also fails if the values are already close to each other (in
+          // particular, if they're equal); otherwise the recursion below
+          // would split them into equal halves again and again
           return new long[] { longa, longb, 1, 0, 0, 1 };
         }
         if (lnmin > ((ln * 3) >> 2) + 2) {
@@ -2891,8 +3045,11 @@ licensed under the Unlicense: https://unlicense.org/
       EInteger einmin = MinBitLength(eia, eib);
       long ln = ein.CanFitInInt64() ? ein.ToInt64Checked() : -1;
       EInteger eis = ein.ShiftRight(1).Add(1);
-      if (einmin.compareTo(eis) <= 0) {
+      if (einmin.compareTo(eis) <= 0 ||
+        BL(eia.Subtract(eib)).compareTo(eis) <= 0) {
         // System.out.println("HalfGCD failed: nmin<= s");
+        // Also fails if the values are already close to each other; see
+        // LHalfGCD
         return new EInteger[] {
           eia, eib, EInteger.FromInt32(1), EInteger.FromInt32(0),
           EInteger.FromInt32(0), EInteger.FromInt32(1),
@@ -3051,6 +3208,96 @@ licensed under the Unlicense: https://unlicense.org/
       return BaseGcd(ret[0], ret[1]);
     }
 
+    // Finds the GCD of two nonnegative integers, not both zero, and
+    // Bezout coefficients x and y, returned as { gcd, x, y }.  The
+    // reduction is the same as in SubquadraticGCD, but the matrices
+    // found by HalfGCD are multiplied together as it goes, so that the
+    // original values always equal m * (eia, eib), where m is the
+    // matrix { m0, m1, m2, m3 } in row-major order.  Since m has
+    // determinant 1, its inverse gives the coefficients once one
+    // value reaches 0.
+    private static EInteger[] ExtendedGcdInternal(EInteger eia, EInteger eib) {
+      EInteger m0 = EInteger.FromInt32(1);
+      EInteger m1 = EInteger.FromInt32(0);
+      EInteger m2 = EInteger.FromInt32(0);
+      EInteger m3 = EInteger.FromInt32(1);
+      while (!eia.isZero() && !eib.isZero() &&
+        Math.max(eia.wordCount, eib.wordCount) > 12) {
+        EInteger ein = MaxBitLength(eia, eib);
+        EInteger nhalf = ein.ShiftRight(1);
+        EInteger eiah = eia.ShiftRight(nhalf);
+        EInteger eial = eia.LowBits(nhalf);
+        EInteger eibh = eib.ShiftRight(nhalf);
+        EInteger eibl = eib.LowBits(nhalf);
+        EInteger[] hgcd = HalfGCD(eiah, eibh);
+        if (hgcd != null) {
+          EInteger ta = eial.Multiply(hgcd[5]).Subtract(eibl.Multiply(hgcd[3]));
+          EInteger tb = eibl.Multiply(hgcd[2]).Subtract(eial.Multiply(hgcd[4]));
+          ta = ta.Add(hgcd[0].ShiftLeft(nhalf));
+          tb = tb.Add(hgcd[1].ShiftLeft(nhalf));
+          if (ta.signum() < 0 || tb.signum() < 0) {
+            throw new IllegalStateException("Internal error");
+          }
+          if (!ta.equals(eia) || !tb.equals(eib)) {
+            EInteger n0 = m0.Multiply(hgcd[2]).Add(m1.Multiply(hgcd[4]));
+            EInteger n1 = m0.Multiply(hgcd[3]).Add(m1.Multiply(hgcd[5]));
+            EInteger n2 = m2.Multiply(hgcd[2]).Add(m3.Multiply(hgcd[4]));
+            m3 = m2.Multiply(hgcd[3]).Add(m3.Multiply(hgcd[5]));
+            m0 = n0;
+            m1 = n1;
+            m2 = n2;
+            eia = ta;
+            eib = tb;
+            continue;
+          }
+        }
+        // The half-GCD made no progress, which happens when one value is
+        // much smaller than the other; reduce by a division step instead
+        if (eia.compareTo(eib) >= 0) {
+          EInteger[] divrem = eia.DivRem(eib);
+          m1 = m1.Add(m0.Multiply(divrem[0]));
+          m3 = m3.Add(m2.Multiply(divrem[0]));
+          eia = divrem[1];
+        } else {
+          EInteger[] divrem = eib.DivRem(eia);
+          m0 = m0.Add(m1.Multiply(divrem[0]));
+          m2 = m2.Add(m3.Multiply(divrem[0]));
+          eib = divrem[1];
+        }
+      }
+      // Finish with the Euclidean algorithm on the now small values,
+      // keeping its matrix separate so that the big matrix is
+      // multiplied only once
+      EInteger t0 = EInteger.FromInt32(1);
+      EInteger t1 = EInteger.FromInt32(0);
+      EInteger t2 = EInteger.FromInt32(0);
+      EInteger t3 = EInteger.FromInt32(1);
+      while (!eia.isZero() && !eib.isZero()) {
+        if (eia.compareTo(eib) >= 0) {
+          EInteger[] divrem = eia.DivRem(eib);
+          t1 = t1.Add(t0.Multiply(divrem[0]));
+          t3 = t3.Add(t2.Multiply(divrem[0]));
+          eia = divrem[1];
+        } else {
+          EInteger[] divrem = eib.DivRem(eia);
+          t0 = t0.Add(t1.Multiply(divrem[0]));
+          t2 = t2.Add(t3.Multiply(divrem[0]));
+          eib = divrem[1];
+        }
+      }
+      // The inverse of m * t is { n3, -n1, -n2, n0 }, so if eia is the
+      // GCD, x = n3 and y = -n1; otherwise x = -n2 and y = n0
+      if (eib.isZero()) {
+        EInteger n1 = m0.Multiply(t1).Add(m1.Multiply(t3));
+        EInteger n3 = m2.Multiply(t1).Add(m3.Multiply(t3));
+        return new EInteger[] { eia, n3, n1.Negate() };
+      } else {
+        EInteger n0 = m0.Multiply(t0).Add(m1.Multiply(t2));
+        EInteger n2 = m2.Multiply(t0).Add(m3.Multiply(t2));
+        return new EInteger[] { eib, n2.Negate(), n0 };
+      }
+    }
+
     /**
      * Returns the number of decimal digits used by this integer, in the form of an
      * arbitrary-precision integer.
@@ -3328,6 +3575,13 @@ licensed under the Unlicense: https://unlicense.org/
           for (int i = 0; i < this.wordCount; ++i) {
             hashCodeValue += 1000000013 * this.words[i];
           }
+        } else {
+          // Same as for the words of a value not stored inline
+          long mag = Math.abs(this.inlineValue);
+          for (int i = 0; i < this.wordCount; ++i) {
+            hashCodeValue += 1000000013 * (short)mag;
+            mag >>>= 16;
+          }
         }
       }
       return hashCodeValue;
@@ -3361,6 +3615,10 @@ licensed under the Unlicense: https://unlicense.org/
      */
     public long GetLowBitAsInt64() {
       // NOTE: Currently can't be 2^63-1 or greater, due to int32 word counts
+      if (this.words == null) {
+        return (this.inlineValue == 0) ? -1 :
+          Long.numberOfTrailingZeros(this.inlineValue);
+      }
       long retSetBitLong = 0;
       for (int i = 0; i < this.wordCount; ++i) {
         int c = ((int)this.words[i]) & ShortMask;
@@ -3421,20 +3679,21 @@ licensed under the Unlicense: https://unlicense.org/
         if (bigIndex.CanFitInInt32()) {
           return this.GetSignedBit(bigIndex.ToInt32Checked());
         }
+        short[] thisWords = this.GetWordsInternal();
         EInteger valueEWordPos = bigIndex.Divide(16);
-        if (valueEWordPos.compareTo(this.words.length) >= 0) {
+        if (valueEWordPos.compareTo(thisWords.length) >= 0) {
           return true;
         }
         long tcindex = 0;
         while (valueEWordPos.compareTo(EInteger.FromInt64(tcindex)) > 0 &&
-          this.words[((int)tcindex)] == 0) {
+          thisWords[((int)tcindex)] == 0) {
           ++tcindex;
         }
         short tc;
         // NOTE: array indices are currently limited to Int32
         int wordpos = valueEWordPos.ToInt32Checked();
         {
-          tc = this.words[wordpos];
+          tc = thisWords[wordpos];
           if (tcindex == wordpos) {
             --tc;
           }
@@ -3461,6 +3720,10 @@ licensed under the Unlicense: https://unlicense.org/
       if (index < 0) {
         throw new IllegalArgumentException("index");
       }
+      if (this.words == null) {
+        // Bits above bit 63 of the two's-complement form equal bit 63
+        return ((this.inlineValue >> Math.min(index, 63)) & 1) != 0;
+      }
       if (this.wordCount == 0) {
         return false;
       }
@@ -3521,6 +3784,10 @@ licensed under the Unlicense: https://unlicense.org/
      */
     public long GetSignedBitLengthAsInt64() {
       // NOTE: Currently can't be 2^63-1 or greater, due to int32 word counts
+      if (this.words == null) {
+        long v = this.inlineValue;
+        return 64 - Long.numberOfLeadingZeros((v < 0) ? ~v : v);
+      }
       int wc = this.wordCount;
       if (wc != 0) {
         if (this.negative) {
@@ -3596,12 +3863,13 @@ licensed under the Unlicense: https://unlicense.org/
       if (bigIndex.CanFitInInt32()) {
         return this.GetUnsignedBit(bigIndex.ToInt32Checked());
       }
-      if (bigIndex.Divide(16).compareTo(this.words.length) < 0) {
+      short[] thisWords = this.GetWordsInternal();
+      if (bigIndex.Divide(16).compareTo(thisWords.length) < 0) {
         return false;
       }
       int index = bigIndex.ShiftRight(4).ToInt32Checked();
       int indexmod = bigIndex.Remainder(16).ToInt32Checked();
-      return (boolean)(((this.words[index] >> (int)indexmod) & 1) != 0);
+      return (boolean)(((thisWords[index] >> (int)indexmod) & 1) != 0);
     }
 
     /**
@@ -3615,6 +3883,10 @@ licensed under the Unlicense: https://unlicense.org/
       if (index < 0) {
         throw new IllegalArgumentException("index(" + index + ") is less than 0");
       }
+      if (this.words == null) {
+        return index < 64 &&
+          ((Math.abs(this.inlineValue) >>> index) & 1) != 0;
+      }
       return ((index >> 4) < this.words.length) &&
         ((boolean)(((this.words[index >> 4] >> (int)(index & 15)) & 1) != 0));
     }
@@ -3650,6 +3922,9 @@ licensed under the Unlicense: https://unlicense.org/
      */
     public long GetUnsignedBitLengthAsInt64() {
       // NOTE: Currently can't be 2^63-1 or greater, due to int32 word counts
+      if (this.words == null) {
+        return 64 - Long.numberOfLeadingZeros(Math.abs(this.inlineValue));
+      }
       int wc = this.wordCount;
       if (wc != 0) {
         int numberValue = ((int)this.words[wc - 1]) & ShortMask;
@@ -3746,7 +4021,8 @@ licensed under the Unlicense: https://unlicense.org/
      * certain power is divided by another arbitrary-precision integer.
      * @param pow The power to raise this integer by.
      * @param mod The integer to divide the raised number by.
-     * @return An arbitrary-precision integer.
+     * @return An arbitrary-precision integer. If {@code pow} is 0, returns 1,
+     * even if {@code mod} is 1.
      * @throws NullPointerException The parameter {@code pow} or {@code mod} is
      * null.
      */
@@ -3763,39 +4039,236 @@ licensed under the Unlicense: https://unlicense.org/
       if (mod.signum() <= 0) {
         throw new IllegalArgumentException("mod(" + mod + ") is not greater than 0");
       }
-      EInteger r = EInteger.FromInt32(1);
-      EInteger eiv = this;
-      while (!pow.isZero()) {
-        if (!pow.isEven()) {
-          r = (r.Multiply(eiv)).Mod(mod);
-        }
-        pow = pow.ShiftRight(1);
-        if (!pow.isZero()) {
-          eiv = (eiv.Multiply(eiv)).Mod(mod);
-        }
+      return EIntegerModulus.Create(mod).ModPow(this, pow);
+    }
+
+    /**
+     * Finds the modular multiplicative inverse of this integer: the integer
+     * <i>x</i> from 0 to {@code mod} minus 1 such that <i>x</i>*this, divided by
+     * {@code mod}, leaves a remainder of 1. This method runs in subquadratic
+     * time for large integers.
+     * @param mod The modulus. Must be greater than 0.
+     * @return The modular inverse of this integer. If {@code mod} is 1,
+     * returns 0.
+     * @throws NullPointerException The parameter {@code mod} is null.
+     * @throws IllegalArgumentException The parameter {@code mod} is 0 or less.
+     * @throws ArithmeticException This integer and {@code mod} have a common
+     * factor other than 1, so that the inverse doesn't exist.
+     */
+    public EInteger ModInverse(EInteger mod) {
+      if (mod == null) {
+        throw new NullPointerException("mod");
+      }
+      if (mod.signum() <= 0) {
+        throw new IllegalArgumentException("mod(" + mod + ") is not greater than 0");
+      }
+      if (mod.equals(EInteger.FromInt32(1))) {
+        return EInteger.FromInt32(0);
+      }
+      EInteger[] ret = ExtendedGcdInternal(this.Mod(mod), mod);
+      if (!ret[0].equals(EInteger.FromInt32(1))) {
+        throw new ArithmeticException("Not invertible modulo " + mod);
+      }
+      return ret[1].Mod(mod);
+    }
+
+    /**
+     * Sets a thread pool to be used by all threads to multiply very large
+     * integers, including multiplications done by Pow, by squaring, and by
+     * conversions of very large integers to strings. Independent parts of
+     * such a multiplication (such as the subproducts of Toom-Cook
+     * multiplication) are computed on the pool's threads. The results are the
+     * same as without a pool. By default, no pool is set and all work is done
+     * on the calling thread.
+     * @param pool A thread pool to use, or null to turn off parallel
+     * multiplication.
+     * @param thresholdWords The minimum total size, in 16-bit words, of two
+     * operands whose multiplication is split among threads (the sum of their
+     * word counts). Smaller multiplications gain little from parallelism.
+     * This threshold also applies to pools given to single calls. It is
+     * ignored and left unchanged if {@code pool} is null.
+     * @throws IllegalArgumentException The parameter {@code pool} is not null
+     * and {@code thresholdWords} is less than 1.
+     */
+    public static void SetParallelMultiplication(
+      java.util.concurrent.ForkJoinPool pool,
+      int thresholdWords) {
+      if (pool != null && thresholdWords < 1) {
+        throw new IllegalArgumentException("thresholdWords(" + thresholdWords +
+          ") is less than 1");
+      }
+      ParallelMultiplication.SetGlobalPool(pool, thresholdWords);
+    }
+
+    /**
+     * Finds the binomial coefficient "n choose k": the number of ways to choose
+     * k items from a set of n items, without regard to order. This is found
+     * from its prime factorization rather than by repeated multiplication and
+     * division, which is much faster for large numbers.
+     * @param n The number of items to choose from.
+     * @param k The number of items to choose.
+     * @return The binomial coefficient. Returns 0 if {@code k} is less than 0
+     * or greater than {@code n}.
+     * @throws IllegalArgumentException The parameter {@code n} is less than 0.
+     */
+    public static EInteger Binomial(int n, int k) {
+      if (n < 0) {
+        throw new IllegalArgumentException("n(" + n + ") is less than 0");
+      }
+      return Combinatorics.Binomial(n, k);
+    }
+
+    /**
+     * Finds the double factorial of a number: the product of the positive
+     * integers less than or equal to that number that are odd if the number is
+     * odd, or even if it's even.
+     * @param n A number that is -1 or greater.
+     * @return The double factorial of {@code n}. Returns 1 if {@code n} is
+     * -1, 0, or 1.
+     * @throws IllegalArgumentException The parameter {@code n} is less than
+     * -1.
+     */
+    public static EInteger DoubleFactorial(int n) {
+      if (n < -1) {
+        throw new IllegalArgumentException("n(" + n + ") is less than -1");
+      }
+      return Combinatorics.DoubleFactorial(n);
+    }
+
+    /**
+     * Finds the factorial of a number: the product of the positive integers
+     * less than or equal to that number. This is found from its prime
+     * factorization rather than by multiplying one integer at a time, which is
+     * much faster for large numbers.
+     * @param n A number that is 0 or greater.
+     * @return The factorial of {@code n}. Returns 1 if {@code n} is 0.
+     * @throws IllegalArgumentException The parameter {@code n} is less than 0.
+     */
+    public static EInteger Factorial(int n) {
+      if (n < 0) {
+        throw new IllegalArgumentException("n(" + n + ") is less than 0");
+      }
+      return Combinatorics.Factorial(n);
+    }
+
+    /**
+     * Finds the primorial of a number: the product of the prime numbers less
+     * than or equal to that number.
+     * @param n A number.
+     * @return The primorial of {@code n}. Returns 1 if {@code n} is less than
+     * 2.
+     */
+    public static EInteger Primorial(int n) {
+      return Combinatorics.Primorial(n);
+    }
+
+    /**
+     * Multiplies all the integers in a list together. The integers are
+     * multiplied in pairs, then the products in pairs, and so on, which keeps
+     * the operands of each multiplication about the same size and takes
+     * quasi-linear time in the total size of the integers, rather than the
+     * quadratic time of multiplying them one after another.
+     * @param values A list of arbitrary-precision integers.
+     * @return The product of the integers in the list. Returns 1 if the list is
+     * empty.
+     * @throws NullPointerException The parameter {@code values} or one of its
+     * elements is null.
+     */
+    public static EInteger Product(EInteger[] values) {
+      CheckBatch(values, "values");
+      if (values.length == 0) {
+        return EInteger.FromInt32(1);
+      }
+      boolean negative = false;
+      for (EInteger value : values) {
+        negative ^= value.negative;
+      }
+      EInteger ret = new ProductTree(values).getRoot();
+      return negative ? ret.Negate() : ret;
+    }
+
+    /**
+     * Multiplies all the integers in a list together, using the given thread
+     * pool for parts of the work if the integers are large enough (see
+     * SetParallelMultiplication).
+     * @param values A list of arbitrary-precision integers.
+     * @param pool A thread pool to use for this call, or null to use the pool,
+     * if any, given to SetParallelMultiplication.
+     * @return The product of the integers in the list. Returns 1 if the list is
+     * empty.
+     * @throws NullPointerException The parameter {@code values} or one of its
+     * elements is null.
+     */
+    public static EInteger Product(
+      EInteger[] values,
+      java.util.concurrent.ForkJoinPool pool) {
+      java.util.concurrent.ForkJoinPool oldPool =
+        ParallelMultiplication.Enter(pool);
+      try {
+        return Product(values);
+      } finally {
+        ParallelMultiplication.Exit(oldPool);
       }
-      return r;
     }
 
     /**
      * Multiplies this arbitrary-precision integer by another arbitrary-precision
-     * integer and returns the result.
+     * integer, using the given thread pool for the independent parts of the
+     * multiplication if the operands are very large, and returns the result.
+     * The minimum operand size for using the pool is the one last given to
+     * SetParallelMultiplication.
      * @param bigintMult Another arbitrary-precision integer.
+     * @param pool A thread pool to use for this call, or null to use the pool,
+     * if any, given to SetParallelMultiplication.
      * @return The product of the two numbers, that is, this arbitrary-precision
      * integer times another arbitrary-precision integer.
      * @throws NullPointerException The parameter {@code bigintMult} is null.
      */
-    public EInteger Multiply(EInteger bigintMult) {
-      if (bigintMult == null) {
+    public EInteger Multiply(
+      EInteger bigintMult,
+      java.util.concurrent.ForkJoinPool pool) {
+      java.util.concurrent.ForkJoinPool oldPool =
+        ParallelMultiplication.Enter(pool);
+      try {
+        return this.Multiply(bigintMult);
+      } finally {
+        ParallelMultiplication.Exit(oldPool);
+      }
+    }
+
+    /**
+     * Multiplies this arbitrary-precision integer by another arbitrary-precision
+     * integer and returns the result.
+     * @param bigintMult Another arbitrary-precision integer.
+     * @return The product of the two numbers, that is, this arbitrary-precision
+     * integer times another arbitrary-precision integer.
+     * @throws NullPointerException The parameter {@code bigintMult} is null.
+     */
+    public EInteger Multiply(EInteger bigintMult) {
+      if (bigintMult == null) {
         throw new NullPointerException("bigintMult");
       }
       if (this.wordCount == 0 || bigintMult.wordCount == 0) {
         return EInteger.FromInt32(0);
       }
-      if (this.wordCount == 1 && this.words[0] == 1) {
+      if (this.words == null && bigintMult.words == null) {
+        // Both values are stored inline, so multiply them as 64-bit
+        // integers unless the product overflows (the same check as
+        // Math.multiplyExact)
+        long a = this.inlineValue;
+        long b = bigintMult.inlineValue;
+        long product = a * b;
+        if (((Math.abs(a) | Math.abs(b)) >> 31) == 0 ||
+          (product / b == a && (a != Long.MIN_VALUE || b != -1))) {
+          return FromInt64(product);
+        }
+      }
+      short[] thisWords = this.GetWordsInternal();
+      short[] multWords = bigintMult.GetWordsInternal();
+      if (this.wordCount == 1 && thisWords[0] == 1) {
         return this.negative ? bigintMult.Negate() : bigintMult;
       }
-      if (bigintMult.wordCount == 1 && bigintMult.words[0] == 1) {
+      if (bigintMult.wordCount == 1 && multWords[0] == 1) {
         return bigintMult.negative ? this.Negate() : this;
       }
       // System.out.println("multiply " + this + " " + bigintMult);
@@ -3803,32 +4276,15 @@ licensed under the Unlicense: https://unlicense.org/
       int productwordCount;
       boolean needShorten = true;
       if (this.wordCount == 1) {
-        int wc;
-        if (bigintMult.wordCount == 1) {
-          // NOTE: Result can't be 0 here, since checks
-          // for 0 were already made earlier in this function
-          productreg = new short[2];
-          int ba = ((int)this.words[0]) & ShortMask;
-          int bb = ((int)bigintMult.words[0]) & ShortMask;
-          ba = (ba * bb);
-          productreg[0] = ((short)(ba & ShortMask));
-          productreg[1] = ((short)((ba >> 16) & ShortMask));
-          short preg = productreg[1];
-          wc = (preg == 0) ? 1 : 2;
-          return new EInteger(
-              wc,
-              productreg,
-              this.negative ^ bigintMult.negative);
-        }
-        wc = bigintMult.wordCount;
+        int wc = bigintMult.wordCount;
         int regLength = wc + 1;
         productreg = new short[regLength];
         productreg[wc] = LinearMultiply(
             productreg,
             0,
-            bigintMult.words,
+            multWords,
             0,
-            this.words[0],
+            thisWords[0],
             wc);
         productwordCount = productreg.length;
         needShorten = false;
@@ -3839,9 +4295,9 @@ licensed under the Unlicense: https://unlicense.org/
         productreg[wc] = LinearMultiply(
             productreg,
             0,
-            this.words,
+            thisWords,
             0,
-            bigintMult.words[0],
+            multWords[0],
             wc);
         productwordCount = productreg.length;
         needShorten = false;
@@ -3855,7 +4311,7 @@ licensed under the Unlicense: https://unlicense.org/
           0,
           workspace,
           0,
-          this.words,
+          thisWords,
           0,
           words1Size);
       } else if (this.wordCount <= MultRecursionThreshold &&
@@ -3866,10 +4322,10 @@ licensed under the Unlicense: https://unlicense.org/
         SchoolbookMultiply(
           productreg,
           0,
-          this.words,
+          thisWords,
           0,
           this.wordCount,
-          bigintMult.words,
+          multWords,
           0,
           bigintMult.wordCount);
         needShorten = false;
@@ -3884,10 +4340,10 @@ licensed under the Unlicense: https://unlicense.org/
           0,
           workspace,
           0,
-          this.words,
+          thisWords,
           0,
           words1Size,
-          bigintMult.words,
+          multWords,
           0,
           words2Size);
       }
@@ -3933,9 +4389,14 @@ licensed under the Unlicense: https://unlicense.org/
       short[] wordsB,
       int wordsBStart,
       int countB) {
+      if (wordsA == wordsB && wordsAStart == wordsBStart &&
+        countA == countB) {
+        // Same array, offset, and count, so we're squaring
+        Toom3Square(resultArr, resultStart, wordsA, wordsAStart, countA);
+        return;
+      }
       int imal = Math.max(countA, countB);
       int im3 = (imal / 3) + (((imal % 3) + 2) / 3);
-      EInteger m3mul16 = EInteger.FromInt32(im3).ShiftLeft(4);
       EInteger x0 = MakeEInteger(
           wordsA,
           wordsAStart + countA,
@@ -3951,44 +4412,94 @@ licensed under the Unlicense: https://unlicense.org/
           wordsAStart + countA,
           wordsAStart + (im3 * 2),
           im3);
-      EInteger w0, wt1, wt2, wt3, w4;
-      if (wordsA == wordsB && wordsAStart == wordsBStart &&
-        countA == countB) {
-        // Same array, offset, and count, so we're squaring
-        w0 = x0.Multiply(x0);
-        w4 = x2.Multiply(x2);
-        EInteger x2x0 = x2.Add(x0);
-        wt1 = x2x0.Add(x1);
-        wt2 = x2x0.Subtract(x1);
-        wt3 = x2.ShiftLeft(2).Add(x1.ShiftLeft(1)).Add(x0);
-        wt1 = wt1.Multiply(wt1);
-        wt2 = wt2.Multiply(wt2);
-        wt3 = wt3.Multiply(wt3);
-      } else {
-        EInteger y0 = MakeEInteger(
-            wordsB,
-            wordsBStart + countB,
-            wordsBStart,
-            im3);
-        EInteger y1 = MakeEInteger(
-            wordsB,
-            wordsBStart + countB,
-            wordsBStart + im3,
-            im3);
-        EInteger y2 = MakeEInteger(
-            wordsB,
-            wordsBStart + countB,
-            wordsBStart + (im3 * 2),
-            im3);
-        w0 = x0.Multiply(y0);
-        w4 = x2.Multiply(y2);
-        EInteger x2x0 = x2.Add(x0);
-        EInteger y2y0 = y2.Add(y0);
-        wt1 = x2x0.Add(x1).Multiply(y2y0.Add(y1));
-        wt2 = x2x0.Subtract(x1).Multiply(y2y0.Subtract(y1));
-        wt3 = x2.ShiftLeft(2).Add(x1.ShiftLeft(1)).Add(x0)
-          .Multiply(y2.ShiftLeft(2).Add(y1.ShiftLeft(1)).Add(y0));
-      }
+      EInteger y0 = MakeEInteger(
+          wordsB,
+          wordsBStart + countB,
+          wordsBStart,
+          im3);
+      EInteger y1 = MakeEInteger(
+          wordsB,
+          wordsBStart + countB,
+          wordsBStart + im3,
+          im3);
+      EInteger y2 = MakeEInteger(
+          wordsB,
+          wordsBStart + countB,
+          wordsBStart + (im3 * 2),
+          im3);
+      EInteger[] factorsA = Toom3Evaluate(x0, x1, x2);
+      EInteger[] factorsB = Toom3Evaluate(y0, y1, y2);
+      // The five subproducts are independent, so they may be computed
+      // in parallel
+      EInteger[] products = ParallelMultiplication.MultiplyAll(
+          factorsA,
+          factorsB,
+          countA + countB);
+      Toom3Interpolate(resultArr, resultStart, countA + countB, im3, products);
+    }
+
+    // Squares a number using Toom-3.  The evaluation and interpolation
+    // are the same as in Toom3, except that the number is evaluated only
+    // once; what differs for squaring is the size from which this is
+    // used (see Toom3SquareThreshold).
+    private static void Toom3Square(
+      short[] resultArr,
+      int resultStart,
+      short[] words,
+      int wordsStart,
+      int count) {
+      int im3 = (count / 3) + (((count % 3) + 2) / 3);
+      EInteger x0 = MakeEInteger(
+          words,
+          wordsStart + count,
+          wordsStart,
+          im3);
+      EInteger x1 = MakeEInteger(
+          words,
+          wordsStart + count,
+          wordsStart + im3,
+          im3);
+      EInteger x2 = MakeEInteger(
+          words,
+          wordsStart + count,
+          wordsStart + (im3 * 2),
+          im3);
+      EInteger[] factors = Toom3Evaluate(x0, x1, x2);
+      EInteger[] products = ParallelMultiplication.MultiplyAll(
+          factors,
+          factors,
+          count * 2);
+      Toom3Interpolate(resultArr, resultStart, count * 2, im3, products);
+    }
+
+    // Evaluates the polynomial x0 + x1*t + x2*t^2 at t = 0, infinity,
+    // 1, -1, and 2
+    private static EInteger[] Toom3Evaluate(
+      EInteger x0,
+      EInteger x1,
+      EInteger x2) {
+      EInteger x2x0 = x2.Add(x0);
+      return new EInteger[] {
+        x0, x2, x2x0.Add(x1), x2x0.Subtract(x1),
+        x2.ShiftLeft(2).Add(x1.ShiftLeft(1)).Add(x0),
+      };
+    }
+
+    // Recovers the product's coefficients from the products of the
+    // values found by Toom3Evaluate, and stores the product, which has
+    // 'resultCount' words, in the result array
+    private static void Toom3Interpolate(
+      short[] resultArr,
+      int resultStart,
+      int resultCount,
+      int im3,
+      EInteger[] products) {
+      EInteger m3mul16 = EInteger.FromInt32(im3).ShiftLeft(4);
+      EInteger w0 = products[0];
+      EInteger w4 = products[1];
+      EInteger wt1 = products[2];
+      EInteger wt2 = products[3];
+      EInteger wt3 = products[4];
       EInteger w4mul2 = w4.ShiftLeft(1);
       EInteger w4mul12 = w4mul2.Multiply(6);
       EInteger w0mul3 = w0.Multiply(3);
@@ -4011,13 +4522,13 @@ licensed under the Unlicense: https://unlicense.org/
         w0 = w0.Add(w3.ShiftLeft(m3mul16.Multiply(3)));
         w0 = w0.Add(w4.ShiftLeft(m3mul16.Multiply(4)));
       }
-      java.util.Arrays.fill(resultArr, resultStart, (resultStart)+(countA + countB), (short)0);
+      java.util.Arrays.fill(resultArr, resultStart, (resultStart)+(resultCount), (short)0);
       System.arraycopy(
-        w0.words,
+        w0.GetWordsInternal(),
         0,
         resultArr,
         resultStart,
-        Math.min(countA + countB, w0.wordCount));
+        Math.min(resultCount, w0.wordCount));
     }
 
     private static EInteger Interpolate(
@@ -4053,99 +4564,102 @@ licensed under the Unlicense: https://unlicense.org/
       short[] wordsB,
       int wordsBStart,
       int countB) {
+      if (wordsA == wordsB && wordsAStart == wordsBStart &&
+        countA == countB) {
+        // Same array, offset, and count, so we're squaring
+        Toom4Square(resultArr, resultStart, wordsA, wordsAStart, countA);
+        return;
+      }
       int imal = Math.max(countA, countB);
       int im3 = (imal / 4) + (((imal % 4) + 3) / 4);
-      EInteger m3mul16 = EInteger.FromInt32(im3).ShiftLeft(4);
+      EInteger[] factorsA = Toom4Evaluate(wordsA, wordsAStart, countA, im3);
+      EInteger[] factorsB = Toom4Evaluate(wordsB, wordsBStart, countB, im3);
+      // The seven subproducts are independent, so they may be computed
+      // in parallel
+      EInteger[] products = ParallelMultiplication.MultiplyAll(
+          factorsA,
+          factorsB,
+          countA + countB);
+      Toom4Interpolate(resultArr, resultStart, countA + countB, im3, products);
+    }
+
+    // Squares a number using Toom-4; see Toom3Square
+    private static void Toom4Square(
+      short[] resultArr,
+      int resultStart,
+      short[] words,
+      int wordsStart,
+      int count) {
+      int im3 = (count / 4) + (((count % 4) + 3) / 4);
+      EInteger[] factors = Toom4Evaluate(words, wordsStart, count, im3);
+      EInteger[] products = ParallelMultiplication.MultiplyAll(
+          factors,
+          factors,
+          count * 2);
+      Toom4Interpolate(resultArr, resultStart, count * 2, im3, products);
+    }
+
+    // Splits a number into four pieces of 'im3' words each and evaluates
+    // the polynomial they form at t = 0, infinity, 2, -2, 1, -1, and 1/2
+    // (the last scaled by 8)
+    private static EInteger[] Toom4Evaluate(
+      short[] words,
+      int wordsStart,
+      int count,
+      int im3) {
       EInteger x0 = MakeEInteger(
-          wordsA,
-          wordsAStart + countA,
-          wordsAStart,
+          words,
+          wordsStart + count,
+          wordsStart,
           im3);
       EInteger x1 = MakeEInteger(
-          wordsA,
-          wordsAStart + countA,
-          wordsAStart + im3,
+          words,
+          wordsStart + count,
+          wordsStart + im3,
           im3);
       EInteger x2 = MakeEInteger(
-          wordsA,
-          wordsAStart + countA,
-          wordsAStart + (im3 * 2),
+          words,
+          wordsStart + count,
+          wordsStart + (im3 * 2),
           im3);
       EInteger x3 = MakeEInteger(
-          wordsA,
-          wordsAStart + countA,
-          wordsAStart + (im3 * 3),
+          words,
+          wordsStart + count,
+          wordsStart + (im3 * 3),
           im3);
-      EInteger w0, wt1, wt2, wt3, wt4, wt5, w6;
-      if (wordsA == wordsB && wordsAStart == wordsBStart &&
-        countA == countB) {
-        // Same array, offset, and count, so we're squaring
-        w0 = x0.Multiply(x0);
-        w6 = x3.Multiply(x3);
-        EInteger x2mul2 = x2.ShiftLeft(1);
-        EInteger x1mul4 = x1.ShiftLeft(2);
-        EInteger x0mul8 = x0.ShiftLeft(3);
-        EInteger x1x3 = x1.Add(x3);
-        EInteger x0x2 = x0.Add(x2);
-        wt1 = x3.Add(x2mul2).Add(x1mul4).Add(x0mul8);
-        wt2 = x3.Negate().Add(x2mul2).Subtract(x1mul4).Add(x0mul8);
-        wt3 = x0x2.Add(x1x3);
-        wt4 = x0x2.Subtract(x1x3);
-        wt5 = x0.Add(
-            x3.ShiftLeft(3)).Add(x2.ShiftLeft(2)).Add(x1.ShiftLeft(1));
-        wt1 = wt1.Multiply(wt1);
-        wt2 = wt2.Multiply(wt2);
-        wt3 = wt3.Multiply(wt3);
-        wt4 = wt4.Multiply(wt4);
-        wt5 = wt5.Multiply(wt5);
-      } else {
-        EInteger y0 = MakeEInteger(
-            wordsB,
-            wordsBStart + countB,
-            wordsBStart,
-            im3);
-        EInteger y1 = MakeEInteger(
-            wordsB,
-            wordsBStart + countB,
-            wordsBStart + im3,
-            im3);
-        EInteger y2 = MakeEInteger(
-            wordsB,
-            wordsBStart + countB,
-            wordsBStart + (im3 * 2),
-            im3);
-        EInteger y3 = MakeEInteger(
-            wordsB,
-            wordsBStart + countB,
-            wordsBStart + (im3 * 3),
-            im3);
-        w0 = x0.Multiply(y0);
-        w6 = x3.Multiply(y3);
-        EInteger x2mul2 = x2.ShiftLeft(1);
-        EInteger x1mul4 = x1.ShiftLeft(2);
-        EInteger x0mul8 = x0.ShiftLeft(3);
-        EInteger y2mul2 = y2.ShiftLeft(1);
-        EInteger y1mul4 = y1.ShiftLeft(2);
-        EInteger y0mul8 = y0.ShiftLeft(3);
-        EInteger x1x3 = x1.Add(x3);
-        EInteger x0x2 = x0.Add(x2);
-        EInteger y1y3 = y1.Add(y3);
-        EInteger y0y2 = y0.Add(y2);
-        wt1 = x3.Add(x2mul2).Add(x1mul4).Add(x0mul8);
-        wt1 = wt1.Multiply(y3.Add(y2mul2).Add(y1mul4).Add(y0mul8));
-        wt2 = x3.Negate().Add(x2mul2).Subtract(x1mul4).Add(x0mul8);
-        wt2 = wt2.Multiply(
-            y3.Negate().Add(y2mul2).Subtract(y1mul4).Add(y0mul8));
-        wt3 = x0x2.Add(x1x3);
-        wt3 = wt3.Multiply(y0y2.Add(y1y3));
-        wt4 = x0x2.Subtract(x1x3);
-        wt4 = wt4.Multiply(y0y2.Subtract(y1y3));
-        wt5 = x0.Add(
-            x3.ShiftLeft(3)).Add(x2.ShiftLeft(2)).Add(x1.ShiftLeft(1));
-        wt5 = wt5.Multiply(
-            y0.Add(
-              y3.ShiftLeft(3)).Add(y2.ShiftLeft(2)).Add(y1.ShiftLeft(1)));
-      }
+      EInteger x2mul2 = x2.ShiftLeft(1);
+      EInteger x1mul4 = x1.ShiftLeft(2);
+      EInteger x0mul8 = x0.ShiftLeft(3);
+      EInteger x1x3 = x1.Add(x3);
+      EInteger x0x2 = x0.Add(x2);
+      return new EInteger[] {
+        x0, x3,
+        x3.Add(x2mul2).Add(x1mul4).Add(x0mul8),
+        x3.Negate().Add(x2mul2).Subtract(x1mul4).Add(x0mul8),
+        x0x2.Add(x1x3),
+        x0x2.Subtract(x1x3),
+        x0.Add(
+          x3.ShiftLeft(3)).Add(x2.ShiftLeft(2)).Add(x1.ShiftLeft(1)),
+      };
+    }
+
+    // Recovers the product's coefficients from the products of the
+    // values found by Toom4Evaluate, and stores the product, which has
+    // 'resultCount' words, in the result array
+    private static void Toom4Interpolate(
+      short[] resultArr,
+      int resultStart,
+      int resultCount,
+      int im3,
+      EInteger[] products) {
+      EInteger m3mul16 = EInteger.FromInt32(im3).ShiftLeft(4);
+      EInteger w0 = products[0];
+      EInteger w6 = products[1];
+      EInteger wt1 = products[2];
+      EInteger wt2 = products[3];
+      EInteger wt3 = products[4];
+      EInteger wt4 = products[5];
+      EInteger wt5 = products[6];
       EInteger[] wts = { w0, wt1, wt2, wt3, wt4, wt5, w6 };
       int[] wts2 = new int[] {
         -90, 5, -3, -60, 20, 2,
@@ -4210,13 +4724,38 @@ licensed under the Unlicense: https://unlicense.org/
         w0 = w0.Add(w5.ShiftLeft(m3mul16.Multiply(5)));
         w0 = w0.Add(w6.ShiftLeft(m3mul16.Multiply(6)));
       }
-      java.util.Arrays.fill(resultArr, resultStart, (resultStart)+(countA + countB), (short)0);
+      java.util.Arrays.fill(resultArr, resultStart, (resultStart)+(resultCount), (short)0);
       System.arraycopy(
-        w0.words,
+        w0.GetWordsInternal(),
         0,
         resultArr,
         resultStart,
-        Math.min(countA + countB, w0.wordCount));
+        Math.min(resultCount, w0.wordCount));
+    }
+
+    /**
+     * Determines whether this integer is probably a prime number, using the
+     * Baillie&#x2013;PSW test: trial division by small primes, then a strong
+     * probable-prime test to base 2, then a strong Lucas probable-prime test.
+     * No composite number is known to pass this test, and none that is less
+     * than 2^64 does. Integers less than 2^31 are tested exactly.
+     * @return {@code true} if this integer is probably prime; {@code false} if
+     * it's composite, or less than 2.
+     */
+    public boolean IsProbablePrime() {
+      return PrimalityTest.IsProbablePrime(this);
+    }
+
+    /**
+     * Finds the smallest integer greater than this one that is probably a
+     * prime number (see IsProbablePrime). Candidates are first sieved by small
+     * primes, so that the full test runs only on candidates without small
+     * prime factors.
+     * @return The next probable prime. Returns 2 if this integer is less than
+     * 2.
+     */
+    public EInteger NextProbablePrime() {
+      return PrimalityTest.NextProbablePrime(this);
     }
 
     /**
@@ -4224,9 +4763,13 @@ licensed under the Unlicense: https://unlicense.org/
      * @return This object's value with the sign reversed.
      */
     public EInteger Negate() {
-      return this.wordCount == 0 ? this : new EInteger(
+      if (this.wordCount == 0) {
+        return this;
+      }
+      return (this.words == null && this.inlineValue != Long.MIN_VALUE) ?
+        new EInteger(-this.inlineValue) : new EInteger(
           this.wordCount,
-          this.words,
+          this.GetWordsInternal(),
           !this.negative);
     }
 
@@ -4247,6 +4790,29 @@ licensed under the Unlicense: https://unlicense.org/
         this.Pow(EInteger.FromInt64(longPower));
     }
 
+    /**
+     * Raises an arbitrary-precision integer to a power, using the given thread
+     * pool for the independent parts of very large multiplications (see
+     * SetParallelMultiplication).
+     * @param bigPower The exponent to raise this integer to.
+     * @param pool A thread pool to use for this call, or null to use the pool,
+     * if any, given to SetParallelMultiplication.
+     * @return The result. Returns 1 if {@code bigPower} is 0.
+     * @throws NullPointerException The parameter {@code bigPower} is null.
+     * @throws IllegalArgumentException BigPower is negative.
+     */
+    public EInteger Pow(
+      EInteger bigPower,
+      java.util.concurrent.ForkJoinPool pool) {
+      java.util.concurrent.ForkJoinPool oldPool =
+        ParallelMultiplication.Enter(pool);
+      try {
+        return this.Pow(bigPower);
+      } finally {
+        ParallelMultiplication.Exit(oldPool);
+      }
+    }
+
     /**
      * Raises an arbitrary-precision integer to a power.
      * @param bigPower The exponent to raise this integer to.
@@ -4358,6 +4924,69 @@ licensed under the Unlicense: https://unlicense.org/
       return this.Pow(power);
     }
 
+    /**
+     * Finds the remainders when this arbitrary-precision integer is divided by
+     * each integer in a list. The divisors are multiplied together in a
+     * balanced tree, and this integer is reduced by the products from the top
+     * of the tree down, which takes quasi-linear time in the total size of
+     * the integers, rather than the quadratic time of dividing by one divisor
+     * after another. Each remainder has the same sign (positive or negative)
+     * as this arbitrary-precision integer.
+     * @param divisors A list of the numbers to divide by.
+     * @return An array with as many integers as {@code divisors}, each of which
+     * is the remainder when this integer is divided by the divisor at the same
+     * position.
+     * @throws NullPointerException The parameter {@code divisors} or one of its
+     * elements is null.
+     * @throws ArithmeticException One of the divisors is 0.
+     */
+    public EInteger[] RemainderAll(EInteger[] divisors) {
+      CheckBatch(divisors, "divisors");
+      for (EInteger divisor : divisors) {
+        if (divisor.isZero()) {
+          throw new ArithmeticException("Division by zero");
+        }
+      }
+      if (divisors.length == 0) {
+        return new EInteger[0];
+      }
+      EInteger[] ret = new ProductTree(divisors).Remainders(
+          this.Abs(),
+          false);
+      if (this.negative) {
+        for (int i = 0; i < ret.length; ++i) {
+          ret[i] = ret[i].Negate();
+        }
+      }
+      return ret;
+    }
+
+    /**
+     * Finds the remainders when this arbitrary-precision integer is divided by
+     * each integer in a list, using the given thread pool for parts of the
+     * work if the integers are large enough (see SetParallelMultiplication).
+     * @param divisors A list of the numbers to divide by.
+     * @param pool A thread pool to use for this call, or null to use the pool,
+     * if any, given to SetParallelMultiplication.
+     * @return An array with as many integers as {@code divisors}, each of which
+     * is the remainder when this integer is divided by the divisor at the same
+     * position.
+     * @throws NullPointerException The parameter {@code divisors} or one of its
+     * elements is null.
+     * @throws ArithmeticException One of the divisors is 0.
+     */
+    public EInteger[] RemainderAll(
+      EInteger[] divisors,
+      java.util.concurrent.ForkJoinPool pool) {
+      java.util.concurrent.ForkJoinPool oldPool =
+        ParallelMultiplication.Enter(pool);
+      try {
+        return this.RemainderAll(divisors);
+      } finally {
+        ParallelMultiplication.Exit(oldPool);
+      }
+    }
+
     /**
      * Returns the remainder that would result when this arbitrary-precision
      * integer is divided by another arbitrary-precision integer. The remainder is
@@ -4384,11 +5013,16 @@ licensed under the Unlicense: https://unlicense.org/
         // dividend is less than divisor
         return this;
       }
+      if (this.words == null && divisor.words == null) {
+        return FromInt64(this.inlineValue % divisor.inlineValue);
+      }
+      short[] thisWords = this.GetWordsInternal();
+      short[] divisorWords = divisor.GetWordsInternal();
       if (words2Size == 1) {
         short shortRemainder = FastRemainder(
-            this.words,
+            thisWords,
             this.wordCount,
-            divisor.words[0]);
+            divisorWords[0]);
         int smallRemainder = ((int)shortRemainder) & ShortMask;
         if (this.negative) {
           smallRemainder = -smallRemainder;
@@ -4398,12 +5032,15 @@ licensed under the Unlicense: https://unlicense.org/
       if (this.PositiveCompare(divisor) < 0) {
         return this;
       }
+      if (UseNewtonDivision(words1Size, words2Size)) {
+        return NewtonDivRem(this, divisor)[1];
+      }
       short[] remainderReg = new short[(int)words2Size];
       GeneralDivide(
-        this.words,
+        thisWords,
         0,
         this.wordCount,
-        divisor.words,
+        divisorWords,
         0,
         divisor.wordCount,
         null,
@@ -4491,6 +5128,13 @@ licensed under the Unlicense: https://unlicense.org/
           this.ShiftRight(1).ShiftRight(Integer.MAX_VALUE) :
           this.ShiftRight(-numberBits);
       }
+      if (this.words == null && numberBits < 64) {
+        long v = this.inlineValue;
+        if (((v << numberBits) >> numberBits) == v) {
+          return FromInt64(v << numberBits);
+        }
+      }
+      short[] thisWords = this.GetWordsInternal();
       int numWords = this.wordCount;
       int shiftWords = (int)(numberBits >> 4);
       int shiftBits = (int)(numberBits & 15);
@@ -4498,7 +5142,7 @@ licensed under the Unlicense: https://unlicense.org/
         // Determine shifted integer's word count in advance;
         // it's more cache-friendly to do so because the
         // unshifted word has less memory
-        int lastWord = ((int)this.words[this.wordCount - 1]) & 0xffff;
+        int lastWord = ((int)thisWords[this.wordCount - 1]) & 0xffff;
         int lastWordBL = NumberUtility.BitLength(lastWord) +
           shiftBits;
         int newWordCount = 0;
@@ -4510,7 +5154,7 @@ licensed under the Unlicense: https://unlicense.org/
           newWordCount = numWords + BitsToWords(numberBits);
         }
         short[] ret = new short[newWordCount];
-        System.arraycopy(this.words, 0, ret, shiftWords, numWords);
+        System.arraycopy(thisWords, 0, ret, shiftWords, numWords);
         ShiftWordsLeftByBits(
           ret,
           shiftWords,
@@ -4520,7 +5164,7 @@ licensed under the Unlicense: https://unlicense.org/
         return new EInteger(newWordCount, ret, false);
       } else {
         short[] ret = new short[numWords + BitsToWords((int)numberBits)];
-        System.arraycopy(this.words, 0, ret, 0, numWords);
+        System.arraycopy(thisWords, 0, ret, 0, numWords);
         TwosComplement(ret, 0, (int)ret.length);
         ShiftWordsLeftByWords(ret, 0, numWords + shiftWords, shiftWords);
         ShiftWordsLeftByBits(
@@ -4572,6 +5216,9 @@ licensed under the Unlicense: https://unlicense.org/
       if (this.wordCount == 0) {
         return EInteger.FromInt32(-1);
       }
+      if (this.words == null) {
+        return FromInt64(~this.inlineValue);
+      }
       boolean valueXaNegative = false;
       int valueXaWordCount = 0;
       short[] valueXaReg = new short[this.wordCount];
@@ -4631,6 +5278,10 @@ licensed under the Unlicense: https://unlicense.org/
         if (bits <= bitCount) {
           return this;
         }
+        if (this.words == null) {
+          // bitCount is less than 63 here
+          return FromInt64(this.inlineValue & ((1L << bitCount) - 1));
+        }
       }
       if (!this.negative) {
         long otherWordCount = BitsToWords(bitCount);
@@ -4746,12 +5397,17 @@ licensed under the Unlicense: https://unlicense.org/
       if (other.isZero() || this.isZero()) {
         return EInteger.FromInt32(0);
       }
+      if (this.words == null && other.words == null) {
+        return FromInt64(this.inlineValue & other.inlineValue);
+      }
+      short[] thisWords = this.GetWordsInternal();
+      short[] otherWords = other.GetWordsInternal();
       if (!this.negative && !other.negative) {
         int smallerCount = Math.min(this.wordCount, other.wordCount);
         short[] smaller = (this.wordCount == smallerCount) ?
-          this.words : other.words;
+          thisWords : otherWords;
         short[] bigger = (this.wordCount == smallerCount) ?
-          other.words : this.words;
+          otherWords : thisWords;
         short[] result = new short[smallerCount];
         for (int i = 0; i < smallerCount; ++i) {
           result[i] = ((short)(smaller[i] & bigger[i]));
@@ -4763,10 +5419,10 @@ licensed under the Unlicense: https://unlicense.org/
       boolean valueXaNegative = false;
       int valueXaWordCount = 0;
       short[] valueXaReg = new short[this.wordCount];
-      System.arraycopy(this.words, 0, valueXaReg, 0, valueXaReg.length);
+      System.arraycopy(thisWords, 0, valueXaReg, 0, valueXaReg.length);
       boolean valueXbNegative = false;
       short[] valueXbReg = new short[other.wordCount];
-      System.arraycopy(other.words, 0, valueXbReg, 0, valueXbReg.length);
+      System.arraycopy(otherWords, 0, valueXbReg, 0, valueXbReg.length);
       valueXaNegative = this.negative;
       valueXaWordCount = this.wordCount;
       valueXbNegative = other.negative;
@@ -4818,13 +5474,18 @@ licensed under the Unlicense: https://unlicense.org/
       if (second.wordCount == 0) {
         return this;
       }
+      if (this.words == null && second.words == null) {
+        return FromInt64(this.inlineValue | second.inlineValue);
+      }
+      short[] thisWords = this.GetWordsInternal();
+      short[] secondWords = second.GetWordsInternal();
       if (!this.negative && !second.negative) {
         int smallerCount = Math.min(this.wordCount, second.wordCount);
         int biggerCount = Math.max(this.wordCount, second.wordCount);
         short[] smaller = (this.wordCount == smallerCount) ?
-          this.words : second.words;
+          thisWords : secondWords;
         short[] bigger = (this.wordCount == smallerCount) ?
-          second.words : this.words;
+          secondWords : thisWords;
         short[] result = new short[biggerCount];
         for (int i = 0; i < smallerCount; ++i) {
           result[i] = ((short)(smaller[i] | bigger[i]));
@@ -4841,10 +5502,10 @@ licensed under the Unlicense: https://unlicense.org/
       boolean valueXaNegative = false;
       int valueXaWordCount = 0;
       short[] valueXaReg = new short[this.wordCount];
-      System.arraycopy(this.words, 0, valueXaReg, 0, valueXaReg.length);
+      System.arraycopy(thisWords, 0, valueXaReg, 0, valueXaReg.length);
       boolean valueXbNegative = false;
       short[] valueXbReg = new short[second.wordCount];
-      System.arraycopy(second.words, 0, valueXbReg, 0, valueXbReg.length);
+      System.arraycopy(secondWords, 0, valueXbReg, 0, valueXbReg.length);
       valueXaNegative = this.negative;
       valueXaWordCount = this.wordCount;
       valueXbNegative = second.negative;
@@ -5037,13 +5698,18 @@ licensed under the Unlicense: https://unlicense.org/
       if (other.wordCount == 0) {
         return this;
       }
+      if (this.words == null && other.words == null) {
+        return FromInt64(this.inlineValue ^ other.inlineValue);
+      }
+      short[] thisWords = this.GetWordsInternal();
+      short[] otherWords = other.GetWordsInternal();
       if (!this.negative && !other.negative) {
         int smallerCount = Math.min(this.wordCount, other.wordCount);
         int biggerCount = Math.max(this.wordCount, other.wordCount);
         short[] smaller = (this.wordCount == smallerCount) ?
-          this.words : other.words;
+          thisWords : otherWords;
         short[] bigger = (this.wordCount == smallerCount) ?
-          other.words : this.words;
+          otherWords : thisWords;
         short[] result = new short[biggerCount];
         for (int i = 0; i < smallerCount; ++i) {
           result[i] = ((short)(smaller[i] ^ bigger[i]));
@@ -5063,10 +5729,10 @@ licensed under the Unlicense: https://unlicense.org/
       boolean valueXaNegative = false;
       int valueXaWordCount = 0;
       short[] valueXaReg = new short[this.wordCount];
-      System.arraycopy(this.words, 0, valueXaReg, 0, valueXaReg.length);
+      System.arraycopy(thisWords, 0, valueXaReg, 0, valueXaReg.length);
       boolean valueXbNegative = false;
       short[] valueXbReg = new short[other.wordCount];
-      System.arraycopy(other.words, 0, valueXbReg, 0, valueXbReg.length);
+      System.arraycopy(otherWords, 0, valueXbReg, 0, valueXbReg.length);
       valueXaNegative = this.negative;
       valueXaWordCount = this.wordCount;
       valueXbNegative = other.negative;
@@ -5093,8 +5759,9 @@ licensed under the Unlicense: https://unlicense.org/
     }
 
     private short[] Copy() {
-      short[] words = new short[this.words.length];
-      System.arraycopy(this.words, 0, words, 0, this.wordCount);
+      short[] thisWords = this.GetWordsInternal();
+      short[] words = new short[thisWords.length];
+      System.arraycopy(thisWords, 0, words, 0, this.wordCount);
       return words;
     }
 
@@ -5309,6 +5976,9 @@ licensed under the Unlicense: https://unlicense.org/
           this.ShiftLeft(1).ShiftLeft(Integer.MAX_VALUE) :
           this.ShiftLeft(-numberBits);
       }
+      if (this.words == null) {
+        return FromInt64(this.inlineValue >> Math.min(numberBits, 63));
+      }
       int numWords = (int)this.wordCount;
       int shiftWords = (int)(numberBits >> 4);
       int shiftBits = (int)(numberBits & 15);
@@ -5469,6 +6139,7 @@ licensed under the Unlicense: https://unlicense.org/
       if (sign == 0) {
         return new byte[] { (byte)0 };
       }
+      short[] thisWords = this.GetWordsInternal();
       if (sign > 0) {
         int byteCount = this.ByteCount();
         int byteArrayLength = byteCount;
@@ -5480,15 +6151,15 @@ licensed under the Unlicense: https://unlicense.org/
         for (int i = 0; i < byteCount; i += 2, j++) {
           int index = littleEndian ? i : bytes.length - 1 - i;
           int index2 = littleEndian ? i + 1 : bytes.length - 2 - i;
-          bytes[index] = (byte)(this.words[j] & 0xff);
+          bytes[index] = (byte)(thisWords[j] & 0xff);
           if (index2 >= 0 && index2 < byteArrayLength) {
-            bytes[index2] = (byte)((this.words[j] >> 8) & 0xff);
+            bytes[index2] = (byte)((thisWords[j] >> 8) & 0xff);
           }
         }
         return bytes;
       } else {
-        short[] regdata = new short[this.words.length];
-        System.arraycopy(this.words, 0, regdata, 0, this.words.length);
+        short[] regdata = new short[thisWords.length];
+        System.arraycopy(thisWords, 0, regdata, 0, thisWords.length);
         TwosComplement(regdata, 0, (int)regdata.length);
         int byteCount = regdata.length * 2;
         for (int i = regdata.length - 1; i >= 0; --i) {
@@ -5526,6 +6197,199 @@ licensed under the Unlicense: https://unlicense.org/
       }
     }
 
+    /**
+     * Gets the number of bytes in this integer's compact binary encoding, as
+     * returned by the {@code ToEncodedBytes} method.
+     * @return The number of bytes in the encoded form.
+     */
+    public int GetEncodedLength() {
+      return NumberCodec.EncodedLength(this);
+    }
+
+    /**
+     * Converts this integer to a compact binary encoding, which stores the sign
+     * and the absolute value in variable-length form. The encoding begins with
+     * a format version, so that encodings from later versions of this library
+     * are rejected rather than misread.
+     * @return A byte array holding the encoded form of this integer.
+     */
+    public byte[] ToEncodedBytes() {
+      return NumberCodec.ToBytes(this);
+    }
+
+    /**
+     * Creates an arbitrary-precision integer from its compact binary encoding
+     * (see {@code ToEncodedBytes}).
+     * @param bytes A byte array holding exactly one encoded integer.
+     * @return An arbitrary-precision integer.
+     * @throws NullPointerException The parameter {@code bytes} is null.
+     * @throws IllegalArgumentException The parameter {@code bytes} does not
+     * hold a valid encoded integer, or has bytes after the encoded integer.
+     */
+    public static EInteger FromEncodedBytes(byte[] bytes) {
+      return (EInteger)NumberCodec.FromBytes(bytes, NumberCodec.TypeEInteger);
+    }
+
+    /**
+     * Writes the compact binary encoding of this integer (see {@code
+     * ToEncodedBytes}) to a data output stream.
+     * @param output A data output stream.
+     * @throws NullPointerException The parameter {@code output} is null.
+     * @throws java.io.IOException An I/O error occurred.
+     */
+    public void WriteEncoded(java.io.DataOutput output)
+      throws java.io.IOException {
+      NumberCodec.Write(this, output);
+    }
+
+    /**
+     * Writes the compact binary encoding of this integer (see {@code
+     * ToEncodedBytes}) to a byte buffer at its current position, and advances
+     * the position past the encoded integer.
+     * @param buffer A byte buffer.
+     * @throws NullPointerException The parameter {@code buffer} is null.
+     * @throws java.nio.BufferOverflowException The buffer has fewer bytes
+     * remaining than the encoded length, in which case nothing is written.
+     */
+    public void WriteEncoded(java.nio.ByteBuffer buffer) {
+      NumberCodec.Write(this, buffer);
+    }
+
+    /**
+     * Reads an arbitrary-precision integer in compact binary encoding (see
+     * {@code ToEncodedBytes}) from a data input stream.
+     * @param input A data input stream.
+     * @return An arbitrary-precision integer.
+     * @throws NullPointerException The parameter {@code input} is null.
+     * @throws java.io.IOException An I/O error occurred, the stream ended
+     * before the end of the encoded integer, or the data is not a valid encoded
+     * integer.
+     */
+    public static EInteger ReadEncoded(java.io.DataInput input)
+      throws java.io.IOException {
+      return (EInteger)NumberCodec.Read(input, NumberCodec.TypeEInteger);
+    }
+
+    /**
+     * Reads an arbitrary-precision integer in compact binary encoding (see
+     * {@code ToEncodedBytes}) from a byte buffer at its current position, and
+     * advances the position past the encoded integer.
+     * @param buffer A byte buffer.
+     * @return An arbitrary-precision integer.
+     * @throws NullPointerException The parameter {@code buffer} is null.
+     * @throws java.nio.BufferUnderflowException The buffer ends before the end
+     * of the encoded integer, in which case its position is unchanged.
+     * @throws IllegalArgumentException The data is not a valid encoded integer,
+     * in which case the buffer's position is unchanged.
+     */
+    public static EInteger ReadEncoded(java.nio.ByteBuffer buffer) {
+      return (EInteger)NumberCodec.Read(buffer, NumberCodec.TypeEInteger);
+    }
+
+    /**
+     * Gets the number of characters in this integer's text form, the same as
+     * returned by the {@code ToRadixString} method, without building that
+     * string if the integer is small.
+     * @param radix A radix from 2 through 36 (see {@code ToRadixString}).
+     * @return The number of characters in the text form.
+     * @throws IllegalArgumentException The parameter {@code radix} is less than
+     * 2 or greater than 36.
+     * @throws UnsupportedOperationException The text form is longer than
+     * Integer.MAX_VALUE characters.
+     */
+    public int GetRadixStringLength(int radix) {
+      CheckRadix(radix);
+      return NumberText.Length(this, radix);
+    }
+
+    /**
+     * Writes this integer's text form, the same as returned by the {@code
+     * ToRadixString} method, to an Appendable such as a StringBuilder or a
+     * Writer, without building that string if the integer is small.
+     * @param output An object that receives the text.
+     * @param radix A radix from 2 through 36 (see {@code ToRadixString}).
+     * @throws NullPointerException The parameter {@code output} is null.
+     * @throws IllegalArgumentException The parameter {@code radix} is less than
+     * 2 or greater than 36.
+     * @throws java.io.IOException An I/O error occurred.
+     */
+    public void WriteRadixString(Appendable output, int radix)
+      throws java.io.IOException {
+      CheckRadix(radix);
+      NumberText.Write(this, radix, output);
+    }
+
+    /**
+     * Writes this integer's text form, the same as returned by the {@code
+     * ToRadixString} method, to a character array.
+     * @param chars A character array.
+     * @param offset An index starting at 0 showing where to write the text in
+     * {@code chars}.
+     * @param radix A radix from 2 through 36 (see {@code ToRadixString}).
+     * @return The number of characters written.
+     * @throws NullPointerException The parameter {@code chars} is null.
+     * @throws IllegalArgumentException The parameter {@code offset} is less
+     * than 0 or greater than {@code chars}'s length, or {@code chars} has too
+     * little room after {@code offset} for the text, in which case some of the
+     * text may have been written.
+     * @throws IllegalArgumentException The parameter {@code radix} is less than
+     * 2 or greater than 36.
+     */
+    public int WriteRadixString(char[] chars, int offset, int radix) {
+      CheckRadix(radix);
+      return NumberText.Write(this, radix, chars, offset);
+    }
+
+    /**
+     * Writes this integer's text form, the same as returned by the {@code
+     * ToRadixString} method, to a byte array in UTF-8, in which each character
+     * of the text form is one byte.
+     * @param bytes A byte array.
+     * @param offset An index starting at 0 showing where to write the text in
+     * {@code bytes}.
+     * @param radix A radix from 2 through 36 (see {@code ToRadixString}).
+     * @return The number of bytes written.
+     * @throws NullPointerException The parameter {@code bytes} is null.
+     * @throws IllegalArgumentException The parameter {@code offset} is less
+     * than 0 or greater than {@code bytes}'s length, or {@code bytes} has too
+     * little room after {@code offset} for the text, in which case some of the
+     * text may have been written.
+     * @throws IllegalArgumentException The parameter {@code radix} is less than
+     * 2 or greater than 36.
+     */
+    public int WriteRadixStringUtf8(byte[] bytes, int offset, int radix) {
+      CheckRadix(radix);
+      return NumberText.WriteUtf8(this, radix, bytes, offset);
+    }
+
+    /**
+     * Writes this integer's text form, the same as returned by the {@code
+     * ToRadixString} method, to a byte buffer in UTF-8 at its current position,
+     * and advances the position past the text.
+     * @param buffer A byte buffer.
+     * @param radix A radix from 2 through 36 (see {@code ToRadixString}).
+     * @throws NullPointerException The parameter {@code buffer} is null.
+     * @throws java.nio.BufferOverflowException The buffer has too little room
+     * for the text, in which case its position is unchanged.
+     * @throws IllegalArgumentException The parameter {@code radix} is less than
+     * 2 or greater than 36.
+     */
+    public void WriteRadixStringUtf8(java.nio.ByteBuffer buffer, int radix) {
+      CheckRadix(radix);
+      NumberText.WriteUtf8(this, radix, buffer);
+    }
+
+    // Serialization writes the compact binary encoding in place of this
+    // object's fields (see NumberCodec.SerialForm)
+    private Object writeReplace() {
+      return new NumberCodec.SerialForm(NumberCodec.TypeEInteger, this);
+    }
+
+    private void readObject(java.io.ObjectInputStream stream)
+      throws java.io.InvalidObjectException {
+      throw new java.io.InvalidObjectException("Serialized form required");
+    }
+
     /**
      * Converts this object's value to a 32-bit signed integer, throwing an
      * exception if it can't fit.
@@ -5534,21 +6398,10 @@ licensed under the Unlicense: https://unlicense.org/
      * 32-bit signed integer.
      */
     public int ToInt32Checked() {
-      int count = this.wordCount;
-      if (count == 0) {
-        return 0;
-      }
-      if (count > 2) {
+      if (!this.CanFitInInt32()) {
         throw new ArithmeticException();
       }
-      if (count == 2 && (this.words[1] & 0x8000) != 0) {
-        if (this.negative && this.words[1] == ((short)0x8000) &&
-          this.words[0] == 0) {
-          return Integer.MIN_VALUE;
-        }
-        throw new ArithmeticException();
-      }
-      return this.ToInt32Unchecked();
+      return (int)this.inlineValue;
     }
 
     /**
@@ -5560,6 +6413,9 @@ licensed under the Unlicense: https://unlicense.org/
      * @return A 32-bit signed integer.
      */
     public int ToInt32Unchecked() {
+      if (this.words == null) {
+        return (int)this.inlineValue;
+      }
       int c = (int)this.wordCount;
       if (c == 0) {
         return 0;
@@ -5583,22 +6439,10 @@ licensed under the Unlicense: https://unlicense.org/
      * 64-bit signed integer.
      */
     public long ToInt64Checked() {
-      int count = this.wordCount;
-      if (count == 0) {
-        return 0L;
-      }
-      if (count > 4) {
+      if (this.words != null) {
         throw new ArithmeticException();
       }
-      if (count == 4 && (this.words[3] & 0x8000) != 0) {
-        if (this.negative && this.words[3] == ((short)0x8000) &&
-          this.words[2] == 0 && this.words[1] == 0 &&
-          this.words[0] == 0) {
-          return Long.MIN_VALUE;
-        }
-        throw new ArithmeticException();
-      }
-      return this.ToInt64Unchecked();
+      return this.inlineValue;
     }
 
     /**
@@ -5610,6 +6454,9 @@ licensed under the Unlicense: https://unlicense.org/
      * @return A 64-bit signed integer.
      */
     public long ToInt64Unchecked() {
+      if (this.words == null) {
+        return this.inlineValue;
+      }
       int c = (int)this.wordCount;
       if (c == 0) {
         return 0L;
@@ -5660,28 +6507,403 @@ licensed under the Unlicense: https://unlicense.org/
     private void ToRadixStringGeneral(
       StringBuilder outputSB,
       int radix) {
+      if (this.wordCount >= RadixConversionThreshold) {
+        EInteger[] powers = RadixPowerTree(radix, this);
+        ToRadixStringDivideAndConquer(
+          outputSB,
+          this,
+          radix,
+          powers,
+          RadixReciprocals(powers),
+          powers.length - 1,
+          0);
+        return;
+      }
+      this.ToRadixStringSmall(outputSB, radix, 0);
+    }
+
+    // Number of digits in the given radix held by the smallest power in a
+    // radix power tree.  The table gives (slightly underestimated) digits per
+    // word times 8, so this power occupies at most about half of
+    // RadixConversionThreshold words.
+    static int RadixPowerTreeBaseDigits(int radix) {
+      return (estimatedHalfDigitCountPerWord[radix] *
+          RadixConversionThreshold) >> 4;
+    }
+
+    // Builds the powers radix^(d*2^k) for k = 0, 1, ..., where d is
+    // RadixPowerTreeBaseDigits(radix), stopping at the first power whose
+    // square is greater than the given value.  Each power is the square of
+    // the one before it, so the tree costs one squaring per level, and it is
+    // shared by every division in a single conversion.
+    private static EInteger[] RadixPowerTree(int radix, EInteger value) {
+      java.util.ArrayList<EInteger> powers = new java.util.ArrayList<EInteger>();
+      long valueBits = value.GetUnsignedBitLengthAsInt64();
+      EInteger power = EInteger.FromInt32(radix).Pow(
+          RadixPowerTreeBaseDigits(radix));
+      powers.add(power);
+      while ((power.GetUnsignedBitLengthAsInt64() * 2) - 1 <= valueBits) {
+        power = power.Multiply(power);
+        powers.add(power);
+      }
+      return powers.toArray(new EInteger[] { });
+    }
+
+    // Builds the powers radix^(d*2^k), where d is
+    // RadixPowerTreeBaseDigits(radix), for each k such that d*2^k is less
+    // than the given number of digits.  Used to convert a string of that
+    // many digits in blocks of d*2^k digits.
+    static EInteger[] RadixPowerTreeForDigits(int radix, long digitCount) {
+      java.util.ArrayList<EInteger> powers = new java.util.ArrayList<EInteger>();
+      int baseDigits = RadixPowerTreeBaseDigits(radix);
+      EInteger power = null;
+      for (int k = 0; (((long)baseDigits) << k) < digitCount; ++k) {
+        power = (power == null) ? EInteger.FromInt32(radix).Pow(baseDigits) :
+          power.Multiply(power);
+        powers.add(power);
+      }
+      return powers.toArray(new EInteger[] { });
+    }
+
+    // Finds the reciprocals of the powers in a radix power tree that are
+    // worth dividing by with a reciprocal: the large powers, at levels
+    // that have enough divisions to share the reciprocal's cost (level
+    // (powers.length - 1 - k) has up to 2^k divisions).  The other entries
+    // are null.  All of them are found before the conversion starts, since
+    // its halves may run on different threads
+    private static EInteger[] RadixReciprocals(EInteger[] powers) {
+      EInteger[] reciprocals = new EInteger[powers.length];
+      for (int level = 0; level < powers.length; ++level) {
+        if (powers[level].wordCount >= RecursiveDivisionLimit &&
+          powers.length - 1 - level >= RadixReciprocalMinLevel) {
+          reciprocals[level] = NewtonReciprocal(powers[level]);
+        }
+      }
+      return reciprocals;
+    }
+
+    // Writes the digits of a nonnegative value less than
+    // powers[level]^2, by dividing it by powers[level] and converting
+    // the quotient and remainder separately.  If minDigits is greater than 0,
+    // the output is padded with leading zeros to at least that many digits;
+    // the remainder is always padded to the full digit count of
+    // powers[level], since it forms the low half of the result.  Each
+    // level of the tree divides many values by the same power, so a power
+    // whose reciprocal is in reciprocals[level] (see RadixReciprocals) is
+    // divided by using that reciprocal.
+    private static void ToRadixStringDivideAndConquer(
+      StringBuilder outputSB,
+      EInteger value,
+      int radix,
+      EInteger[] powers,
+      EInteger[] reciprocals,
+      int level,
+      long minDigits) {
+      while (level >= 0 && minDigits == 0 &&
+        value.compareTo(powers[level]) < 0) {
+        // Quotient would be 0 and contribute no digits
+        --level;
+      }
+      if (level < 0 || value.wordCount < RadixConversionThreshold) {
+        value.ToRadixStringSmall(outputSB, radix, minDigits);
+        return;
+      }
+      long levelDigits = ((long)RadixPowerTreeBaseDigits(radix)) << level;
+      EInteger[] divrem;
+      if (reciprocals[level] != null) {
+        divrem = DivRemWithReciprocal(
+            value,
+            powers[level],
+            reciprocals[level]);
+      } else {
+        divrem = value.DivRem(powers[level]);
+      }
+      java.util.concurrent.ForkJoinPool pool =
+        ParallelMultiplication.GetPool(
+          value.wordCount + powers[level].wordCount);
+      if (pool != null) {
+        // Convert the quotient and remainder on separate threads
+        StringBuilder highSB = new StringBuilder();
+        StringBuilder lowSB = new StringBuilder();
+        Runnable[] actions = {
+          new RadixStringAction(
+            highSB,
+            divrem[0],
+            radix,
+            powers,
+            reciprocals,
+            level - 1,
+            Math.max(0, minDigits - levelDigits)),
+          new RadixStringAction(
+            lowSB,
+            divrem[1],
+            radix,
+            powers,
+            reciprocals,
+            level - 1,
+            levelDigits),
+        };
+        ParallelMultiplication.InvokeAll(pool, actions);
+        outputSB.append(highSB).append(lowSB);
+        return;
+      }
+      ToRadixStringDivideAndConquer(
+        outputSB,
+        divrem[0],
+        radix,
+        powers,
+        reciprocals,
+        level - 1,
+        Math.max(0, minDigits - levelDigits));
+      ToRadixStringDivideAndConquer(
+        outputSB,
+        divrem[1],
+        radix,
+        powers,
+        reciprocals,
+        level - 1,
+        levelDigits);
+    }
+
+    private static final class RadixStringAction implements Runnable {
+      private final StringBuilder outputSB;
+      private final EInteger value;
+      private final int radix;
+      private final EInteger[] powers;
+      private final EInteger[] reciprocals;
+      private final int level;
+      private final long minDigits;
+
+      RadixStringAction(
+        StringBuilder outputSB,
+        EInteger value,
+        int radix,
+        EInteger[] powers,
+        EInteger[] reciprocals,
+        int level,
+        long minDigits) {
+        this.outputSB = outputSB;
+        this.value = value;
+        this.radix = radix;
+        this.powers = powers;
+        this.reciprocals = reciprocals;
+        this.level = level;
+        this.minDigits = minDigits;
+      }
+
+      public void run() {
+        ToRadixStringDivideAndConquer(
+          this.outputSB,
+          this.value,
+          this.radix,
+          this.powers,
+          this.reciprocals,
+          this.level,
+          this.minDigits);
+      }
+    }
+
+    // Computes floor(2^(2*n) / divisor), where divisor is positive and n is
+    // its bit length, by Newton's iteration: a reciprocal of the divisor's
+    // high half is found recursively, refined with one Newton step
+    // (x + x*(2^(2*n) - divisor*x)/2^(2*n)), which roughly doubles its
+    // number of correct bits, and then adjusted by at most a few units so
+    // that the result is exact.
+    static EInteger NewtonReciprocal(EInteger divisor) {
+      int n = divisor.GetUnsignedBitLength();
+      EInteger powerOfTwo = EInteger.FromInt32(1).ShiftLeft(n << 1);
+      if (divisor.wordCount < RecursiveDivisionLimit) {
+        return powerOfTwo.Divide(divisor);
+      }
+      // Use a few more than half the bits, so that the truncated divisor's
+      // reciprocal has enough correct bits for one Newton step
+      int highBits = (n >> 1) + 8;
+      int shift = n - highBits;
+      // The reciprocal so far is recipHigh*2^shift; multiply by recipHigh
+      // rather than the shifted value to keep the products small
+      EInteger recipHigh = NewtonReciprocal(divisor.ShiftRight(shift));
+      EInteger error = powerOfTwo.Subtract(
+          divisor.Multiply(recipHigh).ShiftLeft(shift));
+      // Only the high bits of the error affect the correction's integer
+      // part; the truncation is less than 1 and fixed up below
+      int errorShift = n - 8;
+      EInteger correction = recipHigh.Multiply(
+          error.Abs().ShiftRight(errorShift))
+        .ShiftRight((n << 1) - shift - errorShift);
+      EInteger recip = recipHigh.ShiftLeft(shift);
+      EInteger rem;
+      if (error.signum() < 0) {
+        recip = recip.Subtract(correction);
+        rem = error.Add(divisor.Multiply(correction));
+      } else {
+        recip = recip.Add(correction);
+        rem = error.Subtract(divisor.Multiply(correction));
+      }
+      while (rem.signum() < 0) {
+        recip = recip.Subtract(EInteger.FromInt32(1));
+        rem = rem.Add(divisor);
+      }
+      while (rem.compareTo(divisor) >= 0) {
+        recip = recip.Add(EInteger.FromInt32(1));
+        rem = rem.Subtract(divisor);
+      }
+      return recip;
+    }
+
+    // Divides a nonnegative value by divisor, given
+    // reciprocal = NewtonReciprocal(divisor), where n is the divisor's bit
+    // length, using Barrett's method.  A value of more than 2*n bits is
+    // divided a block of (divisor.wordCount - 1) words at a time, after its
+    // high part, so that each partial dividend has at most 2*n bits.
+    static EInteger[] DivRemWithReciprocal(
+      EInteger value,
+      EInteger divisor,
+      EInteger reciprocal) {
+      int n = divisor.GetUnsignedBitLength();
+      int valueBits = value.GetUnsignedBitLength();
+      if (valueBits <= n << 1) {
+        return DivRemWithReciprocalBlock(value, divisor, reciprocal, n);
+      }
+      int blockWords = divisor.wordCount - 1;
+      if (blockWords == 0) {
+        return value.DivRem(divisor);
+      }
+      int blockBits = blockWords << 4;
+      int blockCount = (valueBits - (n << 1) + blockBits - 1) / blockBits;
+      EInteger[] divrem = DivRemWithReciprocalBlock(
+          value.ShiftRight(blockCount * blockBits),
+          divisor,
+          reciprocal,
+          n);
+      short[] quotReg = new short[value.wordCount + 1];
+      System.arraycopy(
+        divrem[0].GetWordsInternal(),
+        0,
+        quotReg,
+        blockCount * blockWords,
+        divrem[0].wordCount);
+      EInteger rem = divrem[1];
+      short[] valueWords = value.GetWordsInternal();
+      for (int i = blockCount - 1; i >= 0; --i) {
+        int start = i * blockWords;
+        short[] blockReg = new short[blockWords];
+        System.arraycopy(valueWords, start, blockReg, 0, blockWords);
+        int count = CountWords(blockReg);
+        EInteger block = (count == 0) ? EInteger.FromInt32(0) :
+          new EInteger(count, blockReg, false);
+        // The remainder is less than divisor and the block is less than
+        // 2^blockBits, which is less than 2^n
+        divrem = DivRemWithReciprocalBlock(
+            rem.ShiftLeft(blockBits).Add(block),
+            divisor,
+            reciprocal,
+            n);
+        System.arraycopy(
+          divrem[0].GetWordsInternal(),
+          0,
+          quotReg,
+          start,
+          divrem[0].wordCount);
+        rem = divrem[1];
+      }
+      int quotCount = CountWords(quotReg);
+      EInteger quo = (quotCount == 0) ? EInteger.FromInt32(0) :
+        new EInteger(quotCount, ShortenArray(quotReg, quotCount), false);
+      return new EInteger[] { quo, rem };
+    }
+
+    // Divides a nonnegative value of at most 2*n bits by divisor.  If the
+    // value has L bits, the quotient has at most L - n + 1 bits, so only
+    // that many high bits of the value and of the reciprocal are needed;
+    // with the truncations used here, the estimate is never too high and at
+    // most 4 too low.
+    private static EInteger[] DivRemWithReciprocalBlock(
+      EInteger value,
+      EInteger divisor,
+      EInteger reciprocal,
+      int n) {
+      if (value.compareTo(divisor) < 0) {
+        return new EInteger[] { EInteger.FromInt32(0), value };
+      }
+      int valueBits = value.GetUnsignedBitLength();
+      EInteger quo = value.ShiftRight(n - 1)
+        .Multiply(reciprocal.ShiftRight((n << 1) - valueBits))
+        .ShiftRight(valueBits - n + 1);
+      EInteger rem = value.Subtract(quo.Multiply(divisor));
+      while (rem.compareTo(divisor) >= 0) {
+        quo = quo.Add(EInteger.FromInt32(1));
+        rem = rem.Subtract(divisor);
+      }
+      return new EInteger[] { quo, rem };
+    }
+
+    // Divides the absolute values of dividend and divisor by computing the
+    // divisor's reciprocal with Newton's iteration; returns the quotient and
+    // remainder with the signs given by Divide and Remainder
+    private static EInteger[] NewtonDivRem(
+      EInteger dividend,
+      EInteger divisor) {
+      EInteger dividendAbs = dividend.Abs();
+      EInteger divisorAbs = divisor.Abs();
+      int n = divisorAbs.GetUnsignedBitLength();
+      int quotientBits = dividendAbs.GetUnsignedBitLength() - n + 1;
+      EInteger[] divrem;
+      if (quotientBits + 64 < n) {
+        // The quotient is much shorter than the divisor, so estimate it
+        // from the divisor's high bits only, whose reciprocal is cheaper;
+        // dropping the low bits changes the quotient by at most 1
+        int shift = n - quotientBits - 64;
+        EInteger divisorHigh = divisorAbs.ShiftRight(shift);
+        EInteger quo = DivRemWithReciprocal(
+            dividendAbs.ShiftRight(shift),
+            divisorHigh,
+            NewtonReciprocal(divisorHigh))[0];
+        EInteger rem = dividendAbs.Subtract(quo.Multiply(divisorAbs));
+        while (rem.signum() < 0) {
+          quo = quo.Subtract(EInteger.FromInt32(1));
+          rem = rem.Add(divisorAbs);
+        }
+        while (rem.compareTo(divisorAbs) >= 0) {
+          quo = quo.Add(EInteger.FromInt32(1));
+          rem = rem.Subtract(divisorAbs);
+        }
+        divrem = new EInteger[] { quo, rem };
+      } else {
+        divrem = DivRemWithReciprocal(
+            dividendAbs,
+            divisorAbs,
+            NewtonReciprocal(divisorAbs));
+      }
+      if (dividend.negative) {
+        divrem[1] = divrem[1].Negate();
+      }
+      if (dividend.negative ^ divisor.negative) {
+        divrem[0] = divrem[0].Negate();
+      }
+      return divrem;
+    }
+
+    // Whether dividing by Newton's method is likely to be faster than
+    // recursive division for these word counts; computing the reciprocal
+    // costs a few multiplications, so it pays off only when the divisor and
+    // the quotient are both large
+    private static boolean UseNewtonDivision(int words1Size, int words2Size) {
+      return words2Size >= NewtonDivisionThreshold &&
+        words1Size - words2Size >= NewtonQuotientThreshold;
+    }
+
+    // Writes the digits of a nonnegative value by repeated short division,
+    // which is quadratic in the value's size, padded with leading zeros to
+    // at least minDigits digits.
+    private void ToRadixStringSmall(
+      StringBuilder outputSB,
+      int radix,
+      long minDigits) {
       int i = 0;
-      if (this.wordCount >= 100) {
-        StringBuilder rightBuilder = new StringBuilder();
-        long digits = ((long)estimatedHalfDigitCountPerWord[radix] *
-          this.wordCount) / 16;
-        EInteger pow = null;
-        if (radix == 10) {
-          pow = NumberUtility.FindPowerOfTen(digits);
-        } else {
-          pow = (radix == 5) ?
-            NumberUtility.FindPowerOfFiveFromBig(EInteger.FromInt64(digits)) :
-            EInteger.FromInt32(radix).Pow(EInteger.FromInt64(digits));
-        }
-        EInteger[] divrem = this.DivRem(pow);
-        // System.out.println("divrem wc=" + divrem[0].wordCount + " wc=" + (//
-        // divrem[1].wordCount));
-        divrem[0].ToRadixStringGeneral(outputSB, radix);
-        divrem[1].ToRadixStringGeneral(rightBuilder, radix);
-        for (i = rightBuilder.length(); i < digits; ++i) {
+      if (this.wordCount == 0) {
+        for (long j = 0; j < minDigits; ++j) {
           outputSB.append('0');
         }
-        outputSB.append(rightBuilder.toString());
         return;
       }
       char[] s;
@@ -5689,7 +6911,12 @@ licensed under the Unlicense: https://unlicense.org/
       int numWordCount;
       if (radix == 10) {
         if (this.CanFitInInt64()) {
-          outputSB.append(FastInteger.LongToString(this.ToInt64Unchecked()));
+          String longString = FastInteger.LongToString(
+              this.ToInt64Unchecked());
+          for (long j = longString.length(); j < minDigits; ++j) {
+            outputSB.append('0');
+          }
+          outputSB.append(longString);
           return;
         }
         tempReg = new short[this.wordCount];
@@ -5754,11 +6981,14 @@ licensed under the Unlicense: https://unlicense.org/
           }
         }
         ReverseChars(s, 0, i);
+        for (long j = i; j < minDigits; ++j) {
+          outputSB.append('0');
+        }
         outputSB.append(s, 0, i);
         return;
       }
       tempReg = new short[this.wordCount];
-      System.arraycopy(this.words, 0, tempReg, 0, tempReg.length);
+      System.arraycopy(this.GetWordsInternal(), 0, tempReg, 0, tempReg.length);
       numWordCount = tempReg.length;
       while (numWordCount != 0 && tempReg[numWordCount - 1] == 0) {
         --numWordCount;
@@ -5806,9 +7036,36 @@ licensed under the Unlicense: https://unlicense.org/
         }
       }
       ReverseChars(s, 0, i);
+      for (long j = i; j < minDigits; ++j) {
+        outputSB.append('0');
+      }
       outputSB.append(s, 0, i);
     }
 
+    /**
+     * Generates a string representing the value of this object, in the specified
+     * radix, using the given thread pool to convert very large values (see
+     * SetParallelMultiplication).
+     * @param radix A radix from 2 through 36. For example, to generate a
+     * hexadecimal (base-16) string, specify 16. To generate a decimal (base-10)
+     * string, specify 10.
+     * @param pool A thread pool to use for this call, or null to use the pool,
+     * if any, given to SetParallelMultiplication.
+     * @return A string representing the value of this object, in the same form
+     * as the ToRadixString method without a thread pool.
+     */
+    public String ToRadixString(
+      int radix,
+      java.util.concurrent.ForkJoinPool pool) {
+      java.util.concurrent.ForkJoinPool oldPool =
+        ParallelMultiplication.Enter(pool);
+      try {
+        return this.ToRadixString(radix);
+      } finally {
+        ParallelMultiplication.Exit(oldPool);
+      }
+    }
+
     /**
      * Generates a string representing the value of this object, in the specified
      * radix.
@@ -5822,14 +7079,7 @@ licensed under the Unlicense: https://unlicense.org/
      * U+005A). For example, 0-9 in radix 10, and 0-9, then A-F in radix 16.
      */
     public String ToRadixString(int radix) {
-      if (radix < 2) {
-        throw new IllegalArgumentException("radix(" + radix +
-          ") is less than 2");
-      }
-      if (radix > 36) {
-        throw new IllegalArgumentException("radix(" + radix +
-          ") is more than 36");
-      }
+      CheckRadix(radix);
       if (this.wordCount == 0) {
         return "0";
       }
@@ -5852,7 +7102,8 @@ licensed under the Unlicense: https://unlicense.org/
           sb.append('-');
         }
         boolean firstBit = true;
-        int word = this.words[this.wordCount - 1];
+        short[] thisWords = this.GetWordsInternal();
+        int word = thisWords[this.wordCount - 1];
         for (int i = 0; i < 4; ++i) {
           if (!firstBit || (word & 0xf000) != 0) {
             sb.append(Digits.charAt((word >> 12) & 0x0f));
@@ -5861,7 +7112,7 @@ licensed under the Unlicense: https://unlicense.org/
           word <<= 4;
         }
         for (int j = this.wordCount - 2; j >= 0; --j) {
-          word = this.words[j];
+          word = thisWords[j];
           for (int i = 0; i < 4; ++i) {
             sb.append(Digits.charAt((word >> 12) & 0x0f));
             word <<= 4;
@@ -5876,7 +7127,8 @@ licensed under the Unlicense: https://unlicense.org/
           sb.append('-');
         }
         boolean firstBit = true;
-        int word = this.words[this.wordCount - 1];
+        short[] thisWords = this.GetWordsInternal();
+        int word = thisWords[this.wordCount - 1];
         for (int i = 0; i < 16; ++i) {
           if (!firstBit || (word & 0x8000) != 0) {
             sb.append((word & 0x8000) == 0 ? '0' : '1');
@@ -5885,7 +7137,7 @@ licensed under the Unlicense: https://unlicense.org/
           word <<= 1;
         }
         for (int j = this.wordCount - 2; j >= 0; --j) {
-          word = this.words[j];
+          word = thisWords[j];
           for (int i = 0; i < 16; ++i) {
             sb.append((word & 0x8000) == 0 ? '0' : '1');
             word <<= 1;
@@ -5903,6 +7155,34 @@ licensed under the Unlicense: https://unlicense.org/
       }
     }
 
+    private static void CheckRadix(int radix) {
+      if (radix < 2) {
+        throw new IllegalArgumentException("radix(" + radix +
+          ") is less than 2");
+      }
+      if (radix > 36) {
+        throw new IllegalArgumentException("radix(" + radix +
+          ") is more than 36");
+      }
+    }
+
+    // Writes the same text as ToRadixString, without building a string if
+    // this value is stored inline
+    void WriteText(NumberText.Sink sink, int radix) {
+      if (this.words != null) {
+        sink.Append(this.ToRadixString(radix));
+        return;
+      }
+      long value = this.inlineValue;
+      if (value < 0) {
+        sink.Append('-');
+        // The absolute value, which for Long.MIN_VALUE is 2^63 as an
+        // unsigned integer
+        value = -value;
+      }
+      sink.AppendDigits(value, radix, 1);
+    }
+
     /**
      * Converts this object to a text string in base 10.
      * @return A string representation of this object. If this value is 0, returns
@@ -6105,6 +7385,18 @@ licensed under the Unlicense: https://unlicense.org/
           words2,
           words2Start,
           words2Count);
+      } else if (words1Count >= NttThreshold && words2Count >=
+        NttThreshold && words1Count + words2Count <=
+        NumberTheoreticTransform.MaxProductWords) {
+        NumberTheoreticTransform.Multiply(
+          resultArr,
+          resultStart,
+          words1,
+          words1Start,
+          words1Count,
+          words2,
+          words2Start,
+          words2Count);
       } else if (words1Count >= Toom4Threshold && words2Count >=
         Toom4Threshold) {
         Toom4(
@@ -7692,6 +8984,73 @@ licensed under the Unlicense: https://unlicense.org/
       }
     }
 
+    // Multiplies the magnitudes in two word arrays, neither of which has
+    // leading zero words, and stores the (words1Count + words2Count)-word
+    // product in productArr; workspace must have at least as many words
+    // as the product.  productArr must not overlap either operand.
+    static void MultiplyWords(
+      short[] productArr,
+      short[] workspace,
+      short[] words1,
+      int words1Count,
+      short[] words2,
+      int words2Count) {
+      int productCount = words1Count + words2Count;
+      java.util.Arrays.fill(productArr, 0, productCount, (short)0);
+      if (words1Count == 1) {
+        productArr[words2Count] = LinearMultiply(
+            productArr,
+            0,
+            words2,
+            0,
+            words1[0],
+            words2Count);
+      } else if (words2Count == 1) {
+        productArr[words1Count] = LinearMultiply(
+            productArr,
+            0,
+            words1,
+            0,
+            words2[0],
+            words1Count);
+      } else {
+        java.util.Arrays.fill(workspace, 0, productCount, (short)0);
+        if (words1 == words2 && words1Count == words2Count) {
+          RecursiveSquare(
+            productArr,
+            0,
+            workspace,
+            0,
+            words1,
+            0,
+            words1Count);
+        } else if (words1Count <= MultRecursionThreshold &&
+          words2Count <= MultRecursionThreshold) {
+          SchoolbookMultiply(
+            productArr,
+            0,
+            words1,
+            0,
+            words1Count,
+            words2,
+            0,
+            words2Count);
+        } else {
+          AsymmetricMultiply(
+            productArr,
+            0,
+            workspace,
+            0,
+            words1,
+            0,
+            words1Count,
+            words2,
+            0,
+            words2Count);
+        }
+      }
+    }
+
     private static short LinearMultiply(
       short[] productArr,
       int cstart,
@@ -7761,18 +9120,9 @@ licensed under the Unlicense: https://unlicense.org/
               count);
             break;
         }
-      } else if (count >= Toom4Threshold) {
-        Toom4(
-          resultArr,
-          resultStart,
-          words1,
-          words1Start,
-          count,
-          words1,
-          words1Start,
-          count);
-      } else if (count >= Toom3Threshold) {
-        Toom3(
+      } else if (count >= NttSquareThreshold && count <=
+        NumberTheoreticTransform.MaxProductWords >> 1) {
+        NumberTheoreticTransform.Multiply(
           resultArr,
           resultStart,
           words1,
@@ -7781,6 +9131,10 @@ licensed under the Unlicense: https://unlicense.org/
           words1,
           words1Start,
           count);
+      } else if (count >= Toom4SquareThreshold) {
+        Toom4Square(resultArr, resultStart, words1, words1Start, count);
+      } else if (count >= Toom3SquareThreshold) {
+        Toom3Square(resultArr, resultStart, words1, words1Start, count);
       } else if ((count & 1) == 0) {
         int count2 = count >> 1;
         RecursiveSquare(
@@ -7830,6 +9184,71 @@ licensed under the Unlicense: https://unlicense.org/
           (int)(resultStart + count + count2),
           count2,
           (short)carry);
+      } else if (count >= Toom3Threshold) {
+        // Odd word count big enough that SameSizeMultiply would use
+        // Toom-3; split into a low part of countLow words and a high
+        // part of one word fewer, and square those parts in place
+        int countLow = (count + 1) >> 1;
+        int countHigh = countLow - 1;
+        int highStart = words1Start + countLow;
+        RecursiveSquare(
+          resultArr,
+          resultStart,
+          tempArr,
+          tempStart,
+          words1,
+          words1Start,
+          countLow);
+        RecursiveSquare(
+          resultArr,
+          resultStart + (countLow << 1),
+          tempArr,
+          tempStart,
+          words1,
+          highStart,
+          countHigh);
+        // Low * High, from the low part's lower countHigh words times
+        // the high part, plus the low part's top word times the high
+        // part; this takes 2*countLow - 1 words
+        SameSizeMultiply(
+          tempArr,
+          tempStart,
+          tempArr,
+          tempStart + (countLow << 1),
+          words1,
+          words1Start,
+          words1,
+          highStart,
+          countHigh);
+        tempArr[tempStart + (countHigh << 1)] = LinearMultiplyAdd(
+            tempArr,
+            tempStart + countHigh,
+            words1,
+            highStart,
+            words1[words1Start + countHigh],
+            countHigh);
+        int crossCount = (countLow << 1) - 1;
+        int carry = AddInternal(
+            resultArr,
+            resultStart + countLow,
+            resultArr,
+            resultStart + countLow,
+            tempArr,
+            tempStart,
+            crossCount);
+        carry += AddInternal(
+            resultArr,
+            resultStart + countLow,
+            resultArr,
+            resultStart + countLow,
+            tempArr,
+            tempStart,
+            crossCount);
+        IncrementWords(
+          resultArr,
+          resultStart + countLow + crossCount,
+          countHigh,
+          (short)carry);
       } else {
         SameSizeMultiply(
           resultArr,
@@ -7920,6 +9339,17 @@ licensed under the Unlicense: https://unlicense.org/
               count);
             break;
         }
+      } else if (count >= NttThreshold && count <=
+        NumberTheoreticTransform.MaxProductWords >> 1) {
+        NumberTheoreticTransform.Multiply(
+          resultArr,
+          resultStart,
+          words1,
+          words1Start,
+          count,
+          words2,
+          words2Start,
+          count);
       } else if (count >= Toom4Threshold) {
         Toom4(
           resultArr,
@@ -8300,112 +9730,99 @@ licensed under the Unlicense: https://unlicense.org/
       }
     }
 
-    private static void SchoolbookMultiplySameLengthEven(
+    // Multiplies two operands by treating each pair of adjacent 16-bit
+    // words as one 32-bit limb, so that each step of the inner loop
+    // handles four times as many bits as the 16-bit loops in
+    // SchoolbookMultiply.  Products are accumulated in a 64-bit value,
+    // which can hold a 32x32-bit product plus two 32-bit addends.  An
+    // operand with an odd word count is treated as though its top limb
+    // had a zero high word.  Like SchoolbookMultiply, this method writes
+    // exactly words1Count + words2Count words to resultArr; any limb
+    // half that lies past that range is necessarily zero, since the
+    // partial sums never exceed the final product.
+    private static void SchoolbookMultiply32(
       short[] resultArr,
       int resultStart,
       short[] words1,
       int words1Start,
+      int words1Count,
       short[] words2,
       int words2Start,
-      int count) {
-      int resultPos;
-      long carry = 0;
-      long p;
-      long valueBint;
-      {
-        valueBint = ((int)words2[words2Start]) & ShortMask;
-        valueBint |= (((long)words2[words2Start + 1]) & ShortMask) << 16;
-        for (int j = 0; j < count; j += 2) {
-          p = ((int)words1[words1Start + j]) & ShortMask;
-          p |= (((long)words1[words1Start + j + 1]) & ShortMask) << 16;
-          p *= valueBint + carry;
-          resultArr[resultStart + j] = (short)p;
-          resultArr[resultStart + j + 1] = (short)(p >> 16);
-          carry = (p >> 32) & 0xffffffffL;
-        }
-        resultArr[resultStart + count] = (short)carry;
-        resultArr[resultStart + count + 1] = (short)(carry >> 16);
-        for (int i = 2; i < count; i += 2) {
-          resultPos = resultStart + i;
-          carry = 0;
-          valueBint = ((int)words2[words2Start + i]) & ShortMask;
-          valueBint |= (((long)words2[words2Start + i + 1]) & ShortMask) << 16;
-          for (int j = 0; j < count; j += 2, resultPos += 2) {
-            p = ((int)words1[words1Start + j]) & ShortMask;
-            p |= (((long)words1[words1Start + j + 1]) & ShortMask) << 16;
-            p *= valueBint + carry;
-            p += ((int)resultArr[resultPos]) & ShortMask;
-            p += (((int)resultArr[resultPos + 1]) & ShortMask) << 16;
+      int words2Count) {
+      if (words1Count < words2Count) {
+        // Ensure that words2 is the shorter operand
+        short[] tmp1 = words1;
+        words1 = words2;
+        words2 = tmp1;
+        int tmp3 = words1Start;
+        words1Start = words2Start;
+        words2Start = tmp3;
+        int tmp2 = words1Count;
+        words1Count = words2Count;
+        words2Count = tmp2;
+      }
+      int resultEnd = resultStart + words1Count + words2Count;
+      int fullCount = words1Count & ~1;
+      boolean oddCount = (words1Count & 1) != 0;
+      long carry, p, valueAint, valueBint;
+      int resultPos, j;
+      for (int i = 0; i < words2Count; i += 2) {
+        valueBint = ((long)words2[words2Start + i]) & ShortMask;
+        if (i + 1 < words2Count) {
+          valueBint |= (((long)words2[words2Start + i + 1]) & ShortMask) <<
+            16;
+        }
+        resultPos = resultStart + i;
+        carry = 0;
+        if (i == 0) {
+          for (j = 0; j < fullCount; j += 2, resultPos += 2) {
+            valueAint = ((long)words1[words1Start + j]) & ShortMask;
+            valueAint |= (((long)words1[words1Start + j + 1]) & ShortMask) <<
+              16;
+            p = (valueAint * valueBint) + carry;
             resultArr[resultPos] = (short)p;
             resultArr[resultPos + 1] = (short)(p >> 16);
-            carry = (p >> 32) & 0xffffffffL;
+            carry = p >>> 32;
           }
-          resultArr[resultStart + i + count] = (short)carry;
-          resultArr[resultStart + i + count + 1] = (short)(carry >> 16);
-        }
-      }
-    }
-
-    private static void SchoolbookMultiplySameLengthOdd(
-      short[] resultArr,
-      int resultStart,
-      short[] words1,
-      int words1Start,
-      short[] words2,
-      int words2Start,
-      int count) {
-      int resultPos;
-      long carry = 0;
-      long p;
-      long valueBint;
-      {
-        valueBint = ((int)words2[words2Start]) & ShortMask;
-        valueBint |= (count > 1) ? (((long)words2[words2Start + 1]) &
-          ShortMask) << 16 : 0;
-        for (int j = 0; j < count; j += 2) {
-          p = ((int)words1[words1Start + j]) & ShortMask;
-          if (j + 1 < count) {
-            p |= ((long)words1[words1Start + j + 1]) & ShortMask;
-          }
-          p *= valueBint + carry;
-          resultArr[resultStart + j] = (short)p;
-          if (j + 1 < count) {
-            resultArr[resultStart + j + 1] = (short)(p >> 16);
+          if (oddCount) {
+            valueAint = ((long)words1[words1Start + fullCount]) & ShortMask;
+            p = (valueAint * valueBint) + carry;
+            resultArr[resultPos] = (short)p;
+            if (resultPos + 1 < resultEnd) {
+              resultArr[resultPos + 1] = (short)(p >> 16);
+            }
+            carry = p >>> 32;
+            resultPos += 2;
           }
-          carry = (p >> 32) & 0xffffffffL;
-        }
-        resultArr[resultStart + count] = (short)carry;
-        if (count > 1) {
-          resultArr[resultStart + count + 1] = (short)(carry >> 16);
-        }
-        for (int i = 2; i < count; i += 2) {
-          resultPos = resultStart + i;
-          carry = 0;
-          valueBint = ((int)words2[words2Start + i]) & ShortMask;
-          if (i + 1 < count) {
-            valueBint |= (((long)words2[words2Start + i + 1]) & ShortMask) <<
+        } else {
+          for (j = 0; j < fullCount; j += 2, resultPos += 2) {
+            valueAint = ((long)words1[words1Start + j]) & ShortMask;
+            valueAint |= (((long)words1[words1Start + j + 1]) & ShortMask) <<
               16;
+            p = (valueAint * valueBint) + carry;
+            p += ((long)resultArr[resultPos]) & ShortMask;
+            p += (((long)resultArr[resultPos + 1]) & ShortMask) << 16;
+            resultArr[resultPos] = (short)p;
+            resultArr[resultPos + 1] = (short)(p >> 16);
+            carry = p >>> 32;
           }
-          for (int j = 0; j < count; j += 2, resultPos += 2) {
-            p = ((int)words1[words1Start + j]) & ShortMask;
-            if (j + 1 < count) {
-              p |= (((long)words1[words1Start + j + 1]) & ShortMask) << 16;
-            }
-            p *= valueBint + carry;
-            p += ((int)resultArr[resultPos]) & ShortMask;
-            if (j + 1 < count) {
-              p += (((int)resultArr[resultPos + 1]) & ShortMask) << 16;
-              resultArr[resultPos] = (short)p;
+          if (oddCount) {
+            valueAint = ((long)words1[words1Start + fullCount]) & ShortMask;
+            p = (valueAint * valueBint) + carry;
+            p += ((long)resultArr[resultPos]) & ShortMask;
+            if (resultPos + 1 < resultEnd) {
+              p += (((long)resultArr[resultPos + 1]) & ShortMask) << 16;
               resultArr[resultPos + 1] = (short)(p >> 16);
-              carry = (p >> 32) & 0xffffffffL;
-            } else {
-              resultArr[resultPos] = (short)p;
-              carry = p >> 16;
             }
+            resultArr[resultPos] = (short)p;
+            carry = p >>> 32;
+            resultPos += 2;
           }
-          resultArr[resultStart + i + count] = (short)carry;
-          if (i + 1 < count) {
-            resultArr[resultStart + i + count + 1] = (short)(carry >> 16);
+        }
+        if (resultPos < resultEnd) {
+          resultArr[resultPos] = (short)carry;
+          if (resultPos + 1 < resultEnd) {
+            resultArr[resultPos + 1] = (short)(carry >> 16);
           }
         }
       }
@@ -8420,29 +9837,18 @@ licensed under the Unlicense: https://unlicense.org/
       short[] words2,
       int words2Start,
       int words2Count) {
-      if (words1Count == words2Count && (words1Count & 1) == 0) {
-        /* if ((words1Count & 1) == 0) {
-                  SchoolbookMultiplySameLengthEven(
-                    resultArr,
-                    resultStart,
-                    words1,
-                    words1Start,
-                    words2,
-                    words2Start,
-                    words1Count);
-                  return;
-                } else {
-                  SchoolbookMultiplySameLengthOdd(
-                    resultArr,
-                    resultStart,
-                    words1,
-                    words1Start,
-                    words2,
-                    words2Start,
-                    words1Count);
-          return;
-               }
-         */
+      if (words1Count >= Schoolbook32Threshold && words2Count >=
+        Schoolbook32Threshold) {
+        SchoolbookMultiply32(
+          resultArr,
+          resultStart,
+          words1,
+          words1Start,
+          words1Count,
+          words2,
+          words2Start,
+          words2Count);
+        return;
       }
       int resultPos, carry, valueBint;
       if (words1Count < words2Count) {
@@ -8512,6 +9918,18 @@ licensed under the Unlicense: https://unlicense.org/
       int words1Count) {
       // Method assumes that resultArr was already zeroed,
       // if resultArr is the same as words1
+      if (words1Count >= Schoolbook32Threshold) {
+        SchoolbookMultiply32(
+          resultArr,
+          resultStart,
+          words1,
+          words1Start,
+          words1Count,
+          words1,
+          words1Start,
+          words1Count);
+        return;
+      }
       int cstart;
       for (int i = 0; i < words1Count; ++i) {
         cstart = resultStart + i;
@@ -8637,6 +10055,31 @@ licensed under the Unlicense: https://unlicense.org/
       return reg;
     }
 
+    // Stores this value's absolute value in limbs as little-endian 32-bit
+    // limbs, which must be enough to hold it
+    void ToInt32Limbs(int[] limbs) {
+      java.util.Arrays.fill(limbs, 0);
+      short[] thisWords = this.GetWordsInternal();
+      for (int i = 0; i < this.wordCount; ++i) {
+        limbs[i >> 1] |= (((int)thisWords[i]) & ShortMask) << ((i & 1) << 4);
+      }
+    }
+
+    // Creates a nonnegative value from the first count little-endian 32-bit
+    // limbs in the given array
+    static EInteger FromInt32Limbs(int[] limbs, int count) {
+      short[] reg = new short[count << 1];
+      for (int i = 0; i < count; ++i) {
+        reg[i << 1] = (short)limbs[i];
+        reg[(i << 1) + 1] = (short)(limbs[i] >> 16);
+      }
+      int wc = CountWords(reg);
+      return (wc == 0) ? EInteger.FromInt32(0) : new EInteger(
+          wc,
+          ShortenArray(reg, wc),
+          false);
+    }
+
     private static int SubtractWords1IsOneBigger(
       short[] c,
       int cstart,
@@ -8740,7 +10183,9 @@ licensed under the Unlicense: https://unlicense.org/
       if (wc == 0) {
         return 0;
       }
-      short s = this.words[wc - 1];
+      short s = (this.words == null) ?
+        (short)(Math.abs(this.inlineValue) >>> ((wc - 1) << 4)) :
+        this.words[wc - 1];
       wc = (wc - 1) << 1;
       return (s == 0) ? wc : (((s >> 8) == 0) ? wc + 1 : wc + 2);
     }
@@ -8749,9 +10194,9 @@ licensed under the Unlicense: https://unlicense.org/
       int size = this.wordCount, tempSize = t.wordCount;
       return (
           size == tempSize) ? Compare(
-          this.words,
+          this.GetWordsInternal(),
           0,
-          t.words,
+          t.GetWordsInternal(),
           0,
           (int)size) : (size > tempSize ? 1 : -1);
     }
@@ -8865,7 +10310,7 @@ licensed under the Unlicense: https://unlicense.org/
         }
         // System.out.println("this=" + (this.ToRadixString(16)));
         // System.out.println("bigx=" + (bigintX.ToRadixString(16)));
-        short[] ww = bigintX.words;
+        short[] ww = bigintX.GetWordsInternal();
         short[] w1 = new short[wordsPerPart];
         short[] w2 = new short[wordsPerPart];
         short[] w3 = new short[wordsPerPart * 2];
@@ -0,0 +1,486 @@
+package com.upokecenter.numbers;
+/*
+Written by Peter O.
+Any copyright to this work is released to the Public Domain.
+In case this is not possible, this work is also
+licensed under the Unlicense: https://unlicense.org/
+
+ */
+
+  /**
+   * <p>A mutable arbitrary-precision integer, for loops that repeatedly update
+   * the same value, such as sums and polynomial evaluations. Its methods
+   * change the value in place and reuse the object's storage, which grows as
+   * needed, so that most updates don't allocate memory. The methods give the
+   * same results as the corresponding methods of EInteger. </p> <p>Converting
+   * between this class and EInteger avoids copying where possible: the
+   * storage is shared with the EInteger until this object is next changed,
+   * at which time this object makes its own copy. </p> <p><b>Thread
+   * safety:</b> Instances of this class are mutable and not safe for use by
+   * multiple threads without synchronization.</p>
+   */
+  public final class EIntegerBuilder {
+    private static final int ShortMask = 0xffff;
+
+    private short[] words;
+    private int wordCount;
+    private boolean negative;
+    // Whether words is also used by an EInteger, and so must be copied
+    // before it is changed
+    private boolean shared;
+    // Storage for products, swapped with words after each multiplication
+    private short[] spare;
+    // Number of words at the start of spare that may be nonzero
+    private int spareCount;
+    private short[] workspace;
+    // Storage for the magnitude of an operand that fits in 64 bits, so
+    // that operands stored inline need no array of their own
+    private final short[] small = new short[4];
+
+    /**
+     * Initializes a new instance of the {@link EIntegerBuilder} class, with a
+     * value of 0.
+     */
+    public EIntegerBuilder() {
+      this.words = new short[4];
+      this.wordCount = 0;
+      this.negative = false;
+      this.shared = false;
+    }
+
+    /**
+     * Creates a mutable integer with the same value as an arbitrary-precision
+     * integer. The new object shares the integer's storage until it is first
+     * changed.
+     * @param value An arbitrary-precision integer.
+     * @return A mutable integer with the same value as the given integer.
+     * @throws NullPointerException The parameter {@code value} is null.
+     */
+    public static EIntegerBuilder FromEInteger(EInteger value) {
+      if (value == null) {
+        throw new NullPointerException("value");
+      }
+      EIntegerBuilder ret = new EIntegerBuilder();
+      ret.Adopt(value);
+      return ret;
+    }
+
+    /**
+     * Gets a value indicating whether this object's value is 0.
+     * @return {@code true} if this object's value is 0; otherwise, {@code
+     * false}.
+     */
+    public final boolean isZero() {
+        return this.wordCount == 0;
+      }
+
+    /**
+     * Gets the sign of this object's value.
+     * @return The sign of this object's value: 1 if positive, -1 if negative,
+     * or 0 if zero.
+     */
+    public final int signum() {
+        return (this.wordCount == 0) ? 0 : (this.negative ? -1 : 1);
+      }
+
+    /**
+     * Sets this object's value to that of an arbitrary-precision integer,
+     * copying it into this object's storage if that storage is large enough.
+     * @param value An arbitrary-precision integer.
+     * @return This object.
+     * @throws NullPointerException The parameter {@code value} is null.
+     */
+    public EIntegerBuilder SetValue(EInteger value) {
+      if (value == null) {
+        throw new NullPointerException("value");
+      }
+      int count = value.GetWordCountInternal();
+      if (this.shared || count > this.words.length) {
+        this.Adopt(value);
+      } else {
+        System.arraycopy(
+          value.GetWordsInternal(this.small),
+          0,
+          this.words,
+          0,
+          count);
+        this.ClearFrom(count);
+        this.wordCount = count;
+        this.negative = value.signum() < 0;
+      }
+      return this;
+    }
+
+    /**
+     * Sets this object's value to a 32-bit signed integer.
+     * @param intValue A 32-bit signed integer.
+     * @return This object.
+     */
+    public EIntegerBuilder SetValue(int intValue) {
+      this.EnsureWritable(2);
+      SetSmall(this.words, intValue);
+      this.ClearFrom(2);
+      this.negative = intValue < 0;
+      this.wordCount = CountWords(this.words, 2);
+      return this;
+    }
+
+    /**
+     * Converts this object's value to an arbitrary-precision integer. The
+     * returned integer shares this object's storage until this object is next
+     * changed.
+     * @return An arbitrary-precision integer with the same value as this
+     * object.
+     */
+    public EInteger ToEInteger() {
+      if (this.wordCount == 0) {
+        return EInteger.FromInt32(0);
+      }
+      if (this.words.length > 32 && this.words.length - this.wordCount >=
+        16) {
+        // Storage is much larger than the value, so copy the value
+        // rather than keeping the extra storage alive
+        short[] reg = new short[this.wordCount];
+        System.arraycopy(this.words, 0, reg, 0, this.wordCount);
+        return new EInteger(this.wordCount, reg, this.negative);
+      }
+      this.shared = true;
+      return new EInteger(this.wordCount, this.words, this.negative);
+    }
+
+    /**
+     * Adds an arbitrary-precision integer to this object's value.
+     * @param value The integer to add.
+     * @return This object.
+     * @throws NullPointerException The parameter {@code value} is null.
+     */
+    public EIntegerBuilder AddAssign(EInteger value) {
+      if (value == null) {
+        throw new NullPointerException("value");
+      }
+      this.AddSigned(
+        value.GetWordsInternal(this.small),
+        value.GetWordCountInternal(),
+        value.signum() < 0);
+      return this;
+    }
+
+    /**
+     * Adds a 32-bit signed integer to this object's value.
+     * @param intValue The integer to add.
+     * @return This object.
+     */
+    public EIntegerBuilder AddAssign(int intValue) {
+      SetSmall(this.small, intValue);
+      this.AddSigned(this.small, CountWords(this.small, 2), intValue < 0);
+      return this;
+    }
+
+    /**
+     * Subtracts an arbitrary-precision integer from this object's value.
+     * @param value The integer to subtract.
+     * @return This object.
+     * @throws NullPointerException The parameter {@code value} is null.
+     */
+    public EIntegerBuilder SubtractAssign(EInteger value) {
+      if (value == null) {
+        throw new NullPointerException("value");
+      }
+      this.AddSigned(
+        value.GetWordsInternal(this.small),
+        value.GetWordCountInternal(),
+        value.signum() > 0);
+      return this;
+    }
+
+    /**
+     * Multiplies this object's value by an arbitrary-precision integer.
+     * @param value The integer to multiply by.
+     * @return This object.
+     * @throws NullPointerException The parameter {@code value} is null.
+     */
+    public EIntegerBuilder MultiplyAssign(EInteger value) {
+      if (value == null) {
+        throw new NullPointerException("value");
+      }
+      int count = value.GetWordCountInternal();
+      if (this.wordCount == 0 || count == 0) {
+        return this.SetValue(0);
+      }
+      int productCount = this.wordCount + count;
+      if (this.spare == null || this.spare.length < productCount) {
+        this.spare = new short[Grow(productCount)];
+        this.spareCount = 0;
+      }
+      if (this.workspace == null || this.workspace.length < productCount) {
+        this.workspace = new short[this.spare.length];
+      }
+      EInteger.MultiplyWords(
+        this.spare,
+        this.workspace,
+        this.words,
+        this.wordCount,
+        value.GetWordsInternal(this.small),
+        count);
+      if (this.spareCount > productCount) {
+        java.util.Arrays.fill(this.spare, productCount, this.spareCount,
+          (short)0);
+      }
+      short[] oldWords = this.words;
+      this.words = this.spare;
+      // Storage shared with an EInteger can't be reused for products
+      this.spare = this.shared ? null : oldWords;
+      this.spareCount = this.wordCount;
+      this.shared = false;
+      this.wordCount = CountWords(this.words, productCount);
+      this.negative ^= value.signum() < 0;
+      return this;
+    }
+
+    /**
+     * Multiplies this object's value by a 32-bit signed integer.
+     * @param intValue The integer to multiply by.
+     * @return This object.
+     */
+    public EIntegerBuilder MultiplyAssign(int intValue) {
+      if (this.wordCount == 0 || intValue == 0) {
+        return this.SetValue(0);
+      }
+      long factor = Math.abs((long)intValue);
+      this.EnsureWritable(this.wordCount + 2);
+      long carry = 0;
+      for (int i = 0; i < this.wordCount; ++i) {
+        long p = ((((long)this.words[i]) & ShortMask) * factor) + carry;
+        this.words[i] = (short)p;
+        carry = p >>> 16;
+      }
+      this.words[this.wordCount] = (short)carry;
+      this.words[this.wordCount + 1] = (short)(carry >>> 16);
+      this.wordCount = CountWords(this.words, this.wordCount + 2);
+      this.negative ^= intValue < 0;
+      return this;
+    }
+
+    /**
+     * Shifts this object's value to the left by the given number of bits. The
+     * result is the same as that of EInteger's ShiftLeft method; in particular,
+     * a negative number of bits shifts to the right.
+     * @param numberBits The number of bits to shift.
+     * @return This object.
+     */
+    public EIntegerBuilder ShiftLeftAssign(int numberBits) {
+      if (numberBits < 0 || this.wordCount == 0) {
+        if (numberBits != 0 && this.wordCount != 0) {
+          this.Adopt(this.ToEInteger().ShiftLeft(numberBits));
+        }
+        return this;
+      }
+      int shiftWords = numberBits >> 4;
+      int shiftBits = numberBits & 15;
+      int oldCount = this.wordCount;
+      int newCount = oldCount + shiftWords + 1;
+      this.EnsureWritable(newCount);
+      short[] w = this.words;
+      if (shiftBits == 0) {
+        System.arraycopy(w, 0, w, shiftWords, oldCount);
+        w[newCount - 1] = 0;
+      } else {
+        w[oldCount + shiftWords] = (short)((((int)w[oldCount - 1]) &
+          ShortMask) >> (16 - shiftBits));
+        for (int i = oldCount - 1; i > 0; --i) {
+          w[i + shiftWords] = (short)((((int)w[i]) << shiftBits) |
+            ((((int)w[i - 1]) & ShortMask) >> (16 - shiftBits)));
+        }
+        w[shiftWords] = (short)(((int)w[0]) << shiftBits);
+      }
+      java.util.Arrays.fill(w, 0, shiftWords, (short)0);
+      this.wordCount = CountWords(w, newCount);
+      return this;
+    }
+
+    /**
+     * Divides this object's value by an arbitrary-precision integer, sets this
+     * object's value to the quotient, and returns the remainder. The results
+     * are the same as those of EInteger's DivRem method. A divisor whose
+     * absolute value is less than 2^16 divides this object's value in place.
+     * For larger divisors, the quotient is found by EInteger's DivRem method,
+     * which allocates storage for it, and this object then shares that
+     * storage until it is next changed.
+     * @param divisor The number to divide by.
+     * @return The remainder, which has the same sign as this object's value
+     * before the division.
+     * @throws NullPointerException The parameter {@code divisor} is null.
+     * @throws ArithmeticException The parameter {@code divisor} is 0.
+     */
+    public EInteger DivRemAssign(EInteger divisor) {
+      if (divisor == null) {
+        throw new NullPointerException("divisor");
+      }
+      if (divisor.GetWordCountInternal() == 1) {
+        long smallDivisor = ((long)divisor.GetWordsInternal(this.small)[0]) &
+          ShortMask;
+        boolean dividendNegative = this.negative;
+        this.EnsureWritable(this.wordCount);
+        long rem = 0;
+        for (int i = this.wordCount - 1; i >= 0; --i) {
+          long cur = (rem << 16) | (((long)this.words[i]) & ShortMask);
+          this.words[i] = (short)(cur / smallDivisor);
+          rem = cur % smallDivisor;
+        }
+        this.wordCount = CountWords(this.words, this.wordCount);
+        this.negative = this.wordCount != 0 && (dividendNegative ^
+          (divisor.signum() < 0));
+        return EInteger.FromInt32(dividendNegative ? -(int)rem : (int)rem);
+      }
+      EInteger[] divrem = this.ToEInteger().DivRem(divisor);
+      this.Adopt(divrem[0]);
+      return divrem[1];
+    }
+
+    /**
+     * Converts this object's value to a text string in base 10.
+     * @return A string representation of this object's value.
+     */
+    @Override public String toString() {
+      // The temporary EInteger doesn't outlive this call, so the storage
+      // need not be marked as shared
+      return (this.wordCount == 0) ? "0" : new EInteger(
+          this.wordCount,
+          this.words,
+          this.negative).toString();
+    }
+
+    // Sets this object's value to that of an integer, sharing the
+    // integer's storage; an integer stored inline has no storage to share,
+    // so its words are copied into this object's own storage instead
+    private void Adopt(EInteger value) {
+      boolean writable = !this.shared && this.words.length >= 4;
+      short[] reg = value.GetWordsInternal(writable ? this.words :
+        this.small);
+      if (reg == this.words) {
+        this.ClearFrom(4);
+      } else if (reg == this.small) {
+        this.words = new short[4];
+        System.arraycopy(this.small, 0, this.words, 0, 4);
+        this.shared = false;
+      } else {
+        this.words = reg;
+        this.shared = true;
+      }
+      this.wordCount = value.GetWordCountInternal();
+      this.negative = value.signum() < 0;
+    }
+
+    // Sets words from index to wordCount to zero, since EInteger expects
+    // the words above its word count to be zero
+    private void ClearFrom(int index) {
+      if (index < this.wordCount) {
+        java.util.Arrays.fill(this.words, index, this.wordCount, (short)0);
+      }
+    }
+
+    private static int Grow(int count) {
+      return Math.max(4, count + (count >> 1));
+    }
+
+    private static int CountWords(short[] reg, int count) {
+      while (count != 0 && reg[count - 1] == 0) {
+        --count;
+      }
+      return count;
+    }
+
+    private static void SetSmall(short[] reg, int intValue) {
+      int absValue = (intValue < 0) ? -intValue : intValue;
+      reg[0] = (short)absValue;
+      // Also correct for Integer.MIN_VALUE, whose absolute value is 2^31
+      reg[1] = (short)(absValue >>> 16);
+    }
+
+    // Makes words writable, with room for at least count words, keeping
+    // the current value; words at and above wordCount are set to zero
+    private void EnsureWritable(int count) {
+      if (this.shared || this.words.length < count) {
+        short[] newWords = new short[this.shared ? Math.max(count,
+          this.wordCount) : Grow(count)];
+        System.arraycopy(this.words, 0, newWords, 0, this.wordCount);
+        this.words = newWords;
+        this.shared = false;
+      } else if (this.wordCount < count) {
+        java.util.Arrays.fill(this.words, this.wordCount, count, (short)0);
+      }
+    }
+
+    // Adds a value given as a magnitude and sign to this object's value
+    private void AddSigned(short[] other, int otherCount, boolean otherNegative) {
+      if (otherCount == 0) {
+        return;
+      }
+      if (this.wordCount == 0 || this.negative == otherNegative) {
+        this.negative = otherNegative;
+        this.AddMagnitude(other, otherCount);
+      } else if (this.CompareMagnitude(other, otherCount) >= 0) {
+        this.SubtractMagnitude(other, otherCount, false);
+      } else {
+        this.SubtractMagnitude(other, otherCount, true);
+        this.negative = otherNegative;
+      }
+      if (this.wordCount == 0) {
+        this.negative = false;
+      }
+    }
+
+    private void AddMagnitude(short[] other, int otherCount) {
+      int count = Math.max(this.wordCount, otherCount) + 1;
+      this.EnsureWritable(count);
+      short[] w = this.words;
+      int carry = 0;
+      int i = 0;
+      for (; i < otherCount; ++i) {
+        int s = (((int)w[i]) & ShortMask) + (((int)other[i]) & ShortMask) +
+          carry;
+        w[i] = (short)s;
+        carry = s >> 16;
+      }
+      for (; carry != 0 && i < count; ++i) {
+        int s = (((int)w[i]) & ShortMask) + carry;
+        w[i] = (short)s;
+        carry = s >> 16;
+      }
+      this.wordCount = CountWords(w, count);
+    }
+
+    // Sets this object's magnitude to |this| - |other|, or to
+    // |other| - |this| if reverse is true; the result must not be negative
+    private void SubtractMagnitude(
+      short[] other,
+      int otherCount,
+      boolean reverse) {
+      int count = Math.max(this.wordCount, otherCount);
+      this.EnsureWritable(count);
+      short[] w = this.words;
+      int borrow = 0;
+      for (int i = 0; i < count; ++i) {
+        int a = ((int)w[i]) & ShortMask;
+        int b = (i < otherCount) ? (((int)other[i]) & ShortMask) : 0;
+        int s = reverse ? (b - a - borrow) : (a - b - borrow);
+        w[i] = (short)s;
+        borrow = (s >> 31) & 1;
+      }
+      this.wordCount = CountWords(w, count);
+    }
+
+    private int CompareMagnitude(short[] other, int otherCount) {
+      if (this.wordCount != otherCount) {
+        return (this.wordCount > otherCount) ? 1 : -1;
+      }
+      for (int i = otherCount - 1; i >= 0; --i) {
+        int a = ((int)this.words[i]) & ShortMask;
+        int b = ((int)other[i]) & ShortMask;
+        if (a != b) {
+          return (a > b) ? 1 : -1;
+        }
+      }
+      return 0;
+    }
+  }
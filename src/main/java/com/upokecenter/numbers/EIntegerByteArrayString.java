@@ -254,43 +254,20 @@ private EIntegerByteArrayString() {
       boolean negative,
       boolean throwException) {
       if (endIndex - index > 72) {
-        int midIndex = index + ((endIndex - index) / 2);
-        EInteger eia = FromRadixSubstringGeneral(
-            cs,
+        EInteger[] powers = EInteger.RadixPowerTreeForDigits(
             radix,
-            index,
-            midIndex,
-            false,
-            throwException);
-        // System.out.println("eia="+eia);
-        EInteger eib = FromRadixSubstringGeneral(
+            endIndex - index);
+        EInteger eia = FromRadixSubstringTree(
             cs,
             radix,
-            midIndex,
+            index,
             endIndex,
-            false,
+            powers,
+            powers.length - 1,
             throwException);
-        // System.out.println("eib="+eib);
-        EInteger mult = null;
-        int intpow = endIndex - midIndex;
-        if (radix == 10) {
-          eia = NumberUtility.MultiplyByPowerOfFive(eia,
-              intpow).ShiftLeft(intpow);
-        } else if (radix == 5) {
-          eia = NumberUtility.MultiplyByPowerOfFive(eia, intpow);
-        } else {
-          mult = EInteger.FromInt32(radix).Pow(endIndex - midIndex);
-          eia = eia.Multiply(mult);
-        }
-        eia = eia.Add(eib);
-        // System.out.println("index={0} {1} {2} [pow={3}] [pow={4} ms, muladd={5}
-        // ms]",
-        // index, midIndex, endIndex, endIndex-midIndex, swPow.getElapsedMilliseconds(),
-        // swMulAdd.getElapsedMilliseconds());
-        if (negative) {
+        if (eia != null && negative) {
           eia = eia.Negate();
         }
-        // System.out.println("eia now="+eia);
         return eia;
       } else {
         return FromRadixSubstringInner(
@@ -303,6 +280,59 @@ private EIntegerByteArrayString() {
       }
     }
 
+    // Converts a run of digits by splitting off its low block of
+    // d*2^level digits (where powers[level] is radix^(d*2^level)),
+    // converting both parts, and combining them as
+    // high * powers[level] + low.  Because every block size is a power of
+    // two times d, each level's power is computed once and shared by all
+    // the blocks on that level.
+    private static EInteger FromRadixSubstringTree(
+      byte[] cs,
+      int radix,
+      int index,
+      int endIndex,
+      EInteger[] powers,
+      int level,
+      boolean throwException) {
+      long baseDigits = EInteger.RadixPowerTreeBaseDigits(radix);
+      while (level >= 0 && (baseDigits << level) >= endIndex - index) {
+        --level;
+      }
+      if (level < 0) {
+        return FromRadixSubstringInner(
+            cs,
+            radix,
+            index,
+            endIndex,
+            false,
+            throwException);
+      }
+      int midIndex = endIndex - (int)(baseDigits << level);
+      EInteger eia = FromRadixSubstringTree(
+          cs,
+          radix,
+          index,
+          midIndex,
+          powers,
+          level,
+          throwException);
+      if (eia == null) {
+        return null;
+      }
+      EInteger eib = FromRadixSubstringTree(
+          cs,
+          radix,
+          midIndex,
+          endIndex,
+          powers,
+          level - 1,
+          throwException);
+      if (eib == null) {
+        return null;
+      }
+      return eia.Multiply(powers[level]).Add(eib);
+    }
+
     private static EInteger FromRadixSubstringInner(
       byte[] cs,
       int radix,
@@ -0,0 +1,152 @@
+package com.upokecenter.numbers;
+/*
+Written by Peter O.
+Any copyright to this work is released to the Public Domain.
+In case this is not possible, this work is also
+licensed under the Unlicense: https://unlicense.org/
+
+ */
+
+  /**
+   * <p>An arbitrary-precision integer divisor together with data precomputed
+   * from it, for dividing many integers by the same divisor. For large
+   * divisors, this class computes the divisor's reciprocal once, so that each
+   * division needs only a few multiplications; for small divisors, it simply
+   * uses the division methods of EInteger. The results are the same as those
+   * of the corresponding methods of EInteger. </p> <p><b>Thread safety:</b>
+   * Instances of this class are immutable, so they are inherently safe for use
+   * by multiple threads.</p>
+   */
+  public final class EIntegerDivisor {
+    // Minimum word count of a divisor for which a reciprocal is precomputed
+    private static final int ReciprocalThreshold = 300;
+
+    private final EInteger divisor;
+    private final EInteger divisorAbs;
+    private final EInteger reciprocal;
+
+    private EIntegerDivisor(EInteger divisor) {
+      this.divisor = divisor;
+      this.divisorAbs = divisor.Abs();
+      this.reciprocal = (divisor.GetUnsignedBitLengthAsInt64() >=
+          ReciprocalThreshold * 16L) ?
+        EInteger.NewtonReciprocal(this.divisorAbs) : null;
+    }
+
+    /**
+     * Creates a divisor object from an arbitrary-precision integer.
+     * @param divisor The number to divide by.
+     * @return A divisor object for the given number.
+     * @throws NullPointerException The parameter {@code divisor} is null.
+     * @throws ArithmeticException The parameter {@code divisor} is 0.
+     */
+    public static EIntegerDivisor Create(EInteger divisor) {
+      if (divisor == null) {
+        throw new NullPointerException("divisor");
+      }
+      if (divisor.isZero()) {
+        throw new ArithmeticException();
+      }
+      return new EIntegerDivisor(divisor);
+    }
+
+    /**
+     * Gets the number this object divides by.
+     * @return The number this object divides by.
+     */
+    public final EInteger getDivisor() {
+        return this.divisor;
+      }
+
+    /**
+     * Divides an arbitrary-precision integer by this object's divisor, and
+     * returns the quotient and remainder. The result is the same as that of
+     * {@code dividend.DivRem(divisor)}.
+     * @param dividend The number to divide.
+     * @return An array of two items: the first is the result of the division as an
+     * arbitrary-precision integer, and the second is the remainder as an
+     * arbitrary-precision integer. The result of division is rounded down (the
+     * fractional part is discarded), and the remainder has the same sign as the
+     * dividend.
+     * @throws NullPointerException The parameter {@code dividend} is null.
+     */
+    public EInteger[] DivRem(EInteger dividend) {
+      if (dividend == null) {
+        throw new NullPointerException("dividend");
+      }
+      if (this.reciprocal == null) {
+        return dividend.DivRem(this.divisor);
+      }
+      EInteger dividendAbs = dividend.Abs();
+      if (dividendAbs.compareTo(this.divisorAbs) < 0) {
+        return new EInteger[] { EInteger.FromInt32(0), dividend };
+      }
+      EInteger[] divrem = EInteger.DivRemWithReciprocal(
+          dividendAbs,
+          this.divisorAbs,
+          this.reciprocal);
+      if (dividend.signum() < 0) {
+        divrem[1] = divrem[1].Negate();
+      }
+      if ((dividend.signum() < 0) ^ (this.divisor.signum() < 0)) {
+        divrem[0] = divrem[0].Negate();
+      }
+      return divrem;
+    }
+
+    /**
+     * Divides an arbitrary-precision integer by this object's divisor. The
+     * result is the same as that of {@code dividend.Divide(divisor)}.
+     * @param dividend The number to divide.
+     * @return The result of the division, rounded down (the fractional part is
+     * discarded).
+     * @throws NullPointerException The parameter {@code dividend} is null.
+     */
+    public EInteger Divide(EInteger dividend) {
+      if (dividend == null) {
+        throw new NullPointerException("dividend");
+      }
+      return (this.reciprocal == null) ? dividend.Divide(this.divisor) :
+        this.DivRem(dividend)[0];
+    }
+
+    /**
+     * Finds the remainder that results when an arbitrary-precision integer is
+     * divided by this object's divisor. The result is the same as that of
+     * {@code dividend.Remainder(divisor)}.
+     * @param dividend The number to divide.
+     * @return The remainder, which has the same sign as the dividend.
+     * @throws NullPointerException The parameter {@code dividend} is null.
+     */
+    public EInteger Remainder(EInteger dividend) {
+      if (dividend == null) {
+        throw new NullPointerException("dividend");
+      }
+      return (this.reciprocal == null) ? dividend.Remainder(this.divisor) :
+        this.DivRem(dividend)[1];
+    }
+
+    /**
+     * Finds the modulus remainder that results when an arbitrary-precision
+     * integer is divided by this object's divisor. The result is the same as
+     * that of {@code dividend.Mod(divisor)}.
+     * @param dividend The number to divide.
+     * @return The modulus remainder, which is 0 or greater and less than the
+     * divisor.
+     * @throws NullPointerException The parameter {@code dividend} is null.
+     * @throws ArithmeticException This object's divisor is less than 0.
+     */
+    public EInteger Mod(EInteger dividend) {
+      if (dividend == null) {
+        throw new NullPointerException("dividend");
+      }
+      if (this.divisor.signum() < 0) {
+        throw new ArithmeticException("Divisor is negative");
+      }
+      EInteger remainderEInt = this.Remainder(dividend);
+      if (remainderEInt.signum() < 0) {
+        remainderEInt = this.divisor.Add(remainderEInt);
+      }
+      return remainderEInt;
+    }
+  }
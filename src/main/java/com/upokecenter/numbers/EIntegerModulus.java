@@ -0,0 +1,678 @@
+package com.upokecenter.numbers;
+/*
+Written by Peter O.
+Any copyright to this work is released to the Public Domain.
+In case this is not possible, this work is also
+licensed under the Unlicense: https://unlicense.org/
+
+ */
+
+  /**
+   * <p>An arbitrary-precision integer modulus together with data precomputed
+   * from it, for modular multiplication and exponentiation with the same
+   * modulus. For moduli up to 16,384 bits, exponentiation uses
+   * Montgomery multiplication on preallocated buffers (for an even modulus,
+   * on its odd part, combined with arithmetic modulo its power-of-two part
+   * by the Chinese remainder theorem); for larger moduli, it uses Barrett
+   * reduction with the modulus's precomputed reciprocal. Exponentiation
+   * uses a sliding window over the exponent's bits. </p> <p><b>Thread
+   * safety:</b> Instances of this class are immutable, so they are
+   * inherently safe for use by multiple threads.</p>
+   */
+  public final class EIntegerModulus {
+    // Maximum number of 32-bit limbs in a modulus for which Montgomery
+    // multiplication, which is quadratic in the limb count, is used
+    private static final int MontgomeryLimit = 512;
+
+    private final EInteger modulus;
+    // For Montgomery multiplication: the modulus is oddPart*2^twoExponent,
+    // and oddInverse is oddPart^-1 mod 2^twoExponent
+    private final MontgomeryArithmetic oddArithmetic;
+    private final PowerOfTwoArithmetic twoArithmetic;
+    private final EInteger oddPart;
+    private final EInteger oddInverse;
+    private final int twoExponent;
+    // For Barrett reduction
+    private final EInteger reciprocal;
+
+    private EIntegerModulus(EInteger modulus) {
+      this.modulus = modulus;
+      int k = (int)modulus.GetLowBitAsInt64();
+      EInteger odd = modulus.ShiftRight(k);
+      if (((odd.GetUnsignedBitLengthAsInt64() + 31) >> 5) <= MontgomeryLimit) {
+        this.oddPart = odd;
+        this.twoExponent = k;
+        this.oddArithmetic = new MontgomeryArithmetic(odd);
+        if (k > 0) {
+          this.twoArithmetic = new PowerOfTwoArithmetic(k);
+          // Newton's iteration x*(2 - odd*x), which doubles the number of
+          // correct low bits of the inverse each time
+          EInteger inv = EInteger.FromInt32(1);
+          for (int bits = 2; ; bits <<= 1) {
+            int b = Math.min(bits, k);
+            EInteger prod = odd.Multiply(inv).LowBits(b);
+            inv = inv.Multiply(EInteger.FromInt32(2).Subtract(prod))
+              .LowBits(b);
+            if (b == k) {
+              break;
+            }
+          }
+          this.oddInverse = inv;
+        } else {
+          this.twoArithmetic = null;
+          this.oddInverse = null;
+        }
+        this.reciprocal = null;
+      } else {
+        this.oddPart = null;
+        this.twoExponent = 0;
+        this.oddArithmetic = null;
+        this.twoArithmetic = null;
+        this.oddInverse = null;
+        this.reciprocal = EInteger.NewtonReciprocal(modulus);
+      }
+    }
+
+    /**
+     * Creates a modulus object from an arbitrary-precision integer.
+     * @param modulus The modulus, which must be greater than 0.
+     * @return A modulus object for the given number.
+     * @throws NullPointerException The parameter {@code modulus} is null.
+     * @throws IllegalArgumentException The parameter {@code modulus} is not
+     * greater than 0.
+     */
+    public static EIntegerModulus Create(EInteger modulus) {
+      if (modulus == null) {
+        throw new NullPointerException("modulus");
+      }
+      if (modulus.signum() <= 0) {
+        throw new IllegalArgumentException("modulus(" + modulus +
+          ") is not greater than 0");
+      }
+      return new EIntegerModulus(modulus);
+    }
+
+    /**
+     * Gets the modulus of this object.
+     * @return The modulus of this object.
+     */
+    public final EInteger getModulus() {
+        return this.modulus;
+      }
+
+    /**
+     * Finds the modulus remainder that results when an arbitrary-precision
+     * integer is divided by this object's modulus. The result is the same as
+     * that of {@code value.Mod(modulus)}.
+     * @param value An arbitrary-precision integer.
+     * @return The modulus remainder, which is 0 or greater and less than the
+     * modulus.
+     * @throws NullPointerException The parameter {@code value} is null.
+     */
+    public EInteger Mod(EInteger value) {
+      if (value == null) {
+        throw new NullPointerException("value");
+      }
+      if (this.reciprocal == null) {
+        return value.Mod(this.modulus);
+      }
+      EInteger rem = EInteger.DivRemWithReciprocal(
+          value.Abs(),
+          this.modulus,
+          this.reciprocal)[1];
+      return (value.signum() < 0 && !rem.isZero()) ?
+        this.modulus.Subtract(rem) : rem;
+    }
+
+    /**
+     * Multiplies two arbitrary-precision integers and finds the product's
+     * modulus remainder when divided by this object's modulus.
+     * @param valueA The first integer.
+     * @param valueB The second integer.
+     * @return The product's modulus remainder, which is 0 or greater and less
+     * than the modulus.
+     * @throws NullPointerException The parameter {@code valueA} or {@code
+     * valueB} is null.
+     */
+    public EInteger Multiply(EInteger valueA, EInteger valueB) {
+      if (valueA == null) {
+        throw new NullPointerException("valueA");
+      }
+      if (valueB == null) {
+        throw new NullPointerException("valueB");
+      }
+      return this.Mod(valueA.Multiply(valueB));
+    }
+
+    /**
+     * Calculates the remainder when an arbitrary-precision integer raised to a
+     * certain power is divided by this object's modulus. The result is the
+     * same as that of {@code valueBase.ModPow(pow, modulus)}.
+     * @param valueBase The integer to raise to a power.
+     * @param pow The power to raise the integer by.
+     * @return An arbitrary-precision integer. If {@code pow} is 0, returns 1,
+     * even if the modulus is 1.
+     * @throws NullPointerException The parameter {@code valueBase} or {@code
+     * pow} is null.
+     * @throws IllegalArgumentException The parameter {@code pow} is less than 0.
+     */
+    public EInteger ModPow(EInteger valueBase, EInteger pow) {
+      if (valueBase == null) {
+        throw new NullPointerException("valueBase");
+      }
+      if (pow == null) {
+        throw new NullPointerException("pow");
+      }
+      if (pow.signum() < 0) {
+        throw new IllegalArgumentException("pow(" + pow + ") is less than 0");
+      }
+      if (pow.isZero()) {
+        return EInteger.FromInt32(1);
+      }
+      valueBase = this.Mod(valueBase);
+      if (valueBase.isZero() || this.modulus.compareTo(EInteger.FromInt32(1))
+        == 0) {
+        return EInteger.FromInt32(0);
+      }
+      int[] powLimbs = new int[(int)((pow.GetUnsignedBitLengthAsInt64() +
+        31) >> 5)];
+      pow.ToInt32Limbs(powLimbs);
+      if (this.reciprocal != null) {
+        return this.BarrettModPow(valueBase, powLimbs);
+      }
+      EInteger oddResult = LimbModPow(
+          this.oddArithmetic,
+          valueBase,
+          powLimbs);
+      if (this.twoArithmetic == null) {
+        return oddResult;
+      }
+      EInteger twoResult = LimbModPow(
+          this.twoArithmetic,
+          valueBase,
+          powLimbs);
+      // Combine the results: oddResult + oddPart*y is congruent to
+      // oddResult mod oddPart, and to twoResult mod 2^twoExponent if
+      // y = (twoResult - oddResult)/oddPart mod 2^twoExponent
+      EInteger y = twoResult.Subtract(oddResult).Multiply(this.oddInverse)
+        .LowBits(this.twoExponent);
+      return oddResult.Add(this.oddPart.Multiply(y));
+    }
+
+    // Finds the terms U(k) and V(k) of the Lucas sequences with parameters
+    // P = 1 and Q, along with Q^k, all modulo this object's modulus, which
+    // must be odd, and returns them in that order.  Used by the strong
+    // Lucas probable-prime test (see PrimalityTest).  The terms are found
+    // from the top bit of k down, using U(2j) = U(j)*V(j),
+    // V(2j) = V(j)^2 - 2*Q^j, U(2j+1) = (U(2j) + V(2j))/2, and
+    // V(2j+1) = (D*U(2j) + V(2j))/2, where D = 1 - 4*Q.
+    EInteger[] LucasSequence(int q, EInteger k) {
+      EInteger eq = this.Mod(EInteger.FromInt32(q));
+      EInteger ed = this.Mod(EInteger.FromInt32(1).Subtract(
+        EInteger.FromInt32(q).ShiftLeft(2)));
+      int topBit = (int)k.GetUnsignedBitLengthAsInt64() - 1;
+      if (this.oddArithmetic == null || this.twoArithmetic != null) {
+        EInteger u = EInteger.FromInt32(1);
+        EInteger v = EInteger.FromInt32(1);
+        EInteger qk = eq;
+        for (int bit = topBit - 1; bit >= 0; --bit) {
+          u = this.Multiply(u, v);
+          v = this.Mod(v.Multiply(v).Subtract(qk.ShiftLeft(1)));
+          qk = this.Multiply(qk, qk);
+          if (k.GetUnsignedBit(bit)) {
+            EInteger newU = this.Half(this.Mod(u.Add(v)));
+            v = this.Half(this.Mod(ed.Multiply(u).Add(v)));
+            u = newU;
+            qk = this.Multiply(qk, eq);
+          }
+        }
+        return new EInteger[] { u, v, qk };
+      }
+      // Montgomery form is linear, so additions, subtractions, and
+      // halvings work on it directly
+      MontgomeryArithmetic arith = this.oddArithmetic;
+      int n = arith.limbCount;
+      int[] scratch = new int[(n << 1) + 2];
+      int[] u = new int[n];
+      int[] v = new int[n];
+      int[] qk = new int[n];
+      int[] mq = new int[n];
+      int[] md = new int[n];
+      int[] t = new int[n];
+      arith.FromEInteger(EInteger.FromInt32(1), u);
+      System.arraycopy(u, 0, v, 0, n);
+      arith.FromEInteger(eq, mq);
+      System.arraycopy(mq, 0, qk, 0, n);
+      arith.FromEInteger(ed, md);
+      for (int bit = topBit - 1; bit >= 0; --bit) {
+        arith.Multiply(u, v, u, scratch);
+        arith.Square(v, v, scratch);
+        arith.Add(qk, qk, t);
+        arith.Subtract(v, t, v);
+        arith.Square(qk, qk, scratch);
+        if (k.GetUnsignedBit(bit)) {
+          arith.Multiply(md, u, t, scratch);
+          arith.Add(u, v, u);
+          arith.Half(u, u);
+          arith.Add(t, v, v);
+          arith.Half(v, v);
+          arith.Multiply(qk, mq, qk, scratch);
+        }
+      }
+      return new EInteger[] {
+        arith.ToEInteger(u, scratch), arith.ToEInteger(v, scratch),
+        arith.ToEInteger(qk, scratch),
+      };
+    }
+
+    // Finds value/2 mod an odd modulus, for 0 <= value < modulus
+    private EInteger Half(EInteger value) {
+      return (value.isEven() ? value : value.Add(this.modulus)).ShiftRight(1);
+    }
+
+    // Number of exponent bits handled by each window; larger windows need
+    // more precomputed powers but fewer multiplications
+    private static int WindowSize(int[] powLimbs) {
+      long bits = ((long)powLimbs.length) << 5;
+      return (bits <= 24) ? 1 : ((bits <= 80) ? 3 : ((bits <= 240) ? 4 :
+        ((bits <= 672) ? 5 : 6)));
+    }
+
+    private static boolean GetBit(int[] limbs, long index) {
+      return ((limbs[(int)(index >> 5)] >> (int)(index & 31)) & 1) != 0;
+    }
+
+    // Finds the lowest bit, at or below the given set bit and above it
+    // minus window, that is set, so that the window from that bit to the
+    // given bit is an odd number
+    private static long WindowLow(int[] powLimbs, long bit, int window) {
+      long low = Math.max(0, bit - window + 1);
+      while (!GetBit(powLimbs, low)) {
+        ++low;
+      }
+      return low;
+    }
+
+    private static EInteger LimbModPow(
+      LimbArithmetic arith,
+      EInteger valueBase,
+      int[] powLimbs) {
+      int n = arith.limbCount;
+      int window = WindowSize(powLimbs);
+      int[] scratch = new int[(n << 1) + 2];
+      // Odd powers valueBase^1, valueBase^3, ..., valueBase^(2^window-1)
+      int[][] powers = new int[1 << (window - 1)][];
+      powers[0] = new int[n];
+      arith.FromEInteger(valueBase, powers[0]);
+      int[] acc = new int[n];
+      arith.Square(powers[0], acc, scratch);
+      for (int i = 1; i < powers.length; ++i) {
+        powers[i] = new int[n];
+        arith.Multiply(powers[i - 1], acc, powers[i], scratch);
+      }
+      boolean accIsOne = true;
+      long bit = (((long)powLimbs.length) << 5) - 1;
+      while (bit >= 0) {
+        if (!GetBit(powLimbs, bit)) {
+          if (!accIsOne) {
+            arith.Square(acc, acc, scratch);
+          }
+          --bit;
+          continue;
+        }
+        long low = WindowLow(powLimbs, bit, window);
+        int value = 0;
+        for (long i = bit; i >= low; --i) {
+          value = (value << 1) | (GetBit(powLimbs, i) ? 1 : 0);
+          if (!accIsOne) {
+            arith.Square(acc, acc, scratch);
+          }
+        }
+        if (accIsOne) {
+          System.arraycopy(powers[value >> 1], 0, acc, 0, n);
+          accIsOne = false;
+        } else {
+          arith.Multiply(acc, powers[value >> 1], acc, scratch);
+        }
+        bit = low - 1;
+      }
+      return arith.ToEInteger(acc, scratch);
+    }
+
+    private EInteger BarrettModPow(EInteger valueBase, int[] powLimbs) {
+      int window = WindowSize(powLimbs);
+      EInteger[] powers = new EInteger[1 << (window - 1)];
+      powers[0] = valueBase;
+      EInteger square = this.BarrettReduce(valueBase.Multiply(valueBase));
+      for (int i = 1; i < powers.length; ++i) {
+        powers[i] = this.BarrettReduce(powers[i - 1].Multiply(square));
+      }
+      EInteger acc = null;
+      long bit = (((long)powLimbs.length) << 5) - 1;
+      while (bit >= 0) {
+        if (!GetBit(powLimbs, bit)) {
+          if (acc != null) {
+            acc = this.BarrettReduce(acc.Multiply(acc));
+          }
+          --bit;
+          continue;
+        }
+        long low = WindowLow(powLimbs, bit, window);
+        int value = 0;
+        for (long i = bit; i >= low; --i) {
+          value = (value << 1) | (GetBit(powLimbs, i) ? 1 : 0);
+          if (acc != null) {
+            acc = this.BarrettReduce(acc.Multiply(acc));
+          }
+        }
+        acc = (acc == null) ? powers[value >> 1] :
+          this.BarrettReduce(acc.Multiply(powers[value >> 1]));
+        bit = low - 1;
+      }
+      return acc;
+    }
+
+    // Reduces a nonnegative value less than modulus^2
+    private EInteger BarrettReduce(EInteger value) {
+      return EInteger.DivRemWithReciprocal(
+          value,
+          this.modulus,
+          this.reciprocal)[1];
+    }
+
+    // Modular arithmetic on residues stored as little-endian 32-bit limbs
+    private abstract static class LimbArithmetic {
+      protected final int limbCount;
+
+      LimbArithmetic(int limbCount) {
+        this.limbCount = limbCount;
+      }
+
+      // Stores a nonnegative value's residue in result
+      abstract void FromEInteger(EInteger value, int[] result);
+
+      abstract EInteger ToEInteger(int[] value, int[] scratch);
+
+      // Sets result to the residue of a*b; result may be the same array as
+      // a or b, and scratch has 2*limbCount + 2 limbs
+      abstract void Multiply(int[] a, int[] b, int[] result, int[] scratch);
+
+      abstract void Square(int[] a, int[] result, int[] scratch);
+    }
+
+    // Arithmetic modulo an odd number, on residues in Montgomery form
+    // (x*2^(32*limbCount) mod modulus)
+    private static final class MontgomeryArithmetic extends LimbArithmetic {
+      private static final long Mask = 0xffffffffL;
+
+      private final EInteger modulus;
+      private final int[] modulusLimbs;
+      private final int negInverse; // -modulus^-1 mod 2^32
+
+      MontgomeryArithmetic(EInteger modulus) {
+        super((int)((modulus.GetUnsignedBitLengthAsInt64() + 31) >> 5));
+        this.modulus = modulus;
+        this.modulusLimbs = new int[this.limbCount];
+        modulus.ToInt32Limbs(this.modulusLimbs);
+        int m0 = this.modulusLimbs[0];
+        int inv = m0; // Correct to 3 bits, since m0 is odd
+        for (int i = 0; i < 4; ++i) {
+          inv *= 2 - (m0 * inv);
+        }
+        this.negInverse = -inv;
+      }
+
+      @Override void FromEInteger(EInteger value, int[] result) {
+        value.ShiftLeft(this.limbCount << 5).Mod(this.modulus)
+          .ToInt32Limbs(result);
+      }
+
+      @Override EInteger ToEInteger(int[] value, int[] scratch) {
+        // Multiplying by 1 converts out of Montgomery form
+        int[] one = new int[this.limbCount];
+        int[] result = new int[this.limbCount];
+        one[0] = 1;
+        this.Multiply(value, one, result, scratch);
+        return EInteger.FromInt32Limbs(result, this.limbCount);
+      }
+
+      // Sets result to a*b/2^(32*n) mod modulus, using the coarsely
+      // integrated operand scanning method
+      @Override void Multiply(int[] a, int[] b, int[] result, int[] scratch) {
+        int n = this.limbCount;
+        int[] m = this.modulusLimbs;
+        int[] t = scratch;
+        java.util.Arrays.fill(t, 0, n + 2, 0);
+        for (int i = 0; i < n; ++i) {
+          // t += a[i]*b
+          long ai = ((long)a[i]) & Mask;
+          long carry = 0;
+          for (int j = 0; j < n; ++j) {
+            long s = (((long)t[j]) & Mask) + (ai * (((long)b[j]) & Mask)) +
+              carry;
+            t[j] = (int)s;
+            carry = s >>> 32;
+          }
+          long s2 = (((long)t[n]) & Mask) + carry;
+          t[n] = (int)s2;
+          t[n + 1] = (int)(s2 >>> 32);
+          // t = (t + q*m)/2^32, where q makes the low limb zero
+          long q = ((long)(t[0] * this.negInverse)) & Mask;
+          carry = ((((long)t[0]) & Mask) + (q * (((long)m[0]) & Mask))) >>>
+            32;
+          for (int j = 1; j < n; ++j) {
+            long s = (((long)t[j]) & Mask) + (q * (((long)m[j]) & Mask)) +
+              carry;
+            t[j - 1] = (int)s;
+            carry = s >>> 32;
+          }
+          s2 = (((long)t[n]) & Mask) + carry;
+          t[n - 1] = (int)s2;
+          t[n] = t[n + 1] + (int)(s2 >>> 32);
+        }
+        this.Finish(t, 0, result);
+      }
+
+      // Sets result to a^2/2^(32*n) mod modulus: computes the full square,
+      // finding each cross product once and doubling, then reduces it
+      @Override void Square(int[] a, int[] result, int[] scratch) {
+        int n = this.limbCount;
+        int[] m = this.modulusLimbs;
+        int[] t = scratch;
+        java.util.Arrays.fill(t, 0, (n << 1) + 1, 0);
+        for (int i = 0; i < n - 1; ++i) {
+          long ai = ((long)a[i]) & Mask;
+          long carry = 0;
+          for (int j = i + 1; j < n; ++j) {
+            long s = (((long)t[i + j]) & Mask) + (ai * (((long)a[j]) &
+              Mask)) + carry;
+            t[i + j] = (int)s;
+            carry = s >>> 32;
+          }
+          t[i + n] = (int)carry;
+        }
+        // Double the cross products and add the squares
+        long carry = 0;
+        for (int i = 0; i < n; ++i) {
+          long ai = ((long)a[i]) & Mask;
+          long sq = ai * ai;
+          int lo = t[i << 1];
+          int hi = t[(i << 1) + 1];
+          long s = ((((long)lo) & Mask) << 1) + (sq & Mask) + carry;
+          t[i << 1] = (int)s;
+          s = ((((long)hi) & Mask) << 1) + (sq >>> 32) + (s >>> 32);
+          t[(i << 1) + 1] = (int)s;
+          carry = s >>> 32;
+        }
+        // Montgomery reduction of the 2n-limb square
+        for (int i = 0; i < n; ++i) {
+          long q = ((long)(t[i] * this.negInverse)) & Mask;
+          long c = 0;
+          for (int j = 0; j < n; ++j) {
+            long s = (((long)t[i + j]) & Mask) + (q * (((long)m[j]) & Mask)) +
+              c;
+            t[i + j] = (int)s;
+            c = s >>> 32;
+          }
+          for (int k = i + n; c != 0; ++k) {
+            long s = (((long)t[k]) & Mask) + c;
+            t[k] = (int)s;
+            c = s >>> 32;
+          }
+        }
+        this.Finish(t, n, result);
+      }
+
+      // Sets result to a+b mod modulus; result may be the same array as a
+      // or b
+      void Add(int[] a, int[] b, int[] result) {
+        int n = this.limbCount;
+        int[] m = this.modulusLimbs;
+        long carry = 0;
+        for (int j = 0; j < n; ++j) {
+          long s = (((long)a[j]) & Mask) + (((long)b[j]) & Mask) + carry;
+          result[j] = (int)s;
+          carry = s >>> 32;
+        }
+        if (carry != 0 || this.CompareToModulus(result) >= 0) {
+          long borrow = 0;
+          for (int j = 0; j < n; ++j) {
+            long s = (((long)result[j]) & Mask) - (((long)m[j]) & Mask) -
+              borrow;
+            result[j] = (int)s;
+            borrow = (s >> 32) & 1;
+          }
+        }
+      }
+
+      // Sets result to a-b mod modulus; result may be the same array as a
+      // or b
+      void Subtract(int[] a, int[] b, int[] result) {
+        int n = this.limbCount;
+        int[] m = this.modulusLimbs;
+        long borrow = 0;
+        for (int j = 0; j < n; ++j) {
+          long s = (((long)a[j]) & Mask) - (((long)b[j]) & Mask) - borrow;
+          result[j] = (int)s;
+          borrow = (s >> 32) & 1;
+        }
+        if (borrow != 0) {
+          long carry = 0;
+          for (int j = 0; j < n; ++j) {
+            long s = (((long)result[j]) & Mask) + (((long)m[j]) & Mask) +
+              carry;
+            result[j] = (int)s;
+            carry = s >>> 32;
+          }
+        }
+      }
+
+      // Sets result to a/2 mod modulus, by adding the modulus to a if a is
+      // odd and shifting right; result may be the same array as a
+      void Half(int[] a, int[] result) {
+        int n = this.limbCount;
+        int[] m = this.modulusLimbs;
+        long carry = 0;
+        if ((a[0] & 1) != 0) {
+          for (int j = 0; j < n; ++j) {
+            long s = (((long)a[j]) & Mask) + (((long)m[j]) & Mask) + carry;
+            result[j] = (int)s;
+            carry = s >>> 32;
+          }
+        } else {
+          System.arraycopy(a, 0, result, 0, n);
+        }
+        for (int j = 0; j < n - 1; ++j) {
+          result[j] = (result[j] >>> 1) | (result[j + 1] << 31);
+        }
+        result[n - 1] = (result[n - 1] >>> 1) | ((int)carry << 31);
+      }
+
+      private int CompareToModulus(int[] a) {
+        int[] m = this.modulusLimbs;
+        for (int j = this.limbCount - 1; j >= 0; --j) {
+          if (a[j] != m[j]) {
+            return ((((long)a[j]) & Mask) > (((long)m[j]) & Mask)) ? 1 : -1;
+          }
+        }
+        return 0;
+      }
+
+      // Copies the n+1 limbs of t starting at start, which are less than
+      // twice the modulus, to the n limbs of result, subtracting the
+      // modulus if necessary
+      private void Finish(int[] t, int start, int[] result) {
+        int n = this.limbCount;
+        int[] m = this.modulusLimbs;
+        boolean subtract = t[start + n] != 0;
+        if (!subtract) {
+          subtract = true;
+          for (int j = n - 1; j >= 0; --j) {
+            if (t[start + j] != m[j]) {
+              subtract = (((long)t[start + j]) & Mask) > (((long)m[j]) &
+                Mask);
+              break;
+            }
+          }
+        }
+        if (subtract) {
+          long borrow = 0;
+          for (int j = 0; j < n; ++j) {
+            long s = (((long)t[start + j]) & Mask) - (((long)m[j]) & Mask) -
+              borrow;
+            result[j] = (int)s;
+            borrow = (s >> 32) & 1;
+          }
+        } else {
+          System.arraycopy(t, start, result, 0, n);
+        }
+      }
+    }
+
+    // Arithmetic modulo 2^bitCount, whose residues are the low bits of
+    // products
+    private static final class PowerOfTwoArithmetic extends LimbArithmetic {
+      private static final long Mask = 0xffffffffL;
+
+      private final int bitCount;
+      private final int topMask;
+
+      PowerOfTwoArithmetic(int bitCount) {
+        super((bitCount + 31) >> 5);
+        this.bitCount = bitCount;
+        this.topMask = ((bitCount & 31) == 0) ? -1 : (1 << (bitCount & 31)) -
+          1;
+      }
+
+      @Override void FromEInteger(EInteger value, int[] result) {
+        value.LowBits(this.bitCount).ToInt32Limbs(result);
+      }
+
+      @Override EInteger ToEInteger(int[] value, int[] scratch) {
+        return EInteger.FromInt32Limbs(value, this.limbCount);
+      }
+
+      // Sets result to the low limbs of a*b, computing only those limbs
+      @Override void Multiply(int[] a, int[] b, int[] result, int[] scratch) {
+        int n = this.limbCount;
+        int[] t = scratch;
+        java.util.Arrays.fill(t, 0, n, 0);
+        for (int i = 0; i < n; ++i) {
+          long ai = ((long)a[i]) & Mask;
+          long carry = 0;
+          for (int j = 0; j < n - i; ++j) {
+            long s = (((long)t[i + j]) & Mask) + (ai * (((long)b[j]) & Mask)) +
+              carry;
+            t[i + j] = (int)s;
+            carry = s >>> 32;
+          }
+        }
+        t[n - 1] &= this.topMask;
+        System.arraycopy(t, 0, result, 0, n);
+      }
+
+      @Override void Square(int[] a, int[] result, int[] scratch) {
+        this.Multiply(a, a, result, scratch);
+      }
+    }
+  }
@@ -0,0 +1,492 @@
+package com.upokecenter.numbers;
+/*
+Written by Peter O.
+Any copyright to this work is released to the Public Domain.
+In case this is not possible, this work is also
+licensed under the Unlicense: https://unlicense.org/
+
+ */
+
+import java.nio.ByteBuffer;
+
+  /**
+   * <p>Checks whether text is in the form of a number accepted by {@code
+   * EDecimal.FromString} and {@code EFloat.FromString}, and finds where the
+   * number ends and what its significand and exponent are like, without
+   * creating the number or throwing an exception for text that isn't a
+   * number. This is much cheaper than parsing the text and catching
+   * NumberFormatException, so it suits filtering or sizing input before
+   * parsing it. An object of this class can be reused for any number of
+   * scans, which don't allocate memory; each scan replaces the results of
+   * the previous one. </p> <p>The form checked is the one given in {@code
+   * EDecimal.FromString(String, int, int, EContext)}. An arithmetic context
+   * can make that method reject some numbers in this form, such as NaN with
+   * more payload digits than the context's precision, and the rational
+   * numbers accepted by {@code ERational.FromString} aren't in this form.
+   * </p> <p><b>Thread safety:</b> Instances of this class are mutable and not
+   * safe for use by multiple threads without synchronization.</p>
+   */
+  public final class ENumberScanner {
+    /**
+     * The kind of number found when the last scan found no number.
+     */
+    public static final int KindNone = 0;
+
+    /**
+     * The kind of number found when the last scan found a finite number.
+     */
+    public static final int KindFinite = 1;
+
+    /**
+     * The kind of number found when the last scan found infinity ("Infinity"
+     * or "INF").
+     */
+    public static final int KindInfinity = 2;
+
+    /**
+     * The kind of number found when the last scan found a quiet NaN ("NaN").
+     */
+    public static final int KindQuietNaN = 3;
+
+    /**
+     * The kind of number found when the last scan found a signaling NaN
+     * ("sNaN").
+     */
+    public static final int KindSignalingNaN = 4;
+
+    // The text being scanned; only one of these is non-null during a scan
+    private CharSequence text;
+    private char[] chars;
+    private byte[] bytes;
+    private ByteBuffer buffer;
+
+    private int kind;
+    private boolean negative;
+    private int endOffset;
+    private int digitCount;
+    private long exponent;
+
+    /**
+     * Initializes a new instance of the {@link ENumberScanner} class.
+     */
+    public ENumberScanner() {
+      this.kind = KindNone;
+    }
+
+    /**
+     * Gets the kind of number the last scan found.
+     * @return {@code KindFinite}, {@code KindInfinity}, {@code KindQuietNaN},
+     * or {@code KindSignalingNaN}, or {@code KindNone} if the last scan found
+     * no number or there was no scan.
+     */
+    public final int getKind() {
+        return this.kind;
+      }
+
+    /**
+     * Gets a value indicating whether the number the last scan found begins
+     * with a minus sign.
+     * @return {@code true} if the number the last scan found begins with a
+     * minus sign; otherwise, {@code false}.
+     */
+    public final boolean isNegative() {
+        return this.negative;
+      }
+
+    /**
+     * Gets the index just after the end of the number the last scan found, in
+     * the same terms as the offset given to the scan, or that offset if no
+     * number was found. For byte buffers, this is an index into the buffer,
+     * not relative to its position.
+     * @return The index just after the end of the number.
+     */
+    public final int getEndOffset() {
+        return this.endOffset;
+      }
+
+    /**
+     * Gets the number of significant digits in the number the last scan
+     * found: the digits of the significand from the first nonzero digit to
+     * the last digit, whether before or after the decimal point, or for NaN,
+     * the same for the digits of its diagnostic information. This is the
+     * number of digits in the unsigned significand of the EDecimal that
+     * {@code EDecimal.FromString} gives for the same text, except that it's
+     * 0 when that significand is 0.
+     * @return The number of significant digits, or 0 for infinity, or if no
+     * number was found.
+     */
+    public final int getDigitCount() {
+        return this.digitCount;
+      }
+
+    /**
+     * Gets the exponent of the number the last scan found, the same as the
+     * exponent of the EDecimal that {@code EDecimal.FromString} gives for the
+     * same text: the number after "E" or "e", if any, minus the number of
+     * digits after the decimal point.
+     * @return The exponent, or 0 for infinity or NaN, or if no number was
+     * found. If the exponent is less than Long.MIN_VALUE or greater than
+     * Long.MAX_VALUE, returns Long.MIN_VALUE or Long.MAX_VALUE instead.
+     */
+    public final long getExponent() {
+        return this.exponent;
+      }
+
+    /**
+     * Scans the longest number at the start of a portion of a sequence of
+     * characters.
+     * @param text A sequence of characters, such as a string.
+     * @param offset An index starting at 0 showing where the desired portion
+     * of {@code text} begins.
+     * @param length The length of the desired portion of {@code text}.
+     * @return {@code true} if the desired portion begins with a number, whose
+     * end is given by {@code getEndOffset}; otherwise, {@code false}.
+     * @throws NullPointerException The parameter {@code text} is null.
+     * @throws IllegalArgumentException Either {@code offset} or {@code length}
+     * is less than 0 or greater than {@code text} 's length, or {@code text}
+     * 's length minus {@code offset} is less than {@code length}.
+     */
+    public boolean Scan(CharSequence text, int offset, int length) {
+      if (text == null) {
+        throw new NullPointerException("text");
+      }
+      CheckRange(offset, length, text.length());
+      this.text = text;
+      boolean ret = this.ScanCore(offset, offset + length);
+      this.text = null;
+      return ret;
+    }
+
+    /**
+     * Scans the longest number at the start of a portion of a char array.
+     * @param chars A char array.
+     * @param offset An index starting at 0 showing where the desired portion
+     * of {@code chars} begins.
+     * @param length The length of the desired portion of {@code chars}.
+     * @return {@code true} if the desired portion begins with a number, whose
+     * end is given by {@code getEndOffset}; otherwise, {@code false}.
+     * @throws NullPointerException The parameter {@code chars} is null.
+     * @throws IllegalArgumentException Either {@code offset} or {@code length}
+     * is less than 0 or greater than {@code chars} 's length, or {@code
+     * chars} 's length minus {@code offset} is less than {@code length}.
+     */
+    public boolean Scan(char[] chars, int offset, int length) {
+      if (chars == null) {
+        throw new NullPointerException("chars");
+      }
+      CheckRange(offset, length, chars.length);
+      this.chars = chars;
+      boolean ret = this.ScanCore(offset, offset + length);
+      this.chars = null;
+      return ret;
+    }
+
+    /**
+     * Scans the longest number at the start of a portion of a byte array,
+     * with one byte per character, as in text encoded in UTF-8 or ASCII.
+     * @param bytes A byte array.
+     * @param offset An index starting at 0 showing where the desired portion
+     * of {@code bytes} begins.
+     * @param length The length of the desired portion of {@code bytes}.
+     * @return {@code true} if the desired portion begins with a number, whose
+     * end is given by {@code getEndOffset}; otherwise, {@code false}.
+     * @throws NullPointerException The parameter {@code bytes} is null.
+     * @throws IllegalArgumentException Either {@code offset} or {@code length}
+     * is less than 0 or greater than {@code bytes} 's length, or {@code
+     * bytes} 's length minus {@code offset} is less than {@code length}.
+     */
+    public boolean Scan(byte[] bytes, int offset, int length) {
+      if (bytes == null) {
+        throw new NullPointerException("bytes");
+      }
+      CheckRange(offset, length, bytes.length);
+      this.bytes = bytes;
+      boolean ret = this.ScanCore(offset, offset + length);
+      this.bytes = null;
+      return ret;
+    }
+
+    /**
+     * Scans the longest number at the start of the bytes of a byte buffer from
+     * its position to its limit, with one byte per character. The buffer's
+     * position is unchanged.
+     * @param buffer A byte buffer, which can be direct.
+     * @return {@code true} if the bytes begin with a number, whose end is
+     * given by {@code getEndOffset}; otherwise, {@code false}.
+     * @throws NullPointerException The parameter {@code buffer} is null.
+     */
+    public boolean Scan(ByteBuffer buffer) {
+      if (buffer == null) {
+        throw new NullPointerException("buffer");
+      }
+      this.buffer = buffer;
+      boolean ret = this.ScanCore(buffer.position(), buffer.limit());
+      this.buffer = null;
+      return ret;
+    }
+
+    /**
+     * Determines whether a sequence of characters is a number in the form
+     * accepted by {@code EDecimal.FromString}, and if so, sets the results
+     * given by this object's other methods.
+     * @param text A sequence of characters, such as a string.
+     * @return {@code true} if all of {@code text} is a number; otherwise,
+     * {@code false}.
+     * @throws NullPointerException The parameter {@code text} is null.
+     */
+    public boolean IsValid(CharSequence text) {
+      if (text == null) {
+        throw new NullPointerException("text");
+      }
+      return this.IsValid(text, 0, text.length());
+    }
+
+    /**
+     * Determines whether a portion of a sequence of characters is a number in
+     * the form accepted by {@code EDecimal.FromString}.
+     * @param text A sequence of characters, such as a string.
+     * @param offset An index starting at 0 showing where the desired portion
+     * of {@code text} begins.
+     * @param length The length of the desired portion of {@code text}.
+     * @return {@code true} if all of the desired portion is a number;
+     * otherwise, {@code false}.
+     * @throws NullPointerException The parameter {@code text} is null.
+     * @throws IllegalArgumentException Either {@code offset} or {@code length}
+     * is less than 0 or greater than {@code text} 's length, or {@code text}
+     * 's length minus {@code offset} is less than {@code length}.
+     */
+    public boolean IsValid(CharSequence text, int offset, int length) {
+      return this.Scan(text, offset, length) &&
+        this.endOffset == offset + length;
+    }
+
+    /**
+     * Determines whether a portion of a char array is a number in the form
+     * accepted by {@code EDecimal.FromString}.
+     * @param chars A char array.
+     * @param offset An index starting at 0 showing where the desired portion
+     * of {@code chars} begins.
+     * @param length The length of the desired portion of {@code chars}.
+     * @return {@code true} if all of the desired portion is a number;
+     * otherwise, {@code false}.
+     * @throws NullPointerException The parameter {@code chars} is null.
+     * @throws IllegalArgumentException Either {@code offset} or {@code length}
+     * is less than 0 or greater than {@code chars} 's length, or {@code
+     * chars} 's length minus {@code offset} is less than {@code length}.
+     */
+    public boolean IsValid(char[] chars, int offset, int length) {
+      return this.Scan(chars, offset, length) &&
+        this.endOffset == offset + length;
+    }
+
+    /**
+     * Determines whether a portion of a byte array, with one byte per
+     * character, is a number in the form accepted by {@code
+     * EDecimal.FromString}.
+     * @param bytes A byte array.
+     * @param offset An index starting at 0 showing where the desired portion
+     * of {@code bytes} begins.
+     * @param length The length of the desired portion of {@code bytes}.
+     * @return {@code true} if all of the desired portion is a number;
+     * otherwise, {@code false}.
+     * @throws NullPointerException The parameter {@code bytes} is null.
+     * @throws IllegalArgumentException Either {@code offset} or {@code length}
+     * is less than 0 or greater than {@code bytes} 's length, or {@code
+     * bytes} 's length minus {@code offset} is less than {@code length}.
+     */
+    public boolean IsValid(byte[] bytes, int offset, int length) {
+      return this.Scan(bytes, offset, length) &&
+        this.endOffset == offset + length;
+    }
+
+    /**
+     * Determines whether the bytes of a byte buffer from its position to its
+     * limit, with one byte per character, are a number in the form accepted
+     * by {@code EDecimal.FromString}. The buffer's position is unchanged.
+     * @param buffer A byte buffer, which can be direct.
+     * @return {@code true} if all of the bytes are a number; otherwise, {@code
+     * false}.
+     * @throws NullPointerException The parameter {@code buffer} is null.
+     */
+    public boolean IsValid(ByteBuffer buffer) {
+      return this.Scan(buffer) && this.endOffset == buffer.limit();
+    }
+
+    private static void CheckRange(int offset, int length, int size) {
+      if (offset < 0) {
+        throw new IllegalArgumentException("offset(" + offset +
+          ") is less than 0");
+      }
+      if (offset > size) {
+        throw new IllegalArgumentException("offset(" + offset +
+          ") is more than " + size);
+      }
+      if (length < 0) {
+        throw new IllegalArgumentException("length(" + length +
+          ") is less than 0");
+      }
+      if (length > size - offset) {
+        throw new IllegalArgumentException("length(" + length +
+          ") is more than " + (size - offset));
+      }
+    }
+
+    // Gets the character at an index of the text being scanned, with bytes
+    // read as unsigned
+    private int CharAt(int index) {
+      if (this.text != null) {
+        return this.text.charAt(index);
+      }
+      if (this.chars != null) {
+        return this.chars[index];
+      }
+      if (this.bytes != null) {
+        return this.bytes[index] & 0xff;
+      }
+      return this.buffer.get(index) & 0xff;
+    }
+
+    // Whether the characters at an index match an ASCII word, in any
+    // combination of uppercase and lowercase; the word is in uppercase
+    private boolean MatchesWord(int index, int end, String word) {
+      if (end - index < word.length()) {
+        return false;
+      }
+      for (int i = 0; i < word.length(); ++i) {
+        // Setting bit 0x20 maps an uppercase letter to lowercase, and no
+        // other character to a lowercase letter
+        if ((this.CharAt(index + i) | 0x20) != (word.charAt(i) | 0x20)) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    private boolean ScanCore(int offset, int end) {
+      this.kind = KindNone;
+      this.negative = false;
+      this.endOffset = offset;
+      this.digitCount = 0;
+      this.exponent = 0;
+      int i = offset;
+      boolean neg = false;
+      if (i < end) {
+        int ch = this.CharAt(i);
+        if (ch == '-' || ch == '+') {
+          neg = ch == '-';
+          ++i;
+        }
+      }
+      if (i >= end) {
+        return false;
+      }
+      int ch = this.CharAt(i);
+      if ((ch >= '0' && ch <= '9') || ch == '.') {
+        return this.ScanFinite(i, end, neg);
+      }
+      int kindFound;
+      if (this.MatchesWord(i, end, "INFINITY")) {
+        kindFound = KindInfinity;
+        i += 8;
+      } else if (this.MatchesWord(i, end, "INF")) {
+        kindFound = KindInfinity;
+        i += 3;
+      } else if (this.MatchesWord(i, end, "NAN")) {
+        kindFound = KindQuietNaN;
+        i += 3;
+      } else if (this.MatchesWord(i, end, "SNAN")) {
+        kindFound = KindSignalingNaN;
+        i += 4;
+      } else {
+        return false;
+      }
+      if (kindFound != KindInfinity) {
+        // NaN's diagnostic information
+        int digits = 0;
+        for (; i < end; ++i) {
+          ch = this.CharAt(i);
+          if (ch < '0' || ch > '9') {
+            break;
+          }
+          if (digits != 0 || ch != '0') {
+            ++digits;
+          }
+        }
+        this.digitCount = digits;
+      }
+      this.kind = kindFound;
+      this.negative = neg;
+      this.endOffset = i;
+      return true;
+    }
+
+    private boolean ScanFinite(int i, int end, boolean neg) {
+      int digits = 0;
+      int fractionDigits = 0;
+      boolean haveDigits = false;
+      boolean haveDecimalPoint = false;
+      for (; i < end; ++i) {
+        int ch = this.CharAt(i);
+        if (ch >= '0' && ch <= '9') {
+          haveDigits = true;
+          if (digits != 0 || ch != '0') {
+            ++digits;
+          }
+          if (haveDecimalPoint) {
+            ++fractionDigits;
+          }
+        } else if (ch == '.' && !haveDecimalPoint) {
+          haveDecimalPoint = true;
+        } else {
+          break;
+        }
+      }
+      if (!haveDigits) {
+        return false;
+      }
+      long exp = 0;
+      boolean expNegative = false;
+      boolean expTooBig = false;
+      if (i < end && (this.CharAt(i) | 0x20) == 'e') {
+        // The exponent is part of the number only if it has digits
+        int j = i + 1;
+        if (j < end && (this.CharAt(j) == '-' || this.CharAt(j) == '+')) {
+          expNegative = this.CharAt(j) == '-';
+          ++j;
+        }
+        int expDigitStart = j;
+        for (; j < end; ++j) {
+          int ch = this.CharAt(j);
+          if (ch < '0' || ch > '9') {
+            break;
+          }
+          if (exp <= (Long.MAX_VALUE - (ch - '0')) / 10) {
+            exp = (exp * 10) + (ch - '0');
+          } else {
+            expTooBig = true;
+          }
+        }
+        if (j > expDigitStart) {
+          i = j;
+        } else {
+          exp = 0;
+          expNegative = false;
+        }
+      }
+      if (expTooBig) {
+        this.exponent = expNegative ? Long.MIN_VALUE : Long.MAX_VALUE;
+      } else if (expNegative) {
+        // -exp - fractionDigits, which is less than Long.MIN_VALUE only if
+        // exp is close to Long.MAX_VALUE
+        this.exponent = (-exp < Long.MIN_VALUE + fractionDigits) ?
+          Long.MIN_VALUE : -exp - fractionDigits;
+      } else {
+        this.exponent = exp - fractionDigits;
+      }
+      this.kind = KindFinite;
+      this.negative = neg;
+      this.endOffset = i;
+      this.digitCount = digits;
+      return true;
+    }
+  }
@@ -21,7 +21,10 @@ licensed under the Unlicense: https://unlicense.org/
    * operator is the same instance).</p>
    */
 
-  public final class ERational implements Comparable<ERational> {
+  public final class ERational implements Comparable<ERational>,
+    java.io.Serializable {
+    private static final long serialVersionUID = 1L;
+
     /**
      * A not-a-number value.
      */
@@ -89,20 +92,86 @@ licensed under the Unlicense: https://unlicense.org/
 
     public static final ERational Zero = FromEInteger(EInteger.FromInt32(0));
 
-    private final FastIntegerFixed denominator;
+    // The numerator's absolute value, stored inline in 'smallNumerator'
+    // if it fits in a 64-bit signed integer (in which case
+    // 'largeNumerator' is null), and the denominator, likewise stored in
+    // 'smallDenominator'.  Most numbers thus need no objects other than
+    // this one.
+    private final long smallNumerator;
+    private final long smallDenominator;
+    private final EInteger largeNumerator;
+    private final EInteger largeDenominator;
 
     private final byte flags;
-    private final FastIntegerFixed unsignedNumerator;
 
     private ERational(
       FastIntegerFixed numerator,
       FastIntegerFixed denominator,
       byte flags) {
-      this.unsignedNumerator = numerator;
-      this.denominator = denominator;
+      this(numerator.ToEInteger(), denominator.ToEInteger(), flags);
+    }
+
+    private ERational(
+      EInteger unsignedNumerator,
+      EInteger denominator,
+      byte flags) {
+      boolean smallNum = unsignedNumerator.CanFitInInt64();
+      boolean smallDen = denominator.CanFitInInt64();
+      this.smallNumerator = smallNum ? unsignedNumerator.ToInt64Unchecked() : 0;
+      this.largeNumerator = smallNum ? null : unsignedNumerator;
+      this.smallDenominator = smallDen ? denominator.ToInt64Unchecked() : 0;
+      this.largeDenominator = smallDen ? null : denominator;
       this.flags = flags;
     }
 
+    private ERational(
+      long smallNumerator,
+      long smallDenominator,
+      byte flags) {
+      this.smallNumerator = smallNumerator;
+      this.smallDenominator = smallDenominator;
+      this.largeNumerator = null;
+      this.largeDenominator = null;
+      this.flags = flags;
+    }
+
+    // Creates a copy of the given number with different flags
+    private ERational(ERational value, byte flags) {
+      this.smallNumerator = value.smallNumerator;
+      this.smallDenominator = value.smallDenominator;
+      this.largeNumerator = value.largeNumerator;
+      this.largeDenominator = value.largeDenominator;
+      this.flags = flags;
+    }
+
+    private boolean IsNumeratorZero() {
+      return this.largeNumerator == null && this.smallNumerator == 0;
+    }
+
+    private boolean IsNumeratorEven() {
+      return (this.largeNumerator == null) ? (this.smallNumerator & 1) == 0 :
+        this.largeNumerator.isEven();
+    }
+
+    private boolean IsDenominatorEven() {
+      return (this.largeDenominator == null) ?
+        (this.smallDenominator & 1) == 0 : this.largeDenominator.isEven();
+    }
+
+    // Compares two nonnegative integers, each stored in a 64-bit signed
+    // integer if the given EInteger is null
+    private static int CompareUnsigned(
+      long smallA,
+      EInteger largeA,
+      long smallB,
+      EInteger largeB) {
+      if (largeA == null) {
+        return (largeB != null) ? -1 : ((smallA == smallB) ? 0 :
+          ((smallA < smallB) ? -1 : 1));
+      }
+      return (largeB == null) ? 1 : largeA.compareTo(largeB);
+    }
+
     /**
      * Initializes a new instance of the {@link com.upokecenter.numbers.ERational}
      * class.
@@ -135,8 +204,12 @@ licensed under the Unlicense: https://unlicense.org/
       if (denNegative) {
         denominator = denominator.Negate();
       }
-      this.unsignedNumerator = FastIntegerFixed.FromBig(numerator);
-      this.denominator = FastIntegerFixed.FromBig(denominator);
+      boolean smallNum = numerator.CanFitInInt64();
+      boolean smallDen = denominator.CanFitInInt64();
+      this.smallNumerator = smallNum ? numerator.ToInt64Unchecked() : 0;
+      this.largeNumerator = smallNum ? null : numerator;
+      this.smallDenominator = smallDen ? denominator.ToInt64Unchecked() : 0;
+      this.largeDenominator = smallDen ? null : denominator;
     }
 
     /**
@@ -144,10 +217,7 @@ licensed under the Unlicense: https://unlicense.org/
      * @return An arbitrary-precision rational number.
      */
     public ERational Copy() {
-      return new ERational(
-          this.unsignedNumerator,
-          this.denominator,
-          this.flags);
+      return new ERational(this, this.flags);
     }
 
     /**
@@ -155,7 +225,8 @@ licensed under the Unlicense: https://unlicense.org/
      * @return This object's denominator.
      */
     public final EInteger getDenominator() {
-        return this.denominator.ToEInteger();
+        return (this.largeDenominator == null) ?
+          EInteger.FromInt64(this.smallDenominator) : this.largeDenominator;
       }
 
     /**
@@ -186,7 +257,7 @@ licensed under the Unlicense: https://unlicense.org/
      */
     public final boolean isZero() {
         return ((this.flags & (BigNumberFlags.FlagInfinity |
-          BigNumberFlags.FlagNaN)) == 0) && this.unsignedNumerator.isValueZero();
+          BigNumberFlags.FlagNaN)) == 0) && this.IsNumeratorZero();
       }
 
     /**
@@ -198,8 +269,7 @@ licensed under the Unlicense: https://unlicense.org/
       if (!this.isFinite()) {
         return false;
       }
-      if (this.denominator.isEvenNumber() &&
-        !this.unsignedNumerator.isEvenNumber()) {
+      if (this.IsDenominatorEven() && !this.IsNumeratorEven()) {
         // Even denominator, odd numerator, so not an integer
         return false;
       }
@@ -214,8 +284,8 @@ licensed under the Unlicense: https://unlicense.org/
      * negative).
      */
     public final EInteger getNumerator() {
-        return this.isNegative() ? this.unsignedNumerator.Negate().ToEInteger() :
-          this.unsignedNumerator.ToEInteger();
+        return this.isNegative() ? this.getUnsignedNumerator().Negate() :
+          this.getUnsignedNumerator();
       }
 
     /**
@@ -225,7 +295,7 @@ licensed under the Unlicense: https://unlicense.org/
     public final int signum() {
         return ((this.flags & (BigNumberFlags.FlagInfinity |
           BigNumberFlags.FlagNaN)) != 0) ? (this.isNegative() ? -1 : 1) :
-          (this.unsignedNumerator.isValueZero() ? 0 : (this.isNegative() ? -1 : 1));
+          (this.IsNumeratorZero() ? 0 : (this.isNegative() ? -1 : 1));
       }
 
     /**
@@ -234,7 +304,8 @@ licensed under the Unlicense: https://unlicense.org/
      * returns the diagnostic information.
      */
     public final EInteger getUnsignedNumerator() {
-        return this.unsignedNumerator.ToEInteger();
+        return (this.largeNumerator == null) ?
+          EInteger.FromInt64(this.smallNumerator) : this.largeNumerator;
       }
 
     /**
@@ -247,7 +318,7 @@ licensed under the Unlicense: https://unlicense.org/
     public static ERational Create(
       int numeratorSmall,
       int denominatorSmall) {
-      return Create(EInteger.FromInt32(numeratorSmall), EInteger.FromInt32(denominatorSmall));
+      return Create((long)numeratorSmall, (long)denominatorSmall);
     }
 
     /**
@@ -260,6 +331,14 @@ licensed under the Unlicense: https://unlicense.org/
     public static ERational Create(
       long numeratorLong,
       long denominatorLong) {
+      if (denominatorLong != 0 && numeratorLong != Long.MIN_VALUE &&
+        denominatorLong != Long.MIN_VALUE) {
+        return new ERational(
+            Math.abs(numeratorLong),
+            Math.abs(denominatorLong),
+            (byte)(((numeratorLong < 0) != (denominatorLong < 0)) ?
+              BigNumberFlags.FlagNegative : 0));
+      }
       return Create(EInteger.FromInt64(numeratorLong), EInteger.FromInt64(denominatorLong));
     }
 
@@ -294,10 +373,189 @@ licensed under the Unlicense: https://unlicense.org/
       if (denNegative) {
         denominator = denominator.Negate();
       }
-      return new ERational(
-          FastIntegerFixed.FromBig(numerator),
-          FastIntegerFixed.FromBig(denominator),
-          bflags);
+      return new ERational(numerator, denominator, bflags);
+    }
+
+    /**
+     * Gets the number of bytes in this number's compact binary encoding, as
+     * returned by the {@code ToEncodedBytes} method.
+     * @return The number of bytes in the encoded form.
+     */
+    public int GetEncodedLength() {
+      return NumberCodec.EncodedLength(this);
+    }
+
+    /**
+     * Converts this number to a compact binary encoding, which stores the sign,
+     * the unsigned numerator, and the denominator in variable-length form, and
+     * stores infinity, not-a-number values (with their diagnostic information),
+     * and negative zero exactly. The encoding begins with a format version, so
+     * that encodings from later versions of this library are rejected rather
+     * than misread.
+     * @return A byte array holding the encoded form of this number.
+     */
+    public byte[] ToEncodedBytes() {
+      return NumberCodec.ToBytes(this);
+    }
+
+    /**
+     * Creates an arbitrary-precision rational number from its compact binary
+     * encoding (see {@code ToEncodedBytes}).
+     * @param bytes A byte array holding exactly one encoded number.
+     * @return An arbitrary-precision rational number.
+     * @throws NullPointerException The parameter {@code bytes} is null.
+     * @throws IllegalArgumentException The parameter {@code bytes} does not
+     * hold a valid encoded number, or has bytes after the encoded number.
+     */
+    public static ERational FromEncodedBytes(byte[] bytes) {
+      return (ERational)NumberCodec.FromBytes(bytes, NumberCodec.TypeERational);
+    }
+
+    /**
+     * Writes the compact binary encoding of this number (see {@code
+     * ToEncodedBytes}) to a data output stream.
+     * @param output A data output stream.
+     * @throws NullPointerException The parameter {@code output} is null.
+     * @throws java.io.IOException An I/O error occurred.
+     */
+    public void WriteEncoded(java.io.DataOutput output)
+      throws java.io.IOException {
+      NumberCodec.Write(this, output);
+    }
+
+    /**
+     * Writes the compact binary encoding of this number (see {@code
+     * ToEncodedBytes}) to a byte buffer at its current position, and advances
+     * the position past the encoded number.
+     * @param buffer A byte buffer.
+     * @throws NullPointerException The parameter {@code buffer} is null.
+     * @throws java.nio.BufferOverflowException The buffer has fewer bytes
+     * remaining than the encoded length, in which case nothing is written.
+     */
+    public void WriteEncoded(java.nio.ByteBuffer buffer) {
+      NumberCodec.Write(this, buffer);
+    }
+
+    /**
+     * Reads an arbitrary-precision rational number in compact binary encoding
+     * (see {@code ToEncodedBytes}) from a data input stream.
+     * @param input A data input stream.
+     * @return An arbitrary-precision rational number.
+     * @throws NullPointerException The parameter {@code input} is null.
+     * @throws java.io.IOException An I/O error occurred, the stream ended
+     * before the end of the encoded number, or the data is not a valid encoded
+     * number.
+     */
+    public static ERational ReadEncoded(java.io.DataInput input)
+      throws java.io.IOException {
+      return (ERational)NumberCodec.Read(input, NumberCodec.TypeERational);
+    }
+
+    /**
+     * Reads an arbitrary-precision rational number in compact binary encoding
+     * (see {@code ToEncodedBytes}) from a byte buffer at its current position,
+     * and advances the position past the encoded number.
+     * @param buffer A byte buffer.
+     * @return An arbitrary-precision rational number.
+     * @throws NullPointerException The parameter {@code buffer} is null.
+     * @throws java.nio.BufferUnderflowException The buffer ends before the end
+     * of the encoded number, in which case its position is unchanged.
+     * @throws IllegalArgumentException The data is not a valid encoded number,
+     * in which case the buffer's position is unchanged.
+     */
+    public static ERational ReadEncoded(java.nio.ByteBuffer buffer) {
+      return (ERational)NumberCodec.Read(buffer, NumberCodec.TypeERational);
+    }
+
+    /**
+     * Gets the number of characters in this number's text form, the same as
+     * returned by the {@code toString} method, without building that string if
+     * the number's parts are small.
+     * @return The number of characters in the text form.
+     * @throws UnsupportedOperationException The text form is longer than
+     * Integer.MAX_VALUE characters.
+     */
+    public int GetStringLength() {
+      return NumberText.Length(this, NumberText.FormString);
+    }
+
+    /**
+     * Writes this number's text form, the same as returned by the {@code
+     * toString} method, to an Appendable such as a StringBuilder or a Writer,
+     * without building that string if the number's parts are small.
+     * @param output An object that receives the text.
+     * @throws NullPointerException The parameter {@code output} is null.
+     * @throws java.io.IOException An I/O error occurred.
+     */
+    public void WriteString(Appendable output)
+      throws java.io.IOException {
+      NumberText.Write(this, NumberText.FormString, output);
+    }
+
+    /**
+     * Writes this number's text form, the same as returned by the {@code
+     * toString} method, to a character array.
+     * @param chars A character array.
+     * @param offset An index starting at 0 showing where to write the text in
+     * {@code chars}.
+     * @return The number of characters written.
+     * @throws NullPointerException The parameter {@code chars} is null.
+     * @throws IllegalArgumentException The parameter {@code offset} is less
+     * than 0 or greater than {@code chars}'s length, or {@code chars} has too
+     * little room after {@code offset} for the text, in which case some of the
+     * text may have been written.
+     */
+    public int WriteString(char[] chars, int offset) {
+      return NumberText.Write(this, NumberText.FormString, chars, offset);
+    }
+
+    /**
+     * Writes this number's text form, the same as returned by the {@code
+     * toString} method, to a byte array in UTF-8, in which each character of
+     * the text form is one byte.
+     * @param bytes A byte array.
+     * @param offset An index starting at 0 showing where to write the text in
+     * {@code bytes}.
+     * @return The number of bytes written.
+     * @throws NullPointerException The parameter {@code bytes} is null.
+     * @throws IllegalArgumentException The parameter {@code offset} is less
+     * than 0 or greater than {@code bytes}'s length, or {@code bytes} has too
+     * little room after {@code offset} for the text, in which case some of the
+     * text may have been written.
+     */
+    public int WriteStringUtf8(byte[] bytes, int offset) {
+      return NumberText.WriteUtf8(this, NumberText.FormString, bytes, offset);
+    }
+
+    /**
+     * Writes this number's text form, the same as returned by the {@code
+     * toString} method, to a byte buffer in UTF-8 at its current position, and
+     * advances the position past the text.
+     * @param buffer A byte buffer.
+     * @throws NullPointerException The parameter {@code buffer} is null.
+     * @throws java.nio.BufferOverflowException The buffer has too little room
+     * for the text, in which case its position is unchanged.
+     */
+    public void WriteStringUtf8(java.nio.ByteBuffer buffer) {
+      NumberText.WriteUtf8(this, NumberText.FormString, buffer);
+    }
+
+    // Serialization writes the compact binary encoding in place of this
+    // object's fields (see NumberCodec.SerialForm)
+    private Object writeReplace() {
+      return new NumberCodec.SerialForm(NumberCodec.TypeERational, this);
+    }
+
+    private void readObject(java.io.ObjectInputStream stream)
+      throws java.io.InvalidObjectException {
+      throw new java.io.InvalidObjectException("Serialized form required");
+    }
+
+    static ERational CreateWithFlags(
+      EInteger unsignedNumerator,
+      EInteger denominator,
+      int flags) {
+      return new ERational(unsignedNumerator, denominator, (byte)flags);
     }
 
     /**
@@ -607,6 +865,76 @@ licensed under the Unlicense: https://unlicense.org/
       return ERationalTextString.FromString(str, offset, length, true);
     }
 
+    /**
+     * Creates a rational number from a sequence of characters, such as a {@code
+     * StringBuilder} or a {@code java.nio.CharBuffer}, that represents a
+     * number, reading the characters in place. See {@code FromString(String,
+     * int, int)} for more information.
+     * @param cs A sequence of characters that represents a number.
+     * @return A rational number with the same value as the specified sequence.
+     * @throws NumberFormatException The parameter {@code cs} is not a correctly
+     * formatted number.
+     * @throws NullPointerException The parameter {@code cs} is null.
+     */
+    public static ERational FromString(CharSequence cs) {
+      return FromString(cs, 0, cs == null ? 0 : cs.length());
+    }
+
+    /**
+     * Creates a rational number from a portion of a sequence of characters that
+     * represents a number, reading the characters in place. See {@code
+     * FromString(String, int, int)} for more information.
+     * @param cs A sequence of characters, a portion of which represents a
+     * number.
+     * @param offset An index starting at 0 showing where the desired portion of
+     * {@code cs} begins.
+     * @param length The length of the desired portion of {@code cs}.
+     * @return A rational number with the same value as the desired portion.
+     * @throws NumberFormatException The desired portion is not a correctly
+     * formatted number.
+     * @throws NullPointerException The parameter {@code cs} is null.
+     * @throws IllegalArgumentException Either {@code offset} or {@code length}
+     * is less than 0 or greater than {@code cs} 's length, or {@code cs} 's
+     * length minus {@code offset} is less than {@code length}.
+     */
+    public static ERational FromString(
+      CharSequence cs,
+      int offset,
+      int length) {
+      if (cs == null) {
+        throw new NullPointerException("cs");
+      }
+      return ERationalTextString.FromString(cs, offset, length, true);
+    }
+
+    /**
+     * Creates a rational number from the bytes of a byte buffer from its
+     * position to its limit, which represent a number in the form described in
+     * {@code FromString(String, int, int)} with one byte per character. The
+     * bytes are read in place, whether the buffer is direct or not, and the
+     * buffer's position is unchanged.
+     * @param buffer A byte buffer.
+     * @return A rational number with the same value as given in the buffer.
+     * @throws NumberFormatException The bytes are not a correctly formatted
+     * number.
+     * @throws NullPointerException The parameter {@code buffer} is null.
+     */
+    public static ERational FromString(java.nio.ByteBuffer buffer) {
+      int start = ByteBufferChars.ArrayStart(buffer);
+      if (start >= 0) {
+        return ERationalByteArrayString.FromString(
+            buffer.array(),
+            start,
+            buffer.remaining(),
+            true);
+      }
+      return ERationalTextString.FromString(
+          new ByteBufferChars(buffer),
+          0,
+          buffer.remaining(),
+          true);
+    }
+
     /**
      * Creates a rational number from a sequence of {@code char} s that represents
      * a number. See {@code FromString(string, int, int)} for more information.
@@ -751,16 +1079,22 @@ licensed under the Unlicense: https://unlicense.org/
         return -1;
       }
       if (valueIThis >= 2) {
-        cmp = this.unsignedNumerator.compareTo(
-            other.unsignedNumerator);
+        cmp = CompareUnsigned(
+            this.smallNumerator,
+            this.largeNumerator,
+            other.smallNumerator,
+            other.largeNumerator);
         return cmp;
       } else if (valueIThis == 1) {
         return 0;
       } else {
         cmp = this.Abs().compareTo(other.Abs());
         if (cmp == 0) {
-          cmp = this.denominator.compareTo(
-              other.denominator);
+          cmp = CompareUnsigned(
+              this.smallDenominator,
+              this.largeDenominator,
+              other.smallDenominator,
+              other.largeDenominator);
           return cmp;
         }
         return cmp;
@@ -816,16 +1150,22 @@ licensed under the Unlicense: https://unlicense.org/
         return neg1 ? 1 : -1;
       }
       if (valueIThis >= 2) {
-        cmp = this.unsignedNumerator.compareTo(
-            other.unsignedNumerator);
+        cmp = CompareUnsigned(
+            this.smallNumerator,
+            this.largeNumerator,
+            other.smallNumerator,
+            other.largeNumerator);
         return neg1 ? -cmp : cmp;
       } else if (valueIThis == 1) {
         return 0;
       } else {
         cmp = this.compareTo(other);
         if (cmp == 0) {
-          cmp = this.denominator.compareTo(
-              other.denominator);
+          cmp = CompareUnsigned(
+              this.smallDenominator,
+              this.largeDenominator,
+              other.smallDenominator,
+              other.largeDenominator);
           return neg1 ? -cmp : cmp;
         }
         return cmp;
@@ -840,8 +1180,7 @@ licensed under the Unlicense: https://unlicense.org/
     public ERational Abs() {
       if (this.isNegative()) {
         return new ERational(
-            this.unsignedNumerator,
-            this.denominator,
+            this,
             (byte)(this.flags & ~BigNumberFlags.FlagNegative));
       }
       return this;
@@ -951,10 +1290,18 @@ licensed under the Unlicense: https://unlicense.org/
       // At this point, both numbers are finite and
       // have the same sign
 
-      int dencmp = this.denominator.compareTo(other.denominator);
+      int dencmp = CompareUnsigned(
+          this.smallDenominator,
+          this.largeDenominator,
+          other.smallDenominator,
+          other.largeDenominator);
       // At this point, the signs are equal so we can compare
       // their absolute values instead
-      int numcmp = this.unsignedNumerator.compareTo(other.unsignedNumerator);
+      int numcmp = CompareUnsigned(
+          this.smallNumerator,
+          this.largeNumerator,
+          other.smallNumerator,
+          other.largeNumerator);
       if (signA < 0) {
         numcmp = -numcmp;
       }
@@ -1487,13 +1834,16 @@ licensed under the Unlicense: https://unlicense.org/
      */
     @Override public boolean equals(Object obj) {
       ERational other = ((obj instanceof ERational) ? (ERational)obj : null);
-      return (
-          other != null) && (
-          (((
-            this.unsignedNumerator) == null) ? ((other.unsignedNumerator) == null) : (
-            this.unsignedNumerator).equals(other.unsignedNumerator)) && (((
-            this.denominator) == null) ? ((other.denominator) == null) : (
-            this.denominator).equals(other.denominator)) && this.flags == other.flags);
+      // Values are stored inline whenever they fit, so two numbers are
+      // equal only if they store the same values the same way
+      return (other != null) && (
+          this.smallNumerator == other.smallNumerator &&
+          this.smallDenominator == other.smallDenominator &&
+          (this.largeNumerator == null ? other.largeNumerator == null :
+            this.largeNumerator.equals(other.largeNumerator)) &&
+          (this.largeDenominator == null ? other.largeDenominator == null :
+            this.largeDenominator.equals(other.largeDenominator)) &&
+          this.flags == other.flags);
     }
 
     /**
@@ -1515,12 +1865,11 @@ licensed under the Unlicense: https://unlicense.org/
     @Override public int hashCode() {
       int valueHashCode = 1857066527;
       {
-        if (this.unsignedNumerator != null) {
-          valueHashCode += 1857066539 * this.unsignedNumerator.hashCode();
-        }
-        if (this.denominator != null) {
-          valueHashCode += 1857066551 * this.denominator.hashCode();
-        }
+        valueHashCode += 1857066539 * ((this.largeNumerator == null) ?
+          Long.hashCode(this.smallNumerator) : this.largeNumerator.hashCode());
+        valueHashCode += 1857066551 * ((this.largeDenominator == null) ?
+          Long.hashCode(this.smallDenominator) :
+          this.largeDenominator.hashCode());
         valueHashCode += 1857066623 * this.flags;
       }
       return valueHashCode;
@@ -1634,9 +1983,8 @@ licensed under the Unlicense: https://unlicense.org/
      */
     public ERational Negate() {
       return new ERational(
-          this.unsignedNumerator,
-          this.denominator,
-          (byte)(this.flags ^ BigNumberFlags.FlagNegative));
+            this,
+            (byte)(this.flags ^ BigNumberFlags.FlagNegative));
     }
 
     /**
@@ -1977,8 +2325,7 @@ licensed under the Unlicense: https://unlicense.org/
       if (!this.isFinite()) {
         throw new ArithmeticException("Value is infinity or NaN");
       }
-      if (this.denominator.isEvenNumber() &&
-        !this.unsignedNumerator.isEvenNumber()) {
+      if (this.IsDenominatorEven() && !this.IsNumeratorEven()) {
         // Even denominator, odd numerator, so not an integer
         throw new ArithmeticException("Value is not an integer");
       }
@@ -2298,27 +2645,43 @@ licensed under the Unlicense: https://unlicense.org/
     @Override public String toString() {
       if (!this.isFinite()) {
         if (this.IsSignalingNaN()) {
-          if (this.unsignedNumerator.isValueZero()) {
+          if (this.IsNumeratorZero()) {
             return this.isNegative() ? "-sNaN" : "sNaN";
           }
-          return this.isNegative() ? "-sNaN" + this.unsignedNumerator :
-            "sNaN" + this.unsignedNumerator;
+          return this.isNegative() ? "-sNaN" + this.getUnsignedNumerator() :
+            "sNaN" + this.getUnsignedNumerator();
         }
         if (this.IsQuietNaN()) {
-          if (this.unsignedNumerator.isValueZero()) {
+          if (this.IsNumeratorZero()) {
             return this.isNegative() ? "-NaN" : "NaN";
           }
-          return this.isNegative() ? "-NaN" + this.unsignedNumerator :
-            "NaN" + this.unsignedNumerator;
+          return this.isNegative() ? "-NaN" + this.getUnsignedNumerator() :
+            "NaN" + this.getUnsignedNumerator();
         }
         if (this.IsInfinity()) {
           return this.isNegative() ? "-Infinity" : "Infinity";
         }
       }
-      return (this.unsignedNumerator.isValueZero() && this.isNegative()) ? ("-0/" +
+      return (this.IsNumeratorZero() && this.isNegative()) ? ("-0/" +
         this.getDenominator()) : (this.getNumerator() + "/" + this.getDenominator());
     }
 
+    // Writes the same text as toString, without building a string if this
+    // number is finite and its numerator and denominator are stored inline
+    void WriteText(NumberText.Sink sink) {
+      if (!this.isFinite() || this.largeNumerator != null ||
+        this.largeDenominator != null) {
+        sink.Append(this.toString());
+        return;
+      }
+      if (this.isNegative()) {
+        sink.Append('-');
+      }
+      sink.AppendDigits(this.smallNumerator, 10, 1);
+      sink.Append('/');
+      sink.AppendDigits(this.smallDenominator, 10, 1);
+    }
+
     /**
      * Adds one to an arbitrary-precision rational number.
      * @return The given arbitrary-precision rational number plus one.
@@ -6,7 +6,7 @@ private ERationalTextString() {
     private static final int MaxSafeInt = EDecimal.MaxSafeInt;
 
     public static ERational FromString(
-      String chars,
+      CharSequence chars,
       int offset,
       int length,
       boolean throwException) {
@@ -23,15 +23,16 @@ private Extras() {
       return chars;
     }
     public static String CharsConcat(
-      String s1,
+      CharSequence s1,
       int offset1,
       int length1,
-      String s2,
+      CharSequence s2,
       int offset2,
       int length2) {
-      // System.out.println(s1.substring(offset1, (offset1)+(length1)));
-      // System.out.println(s2.substring(offset2, (offset2)+(length2)));
-      return s1.substring(offset1, (offset1)+(length1)) + s2.substring(offset2, (offset2)+(length2));
+      StringBuilder builder = new StringBuilder(length1 + length2);
+      builder.append(s1, offset1, offset1 + length1);
+      builder.append(s2, offset2, offset2 + length2);
+      return builder.toString();
     }
 
     public static char[] CharsConcat(
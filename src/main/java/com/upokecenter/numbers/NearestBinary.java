@@ -0,0 +1,206 @@
+package com.upokecenter.numbers;
+/*
+Written by Peter O.
+Any copyright to this work is released to the Public Domain.
+In case this is not possible, this work is also
+licensed under the Unlicense: https://unlicense.org/
+
+ */
+
+  // Finds the binary64 or binary32 value nearest to w*10^q, where w is a
+  // 64-bit integer, by the Eisel-Lemire algorithm (Lemire, "Number
+  // Parsing at a Gigabyte per Second", 2021).  w is normalized so that
+  // its highest bit is set and multiplied by a 128-bit truncated
+  // approximation of 5^q, also normalized; the upper bits of the product
+  // hold the significand, which needs only the power of two in 10^q
+  // added to its exponent.  The truncation error is so small that the
+  // rounded result is correct unless the product's lower 64 bits are all
+  // ones, in which case the result is reported as unknown (for most
+  // exponents) and the caller falls back to exact arithmetic.
+  final class NearestBinary {
+    private NearestBinary() {
+    }
+
+    // Range of q covered by the table, which includes every power of ten
+    // that can scale a 64-bit integer to a nonzero finite binary64 value
+    private static final int MinQ = -342;
+    private static final int MaxQ = 308;
+
+    // For each q from MinQ through MaxQ, 5^q scaled by a power of two to
+    // be between 2^127 and 2^128 and truncated to an integer (rounded up
+    // for q from -27 through -1), split into its upper and lower 64 bits
+    private static final long[] ValueFivePowers = FivePowers();
+
+    private static final long Unknown = -1;
+
+    // Returns the binary64 value nearest to w*10^q, as it would be
+    // encoded in a 64-bit integer, or -1 if that value can't be
+    // determined quickly.  w is 0 or greater.
+    static long ToDoubleBits(long w, int q, boolean negative) {
+      long bits = ToBinary(w, q, 52, 1023, MinQ, MaxQ, -4, 23);
+      return (bits == Unknown || !negative) ? bits : (bits | (1L << 63));
+    }
+
+    // Returns the binary32 value nearest to w*10^q, as it would be
+    // encoded in a 32-bit integer, or -1 if that value can't be
+    // determined quickly.  w is 0 or greater.
+    static int ToSingleBits(long w, int q, boolean negative) {
+      long bits = ToBinary(w, q, 23, 127, -65, 38, -17, 10);
+      return (bits == Unknown) ? -1 : (negative ? ((int)bits | (1 << 31)) :
+        (int)bits);
+    }
+
+    // Returns the value nearest to w*10^q as an EFloat with the
+    // significand and exponent that EFloat.Divide gives when rounding to
+    // 'ctx', or null if 'ctx' doesn't round like EContext.Binary64 or
+    // Binary32, or the value can't be determined quickly.  w is greater
+    // than 0, and 'ctx' has no flags or traps.
+    static EFloat ToEFloat(long w, int q, boolean negative, EContext ctx) {
+      int explicitBits;
+      int bias;
+      long bits;
+      if (ctx.RoundsLike(EContext.Binary64)) {
+        explicitBits = 52;
+        bias = 1023;
+        bits = ToBinary(w, q, 52, 1023, MinQ, MaxQ, -4, 23);
+      } else if (ctx.RoundsLike(EContext.Binary32)) {
+        explicitBits = 23;
+        bias = 127;
+        bits = ToBinary(w, q, 23, 127, -65, 38, -17, 10);
+      } else {
+        return null;
+      }
+      if (bits == Unknown) {
+        return null;
+      }
+      if (bits == 0) {
+        return EFloat.SignalUnderflow(ctx, negative, false);
+      }
+      int biasedExponent = (int)(bits >> explicitBits);
+      if (biasedExponent > (bias << 1)) {
+        return EFloat.SignalOverflow(ctx, negative, false);
+      }
+      long mantissa = bits & ((1L << explicitBits) - 1);
+      if (biasedExponent == 0) {
+        biasedExponent = 1;
+      } else {
+        mantissa |= 1L << explicitBits;
+      }
+      return EFloat.Create(
+          negative ? -mantissa : mantissa,
+          biasedExponent - bias - explicitBits);
+    }
+
+    // Finds the value nearest to w*10^q, rounded half to even, in a
+    // format with the given number of significand bits after the
+    // implicit bit and the given exponent bias, and returns it encoded in
+    // the format without a sign bit, or returns Unknown.  The remaining
+    // parameters give the range of q outside of which the value is zero
+    // or infinity, and the range of q in which w*10^q can be exactly
+    // halfway between two values of the format.
+    private static long ToBinary(
+      long w,
+      int q,
+      int explicitBits,
+      int bias,
+      int minQ,
+      int maxQ,
+      int minHalfwayQ,
+      int maxHalfwayQ) {
+      long infiniteExponent = (bias << 1) + 1;
+      if (w == 0 || q < minQ) {
+        return 0;
+      }
+      if (q > maxQ) {
+        return infiniteExponent << explicitBits;
+      }
+      int lz = Long.numberOfLeadingZeros(w);
+      w <<= lz;
+      int index = (q - MinQ) << 1;
+      long high = NumberUtility.MultiplyHigh(w, ValueFivePowers[index]);
+      long low = w * ValueFivePowers[index];
+      // The significand needs explicitBits + 3 bits of the product; if the
+      // bits below them in the upper half are all ones, the truncated
+      // part of 5^q can carry into them, so add in its contribution
+      long precisionMask = -1L >>> (explicitBits + 3);
+      if ((high & precisionMask) == precisionMask) {
+        long secondHigh = NumberUtility.MultiplyHigh(
+            w,
+            ValueFivePowers[index + 1]);
+        low += secondHigh;
+        if (Long.compareUnsigned(secondHigh, low) > 0) {
+          ++high;
+        }
+      }
+      if (low == -1L && (q < -27 || q > 55)) {
+        // Too close to call: for q from -27 through 55 the table entry
+        // is exact or nearly so, but not otherwise
+        return Unknown;
+      }
+      int upperBit = (int)(high >>> 63);
+      int shift = upperBit + 64 - explicitBits - 3;
+      long mantissa = high >>> shift;
+      // floor(log2(10^q)) + 63, adjusted for the normalization of w and
+      // the product, gives the biased exponent
+      int exponent = (int)(((217706L * q) >> 16) + 63) + upperBit - lz +
+        bias;
+      if (exponent <= 0) {
+        // Subnormal, or zero
+        if (-exponent + 1 >= 64) {
+          return 0;
+        }
+        mantissa >>>= -exponent + 1;
+        mantissa += mantissa & 1;
+        mantissa >>>= 1;
+        // Rounding can carry into the least normal exponent
+        return mantissa;
+      }
+      if (Long.compareUnsigned(low, 1) <= 0 && q >= minHalfwayQ &&
+        q <= maxHalfwayQ && (mantissa & 3) == 1 &&
+        (mantissa << shift) == high) {
+        // Exactly halfway between two values (the product is exact
+        // here), and the lower one is even, so round down
+        mantissa &= ~1L;
+      }
+      mantissa += mantissa & 1;
+      mantissa >>>= 1;
+      if (mantissa >= (2L << explicitBits)) {
+        mantissa = 1L << explicitBits;
+        ++exponent;
+      }
+      mantissa &= ~(1L << explicitBits);
+      if (exponent >= infiniteExponent) {
+        return infiniteExponent << explicitBits;
+      }
+      return ((long)exponent << explicitBits) | mantissa;
+    }
+
+    private static long[] FivePowers() {
+      long[] ret = new long[(MaxQ - MinQ + 1) << 1];
+      EInteger mask64 = EInteger.FromInt32(1).ShiftLeft(64).Subtract(1);
+      for (int q = MinQ; q <= MaxQ; ++q) {
+        EInteger g;
+        if (q >= 0) {
+          EInteger power = EInteger.FromInt32(5).Pow(q);
+          int shift = 128 - (int)power.GetUnsignedBitLengthAsInt64();
+          g = (shift >= 0) ? power.ShiftLeft(shift) :
+            power.ShiftRight(-shift);
+        } else {
+          // 2^b / 5^-q, where b makes the quotient at least 2^127
+          EInteger power = EInteger.FromInt32(5).Pow(-q);
+          int z = (int)power.GetUnsignedBitLengthAsInt64();
+          if (q >= -27) {
+            g = EInteger.FromInt32(1).ShiftLeft(z + 127).Divide(power).Add(1);
+          } else {
+            g = EInteger.FromInt32(1).ShiftLeft((z << 1) + 128).Divide(power)
+              .Add(1);
+            g = g.ShiftRight((int)g.GetUnsignedBitLengthAsInt64() - 128);
+          }
+        }
+        int index = (q - MinQ) << 1;
+        ret[index] = g.ShiftRight(64).ToInt64Unchecked();
+        ret[index + 1] = g.And(mask64).ToInt64Unchecked();
+      }
+      return ret;
+    }
+  }
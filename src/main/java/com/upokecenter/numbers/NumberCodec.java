@@ -0,0 +1,587 @@
+package com.upokecenter.numbers;
+/*
+Written by Peter O.
+Any copyright to this work is released to the Public Domain.
+In case this is not possible, this work is also
+licensed under the Unlicense: https://unlicense.org/
+
+ */
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+  // The compact binary encoding of arbitrary-precision numbers and
+  // arithmetic contexts.  Each encoded value starts with a header byte:
+  // the upper four bits hold the format version (currently 1), bits 1
+  // through 3 hold the kind of value (finite, infinity, quiet NaN, or
+  // signaling NaN), and bit 0 is set if the value is negative (which
+  // includes negative zero).  The rest of the value depends on its type
+  // and kind:
+  //
+  // - EInteger: the absolute value.
+  // - EDecimal and EFloat: if finite, the unsigned mantissa followed by
+  // the exponent; if NaN, the diagnostic information; if infinity,
+  // nothing.
+  // - ERational: if finite, the unsigned numerator followed by the
+  // denominator; if NaN, the diagnostic information; if infinity,
+  // nothing.
+  // - EContext: a byte of boolean properties, the rounding mode's
+  // ordinal, the precision, EMin, EMax, the traps, and the flags.
+  //
+  // Nonnegative integers are stored as unsigned varints: seven bits per
+  // byte, least significant group first, with the high bit set on every
+  // byte but the last.  The encoding must be the shortest possible, so
+  // the last byte is never 0 unless it's the only byte.  Integers that
+  // can be negative, such as exponents, are first mapped to nonnegative
+  // ones by the zigzag mapping (0, -1, 1, -2, 2, ... to 0, 1, 2, 3,
+  // 4, ...), so that integers near 0 take few bytes either way.
+  final class NumberCodec {
+    private NumberCodec() {
+    }
+
+    static final int TypeEInteger = 0;
+    static final int TypeEDecimal = 1;
+    static final int TypeEFloat = 2;
+    static final int TypeERational = 3;
+    static final int TypeEContext = 4;
+
+    private static final int Version = 1;
+
+    private static final int KindFinite = 0;
+    private static final int KindInfinity = 1;
+    private static final int KindQuietNaN = 2;
+    private static final int KindSignalingNaN = 3;
+
+    // Bits of the EContext properties byte
+    private static final int ContextAdjustExponent = 1;
+    private static final int ContextClampNormalExponents = 2;
+    private static final int ContextHasExponentRange = 4;
+    private static final int ContextHasFlags = 8;
+    private static final int ContextPrecisionInBits = 16;
+    private static final int ContextSimplified = 32;
+
+    private static final ERounding[] ValueRoundings = ERounding.values();
+
+    static byte[] ToBytes(Object value) {
+      byte[] ret = new byte[EncodedLength(value)];
+      Encode(value, ret, 0);
+      return ret;
+    }
+
+    static void Write(Object value, DataOutput output) throws IOException {
+      if (output == null) {
+        throw new NullPointerException("output");
+      }
+      output.write(ToBytes(value));
+    }
+
+    static void Write(Object value, ByteBuffer buffer) {
+      if (buffer == null) {
+        throw new NullPointerException("buffer");
+      }
+      int length = EncodedLength(value);
+      if (buffer.remaining() < length) {
+        throw new java.nio.BufferOverflowException();
+      }
+      if (buffer.hasArray()) {
+        // Encode directly into the backing array
+        int position = buffer.position();
+        Encode(value, buffer.array(), buffer.arrayOffset() + position);
+        buffer.position(position + length);
+      } else {
+        buffer.put(ToBytes(value));
+      }
+    }
+
+    static Object Read(DataInput input, int type) throws IOException {
+      if (input == null) {
+        throw new NullPointerException("input");
+      }
+      try {
+        return Decode(new DataInputReader(input), type);
+      } catch (IllegalArgumentException ex) {
+        throw new IOException(ex.getMessage(), ex);
+      }
+    }
+
+    static Object Read(ByteBuffer buffer, int type) {
+      if (buffer == null) {
+        throw new NullPointerException("buffer");
+      }
+      int position = buffer.position();
+      try {
+        return Decode(new ByteBufferReader(buffer), type);
+      } catch (IOException ex) {
+        // Not thrown when reading from a buffer
+        throw new IllegalStateException(ex);
+      } catch (RuntimeException ex) {
+        // Leave the buffer as it was if the encoding is invalid or
+        // truncated
+        buffer.position(position);
+        throw ex;
+      }
+    }
+
+    static Object FromBytes(byte[] bytes, int type) {
+      if (bytes == null) {
+        throw new NullPointerException("bytes");
+      }
+      ByteBuffer buffer = ByteBuffer.wrap(bytes);
+      Object ret;
+      try {
+        ret = Read(buffer, type);
+      } catch (java.nio.BufferUnderflowException ex) {
+        throw new IllegalArgumentException("bytes is truncated", ex);
+      }
+      if (buffer.hasRemaining()) {
+        throw new IllegalArgumentException("bytes has " + buffer.remaining() +
+          " extra bytes");
+      }
+      return ret;
+    }
+
+    static int EncodedLength(Object value) {
+      long length;
+      if (value instanceof EInteger) {
+        EInteger ei = (EInteger)value;
+        length = 1 + VarintLength(ei.Abs());
+      } else if (value instanceof EDecimal) {
+        EDecimal ed = (EDecimal)value;
+        length = 1 + MantissaAndExponentLength(
+          ed.getUnsignedMantissa(),
+          ed.getExponent(),
+          ed.isFinite(),
+          ed.IsInfinity());
+      } else if (value instanceof EFloat) {
+        EFloat ef = (EFloat)value;
+        length = 1 + MantissaAndExponentLength(
+          ef.getUnsignedMantissa(),
+          ef.getExponent(),
+          ef.isFinite(),
+          ef.IsInfinity());
+      } else if (value instanceof ERational) {
+        ERational er = (ERational)value;
+        length = 1;
+        if (!er.IsInfinity()) {
+          length += VarintLength(er.getUnsignedNumerator());
+        }
+        if (er.isFinite()) {
+          length += VarintLength(er.getDenominator());
+        }
+      } else {
+        EContext ec = (EContext)value;
+        length = 3 + VarintLength(ec.getPrecision()) +
+          ZigZagLength(ec.getEMin()) + ZigZagLength(ec.getEMax()) +
+          VarintLength(ec.getTraps() & 0xffffffffL) +
+          VarintLength(ec.getFlags() & 0xffffffffL);
+      }
+      if (length > Integer.MAX_VALUE) {
+        throw new UnsupportedOperationException("Encoded form is too long");
+      }
+      return (int)length;
+    }
+
+    // Encodes a value into the given array, which must have room for its
+    // encoded length, and returns the offset just past the encoded value
+    static int Encode(Object value, byte[] buffer, int offset) {
+      if (value instanceof EInteger) {
+        EInteger ei = (EInteger)value;
+        buffer[offset++] = Header(KindFinite, ei.signum() < 0);
+        return WriteVarint(ei.Abs(), buffer, offset);
+      }
+      if (value instanceof EDecimal) {
+        EDecimal ed = (EDecimal)value;
+        buffer[offset++] = Header(
+          Kind(ed.IsInfinity(), ed.IsQuietNaN(), ed.IsSignalingNaN()),
+          ed.isNegative());
+        return WriteMantissaAndExponent(
+          ed.getUnsignedMantissa(),
+          ed.getExponent(),
+          ed.isFinite(),
+          ed.IsInfinity(),
+          buffer,
+          offset);
+      }
+      if (value instanceof EFloat) {
+        EFloat ef = (EFloat)value;
+        buffer[offset++] = Header(
+          Kind(ef.IsInfinity(), ef.IsQuietNaN(), ef.IsSignalingNaN()),
+          ef.isNegative());
+        return WriteMantissaAndExponent(
+          ef.getUnsignedMantissa(),
+          ef.getExponent(),
+          ef.isFinite(),
+          ef.IsInfinity(),
+          buffer,
+          offset);
+      }
+      if (value instanceof ERational) {
+        ERational er = (ERational)value;
+        buffer[offset++] = Header(
+          Kind(er.IsInfinity(), er.IsQuietNaN(), er.IsSignalingNaN()),
+          er.isNegative());
+        if (!er.IsInfinity()) {
+          offset = WriteVarint(er.getUnsignedNumerator(), buffer, offset);
+        }
+        if (er.isFinite()) {
+          offset = WriteVarint(er.getDenominator(), buffer, offset);
+        }
+        return offset;
+      }
+      EContext ec = (EContext)value;
+      int properties = 0;
+      properties |= ec.getAdjustExponent() ? ContextAdjustExponent : 0;
+      properties |= ec.IsExponentClampSet() ? ContextClampNormalExponents :
+        0;
+      properties |= ec.getHasExponentRange() ? ContextHasExponentRange : 0;
+      properties |= ec.getHasFlags() ? ContextHasFlags : 0;
+      properties |= ec.isPrecisionInBits() ? ContextPrecisionInBits : 0;
+      properties |= ec.isSimplified() ? ContextSimplified : 0;
+      buffer[offset++] = Header(KindFinite, false);
+      buffer[offset++] = (byte)properties;
+      buffer[offset++] = (byte)ec.getRounding().ordinal();
+      offset = WriteVarint(ec.getPrecision(), buffer, offset);
+      offset = WriteZigZag(ec.getEMin(), buffer, offset);
+      offset = WriteZigZag(ec.getEMax(), buffer, offset);
+      offset = WriteVarint(ec.getTraps() & 0xffffffffL, buffer, offset);
+      return WriteVarint(ec.getFlags() & 0xffffffffL, buffer, offset);
+    }
+
+    private static Object Decode(Reader reader, int type) throws IOException {
+      int header = reader.ReadByte();
+      if ((header >> 4) != Version) {
+        throw new IllegalArgumentException("Unsupported encoding version: " +
+          (header >> 4));
+      }
+      int kind = (header >> 1) & 7;
+      boolean negative = (header & 1) != 0;
+      if (kind > KindSignalingNaN || (kind != KindFinite &&
+        (type == TypeEInteger || type == TypeEContext))) {
+        throw new IllegalArgumentException("Invalid kind of value: " + kind);
+      }
+      int flags = negative ? BigNumberFlags.FlagNegative : 0;
+      flags |= (kind == KindInfinity) ? BigNumberFlags.FlagInfinity :
+        ((kind == KindQuietNaN) ? BigNumberFlags.FlagQuietNaN :
+        ((kind == KindSignalingNaN) ? BigNumberFlags.FlagSignalingNaN :
+        0));
+      EInteger zero = EInteger.FromInt32(0);
+      switch (type) {
+        case TypeEInteger: {
+          EInteger value = ReadVarint(reader);
+          if (negative && value.isZero()) {
+            throw new IllegalArgumentException("Negative zero integer");
+          }
+          return negative ? value.Negate() : value;
+        }
+        case TypeEDecimal:
+          return (kind == KindInfinity) ?
+            EDecimal.CreateWithFlags(zero, zero, flags) :
+            EDecimal.CreateWithFlags(
+              ReadVarint(reader),
+              (kind == KindFinite) ? ReadZigZag(reader) : zero,
+              flags);
+        case TypeEFloat:
+          return (kind == KindInfinity) ?
+            EFloat.CreateWithFlags(zero, zero, flags) :
+            EFloat.CreateWithFlags(
+              ReadVarint(reader),
+              (kind == KindFinite) ? ReadZigZag(reader) : zero,
+              flags);
+        case TypeERational: {
+          if (kind == KindInfinity) {
+            return ERational.CreateWithFlags(
+              zero,
+              EInteger.FromInt32(1),
+              flags);
+          }
+          EInteger numerator = ReadVarint(reader);
+          EInteger denominator = (kind == KindFinite) ? ReadVarint(reader) :
+            EInteger.FromInt32(1);
+          if (denominator.isZero()) {
+            throw new IllegalArgumentException("Denominator is zero");
+          }
+          return ERational.CreateWithFlags(numerator, denominator, flags);
+        }
+        default:
+          return DecodeContext(reader, negative);
+      }
+    }
+
+    private static EContext DecodeContext(
+      Reader reader,
+      boolean negative) throws IOException {
+      int properties = reader.ReadByte();
+      int rounding = reader.ReadByte();
+      if (negative || (properties & ~63) != 0 ||
+        rounding >= ValueRoundings.length) {
+        throw new IllegalArgumentException("Invalid context");
+      }
+      EInteger precision = ReadVarint(reader);
+      EInteger exponentMin = ReadZigZag(reader);
+      EInteger exponentMax = ReadZigZag(reader);
+      EInteger traps = ReadVarint(reader);
+      EInteger flags = ReadVarint(reader);
+      if (exponentMin.compareTo(exponentMax) > 0 ||
+        traps.GetUnsignedBitLengthAsInt64() > 32 ||
+        flags.GetUnsignedBitLengthAsInt64() > 32) {
+        throw new IllegalArgumentException("Invalid context");
+      }
+      return new EContext(
+        (properties & ContextAdjustExponent) != 0,
+        precision,
+        (properties & ContextClampNormalExponents) != 0,
+        exponentMax,
+        exponentMin,
+        flags.ToInt32Unchecked(),
+        (properties & ContextHasExponentRange) != 0,
+        (properties & ContextHasFlags) != 0,
+        (properties & ContextPrecisionInBits) != 0,
+        ValueRoundings[rounding],
+        (properties & ContextSimplified) != 0,
+        traps.ToInt32Unchecked());
+    }
+
+    private static byte Header(int kind, boolean negative) {
+      return (byte)((Version << 4) | (kind << 1) | (negative ? 1 : 0));
+    }
+
+    private static int Kind(
+      boolean infinity,
+      boolean quietNaN,
+      boolean signalingNaN) {
+      return infinity ? KindInfinity : (quietNaN ? KindQuietNaN :
+          (signalingNaN ? KindSignalingNaN : KindFinite));
+    }
+
+    private static long MantissaAndExponentLength(
+      EInteger mantissa,
+      EInteger exponent,
+      boolean finite,
+      boolean infinity) {
+      return infinity ? 0 : (VarintLength(mantissa) +
+          (finite ? ZigZagLength(exponent) : 0));
+    }
+
+    private static int WriteMantissaAndExponent(
+      EInteger mantissa,
+      EInteger exponent,
+      boolean finite,
+      boolean infinity,
+      byte[] buffer,
+      int offset) {
+      if (!infinity) {
+        offset = WriteVarint(mantissa, buffer, offset);
+      }
+      return finite ? WriteZigZag(exponent, buffer, offset) : offset;
+    }
+
+    private static long VarintLength(long value) {
+      int bits = 64 - Long.numberOfLeadingZeros(value);
+      return (bits == 0) ? 1 : (bits + 6) / 7;
+    }
+
+    private static long VarintLength(EInteger value) {
+      return value.CanFitInInt64() ? VarintLength(value.ToInt64Unchecked()) :
+        (value.GetUnsignedBitLengthAsInt64() + 6) / 7;
+    }
+
+    private static int WriteVarint(long value, byte[] buffer, int offset) {
+      while ((value & ~0x7fL) != 0) {
+        buffer[offset++] = (byte)((value & 0x7f) | 0x80);
+        value >>>= 7;
+      }
+      buffer[offset++] = (byte)value;
+      return offset;
+    }
+
+    private static int WriteVarint(EInteger value, byte[] buffer, int offset) {
+      if (value.CanFitInInt64()) {
+        return WriteVarint(value.ToInt64Unchecked(), buffer, offset);
+      }
+      // Regroup the little-endian bytes of the value into groups of
+      // seven bits
+      byte[] bytes = value.ToBytes(true);
+      int groups = (int)((value.GetUnsignedBitLengthAsInt64() + 6) / 7);
+      int accumulator = 0;
+      int accumulatorBits = 0;
+      int index = 0;
+      for (int i = 0; i < groups; ++i) {
+        if (accumulatorBits < 7 && index < bytes.length) {
+          accumulator |= (bytes[index++] & 0xff) << accumulatorBits;
+          accumulatorBits += 8;
+        }
+        int group = accumulator & 0x7f;
+        accumulator >>>= 7;
+        accumulatorBits -= 7;
+        buffer[offset++] = (byte)((i == groups - 1) ? group : (group | 0x80));
+      }
+      return offset;
+    }
+
+    // Whether the zigzag mapping of a value fits in a 64-bit signed
+    // integer
+    private static boolean CanZigZagInInt64(EInteger value) {
+      if (!value.CanFitInInt64()) {
+        return false;
+      }
+      long v = value.ToInt64Unchecked();
+      return v >= -(1L << 62) && v < (1L << 62);
+    }
+
+    private static long ZigZagLength(EInteger value) {
+      if (CanZigZagInInt64(value)) {
+        long v = value.ToInt64Unchecked();
+        return VarintLength((v << 1) ^ (v >> 63));
+      }
+      return VarintLength(ZigZag(value));
+    }
+
+    private static int WriteZigZag(EInteger value, byte[] buffer, int offset) {
+      if (CanZigZagInInt64(value)) {
+        long v = value.ToInt64Unchecked();
+        return WriteVarint((v << 1) ^ (v >> 63), buffer, offset);
+      }
+      return WriteVarint(ZigZag(value), buffer, offset);
+    }
+
+    private static EInteger ZigZag(EInteger value) {
+      return (value.signum() >= 0) ? value.ShiftLeft(1) :
+        value.Negate().ShiftLeft(1).Subtract(1);
+    }
+
+    private static EInteger ReadZigZag(Reader reader) throws IOException {
+      EInteger value = ReadVarint(reader);
+      if (value.CanFitInInt64()) {
+        long v = value.ToInt64Unchecked();
+        return EInteger.FromInt64((v >>> 1) ^ -(v & 1));
+      }
+      return value.isEven() ? value.ShiftRight(1) :
+        value.Add(1).ShiftRight(1).Negate();
+    }
+
+    private static EInteger ReadVarint(Reader reader) throws IOException {
+      // The first nine groups, or 63 bits, fit in a 64-bit signed integer
+      long value = 0;
+      for (int i = 0; i < 9; ++i) {
+        int b = reader.ReadByte();
+        value |= ((long)(b & 0x7f)) << (i * 7);
+        if ((b & 0x80) == 0) {
+          if (b == 0 && i > 0) {
+            throw new IllegalArgumentException("Overlong varint");
+          }
+          return EInteger.FromInt64(value);
+        }
+      }
+      // Longer values are gathered into groups of seven bits, then
+      // packed into little-endian bytes
+      byte[] groups = new byte[32];
+      int count = 0;
+      for (; count < 9; ++count) {
+        groups[count] = (byte)((value >>> (count * 7)) & 0x7f);
+      }
+      while (true) {
+        int b = reader.ReadByte();
+        if (count == groups.length) {
+          byte[] newGroups = new byte[groups.length * 2];
+          System.arraycopy(groups, 0, newGroups, 0, count);
+          groups = newGroups;
+        }
+        groups[count++] = (byte)(b & 0x7f);
+        if ((b & 0x80) == 0) {
+          if (b == 0) {
+            throw new IllegalArgumentException("Overlong varint");
+          }
+          break;
+        }
+      }
+      // One extra byte keeps the top bit clear, so that the value is
+      // read as nonnegative
+      byte[] bytes = new byte[(int)(((long)count * 7 + 7) / 8) + 1];
+      int accumulator = 0;
+      int accumulatorBits = 0;
+      int index = 0;
+      for (int i = 0; i < count; ++i) {
+        accumulator |= groups[i] << accumulatorBits;
+        accumulatorBits += 7;
+        if (accumulatorBits >= 8) {
+          bytes[index++] = (byte)accumulator;
+          accumulator >>>= 8;
+          accumulatorBits -= 8;
+        }
+      }
+      bytes[index] = (byte)accumulator;
+      return EInteger.FromBytes(bytes, true);
+    }
+
+    private abstract static class Reader {
+      // Reads the next byte as an integer from 0 through 255
+      abstract int ReadByte() throws IOException;
+    }
+
+    private static final class DataInputReader extends Reader {
+      private final DataInput input;
+
+      DataInputReader(DataInput input) {
+        this.input = input;
+      }
+
+      int ReadByte() throws IOException {
+        return this.input.readUnsignedByte();
+      }
+    }
+
+    private static final class ByteBufferReader extends Reader {
+      private final ByteBuffer buffer;
+
+      ByteBufferReader(ByteBuffer buffer) {
+        this.buffer = buffer;
+      }
+
+      int ReadByte() {
+        return this.buffer.get() & 0xff;
+      }
+    }
+
+    // The serialized form of numbers and contexts, which are immutable
+    // (apart from a context's flags) and so can't be restored by
+    // Externalizable directly.  Each of those classes replaces itself
+    // with this form when serialized, and this form resolves back to
+    // the original class when deserialized.
+    static final class SerialForm implements java.io.Externalizable {
+      private static final long serialVersionUID = 1L;
+
+      private int type;
+      private Object value;
+
+      // Used by serialization only
+      public SerialForm() {
+      }
+
+      SerialForm(int type, Object value) {
+        this.type = type;
+        this.value = value;
+      }
+
+      public void writeExternal(java.io.ObjectOutput output)
+        throws IOException {
+        output.writeByte(this.type);
+        Write(this.value, output);
+      }
+
+      public void readExternal(java.io.ObjectInput input)
+        throws IOException {
+        int t = input.readUnsignedByte();
+        if (t > TypeEContext) {
+          throw new java.io.InvalidObjectException("Unknown type: " + t);
+        }
+        this.type = t;
+        this.value = Read(input, t);
+      }
+
+      private Object readResolve() {
+        return this.value;
+      }
+    }
+  }
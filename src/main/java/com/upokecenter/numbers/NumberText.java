@@ -0,0 +1,385 @@
+package com.upokecenter.numbers;
+/*
+Written by Peter O.
+Any copyright to this work is released to the Public Domain.
+In case this is not possible, this work is also
+licensed under the Unlicense: https://unlicense.org/
+
+ */
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+
+  // Writes the text forms of numbers directly to an Appendable, a char
+  // array, or a byte array or byte buffer in UTF-8, without building a
+  // string first.  Each number type has a WriteText method that sends its
+  // text form to a Sink; for numbers whose parts are stored inline, the
+  // Sink is the only object allocated, and other numbers are converted to
+  // a string as before and the string is written.  The text forms are all
+  // ASCII, so each character is one byte in UTF-8.
+  final class NumberText {
+    private NumberText() {
+    }
+
+    // Forms of text, given as the 'form' parameter: the toString form, or
+    // EDecimal's engineering or plain form (the 'mode' values of
+    // EDecimal's ToStringInternal), or for EInteger, the radix
+    static final int FormString = 0;
+    static final int FormEngineering = 1;
+    static final int FormPlain = 2;
+
+    static int Length(Object value, int form) {
+      CountingSink sink = new CountingSink();
+      WriteText(value, form, sink);
+      if (sink.count > Integer.MAX_VALUE) {
+        throw new UnsupportedOperationException("Text form is too long");
+      }
+      return (int)sink.count;
+    }
+
+    static void Write(Object value, int form, Appendable output)
+      throws IOException {
+      if (output == null) {
+        throw new NullPointerException("output");
+      }
+      try {
+        WriteText(value, form, new AppendableSink(output));
+      } catch (UncheckedIOException ex) {
+        throw ex.getCause();
+      }
+    }
+
+    static int Write(Object value, int form, char[] chars, int offset) {
+      if (chars == null) {
+        throw new NullPointerException("chars");
+      }
+      CheckOffset(offset, chars.length);
+      CharArraySink sink = new CharArraySink(chars, offset);
+      WriteText(value, form, sink);
+      return sink.position - offset;
+    }
+
+    static int WriteUtf8(Object value, int form, byte[] bytes, int offset) {
+      if (bytes == null) {
+        throw new NullPointerException("bytes");
+      }
+      CheckOffset(offset, bytes.length);
+      ByteArraySink sink = new ByteArraySink(bytes, offset);
+      WriteText(value, form, sink);
+      return sink.position - offset;
+    }
+
+    static void WriteUtf8(Object value, int form, ByteBuffer buffer) {
+      if (buffer == null) {
+        throw new NullPointerException("buffer");
+      }
+      if (buffer.hasArray()) {
+        // Write directly into the backing array
+        int position = buffer.position();
+        int start = buffer.arrayOffset() + position;
+        ByteArraySink sink = new ByteArraySink(
+          buffer.array(),
+          start,
+          start + buffer.remaining(),
+          true);
+        WriteText(value, form, sink);
+        buffer.position(position + sink.position - start);
+      } else {
+        int position = buffer.position();
+        try {
+          WriteText(value, form, new ByteBufferSink(buffer));
+        } catch (java.nio.BufferOverflowException ex) {
+          // Leave the position as it was
+          buffer.position(position);
+          throw ex;
+        }
+      }
+    }
+
+    private static void CheckOffset(int offset, int length) {
+      if (offset < 0) {
+        throw new IllegalArgumentException("offset(" + offset +
+          ") is less than 0");
+      }
+      if (offset > length) {
+        throw new IllegalArgumentException("offset(" + offset +
+          ") is more than " + length);
+      }
+    }
+
+    private static void WriteText(Object value, int form, Sink sink) {
+      if (value instanceof EDecimal) {
+        ((EDecimal)value).WriteText(sink, form);
+      } else if (value instanceof EFloat) {
+        // EFloat's toString form is that of the equivalent EDecimal
+        EDecimal.FromEFloat((EFloat)value).WriteText(sink, form);
+      } else if (value instanceof ERational) {
+        ((ERational)value).WriteText(sink);
+      } else {
+        ((EInteger)value).WriteText(sink, form);
+      }
+    }
+
+    // Number of digits in an unsigned 64-bit integer in the given radix
+    static int DigitCount(long value, int radix) {
+      if (radix == 10 && value >= 0) {
+        // floor(log10(2^bits)), which is the number of digits or one more
+        long[] powers = EDecimal.ValueTenPowersLong;
+        int log = ((64 - Long.numberOfLeadingZeros(value | 1)) * 1233) >> 12;
+        return ((value | 1) < powers[log]) ? log : log + 1;
+      }
+      int count = 1;
+      value = Long.divideUnsigned(value, radix);
+      while (value != 0) {
+        value /= radix;
+        ++count;
+      }
+      return count;
+    }
+
+    // Receives the characters of a number's text form
+    abstract static class Sink {
+      abstract void Append(char ch);
+
+      void Append(String str) {
+        for (int i = 0; i < str.length(); ++i) {
+          this.Append(str.charAt(i));
+        }
+      }
+
+      void AppendZeros(long count) {
+        for (long i = 0; i < count; ++i) {
+          this.Append('0');
+        }
+      }
+
+      // Appends the digits of an unsigned 64-bit integer in the given
+      // radix, with leading zeros to make at least 'minDigits' digits
+      void AppendDigits(long value, int radix, int minDigits) {
+        int count = DigitCount(value, radix);
+        this.AppendZeros(minDigits - count);
+        if (radix == 10 && value >= 0) {
+          // Gather the digits, four bits each, in two 64-bit integers with
+          // the most significant digit lowest, then append them in order
+          long low = 0;
+          long high = 0;
+          for (int i = 0; i < count; ++i) {
+            long quotient = value / 10;
+            high = (high << 4) | (low >>> 60);
+            low = (low << 4) | (value - (quotient * 10));
+            value = quotient;
+          }
+          for (int i = 0; i < count; ++i) {
+            this.Append((char)('0' + (int)(low & 15)));
+            low = (low >>> 4) | (high << 60);
+            high >>>= 4;
+          }
+          return;
+        }
+        // Divide by the power of the radix for each digit in turn, from
+        // the most significant
+        long power = 1;
+        for (int i = 1; i < count; ++i) {
+          power *= radix;
+        }
+        for (int i = 0; i < count; ++i) {
+          long digit = Long.divideUnsigned(value, power);
+          value -= digit * power;
+          power = Long.divideUnsigned(power, radix);
+          this.Append(DigitChar((int)digit));
+        }
+      }
+    }
+
+    private static char DigitChar(int digit) {
+      return (char)((digit < 10) ? ('0' + digit) : ('A' + digit - 10));
+    }
+
+    private static final class CountingSink extends Sink {
+      private long count;
+
+      @Override void Append(char ch) {
+        ++this.count;
+      }
+
+      @Override void Append(String str) {
+        this.count += str.length();
+      }
+
+      @Override void AppendZeros(long zeros) {
+        this.count += Math.max(0, zeros);
+      }
+
+      @Override void AppendDigits(long value, int radix, int minDigits) {
+        this.count += Math.max(minDigits, DigitCount(value, radix));
+      }
+    }
+
+    private static final class AppendableSink extends Sink {
+      private final Appendable output;
+
+      AppendableSink(Appendable output) {
+        this.output = output;
+      }
+
+      @Override void Append(char ch) {
+        try {
+          this.output.append(ch);
+        } catch (IOException ex) {
+          throw new UncheckedIOException(ex);
+        }
+      }
+
+      @Override void Append(String str) {
+        try {
+          this.output.append(str);
+        } catch (IOException ex) {
+          throw new UncheckedIOException(ex);
+        }
+      }
+    }
+
+    private static final class CharArraySink extends Sink {
+      private final char[] chars;
+      private int position;
+
+      CharArraySink(char[] chars, int position) {
+        this.chars = chars;
+        this.position = position;
+      }
+
+      private void Reserve(long count) {
+        if (count > this.chars.length - this.position) {
+          throw new IllegalArgumentException(
+            "chars has too little room for the text form");
+        }
+      }
+
+      @Override void Append(char ch) {
+        this.Reserve(1);
+        this.chars[this.position++] = ch;
+      }
+
+      @Override void Append(String str) {
+        this.Reserve(str.length());
+        str.getChars(0, str.length(), this.chars, this.position);
+        this.position += str.length();
+      }
+
+      @Override void AppendZeros(long count) {
+        if (count > 0) {
+          this.Reserve(count);
+          java.util.Arrays.fill(
+            this.chars,
+            this.position,
+            this.position + (int)count,
+            '0');
+          this.position += (int)count;
+        }
+      }
+
+      @Override void AppendDigits(long value, int radix, int minDigits) {
+        int count = Math.max(minDigits, DigitCount(value, radix));
+        this.Reserve(count);
+        // Write the digits from the least significant; dividing by a
+        // constant 10 is faster than by a variable radix
+        int end = this.position + count - 1;
+        if (radix == 10 && value >= 0) {
+          for (int i = end; i >= this.position; --i) {
+            long quotient = value / 10;
+            this.chars[i] = (char)('0' + (int)(value - (quotient * 10)));
+            value = quotient;
+          }
+        } else {
+          for (int i = end; i >= this.position; --i) {
+            long quotient = Long.divideUnsigned(value, radix);
+            this.chars[i] = DigitChar((int)(value - (quotient * radix)));
+            value = quotient;
+          }
+        }
+        this.position += count;
+      }
+    }
+
+    private static final class ByteArraySink extends Sink {
+      private final byte[] bytes;
+      private final int limit;
+      private final boolean forBuffer;
+      private int position;
+
+      ByteArraySink(byte[] bytes, int position) {
+        this(bytes, position, bytes.length, false);
+      }
+
+      // 'forBuffer' is true if the bytes are the backing array of a byte
+      // buffer, whose limit is 'limit'
+      ByteArraySink(byte[] bytes, int position, int limit, boolean forBuffer) {
+        this.bytes = bytes;
+        this.position = position;
+        this.limit = limit;
+        this.forBuffer = forBuffer;
+      }
+
+      private void Reserve(long count) {
+        if (count > this.limit - this.position) {
+          if (this.forBuffer) {
+            throw new java.nio.BufferOverflowException();
+          }
+          throw new IllegalArgumentException(
+            "bytes has too little room for the text form");
+        }
+      }
+
+      @Override void Append(char ch) {
+        this.Reserve(1);
+        this.bytes[this.position++] = (byte)ch;
+      }
+
+      @Override void AppendZeros(long count) {
+        if (count > 0) {
+          this.Reserve(count);
+          java.util.Arrays.fill(
+            this.bytes,
+            this.position,
+            this.position + (int)count,
+            (byte)'0');
+          this.position += (int)count;
+        }
+      }
+
+      @Override void AppendDigits(long value, int radix, int minDigits) {
+        int count = Math.max(minDigits, DigitCount(value, radix));
+        this.Reserve(count);
+        // Write the digits from the least significant; dividing by a
+        // constant 10 is faster than by a variable radix
+        int end = this.position + count - 1;
+        if (radix == 10 && value >= 0) {
+          for (int i = end; i >= this.position; --i) {
+            long quotient = value / 10;
+            this.bytes[i] = (byte)('0' + (int)(value - (quotient * 10)));
+            value = quotient;
+          }
+        } else {
+          for (int i = end; i >= this.position; --i) {
+            long quotient = Long.divideUnsigned(value, radix);
+            this.bytes[i] = (byte)DigitChar((int)(value - (quotient * radix)));
+            value = quotient;
+          }
+        }
+        this.position += count;
+      }
+    }
+
+    private static final class ByteBufferSink extends Sink {
+      private final ByteBuffer buffer;
+
+      ByteBufferSink(ByteBuffer buffer) {
+        this.buffer = buffer;
+      }
+
+      @Override void Append(char ch) {
+        this.buffer.put((byte)ch);
+      }
+    }
+  }
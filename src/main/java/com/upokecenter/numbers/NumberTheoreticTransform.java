@@ -0,0 +1,392 @@
+package com.upokecenter.numbers;
+/*
+Written by Peter O.
+Any copyright to this work is released to the Public Domain.
+In case this is not possible, this work is also
+licensed under the Unlicense: https://unlicense.org/
+
+ */
+
+  // Multiplies arbitrary-precision integers in the same 16-bit word
+  // format used by EInteger, by computing the convolution of their digits
+  // with number-theoretic transforms modulo three primes of the form
+  // c*2^k + 1, then combining the three results by the Chinese remainder
+  // theorem.  The digits are 32 bits (pairs of words); a convolution
+  // coefficient is at most 2^64 times the shorter number's digit count,
+  // which is less than the product of the three primes (about 2^86) for
+  // every product this class computes.
+  final class NumberTheoreticTransform {
+    private NumberTheoreticTransform() {
+    }
+
+    private static final int[] Primes = {
+      998244353, // 119*2^23+1
+      167772161, // 5*2^25+1
+      469762049, // 7*2^26+1
+    };
+
+    // 3 is a primitive root of each of the three primes
+    private static final int PrimitiveRoot = 3;
+
+    private static final long Mask32 = 0xffffffffL;
+
+    /**
+     * Maximum number of 16-bit words in a product computed by this class.
+     * The shorter number of such a product has at most 2^21 32-bit digits,
+     * and 2^21*(2^32)^2 is less than the product of the three primes; the
+     * transform length is at most 2^22, within the 2^23 supported by the
+     * first prime.
+     */
+    static final int MaxProductWords = 1 << 23;
+
+    static void Multiply(
+      short[] resultArr,
+      int resultStart,
+      short[] words1,
+      int words1Start,
+      int words1Count,
+      short[] words2,
+      int words2Start,
+      int words2Count) {
+      boolean square = words1 == words2 && words1Start == words2Start &&
+        words1Count == words2Count;
+      int resultCount = words1Count + words2Count;
+      int coeffCount = ((words1Count + 1) >> 1) + ((words2Count + 1) >> 1) -
+        1;
+      int size = 1;
+      while (size < coeffCount) {
+        size <<= 1;
+      }
+      int[][] residues = new int[Primes.length][];
+      java.util.concurrent.ForkJoinPool pool =
+        ParallelMultiplication.GetPool(words1Count + words2Count);
+      if (pool != null) {
+        // The convolutions modulo each prime are independent
+        Runnable[] actions = new Runnable[Primes.length];
+        for (int i = 0; i < Primes.length; ++i) {
+          actions[i] = new ConvolveAction(
+            residues,
+            i,
+            size,
+            words1,
+            words1Start,
+            words1Count,
+            square ? null : words2,
+            words2Start,
+            words2Count);
+        }
+        ParallelMultiplication.InvokeAll(pool, actions);
+      } else {
+        int[] temp = square ? null : new int[size];
+        for (int i = 0; i < Primes.length; ++i) {
+          residues[i] = Convolve(
+              Primes[i],
+              size,
+              words1,
+              words1Start,
+              words1Count,
+              square ? null : words2,
+              words2Start,
+              words2Count,
+              temp);
+        }
+      }
+      CombineResidues(
+        resultArr,
+        resultStart,
+        resultCount,
+        coeffCount,
+        residues[0],
+        residues[1],
+        residues[2]);
+    }
+
+    // Computes the convolution of the two numbers' digits modulo the given
+    // prime, or of the first number's digits with themselves if words2 is
+    // null.  Temp, if not null, is scratch space of the given size.
+    private static int[] Convolve(
+      int prime,
+      int size,
+      short[] words1,
+      int words1Start,
+      int words1Count,
+      short[] words2,
+      int words2Start,
+      int words2Count,
+      int[] temp) {
+      Modulus mod = new Modulus(prime);
+      int[] roots = mod.RootTable(size, false);
+      int[] values = new int[size];
+      LoadDigits(values, words1, words1Start, words1Count, prime);
+      mod.ForwardTransform(values, roots);
+      if (words2 == null) {
+        mod.PointwiseMultiply(values, values);
+      } else {
+        if (temp == null) {
+          temp = new int[size];
+        } else {
+          java.util.Arrays.fill(temp, 0);
+        }
+        LoadDigits(temp, words2, words2Start, words2Count, prime);
+        mod.ForwardTransform(temp, roots);
+        mod.PointwiseMultiply(values, temp);
+      }
+      mod.InverseTransform(values, mod.RootTable(size, true));
+      return values;
+    }
+
+    private static final class ConvolveAction implements Runnable {
+      private final int[][] residues;
+      private final int index;
+      private final int size;
+      private final short[] words1;
+      private final int words1Start;
+      private final int words1Count;
+      private final short[] words2;
+      private final int words2Start;
+      private final int words2Count;
+
+      ConvolveAction(
+        int[][] residues,
+        int index,
+        int size,
+        short[] words1,
+        int words1Start,
+        int words1Count,
+        short[] words2,
+        int words2Start,
+        int words2Count) {
+        this.residues = residues;
+        this.index = index;
+        this.size = size;
+        this.words1 = words1;
+        this.words1Start = words1Start;
+        this.words1Count = words1Count;
+        this.words2 = words2;
+        this.words2Start = words2Start;
+        this.words2Count = words2Count;
+      }
+
+      public void run() {
+        this.residues[this.index] = Convolve(
+            Primes[this.index],
+            this.size,
+            this.words1,
+            this.words1Start,
+            this.words1Count,
+            this.words2,
+            this.words2Start,
+            this.words2Count,
+            null);
+      }
+    }
+
+    // Stores the words as digits, reduced modulo the given prime; each
+    // digit is a pair of words.
+    private static void LoadDigits(
+      int[] values,
+      short[] words,
+      int wordsStart,
+      int wordsCount,
+      int prime) {
+      int pairs = wordsCount >> 1;
+      for (int i = 0; i < pairs; ++i) {
+        long digit = (((long)words[wordsStart + (i << 1)]) & 0xffffL) |
+          ((((long)words[wordsStart + (i << 1) + 1]) & 0xffffL) << 16);
+        values[i] = (int)(digit % prime);
+      }
+      if ((wordsCount & 1) != 0) {
+        values[pairs] = ((int)words[wordsStart + wordsCount - 1]) & 0xffff;
+      }
+    }
+
+    private static long ModPow(long valueBase, long exponent, long modulus) {
+      long ret = 1;
+      valueBase %= modulus;
+      while (exponent > 0) {
+        if ((exponent & 1) != 0) {
+          ret = (ret * valueBase) % modulus;
+        }
+        valueBase = (valueBase * valueBase) % modulus;
+        exponent >>= 1;
+      }
+      return ret;
+    }
+
+    private static long ModInverse(long value, long modulus) {
+      // Modulus is prime
+      return ModPow(value, modulus - 2, modulus);
+    }
+
+    // Combines the convolution's residues modulo the three primes with
+    // Garner's algorithm, giving each coefficient as
+    // v1 + p1*v2 + p1*p2*v3, and adds the coefficients, with carries, into
+    // resultCount 16-bit words, where each coefficient is two words above
+    // the previous one.  The running sum is kept as
+    // carryHigh*2^32 + carryLow.
+    private static void CombineResidues(
+      short[] resultArr,
+      int resultStart,
+      int resultCount,
+      int coeffCount,
+      int[] r1,
+      int[] r2,
+      int[] r3) {
+      long p1 = Primes[0];
+      long p2 = Primes[1];
+      long p3 = Primes[2];
+      int prime2 = Primes[1];
+      int prime3 = Primes[2];
+      Modulus mod2 = new Modulus(Primes[1]);
+      Modulus mod3 = new Modulus(Primes[2]);
+      // Inverses in Montgomery form, so that MontMul by them gives an
+      // ordinary product
+      long p1InvModP2 = mod2.ToMontgomery(ModInverse(p1 % p2, p2));
+      long p1InvModP3 = mod3.ToMontgomery(ModInverse(p1 % p3, p3));
+      long p2InvModP3 = mod3.ToMontgomery(ModInverse(p2 % p3, p3));
+      long p1p2 = p1 * p2;
+      long p1p2Low = p1p2 & Mask32;
+      long p1p2High = p1p2 >>> 32;
+      long carryLow = 0;
+      long carryHigh = 0;
+      int positions = (resultCount + 1) >> 1;
+      for (int i = 0; i < positions; ++i) {
+        long sumLow = carryLow;
+        long sumHigh = carryHigh;
+        if (i < coeffCount) {
+          int v1 = r1[i];
+          long v2 = mod2.MontMul(r2[i] - (v1 % prime2) + p2, p1InvModP2);
+          long v3 = mod3.MontMul(r3[i] - (v1 % prime3) + p3, p1InvModP3);
+          v3 = mod3.MontMul(v3 - v2 + p3, p2InvModP3);
+          long low = v1 + (p1 * v2); // less than 2^60
+          long t1 = v3 * p1p2Low; // less than 2^62
+          long t2 = v3 * p1p2High; // less than 2^58
+          sumLow += (low & Mask32) + (t1 & Mask32);
+          sumHigh += (low >>> 32) + (t1 >>> 32) + t2;
+        }
+        sumHigh += sumLow >>> 32;
+        sumLow &= Mask32;
+        int index = i << 1;
+        resultArr[resultStart + index] = (short)sumLow;
+        if (index + 1 < resultCount) {
+          resultArr[resultStart + index + 1] = (short)(sumLow >>> 16);
+        }
+        carryLow = sumHigh & Mask32;
+        carryHigh = sumHigh >>> 32;
+      }
+    }
+
+    // Arithmetic modulo a prime less than 2^30, using Montgomery
+    // multiplication with R = 2^32 to avoid division in the transforms.
+    private static final class Modulus {
+      private final int prime;
+      private final int negInverse; // -prime^-1 mod 2^32
+      private final long r2; // 2^64 mod prime
+
+      Modulus(int prime) {
+        this.prime = prime;
+        int inv = prime; // Correct to 3 bits, since prime is odd
+        for (int i = 0; i < 4; ++i) {
+          inv *= 2 - (prime * inv);
+        }
+        this.negInverse = -inv;
+        long r = (1L << 32) % prime;
+        this.r2 = (r * r) % prime;
+      }
+
+      // Returns a*b/2^32 mod prime, for a and b less than prime
+      private long MontMul(long a, long b) {
+        long t = a * b;
+        long m = ((int)t * this.negInverse) & Mask32;
+        t = (t + (m * this.prime)) >>> 32;
+        return (t >= this.prime) ? t - this.prime : t;
+      }
+
+      private long ToMontgomery(long a) {
+        return this.MontMul(a, this.r2);
+      }
+
+      // Builds a table of powers of primitive root-of-unity of each
+      // transform length m = 2, 4, ..., size, in Montgomery form, where the
+      // powers for length m are at positions m/2 through m-1.  If inverse
+      // is true, uses the inverse roots of unity.
+      int[] RootTable(int size, boolean inverse) {
+        int[] table = new int[Math.max(size, 2)];
+        for (int m = 2; m <= size; m <<= 1) {
+          long root = ModPow(PrimitiveRoot, (this.prime - 1) / m, this.prime);
+          if (inverse) {
+            root = ModInverse(root, this.prime);
+          }
+          long rootMont = this.ToMontgomery(root);
+          long power = this.ToMontgomery(1);
+          int half = m >> 1;
+          for (int j = 0; j < half; ++j) {
+            table[half + j] = (int)power;
+            power = this.MontMul(power, rootMont);
+          }
+        }
+        return table;
+      }
+
+      // Decimation-in-frequency transform; leaves the output in
+      // bit-reversed order.  Multiplying by a root in Montgomery form
+      // leaves a value in ordinary form.  The Montgomery multiplication
+      // is written out here, since this is the innermost loop.
+      void ForwardTransform(int[] values, int[] roots) {
+        int size = values.length;
+        int p = this.prime;
+        int negInv = this.negInverse;
+        for (int m = size; m >= 2; m >>= 1) {
+          int half = m >> 1;
+          for (int i = 0; i < size; i += m) {
+            for (int j = 0; j < half; ++j) {
+              int u = values[i + j];
+              int v = values[i + j + half];
+              int sum = u + v;
+              values[i + j] = (sum >= p) ? sum - p : sum;
+              long t = ((long)(u - v + p)) * roots[half + j];
+              t = (t + ((((int)t * negInv) & Mask32) * p)) >>> 32;
+              values[i + j + half] = (int)((t >= p) ? t - p : t);
+            }
+          }
+        }
+      }
+
+      // Decimation-in-time inverse transform of bit-reversed input,
+      // including the division by the transform length.
+      void InverseTransform(int[] values, int[] roots) {
+        int size = values.length;
+        int p = this.prime;
+        int negInv = this.negInverse;
+        for (int m = 2; m <= size; m <<= 1) {
+          int half = m >> 1;
+          for (int i = 0; i < size; i += m) {
+            for (int j = 0; j < half; ++j) {
+              int u = values[i + j];
+              long t = ((long)values[i + j + half]) * roots[half + j];
+              t = (t + ((((int)t * negInv) & Mask32) * p)) >>> 32;
+              int v = (int)((t >= p) ? t - p : t);
+              int sum = u + v;
+              values[i + j] = (sum >= p) ? sum - p : sum;
+              int diff = u - v;
+              values[i + j + half] = (diff < 0) ? diff + p : diff;
+            }
+          }
+        }
+        // PointwiseMultiply left a factor of 2^-32; multiply by
+        // 2^32/size, in Montgomery form, to remove it and divide by size
+        long scale = ModInverse(size, p);
+        scale = this.ToMontgomery(this.ToMontgomery(scale));
+        for (int i = 0; i < size; ++i) {
+          values[i] = (int)this.MontMul(values[i], scale);
+        }
+      }
+
+      // Sets each element of values to values[i]*other[i]/2^32 mod prime
+      void PointwiseMultiply(int[] values, int[] other) {
+        for (int i = 0; i < values.length; ++i) {
+          values[i] = (int)this.MontMul(values[i], other[i]);
+        }
+      }
+    }
+  }
@@ -139,182 +139,212 @@ private NumberUtility() {
         0;
     }
 
-    private static final class PowerCache {
-      private static final int MaxSize = 128;
-      private final EInteger[] outputs;
-      private final EInteger[] inputs;
-      private final int[] inputsInts;
+    // High 64 bits of the product of two unsigned 64-bit integers
+    static long MultiplyHigh(long a, long b) {
+      long a0 = a & 0xffffffffL;
+      long a1 = a >>> 32;
+      long b0 = b & 0xffffffffL;
+      long b1 = b >>> 32;
+      long p01 = a0 * b1;
+      long p10 = a1 * b0;
+      long mid = ((a0 * b0) >>> 32) + (p01 & 0xffffffffL) + (p10 &
+          0xffffffffL);
+      return (a1 * b1) + (p01 >>> 32) + (p10 >>> 32) + (mid >>> 32);
+    }
+
+    // Cache of computed powers, shared by all threads. Small nonnegative
+    // exponents map directly to a slot in an array; other exponents go
+    // in a hash table with two candidate slots per exponent, where a
+    // "second chance" flag decides which entry to evict. All reads and
+    // writes are lock-free; racing threads may each compute a power and
+    // one of the results may be lost, which affects only performance,
+    // since powers for the same exponent are equal.
+    static final class PowerCache {
+      private static final int SmallLimit = 512;
+      private static final int TableSize = 128;
+      private final java.util.concurrent.atomic.AtomicReferenceArray<EInteger>
+      smallPowers;
+      private final java.util.concurrent.atomic.AtomicReferenceArray<Entry>
+      table;
+      private final java.util.concurrent.atomic.LongAdder hits;
+      private final java.util.concurrent.atomic.LongAdder misses;
+      private final java.util.concurrent.atomic.LongAdder evictions;
+
+      private static final class Entry {
+        private final EInteger input;
+        // Exponent as a 32-bit integer, or -1 if it doesn't fit
+        private final int inputInt;
+        private final EInteger output;
+        // Set when this entry is read, and cleared when it survives
+        // an eviction
+        private volatile boolean referenced;
+
+        Entry(EInteger input, int inputInt, EInteger output) {
+          this.input = input;
+          this.inputInt = inputInt;
+          this.output = output;
+        }
+
+        boolean Matches(int ibi) {
+          return this.inputInt == ibi;
+        }
+
+        boolean Matches(EInteger bi) {
+          return this.inputInt < 0 && this.input.equals(bi);
+        }
+      }
 
       public PowerCache() {
-        this.outputs = new EInteger[MaxSize];
-        this.inputs = new EInteger[MaxSize];
-        this.inputsInts = new int[MaxSize];
+        this.smallPowers = new java.util.concurrent.atomic.AtomicReferenceArray<
+          EInteger>(SmallLimit);
+        this.table = new java.util.concurrent.atomic.AtomicReferenceArray<
+          Entry>(TableSize);
+        this.hits = new java.util.concurrent.atomic.LongAdder();
+        this.misses = new java.util.concurrent.atomic.LongAdder();
+        this.evictions = new java.util.concurrent.atomic.LongAdder();
       }
 
-      private int size;
+      public long getHits() {
+        return this.hits.sum();
+      }
 
-      public EInteger[] FindCachedPowerOrSmaller(EInteger bi) {
-        EInteger[] ret = null;
-        EInteger minValue = null;
-        if (bi.CanFitInInt32()) {
-          return this.FindCachedPowerIntOrSmaller(bi.ToInt32Checked());
-        }
-        synchronized (this.outputs) {
-          for (int i = 0; i < this.size; ++i) {
-            if (this.inputs[i].compareTo(bi) <= 0 && (minValue == null ||
-              this.inputs[i].compareTo(minValue) >= 0)) {
-              // System.out.println("Have cached power (" + inputs[i] + "," + bi + ") ");
-              ret = new EInteger[2];
-              ret[0] = this.inputs[i];
-              ret[1] = this.outputs[i];
-              minValue = this.inputs[i];
-            }
-          }
-        }
-        return ret;
+      public long getMisses() {
+        return this.misses.sum();
       }
 
-      public EInteger[] FindCachedPowerIntOrSmaller(int precision) {
-        EInteger[] ret = null;
-        int integerMinValue = -1;
-        synchronized (this.outputs) {
-          for (int i = 0; i < this.size; ++i) {
-            if (this.inputsInts[i] >= 0 &&
-              this.inputsInts[i] <= precision && (integerMinValue == -1 ||
-                this.inputsInts[i] >= integerMinValue)) {
-              // System.out.println("Have cached power (" + inputs[i] + "," + bi + ") ");
-              ret = new EInteger[2];
-              ret[0] = this.inputs[i];
-              ret[1] = this.outputs[i];
-              integerMinValue = this.inputsInts[i];
-            }
-          }
-        }
-        return ret;
+      public long getEvictions() {
+        return this.evictions.sum();
       }
 
       public EInteger GetCachedPower(EInteger bi) {
         if (bi.CanFitInInt32()) {
           return this.GetCachedPowerInt(bi.ToInt32Checked());
         }
-        synchronized (this.outputs) {
-          for (int i = 0; i < this.size; ++i) {
-            if (bi.equals(this.inputs[i])) {
-              if (i != 0) {
-                EInteger tmp;
-                // Move to head of cache if it isn't already
-                tmp = this.inputs[i];
-                this.inputs[i] = this.inputs[0];
-                this.inputs[0] = tmp;
-                int tmpi = this.inputsInts[i];
-                this.inputsInts[i] = this.inputsInts[0];
-                this.inputsInts[0] = tmpi;
-                tmp = this.outputs[i];
-                this.outputs[i] = this.outputs[0];
-                this.outputs[0] = tmp;
-                // Move formerly newest to next newest
-                if (i != 1) {
-                  tmp = this.inputs[i];
-                  this.inputs[i] = this.inputs[1];
-                  this.inputs[1] = tmp;
-                  tmpi = this.inputsInts[i];
-                  this.inputsInts[i] =
-                    this.inputsInts[1];
-                  this.inputsInts[1] = tmpi;
-                  tmp = this.outputs[i];
-                  this.outputs[i] = this.outputs[1];
-                  this.outputs[1] = tmp;
-                }
-              }
-              return this.outputs[0];
-            }
+        int h = Mix(bi.hashCode());
+        Entry e = this.table.get(h & (TableSize - 1));
+        if (e == null || !e.Matches(bi)) {
+          e = this.table.get((h >>> 16) & (TableSize - 1));
+          if (e == null || !e.Matches(bi)) {
+            e = null;
           }
         }
-        return null;
+        return this.Found(e);
       }
 
       public EInteger GetCachedPowerInt(int ibi) {
-        synchronized (this.outputs) {
-          if (ibi > 0 && this.size < 64) {
-            for (int i = 0; i < this.size; ++i) {
-              if (this.inputsInts[i] == ibi) {
-                return this.outputs[i];
-              }
-            }
-            return null;
+        if (ibi >= 0 && ibi < SmallLimit) {
+          EInteger ret = this.smallPowers.get(ibi);
+          if (ret == null) {
+            this.misses.increment();
+          } else {
+            this.hits.increment();
           }
-          for (int i = 0; i < this.size; ++i) {
-            if (this.inputsInts[i] >= 0 && this.inputsInts[i] == ibi) {
-              if (i != 0) {
-                EInteger tmp;
-                // Move to head of cache if it isn't already
-                tmp = this.inputs[i];
-                this.inputs[i] = this.inputs[0];
-                this.inputs[0] = tmp;
-                int tmpi = this.inputsInts[i];
-                this.inputsInts[i] = this.inputsInts[0];
-                this.inputsInts[0] = tmpi;
-                tmp = this.outputs[i];
-                this.outputs[i] = this.outputs[0];
-                this.outputs[0] = tmp;
-                // Move formerly newest to next newest
-                if (i != 1) {
-                  tmp = this.inputs[i];
-                  this.inputs[i] = this.inputs[1];
-                  this.inputs[1] = tmp;
-                  tmpi = this.inputsInts[i];
-                  this.inputsInts[i] =
-                    this.inputsInts[1];
-                  this.inputsInts[1] = tmpi;
-                  tmp = this.outputs[i];
-                  this.outputs[i] = this.outputs[1];
-                  this.outputs[1] = tmp;
-                }
-              }
-              return this.outputs[0];
-            }
+          return ret;
+        }
+        if (ibi < 0) {
+          this.misses.increment();
+          return null;
+        }
+        int h = Mix(ibi);
+        Entry e = this.table.get(h & (TableSize - 1));
+        if (e == null || !e.Matches(ibi)) {
+          e = this.table.get((h >>> 16) & (TableSize - 1));
+          if (e == null || !e.Matches(ibi)) {
+            e = null;
           }
         }
-        return null;
+        return this.Found(e);
       }
 
+      // Exponents must be 0 or greater, since lookups treat negative
+      // exponents as misses
       public void AddPower(int input, EInteger output) {
-        this.AddPower(EInteger.FromInt32(input), output);
+        if (input < 0) {
+          throw new IllegalArgumentException("input(" + input +
+            ") is less than 0");
+        }
+        if (input < SmallLimit) {
+          this.smallPowers.set(input, output);
+          return;
+        }
+        this.AddEntry(
+          new Entry(EInteger.FromInt32(input), input, output),
+          Mix(input));
       }
+
       public void AddPower(EInteger input, EInteger output) {
-        synchronized (this.outputs) {
-          if (this.size < MaxSize) {
-            // Shift newer entries down
-            for (int i = this.size; i > 0; --i) {
-              this.inputs[i] = this.inputs[i - 1];
-              this.inputsInts[i] = this.inputsInts[i - 1];
-              this.outputs[i] = this.outputs[i - 1];
-            }
-            this.inputs[0] = input;
-            this.inputsInts[0] = input.CanFitInInt32() ?
-              input.ToInt32Checked() : -1;
-            this.outputs[0] = output;
-            ++this.size;
+        if (input.signum() < 0) {
+          throw new IllegalArgumentException("input(" + input +
+            ") is less than 0");
+        }
+        if (input.CanFitInInt32()) {
+          this.AddPower(input.ToInt32Checked(), output);
+          return;
+        }
+        this.AddEntry(new Entry(input, -1, output), Mix(input.hashCode()));
+      }
+
+      private EInteger Found(Entry e) {
+        if (e == null) {
+          this.misses.increment();
+          return null;
+        }
+        this.hits.increment();
+        if (!e.referenced) {
+          // Write only if needed, to avoid contention over the entry
+          e.referenced = true;
+        }
+        return e.output;
+      }
+
+      private void AddEntry(Entry entry, int h) {
+        int slot1 = h & (TableSize - 1);
+        int slot2 = (h >>> 16) & (TableSize - 1);
+        while (true) {
+          Entry e1 = this.table.get(slot1);
+          Entry e2 = this.table.get(slot2);
+          if (e1 == null && this.table.compareAndSet(slot1, null, entry)) {
+            return;
+          }
+          if (e2 == null && this.table.compareAndSet(slot2, null, entry)) {
+            return;
+          }
+          e1 = this.table.get(slot1);
+          e2 = this.table.get(slot2);
+          if (e1 == null || e2 == null) {
+            // Another thread changed a slot; try again
+            continue;
+          }
+          // Evict an entry not read since it was last considered for
+          // eviction, preferring the first slot
+          int victimSlot;
+          Entry victim;
+          if (!e1.referenced || e2.referenced) {
+            victimSlot = slot1;
+            victim = e1;
+            e2.referenced = false;
           } else {
-            // Shift newer entries down
-            for (int i = MaxSize - 1; i > 0; --i) {
-              this.inputs[i] = this.inputs[i - 1];
-              this.inputsInts[i] = this.inputsInts[i - 1];
-              this.outputs[i] = this.outputs[i - 1];
-            }
-            this.inputs[0] = input;
-            this.inputsInts[0] = input.CanFitInInt32() ?
-              input.ToInt32Checked() : -1;
-            this.outputs[0] = output;
+            victimSlot = slot2;
+            victim = e2;
+            e1.referenced = false;
           }
+          if (this.table.compareAndSet(victimSlot, victim, entry)) {
+            this.evictions.increment();
+          }
+          return;
         }
       }
+
+      private static int Mix(int h) {
+        h *= 0x9e3779b9;
+        return h ^ (h >>> 15);
+      }
     }
 
-    private static final PowerCache ValuePowerOfFiveCache = new
+    static final PowerCache ValuePowerOfFiveCache = new
     NumberUtility.PowerCache();
 
-    private static final PowerCache ValuePowerOfTenCache = new
+    static final PowerCache ValuePowerOfTenCache = new
     NumberUtility.PowerCache();
 
     public static EInteger FindPowerOfTen(long diffLong) {
@@ -353,28 +383,7 @@ private NumberUtility() {
       if (precision <= 94) {
         return v.Multiply(FindPowerOfFive(precision));
       }
-      EInteger otherPower = ValuePowerOfFiveCache.GetCachedPowerInt(precision);
-      if (otherPower != null) {
-        return v.Multiply(otherPower);
-      }
-      int powprec = 64;
-      v = v.Multiply(FindPowerOfFive(precision & 63));
-      precision >>= 6;
-      while (precision > 0) {
-        if ((precision & 1) == 1) {
-          otherPower = ValuePowerOfFiveCache.GetCachedPowerInt(powprec);
-          if (otherPower == null) {
-            // NOTE: Assumes powprec is 2 or greater and is a power of 2
-            EInteger prevPower = FindPowerOfFive(powprec >> 1);
-            otherPower = prevPower.Multiply(prevPower);
-            ValuePowerOfFiveCache.AddPower(powprec, otherPower);
-          }
-          v = v.Multiply(otherPower);
-        }
-        powprec = (powprec << 1);
-        precision >>= 1;
-      }
-      return v;
+      return v.Multiply(PowerOfFiveFromTable(precision));
     }
 
     static EInteger MultiplyByPowerOfFive(EInteger v, EInteger
@@ -394,21 +403,13 @@ private NumberUtility() {
       if (diff.CanFitInInt32()) {
         return FindPowerOfFive(diff.ToInt32Checked());
       }
-      EInteger epowprec = EInteger.FromInt32(1);
+      int log = 0;
       EInteger ret = EInteger.FromInt32(1);
       while (diff.signum() > 0) {
         if (!diff.isEven()) {
-          EInteger otherPower = ValuePowerOfFiveCache.GetCachedPower(epowprec);
-          if (otherPower == null) {
-            // NOTE: Assumes powprec is 2 or greater and is a power of 2
-            EInteger prevPower = FindPowerOfFiveFromBig(epowprec.ShiftRight(
-              1));
-            otherPower = prevPower.Multiply(prevPower);
-            ValuePowerOfFiveCache.AddPower(epowprec, otherPower);
-          }
-          ret = ret.Multiply(otherPower);
+          ret = ret.Multiply(FivePowerOfTwo(log));
         }
-        epowprec = epowprec.ShiftLeft(1);
+        ++log;
         diff = diff.ShiftRight(1);
       }
       return ret;
@@ -469,24 +470,69 @@ private NumberUtility() {
         ValuePowerOfFiveCache.AddPower(origPrecision, ret);
         return ret;
       }
-      int powprec = 64;
-      // System.out.println("pow="+(precision&63)+",precision="+precision);
-      ret = FindPowerOfFive(precision & 63);
+      return PowerOfFiveFromTable(precision);
+    }
+
+    // Largest k for which 5^(2^k) is kept in the static power table;
+    // 5^(2^20) has about 2.4 million bits (300 KB), and the whole table,
+    // once grown that far, about twice that
+    private static final int PowerTableMaxLog = 20;
+
+    // Table of 5^(2^k), for k from 0 through the array's length minus 1.
+    // Arrays stored here are never changed; the table grows by replacing
+    // it with a longer copy, so readers need no lock.
+    private static final java.util.concurrent.atomic.AtomicReference<
+      EInteger[]> ValueFiveTwoPowers = new
+    java.util.concurrent.atomic.AtomicReference<EInteger[]>(
+      new EInteger[] { EInteger.FromInt32(5) });
+
+    // Gets 5^(2^log); powers beyond the static table are kept in the
+    // power cache instead
+    static EInteger FivePowerOfTwo(int log) {
+      EInteger[] table = ValueFiveTwoPowers.get();
+      if (log < table.length) {
+        return table[log];
+      }
+      if (log > PowerTableMaxLog) {
+        EInteger epowprec = EInteger.FromInt32(1).ShiftLeft(log);
+        EInteger ret = ValuePowerOfFiveCache.GetCachedPower(epowprec);
+        if (ret == null) {
+          ret = FivePowerOfTwo(log - 1);
+          ret = ret.Multiply(ret);
+          ValuePowerOfFiveCache.AddPower(epowprec, ret);
+        }
+        return ret;
+      }
+      while (true) {
+        EInteger[] newTable = new EInteger[log + 1];
+        System.arraycopy(table, 0, newTable, 0, table.length);
+        for (int i = table.length; i <= log; ++i) {
+          newTable[i] = newTable[i - 1].Multiply(newTable[i - 1]);
+        }
+        if (ValueFiveTwoPowers.compareAndSet(table, newTable)) {
+          return newTable[log];
+        }
+        // Another thread grew the table; use its entries
+        table = ValueFiveTwoPowers.get();
+        if (log < table.length) {
+          return table[log];
+        }
+      }
+    }
+
+    // Builds 5^precision from the static power table: the low six bits
+    // of the exponent select a small power, and each higher set bit k
+    // selects 5^(2^k). The factors are multiplied from smallest to
+    // largest, so that each product has operands of similar size.
+    private static EInteger PowerOfFiveFromTable(int precision) {
+      EInteger ret = FindPowerOfFive(precision & 63);
+      int log = 6;
       precision >>= 6;
       while (precision > 0) {
         if ((precision & 1) == 1) {
-          EInteger otherPower =
-            ValuePowerOfFiveCache.GetCachedPowerInt(powprec);
-          // System.out.println("pow="+powprec+",precision="+precision);
-          if (otherPower == null) {
-            // NOTE: Assumes powprec is 2 or greater and is a power of 2
-            EInteger prevPower = FindPowerOfFive(powprec >> 1);
-            otherPower = prevPower.Multiply(prevPower);
-            ValuePowerOfFiveCache.AddPower(powprec, otherPower);
-          }
-          ret = ret.Multiply(otherPower);
+          ret = ret.Multiply(FivePowerOfTwo(log));
         }
-        powprec = (powprec << 1);
+        ++log;
         precision >>= 1;
       }
       return ret;
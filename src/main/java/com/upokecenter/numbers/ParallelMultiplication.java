@@ -0,0 +1,159 @@
+package com.upokecenter.numbers;
+/*
+Written by Peter O.
+Any copyright to this work is released to the Public Domain.
+In case this is not possible, this work is also
+licensed under the Unlicense: https://unlicense.org/
+
+ */
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+  // Settings and helpers for multiplying very large integers on several
+  // threads.  Parallel multiplication is off unless a pool is set, either
+  // for all threads (SetGlobalPool) or for the duration of a call on the
+  // current thread (Enter and Exit).  Tasks run in the pool carry the
+  // pool with them, so that nested multiplications they perform are also
+  // parallel.
+  final class ParallelMultiplication {
+    private ParallelMultiplication() {
+    }
+
+    // Default minimum total size, in 16-bit words, of an operation's
+    // operands for its parts to be computed in parallel.  Every caller of
+    // GetPool and MultiplyAll gives this size as the sum of the word counts
+    // of the operands of the operation (or operations) it would split:
+    // both factors of a product, or the dividend and divisor of a
+    // division.
+    static final int DefaultThreshold = 8000;
+
+    private static volatile ForkJoinPool globalPool;
+    private static volatile int threshold = DefaultThreshold;
+
+    private static final ThreadLocal<ForkJoinPool> CallPool = new
+    ThreadLocal<ForkJoinPool>();
+
+    // Sets the pool for all threads and the threshold for all pools, or
+    // if 'pool' is null, turns off the pool for all threads and leaves
+    // the threshold, which also applies to pools set by Enter, as it is
+    static void SetGlobalPool(ForkJoinPool pool, int thresholdWords) {
+      if (pool != null) {
+        threshold = thresholdWords;
+      }
+      globalPool = pool;
+    }
+
+    // Sets the pool used by the current thread until Exit is called, and
+    // returns the pool it replaces, which is to be passed to Exit
+    static ForkJoinPool Enter(ForkJoinPool pool) {
+      ForkJoinPool oldPool = CallPool.get();
+      CallPool.set(pool);
+      return oldPool;
+    }
+
+    static void Exit(ForkJoinPool oldPool) {
+      if (oldPool == null) {
+        CallPool.remove();
+      } else {
+        CallPool.set(oldPool);
+      }
+    }
+
+    // Gets the pool to use for an operation whose operands have the given
+    // total number of words, or null if the operation should run on the
+    // current thread only
+    static ForkJoinPool GetPool(int words) {
+      if (words < threshold) {
+        return null;
+      }
+      ForkJoinPool pool = CallPool.get();
+      return (pool != null) ? pool : globalPool;
+    }
+
+    // Runs the given actions in the given pool and waits for them to
+    // finish
+    static void InvokeAll(ForkJoinPool pool, Runnable[] actions) {
+      PoolTask[] tasks = new PoolTask[actions.length];
+      for (int i = 0; i < actions.length; ++i) {
+        tasks[i] = new PoolTask(pool, actions[i]);
+      }
+      if (ForkJoinTask.getPool() == pool) {
+        // Already running in the pool, as one of its tasks
+        ForkJoinTask.invokeAll(tasks);
+      } else {
+        pool.invoke(new InvokeAllTask(tasks));
+      }
+    }
+
+    // Multiplies a[i] by b[i] for each i, in parallel if the operands'
+    // total size, in words, is big enough
+    static EInteger[] MultiplyAll(EInteger[] a, EInteger[] b, int words) {
+      EInteger[] products = new EInteger[a.length];
+      ForkJoinPool pool = GetPool(words);
+      if (pool == null) {
+        for (int i = 0; i < a.length; ++i) {
+          products[i] = a[i].Multiply(b[i]);
+        }
+      } else {
+        Runnable[] actions = new Runnable[a.length];
+        for (int i = 0; i < a.length; ++i) {
+          actions[i] = new ProductAction(products, i, a[i], b[i]);
+        }
+        InvokeAll(pool, actions);
+      }
+      return products;
+    }
+
+    private static final class ProductAction implements Runnable {
+      private final EInteger[] products;
+      private final int index;
+      private final EInteger a;
+      private final EInteger b;
+
+      ProductAction(EInteger[] products, int index, EInteger a, EInteger b) {
+        this.products = products;
+        this.index = index;
+        this.a = a;
+        this.b = b;
+      }
+
+      public void run() {
+        this.products[this.index] = this.a.Multiply(this.b);
+      }
+    }
+
+    private static final class PoolTask extends RecursiveAction {
+      private static final long serialVersionUID = 1L;
+      private final transient ForkJoinPool pool;
+      private final transient Runnable action;
+
+      PoolTask(ForkJoinPool pool, Runnable action) {
+        this.pool = pool;
+        this.action = action;
+      }
+
+      @Override protected void compute() {
+        ForkJoinPool oldPool = Enter(this.pool);
+        try {
+          this.action.run();
+        } finally {
+          Exit(oldPool);
+        }
+      }
+    }
+
+    private static final class InvokeAllTask extends RecursiveAction {
+      private static final long serialVersionUID = 1L;
+      private final transient PoolTask[] tasks;
+
+      InvokeAllTask(PoolTask[] tasks) {
+        this.tasks = tasks;
+      }
+
+      @Override protected void compute() {
+        ForkJoinTask.invokeAll(this.tasks);
+      }
+    }
+  }
@@ -0,0 +1,289 @@
+package com.upokecenter.numbers;
+/*
+Written by Peter O.
+Any copyright to this work is released to the Public Domain.
+In case this is not possible, this work is also
+licensed under the Unlicense: https://unlicense.org/
+
+ */
+
+  // Probable-prime testing by the Baillie-PSW test: trial division by
+  // small primes, then a strong probable-prime test to base 2, then a
+  // strong Lucas probable-prime test with parameters chosen by
+  // Selfridge's method.  No composite number is known to pass the test,
+  // and none exists below 2^64.  Numbers less than 2^31 are instead
+  // tested by a deterministic Miller-Rabin test on 64-bit integers.
+  final class PrimalityTest {
+    private PrimalityTest() {
+    }
+
+    // Odd primes used for trial division and for sieving candidates
+    private static final int TrialDivisionLimit = 1024;
+    private static final int[] ValueSmallPrimes =
+      Combinatorics.OddPrimes(TrialDivisionLimit);
+
+    // Products of consecutive runs of the small primes, each less than
+    // 2^31, so that trial division needs only one remainder per product
+    private static final int[] ValueSmallPrimeProducts = SmallPrimeProducts();
+
+    static boolean IsProbablePrime(EInteger value) {
+      if (value.signum() <= 0) {
+        return false;
+      }
+      if (value.CanFitInInt32()) {
+        return IsPrime(value.ToInt32Checked());
+      }
+      if (value.isEven() || HasSmallFactor(value)) {
+        return false;
+      }
+      return IsStrongProbablePrimeBase2AndLucas(value);
+    }
+
+    static EInteger NextProbablePrime(EInteger value) {
+      if (value.compareTo(2) < 0) {
+        return EInteger.FromInt32(2);
+      }
+      // Start at the first odd number greater than value
+      EInteger start = value.Add(value.isEven() ? 1 : 2);
+      while (start.CanFitInInt32()) {
+        if (IsPrime(start.ToInt32Checked())) {
+          return start;
+        }
+        start = start.Add(2);
+      }
+      // The candidates are now greater than every small prime, so any
+      // candidate with a small prime factor is composite.  Sieve a window
+      // of odd candidates at a time by the small primes, and run the full
+      // test only on those left.
+      long bits = start.GetUnsignedBitLengthAsInt64();
+      int window = (int)Math.min(1 << 16, Math.max(256, bits * 4));
+      // Sieving by more primes pays off as the full test gets costlier
+      int[] sievePrimes = (bits <= 128) ? ValueSmallPrimes :
+        Combinatorics.OddPrimes((int)Math.min(1 << 16, (bits * bits) >> 4));
+      boolean[] composite = new boolean[window];
+      while (true) {
+        java.util.Arrays.fill(composite, false);
+        for (int p : sievePrimes) {
+          // Candidate i is start + 2*i, which is divisible by p if
+          // i = -start/2 mod p
+          int r = start.Remainder(p).ToInt32Checked();
+          long first = ((long)((p - r) % p) * ((p + 1) >> 1)) % p;
+          for (int i = (int)first; i < window; i += p) {
+            composite[i] = true;
+          }
+        }
+        for (int i = 0; i < window; ++i) {
+          if (!composite[i]) {
+            EInteger candidate = start.Add(i << 1);
+            if (IsStrongProbablePrimeBase2AndLucas(candidate)) {
+              return candidate;
+            }
+          }
+        }
+        start = start.Add(window << 1);
+      }
+    }
+
+    private static int[] SmallPrimeProducts() {
+      int[] products = new int[ValueSmallPrimes.length];
+      int count = 0;
+      long product = 1;
+      for (int p : ValueSmallPrimes) {
+        if (product * p > Integer.MAX_VALUE) {
+          products[count++] = (int)product;
+          product = 1;
+        }
+        product *= p;
+      }
+      products[count++] = (int)product;
+      int[] ret = new int[count];
+      System.arraycopy(products, 0, ret, 0, count);
+      return ret;
+    }
+
+    // Returns whether an integer greater than every small prime is
+    // divisible by one of them
+    private static boolean HasSmallFactor(EInteger value) {
+      int index = 0;
+      for (int product : ValueSmallPrimeProducts) {
+        int r = value.Remainder(product).ToInt32Checked();
+        long remaining = product;
+        while (remaining > 1) {
+          int p = ValueSmallPrimes[index++];
+          if (r % p == 0) {
+            return true;
+          }
+          remaining /= p;
+        }
+      }
+      return false;
+    }
+
+    // Deterministic test for 32-bit integers: Miller-Rabin to bases 2,
+    // 7, and 61 is exact for all numbers less than 4,759,123,141
+    private static boolean IsPrime(int n) {
+      if (n < 2) {
+        return false;
+      }
+      if ((n & 1) == 0) {
+        return n == 2;
+      }
+      for (int p : ValueSmallPrimes) {
+        if (n % p == 0) {
+          return n == p;
+        }
+        if (p * p > n) {
+          return true;
+        }
+      }
+      return IsStrongProbablePrime(n, 2) && IsStrongProbablePrime(n, 7) &&
+        IsStrongProbablePrime(n, 61);
+    }
+
+    private static boolean IsStrongProbablePrime(int n, int b) {
+      long nm1 = n - 1;
+      int s = Long.numberOfTrailingZeros(nm1);
+      long d = nm1 >> s;
+      long x = 1;
+      long bb = b % n;
+      // Products of residues less than 2^31 fit in 64 bits
+      for (; d > 0; d >>= 1) {
+        if ((d & 1) != 0) {
+          x = (x * bb) % n;
+        }
+        bb = (bb * bb) % n;
+      }
+      if (x == 1 || x == nm1) {
+        return true;
+      }
+      for (int i = 1; i < s; ++i) {
+        x = (x * x) % n;
+        if (x == nm1) {
+          return true;
+        }
+        if (x == 1) {
+          return false;
+        }
+      }
+      return false;
+    }
+
+    // The probable-prime tests of the Baillie-PSW test, for an odd
+    // integer that has no small prime factors
+    private static boolean IsStrongProbablePrimeBase2AndLucas(EInteger n) {
+      EIntegerModulus modulus = EIntegerModulus.Create(n);
+      return IsStrongProbablePrimeBase2(n, modulus) &&
+        IsStrongLucasProbablePrime(n, modulus);
+    }
+
+    private static boolean IsStrongProbablePrimeBase2(
+      EInteger n,
+      EIntegerModulus modulus) {
+      EInteger nm1 = n.Subtract(1);
+      int s = (int)nm1.GetLowBitAsInt64();
+      // ModPow uses Montgomery multiplication for all but the largest n
+      EInteger x = modulus.ModPow(EInteger.FromInt32(2), nm1.ShiftRight(s));
+      if (x.equals(EInteger.FromInt32(1)) || x.equals(nm1)) {
+        return true;
+      }
+      for (int i = 1; i < s; ++i) {
+        x = modulus.Multiply(x, x);
+        if (x.equals(nm1)) {
+          return true;
+        }
+        if (x.equals(EInteger.FromInt32(1))) {
+          return false;
+        }
+      }
+      return false;
+    }
+
+    // Strong Lucas probable-prime test with P = 1 and Q = (1 - D)/4, where
+    // D is the first of 5, -7, 9, -11, 13, ... whose Jacobi symbol (D/n)
+    // is -1 (Selfridge's method A)
+    private static boolean IsStrongLucasProbablePrime(
+      EInteger n,
+      EIntegerModulus modulus) {
+      int d = 5;
+      while (true) {
+        int jacobi = JacobiSymbol(d, n);
+        if (jacobi == -1) {
+          break;
+        }
+        if (jacobi == 0) {
+          // D shares a factor with n, which is greater than |D|
+          return false;
+        }
+        if (d == 13) {
+          // No D with symbol -1 exists if n is a perfect square, so
+          // check for one before searching further
+          EInteger root = n.Sqrt();
+          if (root.Multiply(root).equals(n)) {
+            return false;
+          }
+        }
+        d = (d > 0) ? -(d + 2) : -(d - 2);
+      }
+      int q = (1 - d) / 4;
+      EInteger np1 = n.Add(1);
+      int s = (int)np1.GetLowBitAsInt64();
+      EInteger[] uvq = modulus.LucasSequence(q, np1.ShiftRight(s));
+      EInteger v = uvq[1];
+      EInteger qk = uvq[2];
+      if (uvq[0].isZero() || v.isZero()) {
+        return true;
+      }
+      for (int r = 1; r < s; ++r) {
+        // V(2j) = V(j)^2 - 2*Q^j
+        v = modulus.Mod(v.Multiply(v).Subtract(qk.ShiftLeft(1)));
+        if (v.isZero()) {
+          return true;
+        }
+        qk = modulus.Multiply(qk, qk);
+      }
+      return false;
+    }
+
+    // Finds the Jacobi symbol (a/n) for odd n greater than |a|, where a
+    // is odd
+    private static int JacobiSymbol(int a, EInteger n) {
+      int n8 = n.Remainder(8).ToInt32Checked();
+      int ret = 1;
+      if (a < 0) {
+        // (-1/n) is -1 if n = 3 mod 4
+        a = -a;
+        if ((n8 & 3) == 3) {
+          ret = -ret;
+        }
+      }
+      // By quadratic reciprocity, (a/n) = (n/a), negated if both a and n
+      // are 3 mod 4
+      if ((a & 3) == 3 && (n8 & 3) == 3) {
+        ret = -ret;
+      }
+      return ret * JacobiSymbol(n.Remainder(a).ToInt32Checked(), a);
+    }
+
+    // Finds the Jacobi symbol (a/n) for 0 <= a and odd n > 0
+    private static int JacobiSymbol(int a, int n) {
+      int ret = 1;
+      a %= n;
+      while (a != 0) {
+        while ((a & 1) == 0) {
+          a >>= 1;
+          int n8 = n & 7;
+          if (n8 == 3 || n8 == 5) {
+            ret = -ret;
+          }
+        }
+        int t = a;
+        a = n;
+        n = t;
+        if ((a & 3) == 3 && (n & 3) == 3) {
+          ret = -ret;
+        }
+        a %= n;
+      }
+      return (n == 1) ? ret : 0;
+    }
+  }
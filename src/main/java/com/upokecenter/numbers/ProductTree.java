@@ -0,0 +1,226 @@
+package com.upokecenter.numbers;
+/*
+Written by Peter O.
+Any copyright to this work is released to the Public Domain.
+In case this is not possible, this work is also
+licensed under the Unlicense: https://unlicense.org/
+
+ */
+
+import java.util.concurrent.ForkJoinPool;
+
+  // A balanced product tree over a list of integers, along with the
+  // remainder trees and batch GCDs built from it.  Multiplying and
+  // dividing by whole subtrees at once, rather than by one integer at
+  // a time, keeps the operands balanced, so that the fast multiplication
+  // and division methods do most of the work.  The nodes of each level
+  // are independent, so each level is computed in parallel if it's big
+  // enough (see ParallelMultiplication.GetPool).
+  final class ProductTree {
+    // levels[0] holds the absolute values of the leaves.  Each higher
+    // level holds the products of adjacent pairs of nodes from the level
+    // below, with an unpaired last node carried up unchanged, and the
+    // last level holds only the product of all the leaves.
+    private final EInteger[][] levels;
+
+    ProductTree(EInteger[] values) {
+      if (values.length == 0) {
+        throw new IllegalArgumentException("values is empty");
+      }
+      int levelCount = 1;
+      for (int n = values.length; n > 1; n = (n + 1) >> 1) {
+        ++levelCount;
+      }
+      this.levels = new EInteger[levelCount][];
+      EInteger[] level = new EInteger[values.length];
+      for (int i = 0; i < values.length; ++i) {
+        level[i] = values[i].Abs();
+      }
+      this.levels[0] = level;
+      for (int i = 1; i < levelCount; ++i) {
+        level = MultiplyPairs(level);
+        this.levels[i] = level;
+      }
+    }
+
+    EInteger getRoot() {
+      return this.levels[this.levels.length - 1][0];
+    }
+
+    // Finds the remainders when a nonnegative integer is divided by each
+    // leaf, or by each leaf's square if 'squared' is true.  None of the
+    // leaves may be 0.  If 'squared' is true, the value must be less than
+    // the square of the root (as the root itself is), so that the root's
+    // level, which would leave it unchanged, is skipped.
+    EInteger[] Remainders(EInteger value, boolean squared) {
+      EInteger[] remainders = { value };
+      int top = this.levels.length - (squared ? 2 : 1);
+      for (int i = top; i >= 0; --i) {
+        EInteger[] nodes = this.levels[i];
+        if (squared) {
+          nodes = ParallelMultiplication.MultiplyAll(
+              nodes,
+              nodes,
+              TotalWords(nodes) * 2);
+        }
+        // The parent of node j is node j/2 of the level above, and
+        // a remainder by the parent, reduced by node j, is the same
+        // as the original value reduced by node j
+        EInteger[] dividends = new EInteger[nodes.length];
+        for (int j = 0; j < nodes.length; ++j) {
+          dividends[j] = remainders[j >> 1];
+        }
+        remainders = RemainderAll(dividends, nodes);
+      }
+      return remainders;
+    }
+
+    // For each integer in the list, finds the greatest common divisor of
+    // that integer and the product of all the other integers in the
+    // list, using Bernstein's batch GCD algorithm: if P is the product
+    // of all the integers, then the GCD of x and P/x equals the GCD of x
+    // and (P mod x^2)/x.
+    static EInteger[] BatchGcd(EInteger[] values) {
+      int zeroCount = 0;
+      int zeroIndex = -1;
+      for (int i = 0; i < values.length; ++i) {
+        if (values[i].isZero()) {
+          ++zeroCount;
+          zeroIndex = i;
+        }
+      }
+      EInteger[] ret = new EInteger[values.length];
+      if (zeroCount > 0) {
+        // The product of the others is 0 for every nonzero integer,
+        // so its GCD is that integer's absolute value
+        for (int i = 0; i < values.length; ++i) {
+          ret[i] = values[i].Abs();
+        }
+        if (zeroCount == 1) {
+          EInteger[] others = new EInteger[values.length - 1];
+          System.arraycopy(values, 0, others, 0, zeroIndex);
+          System.arraycopy(
+            values,
+            zeroIndex + 1,
+            others,
+            zeroIndex,
+            others.length - zeroIndex);
+          ret[zeroIndex] = (others.length == 0) ? EInteger.FromInt32(1) :
+            new ProductTree(others).getRoot();
+        }
+        return ret;
+      }
+      if (values.length == 0) {
+        return ret;
+      }
+      ProductTree tree = new ProductTree(values);
+      EInteger[] remainders = tree.Remainders(tree.getRoot(), true);
+      EInteger[] leaves = tree.levels[0];
+      for (int i = 0; i < leaves.length; ++i) {
+        remainders[i] = remainders[i].Divide(leaves[i]);
+      }
+      ForkJoinPool pool = ParallelMultiplication.GetPool(
+        TotalWords(leaves) + TotalWords(remainders));
+      if (pool == null) {
+        for (int i = 0; i < leaves.length; ++i) {
+          ret[i] = leaves[i].Gcd(remainders[i]);
+        }
+      } else {
+        Runnable[] actions = new Runnable[leaves.length];
+        for (int i = 0; i < leaves.length; ++i) {
+          actions[i] = new GcdAction(ret, i, leaves[i], remainders[i]);
+        }
+        ParallelMultiplication.InvokeAll(pool, actions);
+      }
+      return ret;
+    }
+
+    private static int TotalWords(EInteger[] values) {
+      long words = 0;
+      for (EInteger value : values) {
+        words += value.GetWordCountInternal();
+      }
+      return (int)Math.min(words, Integer.MAX_VALUE);
+    }
+
+    private static EInteger[] MultiplyPairs(EInteger[] level) {
+      int pairs = level.length >> 1;
+      EInteger[] a = new EInteger[pairs];
+      EInteger[] b = new EInteger[pairs];
+      for (int i = 0; i < pairs; ++i) {
+        a[i] = level[i << 1];
+        b[i] = level[(i << 1) + 1];
+      }
+      EInteger[] products = ParallelMultiplication.MultiplyAll(
+          a,
+          b,
+          TotalWords(a) + TotalWords(b));
+      if ((level.length & 1) == 0) {
+        return products;
+      }
+      EInteger[] ret = new EInteger[pairs + 1];
+      System.arraycopy(products, 0, ret, 0, pairs);
+      ret[pairs] = level[level.length - 1];
+      return ret;
+    }
+
+    private static EInteger[] RemainderAll(
+      EInteger[] dividends,
+      EInteger[] divisors) {
+      EInteger[] ret = new EInteger[dividends.length];
+      ForkJoinPool pool = ParallelMultiplication.GetPool(
+        TotalWords(dividends) + TotalWords(divisors));
+      if (pool == null) {
+        for (int i = 0; i < dividends.length; ++i) {
+          ret[i] = dividends[i].Remainder(divisors[i]);
+        }
+      } else {
+        Runnable[] actions = new Runnable[dividends.length];
+        for (int i = 0; i < dividends.length; ++i) {
+          actions[i] = new RemainderAction(ret, i, dividends[i], divisors[i]);
+        }
+        ParallelMultiplication.InvokeAll(pool, actions);
+      }
+      return ret;
+    }
+
+    private static final class RemainderAction implements Runnable {
+      private final EInteger[] remainders;
+      private final int index;
+      private final EInteger dividend;
+      private final EInteger divisor;
+
+      RemainderAction(
+        EInteger[] remainders,
+        int index,
+        EInteger dividend,
+        EInteger divisor) {
+        this.remainders = remainders;
+        this.index = index;
+        this.dividend = dividend;
+        this.divisor = divisor;
+      }
+
+      public void run() {
+        this.remainders[this.index] = this.dividend.Remainder(this.divisor);
+      }
+    }
+
+    private static final class GcdAction implements Runnable {
+      private final EInteger[] gcds;
+      private final int index;
+      private final EInteger a;
+      private final EInteger b;
+
+      GcdAction(EInteger[] gcds, int index, EInteger a, EInteger b) {
+        this.gcds = gcds;
+        this.index = index;
+        this.a = a;
+        this.b = b;
+      }
+
+      public void run() {
+        this.gcds[this.index] = this.a.Gcd(this.b);
+      }
+    }
+  }
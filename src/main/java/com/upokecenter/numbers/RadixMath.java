@@ -85,6 +85,28 @@ licensed under the Unlicense: https://unlicense.org/
       1000000000000000000L,
     };
 
+    // 10^n as 128-bit integers, for n from 0 through 38; entry 2*n is the
+    // high 64 bits and entry 2*n+1 is the low 64 bits
+    private static final long[] ValueTenPowers128 = TenPowers128();
+
+    private static long[] TenPowers128() {
+      long[] ret = new long[78];
+      long hi = 0;
+      long lo = 1;
+      for (int i = 0; i < 39; ++i) {
+        ret[i * 2] = hi;
+        ret[(i * 2) + 1] = lo;
+        // Multiply by 10 = 8 + 2
+        long lo8 = lo << 3;
+        long lo2 = lo << 1;
+        long newLo = lo8 + lo2;
+        long carry = (Long.compareUnsigned(newLo, lo8) < 0) ? 1 : 0;
+        hi = (hi << 3) + (hi << 1) + (lo >>> 61) + (lo >>> 63) + carry;
+        lo = newLo;
+      }
+      return ret;
+    }
+
     private final IRadixMathHelper<T> helper;
     private final int support;
     private final int thisRadix;
@@ -1719,6 +1741,21 @@ licensed under the Unlicense: https://unlicense.org/
             this.SignalInvalid(ctx) : this.EnsureSign(other, negflag);
         }
       }
+      FastIntegerFixed op1Mantissa = this.helper.GetMantissaFastInt(thisValue);
+      FastIntegerFixed op2Mantissa = this.helper.GetMantissaFastInt(other);
+      if (op1Mantissa.CanFitInInt64() && op2Mantissa.CanFitInInt64()) {
+        T ret64 = this.Multiply64Bit(
+            op1Mantissa.ToInt64(),
+            op2Mantissa.ToInt64(),
+            FastIntegerFixed.Add(
+              this.helper.GetExponentFastInt(thisValue),
+              this.helper.GetExponentFastInt(other)),
+            (thisFlags ^ otherFlags) & BigNumberFlags.FlagNegative,
+            ctx);
+        if ((Object)ret64 != (Object)null) {
+          return ret64;
+        }
+      }
       EInteger bigintOp2 = this.helper.GetExponent(other);
       EInteger newexp = this.helper.GetExponent(thisValue).Add(bigintOp2);
       EInteger mantissaOp2 = this.helper.GetMantissa(other);
@@ -1738,6 +1775,172 @@ licensed under the Unlicense: https://unlicense.org/
       return ret;
     }
 
+    // Multiplies two finite values whose mantissas fit in 64 bits. The
+    // product is formed as a 128-bit integer, and in common cases it is
+    // rounded here without creating an intermediate value. Returns null
+    // if the general path is needed.
+    private T Multiply64Bit(
+      long m1,
+      long m2,
+      FastIntegerFixed exponent,
+      int negflag,
+      EContext ctx) {
+      if (m1 == 0 || m2 == 0) {
+        // Leave zeros, whose exponents may need clamping, to the
+        // general path
+        return null;
+      }
+      long lo = m1 * m2;
+      long hi = NumberUtility.MultiplyHigh(m1, m2);
+      boolean fitsInInt64 = hi == 0 && lo >= 0;
+      if (IsNullOrSimpleContext(ctx)) {
+        return this.helper.CreateNewWithFlagsFastInt(
+            fitsInInt64 ? FastIntegerFixed.FromInt64(lo) :
+            FastIntegerFixed.FromBig(ToEInteger128(hi, lo)),
+            exponent,
+            negflag);
+      }
+      boolean decimalPrecision = this.thisRadix == 10 &&
+        ctx.getHasMaxPrecision() && !ctx.isPrecisionInBits() &&
+        ctx.getPrecision().compareTo(ValueTenPowers64.length - 1) <= 0;
+      if (fitsInInt64 && !decimalPrecision) {
+        return this.RoundToPrecision(
+            this.helper.CreateNewWithFlagsFastInt(
+              FastIntegerFixed.FromInt64(lo),
+              exponent,
+              negflag),
+            ctx);
+      }
+      if (this.thisRadix == 2) {
+        if (!ctx.getHasMaxPrecision() || ctx.getPrecision().compareTo(62) >
+          0) {
+          return null;
+        }
+        // Shift the product to 63 bits, keeping the discarded bits as
+        // rounding information; at least one more bit will be discarded
+        // while rounding, since the precision is less than 63 bits
+        int shift = (64 - Long.numberOfLeadingZeros(hi)) + 1;
+        long mant = (hi << (64 - shift)) | (lo >>> shift);
+        int lastDiscarded = (int)((lo >>> (shift - 1)) & 1);
+        int olderDiscarded = (shift > 1 && (lo << (65 - shift)) != 0) ? 1 :
+          0;
+        T retval = this.helper.CreateNewWithFlagsFastInt(
+            FastIntegerFixed.FromInt64(mant),
+            FastIntegerFixed.Add(exponent, FastIntegerFixed.FromInt32(shift)),
+            negflag);
+        return this.RoundToPrecisionInternal(
+            retval,
+            lastDiscarded,
+            olderDiscarded,
+            null,
+            false,
+            ctx);
+      }
+      if (!decimalPrecision) {
+        return null;
+      }
+      int precision = ctx.getPrecision().ToInt32Checked();
+      int digits = DigitCount128(hi, lo);
+      int discardedDigits = 0;
+      int lastDiscarded = 0;
+      int olderDiscarded = 0;
+      if (digits > precision) {
+        if (ctx.getRounding() == ERounding.None) {
+          return null;
+        }
+        // Divide by 10^discardedDigits in steps of at most 9 digits,
+        // 32 bits at a time; the most significant discarded digit is
+        // in the remainder of the last step
+        discardedDigits = digits - precision;
+        int remaining = discardedDigits;
+        while (remaining > 0) {
+          int step = Math.min(remaining, 9);
+          long divisor = ValueTenPowers64[step];
+          long q3 = (hi >>> 32) / divisor;
+          long r = (hi >>> 32) % divisor;
+          long t = (r << 32) | (hi & 0xffffffffL);
+          long q2 = t / divisor;
+          r = t % divisor;
+          t = (r << 32) | (lo >>> 32);
+          long q1 = t / divisor;
+          r = t % divisor;
+          t = (r << 32) | (lo & 0xffffffffL);
+          long q0 = t / divisor;
+          r = t % divisor;
+          hi = (q3 << 32) | q2;
+          lo = (q1 << 32) | q0;
+          remaining -= step;
+          if (remaining == 0) {
+            long topPower = ValueTenPowers64[step - 1];
+            lastDiscarded = (int)(r / topPower);
+            olderDiscarded |= ((r % topPower) != 0) ? 1 : 0;
+          } else {
+            olderDiscarded |= (r != 0) ? 1 : 0;
+          }
+        }
+        // The quotient now has exactly 'precision' digits
+        if (this.RoundGivenDigits(
+          lastDiscarded,
+          olderDiscarded,
+          ctx.getRounding(),
+          negflag != 0,
+          lo)) {
+          ++lo;
+          if (lo == ValueTenPowers64[precision]) {
+            lo = ValueTenPowers64[precision - 1];
+            ++discardedDigits;
+          }
+        }
+        exponent = FastIntegerFixed.Add(
+            exponent,
+            FastIntegerFixed.FromInt32(discardedDigits));
+      }
+      if (ctx.getHasExponentRange()) {
+        // Conservative check that the result is a normal number that
+        // needs no exponent adjustment, as in RoundToPrecisionInternal
+        if (!exponent.CanFitInInt32() || !ctx.getEMax().CanFitInInt32() ||
+          !ctx.getEMin().CanFitInInt32()) {
+          return null;
+        }
+        long exp = exponent.ToInt32();
+        long adjustedExp = ctx.getAdjustExponent() ? exp + precision - 1 :
+          exp;
+        if (adjustedExp > ctx.getEMax().ToInt32Checked() ||
+          exp < ctx.getEMin().ToInt32Checked()) {
+          return null;
+        }
+      }
+      if (discardedDigits > 0 && ctx.getHasFlags()) {
+        int newFlags = EContext.FlagRounded;
+        if ((lastDiscarded | olderDiscarded) != 0) {
+          newFlags |= EContext.FlagInexact;
+        }
+        ctx.setFlags(ctx.getFlags()|(newFlags));
+      }
+      // The result has at most 'precision' digits, so fits in 64 bits
+      return this.helper.CreateNewWithFlagsFastInt(
+          FastIntegerFixed.FromInt64(lo),
+          exponent,
+          negflag);
+    }
+
+    // Number of decimal digits in a nonzero 128-bit integer less than 2^126
+    private static int DigitCount128(long hi, long lo) {
+      int bits = (hi == 0) ? 64 - Long.numberOfLeadingZeros(lo) :
+        128 - Long.numberOfLeadingZeros(hi);
+      int t = (bits * 1233) >> 12;
+      long powerHigh = ValueTenPowers128[t * 2];
+      long powerLow = ValueTenPowers128[(t * 2) + 1];
+      boolean less = hi < powerHigh || (hi == powerHigh &&
+          Long.compareUnsigned(lo, powerLow) < 0);
+      return less ? t : t + 1;
+    }
+
+    private static EInteger ToEInteger128(long hi, long lo) {
+      return EInteger.FromInt64(hi).ShiftLeft(64).Add(
+          EInteger.FromInt64AsUnsigned(lo));
+    }
+
     public T MultiplyAndAdd(
       T thisValue,
       T multiplicand,
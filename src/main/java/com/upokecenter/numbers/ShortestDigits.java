@@ -0,0 +1,257 @@
+package com.upokecenter.numbers;
+/*
+Written by Peter O.
+Any copyright to this work is released to the Public Domain.
+In case this is not possible, this work is also
+licensed under the Unlicense: https://unlicense.org/
+
+ */
+
+  // Finds the shortest decimal form of a binary16, binary32, or binary64
+  // value by Giulietti's Schubfach algorithm ("The Schubfach way to
+  // render doubles", 2020).  The value c*2^q has a rounding interval,
+  // the set of real numbers that round to it under round-half-even; the
+  // algorithm scales the interval's bounds by a power of ten, 10^-k,
+  // chosen so that the interval is between 1 and 10 units wide, using a
+  // 126-bit approximation of 10^-k rounded up.  Then at most one
+  // multiple of 10 units lies in the interval, and if none does, one of
+  // the two integers nearest the scaled value does.  The approximations
+  // are rounded to odd, which keeps each comparison with an integer
+  // exact.  This gives the same result as rounding the exact decimal
+  // form of the value to 1, 2, 3, ... significant digits until the
+  // result converts back to the value, which is what
+  // EFloat.ToShortestString does in general, but without any
+  // arbitrary-precision arithmetic.
+  final class ShortestDigits {
+    private ShortestDigits() {
+    }
+
+    // Range of k for binary64 values, which includes the ranges for the
+    // smaller formats
+    private static final int MinK = -324;
+    private static final int MaxK = 292;
+
+    // For each k from MinK through MaxK, the integer g such that
+    // (g - 1) * 2^r <= 10^-k < g * 2^r and 2^125 <= g - 1 < 2^126, split
+    // into its upper bits (g >> 63) and its lower 63 bits
+    private static final long[] ValueTenPowers = TenPowers();
+
+    // Finds the shortest decimal form of a finite nonzero value in the
+    // format given by 'ctx', if the value is exactly representable in
+    // that format, and returns it as EFloat.ToShortestString does.
+    // Returns null if 'ctx' doesn't round like EContext.Binary16,
+    // Binary32, or Binary64, or the value isn't representable in it.
+    // Doesn't change the flags of 'ctx'.
+    static String ToShortestString(EFloat value, EContext ctx) {
+      int precision;
+      int minExponent;
+      int maxExponent;
+      if (ctx.RoundsLike(EContext.Binary64)) {
+        precision = 53;
+        minExponent = -1074;
+        maxExponent = 971;
+      } else if (ctx.RoundsLike(EContext.Binary32)) {
+        precision = 24;
+        minExponent = -149;
+        maxExponent = 104;
+      } else if (ctx.RoundsLike(EContext.Binary16)) {
+        precision = 11;
+        minExponent = -24;
+        maxExponent = 5;
+      } else {
+        return null;
+      }
+      EInteger mant = value.getUnsignedMantissa();
+      EInteger exp = value.getExponent();
+      if (mant.isZero() || !mant.CanFitInInt64() || !exp.CanFitInInt32()) {
+        return null;
+      }
+      long c = mant.ToInt64Unchecked();
+      int tz = Long.numberOfTrailingZeros(c);
+      c >>= tz;
+      long q = (long)exp.ToInt32Unchecked() + tz;
+      int bits = 64 - Long.numberOfLeadingZeros(c);
+      if (bits > precision || q < minExponent) {
+        return null;
+      }
+      // Put the value in the form c*2^q that the format stores: with
+      // 'precision' bits in c, or with the minimum exponent if the value
+      // is subnormal
+      int shift = (int)Math.min(precision - bits, q - minExponent);
+      c <<= shift;
+      q -= shift;
+      if (q > maxExponent) {
+        return null;
+      }
+      long[] digits = ToDecimal(c, (int)q, precision, minExponent);
+      long d = digits[0];
+      int e = (int)digits[1];
+      while (d % 10 == 0) {
+        d /= 10;
+        ++e;
+      }
+      return Format(d, e, value.isNegative());
+    }
+
+    // Formats d*10^e, where d has no trailing zeros, the way
+    // EFloat.ToShortestString formats its result: as EDecimal's
+    // ToPlainString if e is greater than 0 and the value is less than
+    // 10^7, and as EDecimal's toString otherwise
+    private static String Format(long d, int e, boolean negative) {
+      char[] digits = new char[20];
+      int length = 0;
+      for (long v = d; v != 0; v /= 10) {
+        digits[length++] = (char)('0' + (int)(v % 10));
+      }
+      int adjusted = e + length - 1;
+      StringBuilder builder = new StringBuilder(length + 26);
+      if (negative) {
+        builder.append('-');
+      }
+      if (e == 0 || (e > 0 && adjusted < 7)) {
+        // Integer
+        for (int i = length - 1; i >= 0; --i) {
+          builder.append(digits[i]);
+        }
+        for (int i = 0; i < e; ++i) {
+          builder.append('0');
+        }
+      } else if (e < 0 && adjusted >= -6) {
+        // Plain notation with a decimal point
+        int point = e + length;
+        if (point <= 0) {
+          builder.append("0.");
+          for (int i = point; i < 0; ++i) {
+            builder.append('0');
+          }
+        }
+        for (int i = length - 1; i >= 0; --i) {
+          if (i == length - 1 - point && point > 0) {
+            builder.append('.');
+          }
+          builder.append(digits[i]);
+        }
+      } else {
+        // Exponential notation
+        builder.append(digits[length - 1]);
+        if (length > 1) {
+          builder.append('.');
+          for (int i = length - 2; i >= 0; --i) {
+            builder.append(digits[i]);
+          }
+        }
+        builder.append(adjusted < 0 ? "E-" : "E+");
+        builder.append(Math.abs(adjusted));
+      }
+      return builder.toString();
+    }
+
+    // Finds the shortest decimal d*10^e in the rounding interval of c*2^q,
+    // where c is less than 2^precision, and returns {d, e}
+    private static long[] ToDecimal(
+      long c,
+      int q,
+      int precision,
+      int minExponent) {
+      long minC = 1L << (precision - 1);
+      if (q < 0 && q > -precision && ((c >> -q) << -q) == c) {
+        // An integer less than 2^precision: the spacing of values near
+        // it is less than 1, so no shorter decimal is in its interval
+        return new long[] { c >> -q, 0 };
+      }
+      int odd = (int)c & 1;
+      long cb = c << 2;
+      long cbRight = cb + 2;
+      long cbLeft;
+      int k;
+      if (c != minC || q == minExponent) {
+        cbLeft = cb - 2;
+        k = FloorLog10Pow2(q);
+      } else {
+        // At a power of two that isn't the least normal value, the
+        // spacing below the value is half the spacing above it
+        cbLeft = cb - 1;
+        k = FloorLog10ThreeQuartersPow2(q);
+      }
+      int h = q + FloorLog2Pow10(-k) + 2;
+      int index = (k - MinK) << 1;
+      long g1 = ValueTenPowers[index];
+      long g0 = ValueTenPowers[index + 1];
+      // The scaled value and interval bounds, in quarter units
+      long vb = RoundToOdd(g1, g0, cb << h);
+      long vbLeft = RoundToOdd(g1, g0, cbLeft << h);
+      long vbRight = RoundToOdd(g1, g0, cbRight << h);
+      long s = vb >> 2;
+      if (s >= 10) {
+        // Check the multiples of 10 units on either side of the value;
+        // the interval is less than 10 units wide, so it contains at
+        // most one of them, and no other decimal as short
+        long sp10 = (s / 10) * 10;
+        long tp10 = sp10 + 10;
+        boolean upIn = vbLeft + odd <= sp10 << 2;
+        boolean wpIn = (tp10 << 2) + odd <= vbRight;
+        if (upIn != wpIn) {
+          return new long[] { upIn ? sp10 : tp10, k };
+        }
+      }
+      long t = s + 1;
+      boolean uIn = vbLeft + odd <= s << 2;
+      boolean wIn = (t << 2) + odd <= vbRight;
+      if (uIn != wIn) {
+        return new long[] { uIn ? s : t, k };
+      }
+      // Both are in the interval; choose the closer one, or the even one
+      // if they're equally close
+      long cmp = vb - ((s + t) << 1);
+      return new long[] {
+        (cmp < 0 || (cmp == 0 && (s & 1) == 0)) ? s : t, k,
+      };
+    }
+
+    // Finds g*cp / 2^127, rounded to odd, where g = g1*2^63 + g0
+    private static long RoundToOdd(long g1, long g0, long cp) {
+      long x1 = NumberUtility.MultiplyHigh(g0, cp);
+      long y0 = g1 * cp;
+      long y1 = NumberUtility.MultiplyHigh(g1, cp);
+      long z = (y0 >>> 1) + x1;
+      long vbp = y1 + (z >>> 63);
+      return vbp | (((z & Long.MAX_VALUE) + Long.MAX_VALUE) >>> 63);
+    }
+
+    // floor(e * log10(2)), for |e| up to about 5.4 million
+    private static int FloorLog10Pow2(int e) {
+      return (int)((e * 661971961083L) >> 41);
+    }
+
+    // floor(log10(3/4 * 2^e)), for |e| up to about 5.4 million
+    private static int FloorLog10ThreeQuartersPow2(int e) {
+      return (int)((e * 661971961083L - 274743187321L) >> 41);
+    }
+
+    // floor(e * log2(10)), for |e| up to about 1.8 million
+    private static int FloorLog2Pow10(int e) {
+      return (int)((e * 913124641741L) >> 38);
+    }
+
+    private static long[] TenPowers() {
+      long[] ret = new long[(MaxK - MinK + 1) << 1];
+      EInteger mask63 = EInteger.FromInt64(Long.MAX_VALUE);
+      for (int k = MinK; k <= MaxK; ++k) {
+        // 10^-k = beta * 2^r, where 2^125 <= beta < 2^126
+        int r = FloorLog2Pow10(-k) - 125;
+        EInteger g;
+        if (k <= 0) {
+          EInteger power = NumberUtility.FindPowerOfTen(-k);
+          g = (r >= 0) ? power.ShiftRight(r) : power.ShiftLeft(-r);
+        } else {
+          g = EInteger.FromInt32(1).ShiftLeft(-r).Divide(
+              NumberUtility.FindPowerOfTen(k));
+        }
+        g = g.Add(1);
+        int index = (k - MinK) << 1;
+        ret[index] = g.ShiftRight(63).ToInt64Checked();
+        ret[index + 1] = g.And(mask63).ToInt64Checked();
+      }
+      return ret;
+    }
+  }
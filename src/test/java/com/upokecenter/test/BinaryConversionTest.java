@@ -0,0 +1,194 @@
+package com.upokecenter.test;
+
+import org.junit.Assert;
+import org.junit.Test;
+import com.upokecenter.numbers.*;
+
+  public class BinaryConversionTest {
+    // Contexts with flags take the general path, which doesn't use the
+    // fast conversion for binary64 and binary32, so results with them
+    // serve as the expected results.  The two paths can give different
+    // significands and exponents for the same value (such as 1048576.0625
+    // and 1048576.06250000...), so only the values are compared
+    private static void AssertSameValue(
+      String str,
+      EFloat expected,
+      EFloat actual) {
+      Assert.assertEquals(str, 0, expected.compareTo(actual));
+      Assert.assertEquals(str, expected.isNegative(), actual.isNegative());
+    }
+
+    private static void AssertConversion(String str) {
+      EFloat expected = EFloat.FromString(
+          str,
+          EContext.Binary64.WithBlankFlags());
+      AssertSameValue(
+        str,
+        expected,
+        EFloat.FromString(str, EContext.Binary64));
+      Assert.assertEquals(
+        str,
+        Double.doubleToRawLongBits(expected.ToDouble()),
+        Double.doubleToRawLongBits(EDecimal.FromString(str).ToDouble()));
+      expected = EFloat.FromString(str, EContext.Binary32.WithBlankFlags());
+      AssertSameValue(
+        str,
+        expected,
+        EFloat.FromString(str, EContext.Binary32));
+      Assert.assertEquals(
+        str,
+        Float.floatToRawIntBits(expected.ToSingle()),
+        Float.floatToRawIntBits(EDecimal.FromString(str).ToSingle()));
+    }
+
+    private static void AssertConversion(EInteger mant, int exponent) {
+      String str = mant.toString() + "E" + exponent;
+      AssertConversion(str);
+      AssertConversion("-" + str);
+    }
+
+    @Test
+    public void TestHalfwayCases() {
+      // Values halfway between two adjacent binary64 or binary32 values
+      // that have at most 19 significant digits, so that the significand
+      // fits in a 64-bit integer: (2c+1)*2^(e-1), for c with 53 or 24
+      // bits, written as (2c+1)*5^k*10^-k if e - 1 = -k is negative
+      EInteger[] cs = {
+        EInteger.FromInt64(1L << 52),
+        EInteger.FromInt64((1L << 52) + 1),
+        EInteger.FromInt64((1L << 53) - 1),
+        EInteger.FromInt64(6755399441055744L),
+        EInteger.FromInt32(1 << 23),
+        EInteger.FromInt32((1 << 23) + 1),
+        EInteger.FromInt32((1 << 24) - 1),
+        EInteger.FromInt32(12345679),
+      };
+      for (EInteger c : cs) {
+        EInteger odd = c.ShiftLeft(1).Add(1);
+        for (int e = -4; e <= 10; ++e) {
+          if (e >= 0) {
+            EInteger mant = odd.ShiftLeft(e);
+            AssertConversion(mant, 0);
+            if (mant.isEven()) {
+              AssertConversion(mant.ShiftRight(1).Multiply(5), 1);
+            }
+          } else {
+            EInteger mant = odd.Multiply(EInteger.FromInt32(5).Pow(-e));
+            if (mant.GetUnsignedBitLengthAsInt64() < 64) {
+              AssertConversion(mant, e);
+            }
+          }
+          // Values just above and below the halfway point
+          AssertConversion(odd.ShiftLeft(6).Add(1), -6);
+          AssertConversion(odd.ShiftLeft(6).Subtract(1), -6);
+        }
+      }
+      AssertConversion("9007199254740993");
+      AssertConversion("9007199254740995");
+      AssertConversion("9007199254740993E5");
+      AssertConversion("16777217");
+      AssertConversion("16777219");
+      AssertConversion("1.00000005960464477539062");
+      AssertConversion("1.00000005960464477539063");
+    }
+
+    @Test
+    public void TestSubnormals() {
+      String[] strs = {
+        "4.9406564584124654E-324", "4.9406564584124655E-324",
+        "2.4703282292062327E-324", "2.4703282292062328E-324",
+        "7.4109846876186982E-324", "1E-323", "1E-322", "1E-320",
+        "2.2250738585072009E-308", "2.2250738585072011E-308",
+        "2.2250738585072012E-308", "2.2250738585072014E-308",
+        "2.2250738585072013E-308", "1.4012984643248171E-45",
+        "7.0064923216240854E-46", "7.0064923216240853E-46",
+        "1.1754942E-38", "1.17549435E-38", "1.1754944E-38", "1E-40",
+        "9.999999999999999999E-309", "1234567890123456789E-330",
+      };
+      for (String str : strs) {
+        AssertConversion(str);
+        AssertConversion("-" + str);
+      }
+    }
+
+    @Test
+    public void TestOverflowAndLimits() {
+      String[] strs = {
+        "1.7976931348623157E308", "1.7976931348623158E308",
+        "1.7976931348623159E308", "1.797693134862315807E308",
+        "1.797693134862315808E308", "3.4028234E38", "3.4028235E38",
+        "3.40282356E38", "3.40282357E38", "1E39", "1E308", "1E309",
+      };
+      for (String str : strs) {
+        AssertConversion(str);
+        AssertConversion("-" + str);
+      }
+    }
+
+    @Test
+    public void TestExponentEdges() {
+      // The fast conversion's table covers 10^-342 through 10^308; values
+      // outside it, or that round to zero or overflow, take other paths
+      String[] mants = {
+        "1", "2", "9", "123456789", "4294967295", "9007199254740993",
+        "1000000000000000000", "18446744073709551615",
+      };
+      for (String mant : mants) {
+        for (int q = -346; q <= -338; ++q) {
+          AssertConversion(mant + "E" + q);
+        }
+        for (int q = 286; q <= 310; ++q) {
+          AssertConversion(mant + "E" + q);
+        }
+        for (int q = -68; q <= -62; ++q) {
+          AssertConversion(mant + "E" + q);
+        }
+        for (int q = 36; q <= 40; ++q) {
+          AssertConversion(mant + "E" + q);
+        }
+      }
+    }
+
+    @Test
+    public void TestUnknownFallback() {
+      // Values whose product with the table entry for 5^q has all ones in
+      // its lower 64 bits, so that the fast conversion can't tell which
+      // way to round and leaves them to the general path; the last one
+      // does so for binary32 as well as binary64
+      String[] strs = {
+        "9495784171365944765E-329", "9734559530549076843E-224",
+        "9313446463250210747E-188", "9266852287701459753E-169",
+        "9797296344114496101E-160", "9801065208877838037E-156",
+        "9342708520487353745E-130", "9782740569521650461E-121",
+        "9847830601098862761E-115", "9283354611594685709E-89",
+        "9280786500547668979E-67", "9792353653691471313E270",
+        "9854224025956197963E276", "9724429689633648307E292",
+        "9586467486297153595E-46",
+      };
+      for (String str : strs) {
+        AssertConversion(str);
+        AssertConversion("-" + str);
+        Assert.assertEquals(
+          str,
+          Double.doubleToRawLongBits(Double.parseDouble(str)),
+          Double.doubleToRawLongBits(EDecimal.FromString(str).ToDouble()));
+        Assert.assertEquals(
+          str,
+          Float.floatToRawIntBits(Float.parseFloat(str)),
+          Float.floatToRawIntBits(EDecimal.FromString(str).ToSingle()));
+      }
+    }
+
+    @Test
+    public void TestRandomValues() {
+      java.util.Random rand = new java.util.Random(20210321L);
+      for (int i = 0; i < 20000; ++i) {
+        long w = rand.nextLong() >>> (1 + rand.nextInt(63));
+        if (w == 0) {
+          continue;
+        }
+        int q = rand.nextInt(700) - 360;
+        AssertConversion(EInteger.FromInt64(w), q);
+      }
+    }
+  }
@@ -1,5 +1,7 @@
 package com.upokecenter.test;
 
+import java.io.*;
+import java.nio.*;
 import org.junit.Assert;
 import org.junit.Test;
 import com.upokecenter.numbers.*;
@@ -56,6 +58,207 @@ import com.upokecenter.numbers.*;
       ctx = EContext.Unlimited.WithExponentRange(-5, 5);
       Assert.assertEquals(EInteger.FromInt64(-5), ctx.getEMin());
     }
+    @Test
+    public void TestEncodedForm() {
+      EContext flagged = EContext.Decimal32.WithBlankFlags();
+      flagged.setFlags(EContext.FlagInexact | EContext.FlagRounded |
+        EContext.FlagLostDigits);
+      EContext allFlags = EContext.Decimal32.WithBlankFlags();
+      allFlags.setFlags(-1);
+      EContext[] contexts = {
+        EContext.Unlimited, EContext.UnlimitedHalfEven, EContext.Basic,
+        EContext.BigDecimalJava, EContext.Binary16, EContext.Binary32,
+        EContext.Binary64, EContext.Binary128, EContext.CliDecimal,
+        EContext.Decimal32, EContext.Decimal64, EContext.Decimal128,
+        EContext.ForPrecision(5).WithExponentClamp(true),
+        EContext.ForPrecision(5).WithExponentRange(-10, 10)
+        .WithExponentClamp(true),
+        EContext.Binary64.WithAdjustExponent(false),
+        EContext.ForPrecision(20).WithPrecisionInBits(true),
+        EContext.Basic.WithSimplified(true),
+        EContext.Basic.WithBlankFlags(),
+        EContext.Basic.WithTraps(EContext.FlagInexact | EContext.FlagOverflow),
+        EContext.Basic.WithTraps(-1),
+        EContext.Unlimited.WithBigPrecision(
+          EInteger.FromInt32(1).ShiftLeft(100)),
+        EContext.ForPrecision(3).WithBigExponentRange(
+          EInteger.FromInt64(Long.MIN_VALUE).Multiply(3),
+          EInteger.FromInt64(Long.MAX_VALUE).Multiply(3)),
+        EContext.ForPrecision(3).WithExponentRange(7, 7), flagged, allFlags,
+      };
+      ERounding[] roundings = ERounding.values();
+      EContext[] values = new EContext[contexts.length + roundings.length];
+      System.arraycopy(contexts, 0, values, 0, contexts.length);
+      for (int i = 0; i < roundings.length; ++i) {
+        values[contexts.length + i] = EContext.ForRounding(roundings[i]);
+      }
+      for (EContext ctx : values) {
+        byte[] bytes = ctx.ToEncodedBytes();
+        Assert.assertEquals(ctx.GetEncodedLength(), bytes.length);
+        Assert.assertEquals(
+          ctx.toString(),
+          EContext.FromEncodedBytes(bytes).toString());
+        TestCommon.AssertByteArraysEqual(
+          bytes,
+          EContext.FromEncodedBytes(bytes).ToEncodedBytes());
+        for (ByteBuffer buffer : TestCommon.ByteBuffers(bytes)) {
+          TestCommon.AssertByteArraysEqual(
+            bytes,
+            EContext.ReadEncoded(buffer).ToEncodedBytes());
+          Assert.assertFalse(buffer.hasRemaining());
+        }
+        // Writing to a heap buffer at an offset and to a direct buffer
+        ByteBuffer buffer = ByteBuffer.allocate(bytes.length + 5);
+        buffer.position(5);
+        ctx.WriteEncoded(buffer);
+        Assert.assertFalse(buffer.hasRemaining());
+        TestCommon.AssertByteArraysEqual(
+          bytes,
+          buffer.array(),
+          5,
+          bytes.length);
+        buffer = ByteBuffer.allocateDirect(bytes.length);
+        ctx.WriteEncoded(buffer);
+        buffer.flip();
+        byte[] written = new byte[bytes.length];
+        buffer.get(written);
+        TestCommon.AssertByteArraysEqual(bytes, written);
+        try {
+          ByteArrayOutputStream stream = new ByteArrayOutputStream();
+          ctx.WriteEncoded(new DataOutputStream(stream));
+          TestCommon.AssertByteArraysEqual(bytes, stream.toByteArray());
+          DataInputStream input = new DataInputStream(
+            new ByteArrayInputStream(bytes));
+          TestCommon.AssertByteArraysEqual(
+            bytes,
+            EContext.ReadEncoded(input).ToEncodedBytes());
+          Assert.assertEquals(-1, input.read());
+        } catch (IOException ex) {
+          Assert.fail(ex.toString());
+        }
+        // Truncated encodings, and trailing bytes, are rejected
+        for (int i = 0; i < bytes.length; ++i) {
+          byte[] prefix = new byte[i];
+          System.arraycopy(bytes, 0, prefix, 0, i);
+          try {
+            EContext.FromEncodedBytes(prefix);
+            Assert.fail("Should have failed");
+          } catch (IllegalArgumentException ex) {
+            // NOTE: Intentionally empty
+          }
+          buffer = ByteBuffer.wrap(prefix);
+          try {
+            EContext.ReadEncoded(buffer);
+            Assert.fail("Should have failed");
+          } catch (BufferUnderflowException ex) {
+            Assert.assertEquals(0, buffer.position());
+          }
+          try {
+            EContext.ReadEncoded(
+              new DataInputStream(new ByteArrayInputStream(prefix)));
+            Assert.fail("Should have failed");
+          } catch (EOFException ex) {
+            // NOTE: Intentionally empty
+          } catch (IOException ex) {
+            Assert.fail(ex.toString());
+          }
+        }
+        byte[] longer = new byte[bytes.length + 1];
+        System.arraycopy(bytes, 0, longer, 0, bytes.length);
+        try {
+          EContext.FromEncodedBytes(longer);
+          Assert.fail("Should have failed");
+        } catch (IllegalArgumentException ex) {
+          // NOTE: Intentionally empty
+        }
+      }
+    }
+
+    @Test
+    public void TestEncodedFormInvalid() {
+      // Infinity as the kind, a negative sign, unknown property bits, an
+      // unknown rounding mode, EMin greater than EMax, and traps or flags
+      // beyond 32 bits
+      byte[][] invalid = {
+        new byte[] { 0x12, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00 },
+        new byte[] { 0x11, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00 },
+        new byte[] { 0x10, 0x40, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00 },
+        new byte[] {
+          0x10, 0x00, (byte)ERounding.values().length, 0x00, 0x00, 0x00,
+          0x00, 0x00,
+        },
+        new byte[] { 0x10, 0x04, 0x00, 0x00, 0x02, 0x00, 0x00, 0x00 },
+        new byte[] {
+          0x10, 0x00, 0x00, 0x00, 0x00, 0x00, (byte)0x80, (byte)0x80,
+          (byte)0x80, (byte)0x80, 0x10, 0x00,
+        },
+        new byte[] {
+          0x10, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00, (byte)0x80, (byte)0x80,
+          (byte)0x80, (byte)0x80, 0x10,
+        },
+      };
+      for (byte[] bytes : invalid) {
+        try {
+          EContext.FromEncodedBytes(bytes);
+          Assert.fail("Should have failed");
+        } catch (IllegalArgumentException ex) {
+          // NOTE: Intentionally empty
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        try {
+          EContext.ReadEncoded(buffer);
+          Assert.fail("Should have failed");
+        } catch (IllegalArgumentException ex) {
+          Assert.assertEquals(0, buffer.position());
+        }
+        try {
+          EContext.ReadEncoded(
+            new DataInputStream(new ByteArrayInputStream(bytes)));
+          Assert.fail("Should have failed");
+        } catch (EOFException ex) {
+          Assert.fail(ex.toString());
+        } catch (IOException ex) {
+          // NOTE: Intentionally empty
+        }
+      }
+      // Random bytes either decode to a value whose encoding is the same
+      // bytes, or are rejected
+      java.util.Random rand = new java.util.Random(54325);
+      for (int i = 0; i < 1000; ++i) {
+        byte[] bytes = new byte[rand.nextInt(12) + 1];
+        rand.nextBytes(bytes);
+        // Use the supported version most of the time
+        if (rand.nextInt(4) != 0) {
+          bytes[0] = (byte)((bytes[0] & 0x0f) | 0x10);
+        }
+        EContext ctx;
+        try {
+          ctx = EContext.FromEncodedBytes(bytes);
+        } catch (IllegalArgumentException ex) {
+          continue;
+        }
+        TestCommon.AssertByteArraysEqual(bytes, ctx.ToEncodedBytes());
+      }
+    }
+
+    @Test
+    public void TestEncodedFormExponentClamp() {
+      // Exponent clamping has no effect without an exponent range, but
+      // the setting is kept and applies once a range is added
+      EContext ctx = EContext.ForPrecision(5).WithExponentClamp(true);
+      EContext decoded = EContext.FromEncodedBytes(ctx.ToEncodedBytes());
+      Assert.assertFalse(decoded.getClampNormalExponents());
+      ctx = ctx.WithExponentRange(-10, 10);
+      decoded = decoded.WithExponentRange(-10, 10);
+      Assert.assertTrue(ctx.getClampNormalExponents());
+      Assert.assertTrue(decoded.getClampNormalExponents());
+      EDecimal value = EDecimal.FromString("1E+10");
+      Assert.assertEquals("1.0000E+10", value.RoundToPrecision(ctx).toString());
+      Assert.assertEquals(
+        "1.0000E+10",
+        value.RoundToPrecision(decoded).toString());
+    }
+
     @Test
     public void TestExponentWithinRange() {
       if (!(EContext.Unlimited.ExponentWithinRange(
@@ -1,5 +1,7 @@
 package com.upokecenter.test;
 
+import java.io.*;
+import java.nio.*;
 import java.util.*;
 
 import org.junit.Assert;
@@ -175,6 +177,76 @@ import com.upokecenter.numbers.*;
       Assert.assertEquals(a.signum(), b.signum());
     }
 
+    // Checks that 'actual' has the same significand and exponent as
+    // 'expected', and is stored the same way as the number parsed from
+    // its text, so that the two are equal and have the same hash code
+    private static void AssertSameDecimal(
+      java.math.BigDecimal expected,
+      EDecimal actual,
+      String msg) {
+      EDecimal ed = EDecimal.FromString(expected.toString());
+      // BigDecimal has no negative zero
+      EDecimal act = actual.isZero() ? actual.Abs() : actual;
+      Assert.assertEquals(msg, ed, act);
+      Assert.assertEquals(msg, ed.hashCode(), act.hashCode());
+    }
+
+    @Test
+    public void TestInlineSignificandBoundaries() {
+      // Significands less than 2^63 are stored inline and others are not;
+      // these operands and their results cross that boundary both ways
+      String[] strs = {
+        "0", "1", "-1", "0.5", "-2.5E-3", "10", "4611686018427387904",
+        "9223372036854775807", "-9223372036854775807", "9223372036854775808",
+        "-9223372036854775808", "922337203685477580.7",
+        "-92233720368547758.08E+3", "18446744073709551616",
+        "18446744073709551615E-2", "1E+20", "1E-30",
+      };
+      for (String strA : strs) {
+        java.math.BigDecimal bigA = new java.math.BigDecimal(strA);
+        EDecimal a = EDecimal.FromString(strA);
+        for (String strB : strs) {
+          String msg = strA + " " + strB;
+          java.math.BigDecimal bigB = new java.math.BigDecimal(strB);
+          EDecimal b = EDecimal.FromString(strB);
+          AssertSameDecimal(bigA.add(bigB), a.Add(b), msg);
+          AssertSameDecimal(bigA.subtract(bigB), a.Subtract(b), msg);
+          AssertSameDecimal(bigA.multiply(bigB), a.Multiply(b), msg);
+          Assert.assertEquals(
+            msg,
+            bigA.compareTo(bigB),
+            Integer.signum(a.compareTo(b)));
+          if (bigB.signum() != 0) {
+            java.math.BigDecimal quotient = bigA.divideToIntegralValue(bigB);
+            AssertSameDecimal(
+              new java.math.BigDecimal(quotient.toBigInteger()),
+              a.DivideToIntegerZeroScale(b, null),
+              msg);
+            Assert.assertEquals(
+              msg,
+              0,
+              bigA.remainder(bigB).compareTo(new java.math.BigDecimal(
+                a.Remainder(b, EContext.Unlimited).toString())));
+          }
+        }
+      }
+      // Quotients that fit inline although the dividend doesn't
+      EDecimal big = EDecimal.FromString("18446744073709551616");
+      AssertSameDecimal(
+        new java.math.BigDecimal("4611686018427387904"),
+        big.Divide(EDecimal.FromInt32(4)),
+        "");
+      AssertSameDecimal(
+        new java.math.BigDecimal("-9223372036854775807"),
+        EDecimal.FromString("-92233720368547758070").Divide(
+          EDecimal.FromInt32(10)),
+        "");
+      AssertSameDecimal(
+        new java.math.BigDecimal("1"),
+        big.Subtract(EDecimal.FromString("18446744073709551615")),
+        "");
+    }
+
     @Test
     public void TestCompareTo() {
       RandomGenerator r = new RandomGenerator();
@@ -1386,6 +1458,150 @@ import com.upokecenter.numbers.*;
     public void TestDivideToSameExponent() {
       // not implemented yet
     }
+    @Test
+    public void TestEncodedForm() {
+      String[] strs = {
+        "0", "-0", "1", "-1", "1.5", "-1E-400", "0E+10", "-0E-10",
+        "123456789012345678901234567890E-12345678901234567890",
+        "9.99E+999999999999", "Infinity", "-Infinity", "NaN", "-NaN",
+        "NaN123", "-NaN18446744073709551616", "sNaN", "-sNaN99",
+      };
+      EDecimal[] values = new EDecimal[strs.length + 3];
+      for (int i = 0; i < strs.length; ++i) {
+        values[i] = EDecimal.FromString(strs[i]);
+      }
+      EInteger big = EInteger.FromInt32(1).ShiftLeft(1000).Add(12345);
+      values[strs.length] = EDecimal.Create(big, big);
+      values[strs.length + 1] = EDecimal.Create(
+        EInteger.FromInt64(Long.MIN_VALUE),
+        EInteger.FromInt64(Long.MAX_VALUE));
+      values[strs.length + 2] = EDecimal.Create(-128, Integer.MIN_VALUE);
+      for (EDecimal ed : values) {
+        byte[] bytes = ed.ToEncodedBytes();
+        Assert.assertEquals(ed.GetEncodedLength(), bytes.length);
+        Assert.assertEquals(ed, EDecimal.FromEncodedBytes(bytes));
+        for (ByteBuffer buffer : TestCommon.ByteBuffers(bytes)) {
+          Assert.assertEquals(ed, EDecimal.ReadEncoded(buffer));
+          Assert.assertFalse(buffer.hasRemaining());
+        }
+        // Writing to a heap buffer at an offset and to a direct buffer
+        ByteBuffer buffer = ByteBuffer.allocate(bytes.length + 5);
+        buffer.position(5);
+        ed.WriteEncoded(buffer);
+        Assert.assertFalse(buffer.hasRemaining());
+        TestCommon.AssertByteArraysEqual(
+          bytes,
+          buffer.array(),
+          5,
+          bytes.length);
+        buffer = ByteBuffer.allocateDirect(bytes.length);
+        ed.WriteEncoded(buffer);
+        buffer.flip();
+        byte[] written = new byte[bytes.length];
+        buffer.get(written);
+        TestCommon.AssertByteArraysEqual(bytes, written);
+        try {
+          ByteArrayOutputStream stream = new ByteArrayOutputStream();
+          ed.WriteEncoded(new DataOutputStream(stream));
+          TestCommon.AssertByteArraysEqual(bytes, stream.toByteArray());
+          DataInputStream input = new DataInputStream(
+            new ByteArrayInputStream(bytes));
+          Assert.assertEquals(ed, EDecimal.ReadEncoded(input));
+          Assert.assertEquals(-1, input.read());
+        } catch (IOException ex) {
+          Assert.fail(ex.toString());
+        }
+        // Truncated encodings, and trailing bytes, are rejected
+        for (int i = 0; i < bytes.length; ++i) {
+          byte[] prefix = new byte[i];
+          System.arraycopy(bytes, 0, prefix, 0, i);
+          try {
+            EDecimal.FromEncodedBytes(prefix);
+            Assert.fail("Should have failed");
+          } catch (IllegalArgumentException ex) {
+            // NOTE: Intentionally empty
+          }
+          buffer = ByteBuffer.wrap(prefix);
+          try {
+            EDecimal.ReadEncoded(buffer);
+            Assert.fail("Should have failed");
+          } catch (BufferUnderflowException ex) {
+            Assert.assertEquals(0, buffer.position());
+          }
+          try {
+            EDecimal.ReadEncoded(
+              new DataInputStream(new ByteArrayInputStream(prefix)));
+            Assert.fail("Should have failed");
+          } catch (EOFException ex) {
+            // NOTE: Intentionally empty
+          } catch (IOException ex) {
+            Assert.fail(ex.toString());
+          }
+        }
+        byte[] longer = new byte[bytes.length + 1];
+        System.arraycopy(bytes, 0, longer, 0, bytes.length);
+        try {
+          EDecimal.FromEncodedBytes(longer);
+          Assert.fail("Should have failed");
+        } catch (IllegalArgumentException ex) {
+          // NOTE: Intentionally empty
+        }
+      }
+    }
+
+    @Test
+    public void TestEncodedFormInvalid() {
+      // An unsupported format version, an unknown kind, and an overlong
+      // exponent
+      byte[][] invalid = {
+        new byte[] { 0x20, 0x01 },
+        new byte[] { 0x18, 0x01, 0x00 },
+        new byte[] { 0x10, 0x01, (byte)0x80, 0x00 },
+      };
+      for (byte[] bytes : invalid) {
+        try {
+          EDecimal.FromEncodedBytes(bytes);
+          Assert.fail("Should have failed");
+        } catch (IllegalArgumentException ex) {
+          // NOTE: Intentionally empty
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        try {
+          EDecimal.ReadEncoded(buffer);
+          Assert.fail("Should have failed");
+        } catch (IllegalArgumentException ex) {
+          Assert.assertEquals(0, buffer.position());
+        }
+        try {
+          EDecimal.ReadEncoded(
+            new DataInputStream(new ByteArrayInputStream(bytes)));
+          Assert.fail("Should have failed");
+        } catch (EOFException ex) {
+          Assert.fail(ex.toString());
+        } catch (IOException ex) {
+          // NOTE: Intentionally empty
+        }
+      }
+      // Random bytes either decode to a value whose encoding is the same
+      // bytes, or are rejected
+      java.util.Random rand = new java.util.Random(54322);
+      for (int i = 0; i < 1000; ++i) {
+        byte[] bytes = new byte[rand.nextInt(12) + 1];
+        rand.nextBytes(bytes);
+        // Use the supported version most of the time
+        if (rand.nextInt(4) != 0) {
+          bytes[0] = (byte)((bytes[0] & 0x0f) | 0x10);
+        }
+        EDecimal ed;
+        try {
+          ed = EDecimal.FromEncodedBytes(bytes);
+        } catch (IllegalArgumentException ex) {
+          continue;
+        }
+        TestCommon.AssertByteArraysEqual(bytes, ed.ToEncodedBytes());
+      }
+    }
+
     @Test
     public void TestEquals() {
       if (EDecimal.One.equals(null)) {
@@ -2700,6 +2916,122 @@ import com.upokecenter.numbers.*;
       }
     }
 
+    @Test
+    public void TestFromStringSources() {
+      String[] fixedStrs = {
+        "0", "-0", "+0", "1", "-1", "123", "1.5", "-.5", "5.", "1E5", "1e-5",
+        "-1.25E+10", "00012.3400", "123456789012345678901234567890",
+        "-123456789012345678901234567890.5E-20", "1E400", "-1E-400",
+        "9007199254740993", "4.9406564584124654E-324", "Infinity", "-INF",
+        "NaN", "-NaN123", "sNaN", "", "-", ".", "1e", "1e+", "1..2", "12a",
+        " 1", "1 ", "0x10", "1,000", "1/2",
+      };
+      String[] strs = new String[fixedStrs.length + 300];
+      System.arraycopy(fixedStrs, 0, strs, 0, fixedStrs.length);
+      java.util.Random rand = new java.util.Random(1234);
+      for (int i = fixedStrs.length; i < strs.length; ++i) {
+        StringBuilder builder = new StringBuilder();
+        if (rand.nextInt(2) == 0) {
+          builder.append('-');
+        }
+        int digits = 1 + rand.nextInt(40);
+        for (int j = 0; j < digits; ++j) {
+          builder.append((char)('0' + rand.nextInt(10)));
+        }
+        if (rand.nextInt(2) == 0) {
+          builder.insert(builder.length() - rand.nextInt(digits), '.');
+        }
+        builder.append('E').append(rand.nextInt(800) - 400);
+        strs[i] = builder.toString();
+      }
+      for (String str : strs) {
+        StringBuilder padded = new StringBuilder("#$").append(str).append('%');
+        byte[] bytes = str.getBytes(java.nio.charset.StandardCharsets.UTF_8);
+        String expected;
+        try {
+          expected = EDecimal.FromString(str).toString();
+        } catch (NumberFormatException ex) {
+          expected = null;
+        }
+        for (CharSequence cs : TestCommon.CharSequences(str)) {
+          try {
+            Assert.assertEquals(
+              str,
+              expected,
+              EDecimal.FromString(cs).toString());
+          } catch (NumberFormatException ex) {
+            Assert.assertNull(str, expected);
+          }
+          Assert.assertEquals(str.length(), cs.length());
+        }
+        try {
+          Assert.assertEquals(
+            str,
+            expected,
+            EDecimal.FromString(padded, 2, str.length()).toString());
+        } catch (NumberFormatException ex) {
+          Assert.assertNull(str, expected);
+        }
+        for (ByteBuffer buffer : TestCommon.ByteBuffers(bytes)) {
+          try {
+            Assert.assertEquals(
+              str,
+              expected,
+              EDecimal.FromString(buffer).toString());
+          } catch (NumberFormatException ex) {
+            Assert.assertNull(str, expected);
+          }
+          Assert.assertEquals(bytes.length, buffer.remaining());
+        }
+        // With a context
+        try {
+          expected = EDecimal.FromString(str, EContext.Decimal64).toString();
+        } catch (NumberFormatException ex) {
+          expected = null;
+        }
+        for (CharSequence cs : TestCommon.CharSequences(str)) {
+          try {
+            Assert.assertEquals(
+              str,
+              expected,
+              EDecimal.FromString(cs, EContext.Decimal64).toString());
+          } catch (NumberFormatException ex) {
+            Assert.assertNull(str, expected);
+          }
+          Assert.assertEquals(str.length(), cs.length());
+        }
+        try {
+          Assert.assertEquals(
+            str,
+            expected,
+            EDecimal.FromString(
+              padded,
+              2,
+              str.length(),
+              EContext.Decimal64).toString());
+        } catch (NumberFormatException ex) {
+          Assert.assertNull(str, expected);
+        }
+        for (ByteBuffer buffer : TestCommon.ByteBuffers(bytes)) {
+          try {
+            Assert.assertEquals(
+              str,
+              expected,
+              EDecimal.FromString(buffer, EContext.Decimal64).toString());
+          } catch (NumberFormatException ex) {
+            Assert.assertNull(str, expected);
+          }
+          Assert.assertEquals(bytes.length, buffer.remaining());
+        }
+      }
+      try {
+        EDecimal.FromString((CharSequence)null);
+        Assert.fail("Should have failed");
+      } catch (NullPointerException ex) {
+        // NOTE: Intentionally empty
+      }
+    }
+
     @Test
     public void TestFromStringDecimal() {
       {
@@ -3019,6 +3351,57 @@ import com.upokecenter.numbers.*;
           stringTemp);
       }
     }
+    @Test
+    public void TestMultiplyMantissaBoundaries() {
+      // Products of significands that fit in 64 bits are rounded directly
+      // for precisions of up to 18 digits; each must match the exact
+      // product rounded by the general method, along with its flags
+      String[] mants = {
+        "1", "9", "999999999", "1000000001", "3037000499", "3037000500",
+        "4294967297", "500000000000000005", "999999999999999999",
+        "1000000000000000000", "9223372036854775807", "9223372036854775808",
+        "18446744073709551615",
+      };
+      int[] exps = { 0, -7, 190, -200 };
+      EContext[] contexts = {
+        EContext.Decimal32, EContext.Decimal64,
+        EContext.Decimal64.WithPrecision(18),
+        EContext.Decimal64.WithPrecision(19),
+        EContext.ForPrecision(18).WithExponentRange(-30, 30),
+      };
+      ERounding[] roundings = {
+        ERounding.HalfEven, ERounding.HalfUp, ERounding.HalfDown,
+        ERounding.Down, ERounding.Up, ERounding.Ceiling, ERounding.Floor,
+        ERounding.OddOrZeroFiveUp,
+      };
+      for (int i = 0; i < mants.length * exps.length; ++i) {
+        EDecimal a = EDecimal.Create(
+            EInteger.FromString(mants[i / exps.length]),
+            exps[i % exps.length]);
+        for (int j = 0; j < mants.length * exps.length; ++j) {
+          EDecimal b = EDecimal.Create(
+              EInteger.FromString(mants[j / exps.length]),
+              exps[j % exps.length]);
+          if (j % 3 == 0) {
+            b = b.Negate();
+          }
+          EDecimal exact = a.Multiply(b);
+          for (EContext context : contexts) {
+            for (ERounding rounding : roundings) {
+              EContext ctx = context.WithRounding(rounding).WithBlankFlags();
+              EContext ctxExpected = context.WithRounding(rounding)
+                .WithBlankFlags();
+              String msg = a + " " + b + " " + ctx;
+              EDecimal expected = exact.RoundToPrecision(ctxExpected);
+              EDecimal actual = a.Multiply(b, ctx);
+              Assert.assertEquals(msg, expected.toString(), actual.toString());
+              Assert.assertEquals(msg, ctxExpected.getFlags(), ctx.getFlags());
+            }
+          }
+        }
+      }
+    }
+
     @Test
     public void TestMultiply() {
       // not implemented yet
@@ -5652,6 +6035,240 @@ import com.upokecenter.numbers.*;
     public void TestUnsignedMantissa() {
       // not implemented yet
     }
+
+    // Values for the WriteString tests: special values, values with
+    // zero and nonzero exponents of both signs, and random values
+    private static EDecimal[] WriteStringValues() {
+      String[] strs = {
+        "0", "-0", "1", "-1", "0.1", "123.456", "-1E-7", "1E+3", "1.23E+5",
+        "12345E-3", "0E+5", "-0E-5", "0.000001", "0.0000001", "1E+100",
+        "-1.5E-100", "123456789012345678901234567890",
+        "-123456789012345678901234567890E-45", "Infinity", "-Infinity",
+        "NaN", "-NaN", "NaN123", "sNaN", "-sNaN456789012345678901234567890",
+      };
+      EDecimal[] values = new EDecimal[strs.length + 2000];
+      for (int i = 0; i < strs.length; ++i) {
+        values[i] = EDecimal.FromString(strs[i]);
+      }
+      java.util.Random rand = new java.util.Random(2023);
+      for (int i = strs.length; i < values.length; ++i) {
+        EInteger mant = EInteger.FromInt64(rand.nextLong() >>
+          rand.nextInt(64));
+        EInteger exp = EInteger.FromInt32(rand.nextInt(80) - 40);
+        values[i] = EDecimal.Create(mant, exp);
+      }
+      return values;
+    }
+
+    @Test
+    public void TestWriteString() {
+      for (EDecimal ed : WriteStringValues()) {
+        String str = ed.toString();
+        int length = str.length();
+        byte[] utf8 = str.getBytes(java.nio.charset.StandardCharsets.UTF_8);
+        Assert.assertEquals(str, length, ed.GetStringLength());
+        StringBuilder builder = new StringBuilder("abc");
+        try {
+          ed.WriteString(builder);
+        } catch (IOException ex) {
+          Assert.fail(ex.toString());
+        }
+        Assert.assertEquals("abc" + str, builder.toString());
+        char[] chars = new char[length + 3];
+        Assert.assertEquals(length, ed.WriteString(chars, 3));
+        Assert.assertEquals(str, new String(chars, 3, length));
+        byte[] bytes = new byte[length + 2];
+        Assert.assertEquals(length, ed.WriteStringUtf8(bytes, 2));
+        TestCommon.AssertByteArraysEqual(utf8, bytes, 2, length);
+        ByteBuffer buffer = ByteBuffer.allocate(length + 4);
+        buffer.position(1);
+        ed.WriteStringUtf8(buffer);
+        Assert.assertEquals(length + 1, buffer.position());
+        TestCommon.AssertByteArraysEqual(utf8, buffer.array(), 1, length);
+        buffer = ByteBuffer.allocateDirect(length);
+        ed.WriteStringUtf8(buffer);
+        Assert.assertFalse(buffer.hasRemaining());
+        buffer.flip();
+        byte[] written = new byte[length];
+        buffer.get(written);
+        TestCommon.AssertByteArraysEqual(utf8, written);
+        // Targets with too little room
+        try {
+          ed.WriteString(new char[length + 2], 3);
+          Assert.fail("Should have failed: " + str);
+        } catch (IllegalArgumentException ex) {
+          // NOTE: Intentionally empty
+        }
+        try {
+          ed.WriteStringUtf8(new byte[length - 1], 0);
+          Assert.fail("Should have failed: " + str);
+        } catch (IllegalArgumentException ex) {
+          // NOTE: Intentionally empty
+        }
+        buffer = ByteBuffer.allocate(length + 1);
+        buffer.position(2);
+        try {
+          ed.WriteStringUtf8(buffer);
+          Assert.fail("Should have failed: " + str);
+        } catch (BufferOverflowException ex) {
+          Assert.assertEquals(2, buffer.position());
+        }
+        buffer = ByteBuffer.allocateDirect(length - 1);
+        try {
+          ed.WriteStringUtf8(buffer);
+          Assert.fail("Should have failed: " + str);
+        } catch (BufferOverflowException ex) {
+          Assert.assertEquals(0, buffer.position());
+        }
+      }
+      try {
+        EDecimal.One.WriteString((char[])null, 0);
+        Assert.fail("Should have failed");
+      } catch (NullPointerException ex) {
+        // NOTE: Intentionally empty
+      }
+    }
+
+    @Test
+    public void TestWriteEngineeringString() {
+      for (EDecimal ed : WriteStringValues()) {
+        String str = ed.ToEngineeringString();
+        int length = str.length();
+        byte[] utf8 = str.getBytes(java.nio.charset.StandardCharsets.UTF_8);
+        Assert.assertEquals(str, length, ed.GetEngineeringStringLength());
+        StringBuilder builder = new StringBuilder("abc");
+        try {
+          ed.WriteEngineeringString(builder);
+        } catch (IOException ex) {
+          Assert.fail(ex.toString());
+        }
+        Assert.assertEquals("abc" + str, builder.toString());
+        char[] chars = new char[length + 3];
+        Assert.assertEquals(length, ed.WriteEngineeringString(chars, 3));
+        Assert.assertEquals(str, new String(chars, 3, length));
+        byte[] bytes = new byte[length + 2];
+        Assert.assertEquals(length, ed.WriteEngineeringStringUtf8(bytes, 2));
+        TestCommon.AssertByteArraysEqual(utf8, bytes, 2, length);
+        ByteBuffer buffer = ByteBuffer.allocate(length + 4);
+        buffer.position(1);
+        ed.WriteEngineeringStringUtf8(buffer);
+        Assert.assertEquals(length + 1, buffer.position());
+        TestCommon.AssertByteArraysEqual(utf8, buffer.array(), 1, length);
+        buffer = ByteBuffer.allocateDirect(length);
+        ed.WriteEngineeringStringUtf8(buffer);
+        Assert.assertFalse(buffer.hasRemaining());
+        buffer.flip();
+        byte[] written = new byte[length];
+        buffer.get(written);
+        TestCommon.AssertByteArraysEqual(utf8, written);
+        // Targets with too little room
+        try {
+          ed.WriteEngineeringString(new char[length + 2], 3);
+          Assert.fail("Should have failed: " + str);
+        } catch (IllegalArgumentException ex) {
+          // NOTE: Intentionally empty
+        }
+        try {
+          ed.WriteEngineeringStringUtf8(new byte[length - 1], 0);
+          Assert.fail("Should have failed: " + str);
+        } catch (IllegalArgumentException ex) {
+          // NOTE: Intentionally empty
+        }
+        buffer = ByteBuffer.allocate(length + 1);
+        buffer.position(2);
+        try {
+          ed.WriteEngineeringStringUtf8(buffer);
+          Assert.fail("Should have failed: " + str);
+        } catch (BufferOverflowException ex) {
+          Assert.assertEquals(2, buffer.position());
+        }
+        buffer = ByteBuffer.allocateDirect(length - 1);
+        try {
+          ed.WriteEngineeringStringUtf8(buffer);
+          Assert.fail("Should have failed: " + str);
+        } catch (BufferOverflowException ex) {
+          Assert.assertEquals(0, buffer.position());
+        }
+      }
+    }
+
+    @Test
+    public void TestWritePlainString() {
+      for (EDecimal ed : WriteStringValues()) {
+        String str = ed.ToPlainString();
+        int length = str.length();
+        byte[] utf8 = str.getBytes(java.nio.charset.StandardCharsets.UTF_8);
+        Assert.assertEquals(str, length, ed.GetPlainStringLength());
+        StringBuilder builder = new StringBuilder("abc");
+        try {
+          ed.WritePlainString(builder);
+        } catch (IOException ex) {
+          Assert.fail(ex.toString());
+        }
+        Assert.assertEquals("abc" + str, builder.toString());
+        char[] chars = new char[length + 3];
+        Assert.assertEquals(length, ed.WritePlainString(chars, 3));
+        Assert.assertEquals(str, new String(chars, 3, length));
+        byte[] bytes = new byte[length + 2];
+        Assert.assertEquals(length, ed.WritePlainStringUtf8(bytes, 2));
+        TestCommon.AssertByteArraysEqual(utf8, bytes, 2, length);
+        ByteBuffer buffer = ByteBuffer.allocate(length + 4);
+        buffer.position(1);
+        ed.WritePlainStringUtf8(buffer);
+        Assert.assertEquals(length + 1, buffer.position());
+        TestCommon.AssertByteArraysEqual(utf8, buffer.array(), 1, length);
+        buffer = ByteBuffer.allocateDirect(length);
+        ed.WritePlainStringUtf8(buffer);
+        Assert.assertFalse(buffer.hasRemaining());
+        buffer.flip();
+        byte[] written = new byte[length];
+        buffer.get(written);
+        TestCommon.AssertByteArraysEqual(utf8, written);
+        // Targets with too little room
+        try {
+          ed.WritePlainString(new char[length + 2], 3);
+          Assert.fail("Should have failed: " + str);
+        } catch (IllegalArgumentException ex) {
+          // NOTE: Intentionally empty
+        }
+        try {
+          ed.WritePlainStringUtf8(new byte[length - 1], 0);
+          Assert.fail("Should have failed: " + str);
+        } catch (IllegalArgumentException ex) {
+          // NOTE: Intentionally empty
+        }
+        buffer = ByteBuffer.allocate(length + 1);
+        buffer.position(2);
+        try {
+          ed.WritePlainStringUtf8(buffer);
+          Assert.fail("Should have failed: " + str);
+        } catch (BufferOverflowException ex) {
+          Assert.assertEquals(2, buffer.position());
+        }
+        buffer = ByteBuffer.allocateDirect(length - 1);
+        try {
+          ed.WritePlainStringUtf8(buffer);
+          Assert.fail("Should have failed: " + str);
+        } catch (BufferOverflowException ex) {
+          Assert.assertEquals(0, buffer.position());
+        }
+      }
+      // Exponents whose plain forms are too long for a string
+      String[] strs = {
+        "1E+2147483647", "-1E-2147483648", "9.999999999999999999E+999999999999",
+      };
+      for (String str : strs) {
+        EDecimal ed = EDecimal.FromString(str);
+        Assert.assertEquals(str.length(), ed.GetStringLength());
+        Assert.assertEquals(str, ed.toString());
+        try {
+          ed.GetPlainStringLength();
+          Assert.fail("Should have failed: " + str);
+        } catch (UnsupportedOperationException ex) {
+          // NOTE: Intentionally empty
+        }
+      }
+    }
     @Test
     public void TestZero() {
       Assert.assertEquals(EDecimal.Zero, EDecimal.FromInt32(0));
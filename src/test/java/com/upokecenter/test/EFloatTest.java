@@ -1,5 +1,7 @@
 package com.upokecenter.test;
 
+import java.io.*;
+import java.nio.*;
 import java.util.*;
 
 import org.junit.Assert;
@@ -130,6 +132,94 @@ import com.upokecenter.numbers.*;
       TestAddCloseExponent(fr, Integer.MAX_VALUE);
     }
 
+    private static EFloat BinaryValue(java.math.BigInteger mant, int exp) {
+      return EFloat.Create(EInteger.FromString(mant.toString()), exp);
+    }
+
+    private static void AssertSameBinary(
+      EFloat expected,
+      EFloat actual,
+      String msg) {
+      // The expected values are never negative zero
+      EFloat act = actual.isZero() ? actual.Abs() : actual;
+      Assert.assertEquals(msg, expected, act);
+      Assert.assertEquals(msg, expected.hashCode(), act.hashCode());
+    }
+
+    @Test
+    public void TestInlineSignificandBoundaries() {
+      // Significands less than 2^63 are stored inline and others are not;
+      // these operands and their results cross that boundary both ways
+      java.math.BigInteger two63 = java.math.BigInteger.ONE.shiftLeft(63);
+      java.math.BigInteger[] mants = {
+        java.math.BigInteger.ZERO, java.math.BigInteger.ONE,
+        java.math.BigInteger.valueOf(-5), java.math.BigInteger.valueOf(3),
+        java.math.BigInteger.ONE.shiftLeft(62),
+        two63.subtract(java.math.BigInteger.ONE),
+        two63.subtract(java.math.BigInteger.ONE).negate(), two63,
+        two63.negate(), two63.shiftLeft(1),
+        two63.shiftLeft(1).subtract(java.math.BigInteger.ONE),
+        java.math.BigInteger.ONE.shiftLeft(62).add(
+          java.math.BigInteger.ONE).negate(),
+      };
+      int[] exps = { 0, -1, 2, 70, -70 };
+      for (int i = 0; i < mants.length * exps.length; ++i) {
+        java.math.BigInteger ma = mants[i / exps.length];
+        int ea = exps[i % exps.length];
+        EFloat a = BinaryValue(ma, ea);
+        for (int j = 0; j < mants.length * exps.length; ++j) {
+          java.math.BigInteger mb = mants[j / exps.length];
+          int eb = exps[j % exps.length];
+          EFloat b = BinaryValue(mb, eb);
+          String msg = ma + "*2^" + ea + " " + mb + "*2^" + eb;
+          // Both operands scaled to the smaller exponent
+          int emin = Math.min(ea, eb);
+          java.math.BigInteger sa = ma.shiftLeft(ea - emin);
+          java.math.BigInteger sb = mb.shiftLeft(eb - emin);
+          AssertSameBinary(BinaryValue(sa.add(sb), emin), a.Add(b), msg);
+          AssertSameBinary(
+            BinaryValue(sa.subtract(sb), emin),
+            a.Subtract(b),
+            msg);
+          AssertSameBinary(
+            BinaryValue(ma.multiply(mb), ea + eb),
+            a.Multiply(b),
+            msg);
+          Assert.assertEquals(
+            msg,
+            sa.compareTo(sb),
+            Integer.signum(a.compareTo(b)));
+          if (mb.signum() != 0) {
+            AssertSameBinary(
+              BinaryValue(sa.divide(sb), 0),
+              a.DivideToIntegerZeroScale(b, null),
+              msg);
+            Assert.assertEquals(
+              msg,
+              0,
+              BinaryValue(sa.remainder(sb), emin).compareTo(
+                a.Remainder(b, EContext.Unlimited)));
+          }
+        }
+      }
+      // Results that fit inline although an operand doesn't
+      EFloat big = BinaryValue(two63.shiftLeft(1), 0);
+      AssertSameBinary(
+        BinaryValue(java.math.BigInteger.ONE, 0),
+        big.Subtract(BinaryValue(
+          two63.shiftLeft(1).subtract(java.math.BigInteger.ONE),
+          0)),
+        "");
+      AssertSameBinary(
+        BinaryValue(two63.subtract(java.math.BigInteger.ONE).negate(), 0),
+        BinaryValue(two63.negate(), 0).Add(EFloat.FromInt32(1)),
+        "");
+      AssertSameBinary(
+        BinaryValue(java.math.BigInteger.ONE.shiftLeft(62), 0),
+        big.DivideToIntegerZeroScale(EFloat.FromInt32(4), null),
+        "");
+    }
+
     @Test
     public void TestDivSpecial() {
       RandomGenerator rg = new RandomGenerator();
@@ -319,6 +409,144 @@ import com.upokecenter.numbers.*;
     public void TestDivideToSameExponent() {
       // not implemented yet
     }
+    @Test
+    public void TestEncodedForm() {
+      EInteger big = EInteger.FromInt32(1).ShiftLeft(1000).Add(12345);
+      EFloat[] values = {
+        EFloat.NegativeZero, EFloat.FromDouble(0.1),
+        EFloat.FromDouble(-Double.MIN_VALUE),
+        EFloat.FromDouble(Double.MAX_VALUE), EFloat.PositiveInfinity,
+        EFloat.NegativeInfinity, EFloat.NaN, EFloat.SignalingNaN,
+        EFloat.FromString("-NaN77"), EFloat.FromString("sNaN5"),
+        EFloat.Create(big, big.Negate()),
+        EFloat.Create(
+          EInteger.FromInt64(Long.MIN_VALUE),
+          EInteger.FromInt64(Long.MAX_VALUE)),
+      };
+      for (EFloat ef : values) {
+        byte[] bytes = ef.ToEncodedBytes();
+        Assert.assertEquals(ef.GetEncodedLength(), bytes.length);
+        Assert.assertEquals(ef, EFloat.FromEncodedBytes(bytes));
+        for (ByteBuffer buffer : TestCommon.ByteBuffers(bytes)) {
+          Assert.assertEquals(ef, EFloat.ReadEncoded(buffer));
+          Assert.assertFalse(buffer.hasRemaining());
+        }
+        // Writing to a heap buffer at an offset and to a direct buffer
+        ByteBuffer buffer = ByteBuffer.allocate(bytes.length + 5);
+        buffer.position(5);
+        ef.WriteEncoded(buffer);
+        Assert.assertFalse(buffer.hasRemaining());
+        TestCommon.AssertByteArraysEqual(
+          bytes,
+          buffer.array(),
+          5,
+          bytes.length);
+        buffer = ByteBuffer.allocateDirect(bytes.length);
+        ef.WriteEncoded(buffer);
+        buffer.flip();
+        byte[] written = new byte[bytes.length];
+        buffer.get(written);
+        TestCommon.AssertByteArraysEqual(bytes, written);
+        try {
+          ByteArrayOutputStream stream = new ByteArrayOutputStream();
+          ef.WriteEncoded(new DataOutputStream(stream));
+          TestCommon.AssertByteArraysEqual(bytes, stream.toByteArray());
+          DataInputStream input = new DataInputStream(
+            new ByteArrayInputStream(bytes));
+          Assert.assertEquals(ef, EFloat.ReadEncoded(input));
+          Assert.assertEquals(-1, input.read());
+        } catch (IOException ex) {
+          Assert.fail(ex.toString());
+        }
+        // Truncated encodings, and trailing bytes, are rejected
+        for (int i = 0; i < bytes.length; ++i) {
+          byte[] prefix = new byte[i];
+          System.arraycopy(bytes, 0, prefix, 0, i);
+          try {
+            EFloat.FromEncodedBytes(prefix);
+            Assert.fail("Should have failed");
+          } catch (IllegalArgumentException ex) {
+            // NOTE: Intentionally empty
+          }
+          buffer = ByteBuffer.wrap(prefix);
+          try {
+            EFloat.ReadEncoded(buffer);
+            Assert.fail("Should have failed");
+          } catch (BufferUnderflowException ex) {
+            Assert.assertEquals(0, buffer.position());
+          }
+          try {
+            EFloat.ReadEncoded(
+              new DataInputStream(new ByteArrayInputStream(prefix)));
+            Assert.fail("Should have failed");
+          } catch (EOFException ex) {
+            // NOTE: Intentionally empty
+          } catch (IOException ex) {
+            Assert.fail(ex.toString());
+          }
+        }
+        byte[] longer = new byte[bytes.length + 1];
+        System.arraycopy(bytes, 0, longer, 0, bytes.length);
+        try {
+          EFloat.FromEncodedBytes(longer);
+          Assert.fail("Should have failed");
+        } catch (IllegalArgumentException ex) {
+          // NOTE: Intentionally empty
+        }
+      }
+    }
+
+    @Test
+    public void TestEncodedFormInvalid() {
+      // An unsupported format version and an unknown kind
+      byte[][] invalid = {
+        new byte[] { (byte)0xf0, 0x01, 0x00 },
+        new byte[] { 0x1a, 0x01, 0x00 },
+      };
+      for (byte[] bytes : invalid) {
+        try {
+          EFloat.FromEncodedBytes(bytes);
+          Assert.fail("Should have failed");
+        } catch (IllegalArgumentException ex) {
+          // NOTE: Intentionally empty
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        try {
+          EFloat.ReadEncoded(buffer);
+          Assert.fail("Should have failed");
+        } catch (IllegalArgumentException ex) {
+          Assert.assertEquals(0, buffer.position());
+        }
+        try {
+          EFloat.ReadEncoded(
+            new DataInputStream(new ByteArrayInputStream(bytes)));
+          Assert.fail("Should have failed");
+        } catch (EOFException ex) {
+          Assert.fail(ex.toString());
+        } catch (IOException ex) {
+          // NOTE: Intentionally empty
+        }
+      }
+      // Random bytes either decode to a value whose encoding is the same
+      // bytes, or are rejected
+      java.util.Random rand = new java.util.Random(54323);
+      for (int i = 0; i < 1000; ++i) {
+        byte[] bytes = new byte[rand.nextInt(12) + 1];
+        rand.nextBytes(bytes);
+        // Use the supported version most of the time
+        if (rand.nextInt(4) != 0) {
+          bytes[0] = (byte)((bytes[0] & 0x0f) | 0x10);
+        }
+        EFloat ef;
+        try {
+          ef = EFloat.FromEncodedBytes(bytes);
+        } catch (IllegalArgumentException ex) {
+          continue;
+        }
+        TestCommon.AssertByteArraysEqual(bytes, ef.ToEncodedBytes());
+      }
+    }
+
     @Test
     public void TestEquals() {
       if (EFloat.One.equals(null)) {
@@ -946,6 +1174,86 @@ import com.upokecenter.numbers.*;
         throw new IllegalStateException("", ex);
       }
     }
+
+    @Test
+    public void TestFromStringSources() {
+      String[] fixedStrs = {
+        "0", "-0", "+0", "1", "-1", "123", "1.5", "-.5", "5.", "1E5", "1e-5",
+        "-1.25E+10", "00012.3400", "123456789012345678901234567890",
+        "-123456789012345678901234567890.5E-20", "1E400", "-1E-400",
+        "9007199254740993", "4.9406564584124654E-324", "Infinity", "-INF",
+        "NaN", "-NaN123", "sNaN", "", "-", ".", "1e", "1e+", "1..2", "12a",
+        " 1", "1 ", "0x10", "1,000", "1/2",
+      };
+      String[] strs = new String[fixedStrs.length + 300];
+      System.arraycopy(fixedStrs, 0, strs, 0, fixedStrs.length);
+      java.util.Random rand = new java.util.Random(1234);
+      for (int i = fixedStrs.length; i < strs.length; ++i) {
+        StringBuilder builder = new StringBuilder();
+        if (rand.nextInt(2) == 0) {
+          builder.append('-');
+        }
+        int digits = 1 + rand.nextInt(40);
+        for (int j = 0; j < digits; ++j) {
+          builder.append((char)('0' + rand.nextInt(10)));
+        }
+        if (rand.nextInt(2) == 0) {
+          builder.insert(builder.length() - rand.nextInt(digits), '.');
+        }
+        builder.append('E').append(rand.nextInt(800) - 400);
+        strs[i] = builder.toString();
+      }
+      for (String str : strs) {
+        StringBuilder padded = new StringBuilder("#$").append(str).append('%');
+        byte[] bytes = str.getBytes(java.nio.charset.StandardCharsets.UTF_8);
+        String expected;
+        try {
+          expected = EFloat.FromString(str, EContext.Binary64).toString();
+        } catch (NumberFormatException ex) {
+          expected = null;
+        }
+        for (CharSequence cs : TestCommon.CharSequences(str)) {
+          try {
+            Assert.assertEquals(
+              str,
+              expected,
+              EFloat.FromString(cs, EContext.Binary64).toString());
+          } catch (NumberFormatException ex) {
+            Assert.assertNull(str, expected);
+          }
+          Assert.assertEquals(str.length(), cs.length());
+        }
+        try {
+          Assert.assertEquals(
+            str,
+            expected,
+            EFloat.FromString(
+              padded,
+              2,
+              str.length(),
+              EContext.Binary64).toString());
+        } catch (NumberFormatException ex) {
+          Assert.assertNull(str, expected);
+        }
+        for (ByteBuffer buffer : TestCommon.ByteBuffers(bytes)) {
+          try {
+            Assert.assertEquals(
+              str,
+              expected,
+              EFloat.FromString(buffer, EContext.Binary64).toString());
+          } catch (NumberFormatException ex) {
+            Assert.assertNull(str, expected);
+          }
+          Assert.assertEquals(bytes.length, buffer.remaining());
+        }
+      }
+      try {
+        EFloat.FromString((ByteBuffer)null);
+        Assert.fail("Should have failed");
+      } catch (NullPointerException ex) {
+        // NOTE: Intentionally empty
+      }
+    }
     @Test
     public void TestIsFinite() {
       // not implemented yet
@@ -1599,6 +1907,57 @@ import com.upokecenter.numbers.*;
       ef2 = EFloat.FromInt32(0x1000);
       Assert.assertEquals(0, ef.compareTo(ef2));
     }
+    @Test
+    public void TestMultiplyMantissaBoundaries() {
+      // Products of significands that fit in 64 bits are rounded directly
+      // for precisions of up to 62 bits; each must match the exact
+      // product rounded by the general method, along with its flags
+      String[] mants = {
+        "1", "3", "2147483647", "4294967297", "3037000499", "3037000500",
+        "9007199254740991", "9007199254740993", "4611686018427387905",
+        "9223372036854775807", "9223372036854775808", "18446744073709551615",
+      };
+      int[] exps = { 0, -3, 500, -550 };
+      EContext[] contexts = {
+        EContext.Binary32, EContext.Binary64,
+        EContext.ForPrecision(62).WithPrecisionInBits(true),
+        EContext.ForPrecision(63).WithPrecisionInBits(true),
+        EContext.Binary64.WithExponentRange(-60, 60),
+      };
+      ERounding[] roundings = {
+        ERounding.HalfEven, ERounding.HalfUp, ERounding.HalfDown,
+        ERounding.Down, ERounding.Up, ERounding.Ceiling, ERounding.Floor,
+        ERounding.OddOrZeroFiveUp,
+      };
+      for (int i = 0; i < mants.length * exps.length; ++i) {
+        EFloat a = EFloat.Create(
+            EInteger.FromString(mants[i / exps.length]),
+            exps[i % exps.length]);
+        for (int j = 0; j < mants.length * exps.length; ++j) {
+          EFloat b = EFloat.Create(
+              EInteger.FromString(mants[j / exps.length]),
+              exps[j % exps.length]);
+          if (j % 3 == 0) {
+            b = b.Negate();
+          }
+          EFloat exact = a.Multiply(b);
+          for (EContext context : contexts) {
+            for (ERounding rounding : roundings) {
+              EContext ctx = context.WithRounding(rounding).WithBlankFlags();
+              EContext ctxExpected = context.WithRounding(rounding)
+                .WithBlankFlags();
+              String msg = a.getMantissa() + "*2^" + a.getExponent() + " " +
+                b.getMantissa() + "*2^" + b.getExponent() + " " + ctx;
+              EFloat expected = exact.RoundToPrecision(ctxExpected);
+              EFloat actual = a.Multiply(b, ctx);
+              Assert.assertEquals(msg, expected, actual);
+              Assert.assertEquals(msg, ctxExpected.getFlags(), ctx.getFlags());
+            }
+          }
+        }
+      }
+    }
+
     @Test
     public void TestMultiply() {
       // not implemented yet
@@ -2782,6 +3141,154 @@ import com.upokecenter.numbers.*;
       }
     }
 
+    private static void AssertShortestDouble(String expected, double dbl) {
+      Assert.assertEquals(
+        expected,
+        EFloat.FromDouble(dbl).ToShortestString(EContext.Binary64));
+      Assert.assertEquals(
+        "-" + expected,
+        EFloat.FromDouble(-dbl).ToShortestString(EContext.Binary64));
+    }
+
+    private static void AssertShortestSingle(String expected, float sng) {
+      Assert.assertEquals(
+        expected,
+        EFloat.FromSingle(sng).ToShortestString(EContext.Binary32));
+      Assert.assertEquals(
+        "-" + expected,
+        EFloat.FromSingle(-sng).ToShortestString(EContext.Binary32));
+    }
+
+    @Test
+    public void TestToShortestStringKnownValues() {
+      AssertShortestDouble("1", 1.0);
+      AssertShortestDouble("0.5", 0.5);
+      AssertShortestDouble("1024", 1024.0);
+      AssertShortestDouble("0.0009765625", 0x1p-10);
+      AssertShortestDouble("9007199254740992", 0x1p53);
+      AssertShortestDouble("9.223372036854776E+18", 0x1p63);
+      AssertShortestDouble("1.8446744073709552E+19", 0x1p64);
+      AssertShortestDouble("7.888609052210118E-31", 0x1p-100);
+      AssertShortestDouble("1.2676506002282294E+30", 0x1p100);
+      AssertShortestDouble("8.98846567431158E+307", 0x1p1023);
+      AssertShortestDouble("1E+23", 1e23);
+      // Smallest and largest subnormals, and the smallest normal number
+      AssertShortestDouble("5E-324", Double.MIN_VALUE);
+      AssertShortestDouble("5E-324", 5e-324);
+      AssertShortestDouble("1E-323", 0x1p-1073);
+      AssertShortestDouble(
+        "2.225073858507201E-308",
+        Double.longBitsToDouble(0x000fffffffffffffL));
+      AssertShortestDouble("2.2250738585072014E-308", Double.MIN_NORMAL);
+      AssertShortestDouble("1.7976931348623157E+308", Double.MAX_VALUE);
+      AssertShortestSingle("1E-45", Float.MIN_VALUE);
+      AssertShortestSingle("1.1754942E-38", Float.intBitsToFloat(0x7fffff));
+      AssertShortestSingle("1.1754944E-38", Float.MIN_NORMAL);
+      AssertShortestSingle("3.4028235E+38", Float.MAX_VALUE);
+      AssertShortestSingle("16777216", 0x1p24f);
+      String[][] halves = {
+        { "6E-8", "0001" }, { "0.000061", "03ff" },
+        { "0.00006104", "0400" }, { "65500", "7bff" }, { "1", "3c00" },
+        { "0.01563", "2400" }, { "256", "5c00" },
+      };
+      for (String[] half : halves) {
+        short bits = (short)Integer.parseInt(half[1], 16);
+        Assert.assertEquals(
+          half[0],
+          EFloat.FromHalfBits(bits).ToShortestString(EContext.Binary16));
+        Assert.assertEquals(
+          "-" + half[0],
+          EFloat.FromHalfBits((short)(bits | 0x8000)).ToShortestString(
+            EContext.Binary16));
+      }
+    }
+
+    @Test
+    public void TestToShortestStringNegativePowersOfTwo() {
+      // A power of two's rounding interval is narrower on the side toward
+      // zero; negative powers of two give the same digits as positive ones
+      for (int exp = -1074; exp <= 1023; ++exp) {
+        EFloat ef = EFloat.Create(EInteger.FromInt32(1), EInteger.FromInt32(
+              exp));
+        String str = ef.ToShortestString(EContext.Binary64);
+        Assert.assertEquals(
+          "-" + str,
+          ef.Negate().ToShortestString(EContext.Binary64));
+        Assert.assertEquals(
+          str,
+          -Math.scalb(1.0, exp),
+          EFloat.FromString("-" + str, EContext.Binary64).ToDouble(),
+          0.0);
+      }
+      for (int exp = -149; exp <= 127; ++exp) {
+        EFloat ef = EFloat.Create(EInteger.FromInt32(1), EInteger.FromInt32(
+              exp));
+        String str = ef.ToShortestString(EContext.Binary32);
+        Assert.assertEquals(
+          "-" + str,
+          ef.Negate().ToShortestString(EContext.Binary32));
+        Assert.assertEquals(
+          str,
+          -Math.scalb(1.0f, exp),
+          EFloat.FromString("-" + str, EContext.Binary32).ToSingle(),
+          0.0f);
+      }
+      for (int exp = -24; exp <= 15; ++exp) {
+        EFloat ef = EFloat.Create(EInteger.FromInt32(1), EInteger.FromInt32(
+              exp));
+        String str = ef.ToShortestString(EContext.Binary16);
+        Assert.assertEquals(
+          "-" + str,
+          ef.Negate().ToShortestString(EContext.Binary16));
+        Assert.assertEquals(
+          str,
+          ef.Negate().ToHalfBits(),
+          EFloat.FromString("-" + str, EContext.Binary16).ToHalfBits());
+      }
+    }
+
+    @Test
+    public void TestToShortestStringRoundTrip() {
+      java.util.Random rand = new java.util.Random(20261018L);
+      for (int i = 0; i < 20000; ++i) {
+        long bits = rand.nextLong();
+        if (i % 4 == 0) {
+          // Powers of two and their neighbors
+          bits = (bits & 0xfff0000000000000L) + (rand.nextInt(3) - 1);
+        }
+        double dbl = Double.longBitsToDouble(bits);
+        if (Double.isNaN(dbl) || Double.isInfinite(dbl)) {
+          continue;
+        }
+        String str = EFloat.FromDouble(dbl).ToShortestString(
+            EContext.Binary64);
+        Assert.assertEquals(
+          str,
+          bits,
+          Double.doubleToRawLongBits(
+            EFloat.FromString(str, EContext.Binary64).ToDouble()));
+        Assert.assertEquals(
+          str,
+          bits,
+          Double.doubleToRawLongBits(Double.parseDouble(str)));
+        int sngbits = rand.nextInt();
+        float sng = Float.intBitsToFloat(sngbits);
+        if (Float.isNaN(sng) || Float.isInfinite(sng)) {
+          continue;
+        }
+        str = EFloat.FromSingle(sng).ToShortestString(EContext.Binary32);
+        Assert.assertEquals(
+          str,
+          sngbits,
+          Float.floatToRawIntBits(
+            EFloat.FromString(str, EContext.Binary32).ToSingle()));
+        Assert.assertEquals(
+          str,
+          sngbits,
+          Float.floatToRawIntBits(Float.parseFloat(str)));
+      }
+    }
+
     public static boolean TestShortestStringOne(short halfbits) {
       EFloat ef = EFloat.FromHalfBits(halfbits);
       if (!ef.isFinite()) {
@@ -2940,6 +3447,38 @@ import com.upokecenter.numbers.*;
       }
     }
 
+    @Test
+    public void TestShortestStringEquivalentContexts() {
+      EContext[] ctxs = {
+        EContext.Binary16, EContext.Binary32, EContext.Binary64,
+      };
+      String[] strs = {
+        "0.1", "1", "-2.5", "1E-5", "65504", "6E-8", "1E-40", "1E-310",
+        "4.9406564584124654E-324", "1.7976931348623157E308",
+      };
+      for (EContext ctx : ctxs) {
+        for (String str : strs) {
+          EFloat ef = EFloat.FromString(str, ctx);
+          if (!ef.isFinite() || ef.isZero()) {
+            continue;
+          }
+          String expected = ef.ToShortestString(ctx);
+          // A copy of a standard context with flags has the same settings
+          // and gives the same result, and also sets the same flags as
+          // rounding to that context
+          EContext ctxFlags = ctx.WithBlankFlags();
+          Assert.assertEquals(str, expected, ef.ToShortestString(ctxFlags));
+          EContext ctxRound = ctx.WithBlankFlags();
+          ef.RoundToPrecision(ctxRound);
+          Assert.assertEquals(str, ctxRound.getFlags(), ctxFlags.getFlags());
+          Assert.assertEquals(
+            str,
+            expected,
+            ef.ToShortestString(ctx.WithTraps(0)));
+        }
+      }
+    }
+
     @Test
     public void TestConversions() {
       RandomGenerator fr = new RandomGenerator();
@@ -3688,6 +4227,88 @@ import com.upokecenter.numbers.*;
       // not implemented yet
     }
 
+    @Test
+    public void TestWriteString() {
+      double[] doubles = {
+        0.0, -0.0, 1.0, -2.5, 0.1, 1e300, -1e-300, Double.MIN_VALUE,
+        Double.MAX_VALUE, Double.POSITIVE_INFINITY,
+        Double.NEGATIVE_INFINITY, Double.NaN,
+      };
+      EFloat[] values = new EFloat[doubles.length + 502];
+      for (int i = 0; i < doubles.length; ++i) {
+        values[i] = EFloat.FromDouble(doubles[i]);
+      }
+      values[doubles.length] = EFloat.FromString("-sNaN77");
+      values[doubles.length + 1] = EFloat.Create(
+        EInteger.FromInt32(1).ShiftLeft(200).Add(1),
+        EInteger.FromInt32(-300));
+      java.util.Random rand = new java.util.Random(2024);
+      for (int i = doubles.length + 2; i < values.length; ++i) {
+        values[i] = EFloat.Create(
+          EInteger.FromInt64(rand.nextLong() >> rand.nextInt(64)),
+          EInteger.FromInt32(rand.nextInt(200) - 100));
+      }
+      for (EFloat ef : values) {
+        String str = ef.toString();
+        int length = str.length();
+        byte[] utf8 = str.getBytes(java.nio.charset.StandardCharsets.UTF_8);
+        Assert.assertEquals(str, length, ef.GetStringLength());
+        StringBuilder builder = new StringBuilder("abc");
+        try {
+          ef.WriteString(builder);
+        } catch (IOException ex) {
+          Assert.fail(ex.toString());
+        }
+        Assert.assertEquals("abc" + str, builder.toString());
+        char[] chars = new char[length + 3];
+        Assert.assertEquals(length, ef.WriteString(chars, 3));
+        Assert.assertEquals(str, new String(chars, 3, length));
+        byte[] bytes = new byte[length + 2];
+        Assert.assertEquals(length, ef.WriteStringUtf8(bytes, 2));
+        TestCommon.AssertByteArraysEqual(utf8, bytes, 2, length);
+        ByteBuffer buffer = ByteBuffer.allocate(length + 4);
+        buffer.position(1);
+        ef.WriteStringUtf8(buffer);
+        Assert.assertEquals(length + 1, buffer.position());
+        TestCommon.AssertByteArraysEqual(utf8, buffer.array(), 1, length);
+        buffer = ByteBuffer.allocateDirect(length);
+        ef.WriteStringUtf8(buffer);
+        Assert.assertFalse(buffer.hasRemaining());
+        buffer.flip();
+        byte[] written = new byte[length];
+        buffer.get(written);
+        TestCommon.AssertByteArraysEqual(utf8, written);
+        // Targets with too little room
+        try {
+          ef.WriteString(new char[length + 2], 3);
+          Assert.fail("Should have failed: " + str);
+        } catch (IllegalArgumentException ex) {
+          // NOTE: Intentionally empty
+        }
+        try {
+          ef.WriteStringUtf8(new byte[length - 1], 0);
+          Assert.fail("Should have failed: " + str);
+        } catch (IllegalArgumentException ex) {
+          // NOTE: Intentionally empty
+        }
+        buffer = ByteBuffer.allocate(length + 1);
+        buffer.position(2);
+        try {
+          ef.WriteStringUtf8(buffer);
+          Assert.fail("Should have failed: " + str);
+        } catch (BufferOverflowException ex) {
+          Assert.assertEquals(2, buffer.position());
+        }
+        buffer = ByteBuffer.allocateDirect(length - 1);
+        try {
+          ef.WriteStringUtf8(buffer);
+          Assert.fail("Should have failed: " + str);
+        } catch (BufferOverflowException ex) {
+          Assert.assertEquals(0, buffer.position());
+        }
+      }
+    }
+
     private static void TestAddCloseExponent(RandomGenerator fr, int exp) {
       for (int i = 0; i < 1000; ++i) {
         EInteger exp1 = EInteger.FromInt32(exp)
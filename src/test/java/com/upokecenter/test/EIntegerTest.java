@@ -1,5 +1,7 @@
 package com.upokecenter.test;
 
+import java.io.*;
+import java.nio.*;
 import org.junit.Assert;
 import org.junit.Test;
 import com.upokecenter.util.*;
@@ -871,6 +873,191 @@ import com.upokecenter.numbers.*;
       }
     }
 
+    private static java.math.BigInteger ToBigInteger(EInteger ei) {
+      return new java.math.BigInteger(ei.toString());
+    }
+
+    private static EInteger FromBigInteger(java.math.BigInteger big) {
+      return EInteger.FromString(big.toString());
+    }
+
+    @Test
+    public void TestModulus() {
+      java.util.Random rand = new java.util.Random(7001);
+      // Montgomery multiplication is used for odd parts of up to 512
+      // 32-bit limbs (1024 words), and Barrett reduction otherwise
+      EInteger odd511 = RandomEIntegerOfWords(rand, 1022).Abs()
+        .Or(EInteger.FromInt32(1));
+      EInteger odd512 = RandomEIntegerOfWords(rand, 1024).Abs()
+        .Or(EInteger.FromInt32(1));
+      EInteger odd513 = RandomEIntegerOfWords(rand, 1026).Abs()
+        .Or(EInteger.FromInt32(1));
+      EInteger[] moduli = {
+        EInteger.FromInt32(1), EInteger.FromInt32(2), EInteger.FromInt32(3),
+        EInteger.FromInt32(12), EInteger.FromInt32(97),
+        EInteger.FromInt64(1L << 32), EInteger.FromString(
+          "18446744073709551617"), EInteger.FromString(
+          "18446744073709551616"), odd511, odd512, odd513,
+        odd512.ShiftLeft(5), odd513.ShiftLeft(5), EInteger.FromInt32(1)
+        .ShiftLeft(16400),
+      };
+      EInteger[] exponents = {
+        EInteger.FromInt32(0), EInteger.FromInt32(1), EInteger.FromInt32(2),
+        EInteger.FromInt32(3), EInteger.FromInt32(65537),
+        RandomEIntegerOfWords(rand, 3).Abs(),
+      };
+      for (EInteger m : moduli) {
+        java.math.BigInteger bigM = ToBigInteger(m);
+        EIntegerModulus modulus = EIntegerModulus.Create(m);
+        Assert.assertEquals(m, modulus.getModulus());
+        EInteger[] bases = {
+          EInteger.FromInt32(0), EInteger.FromInt32(1),
+          EInteger.FromInt32(-1), EInteger.FromInt32(2),
+          m.Subtract(EInteger.FromInt32(1)), m, m.Negate(),
+          m.Add(EInteger.FromInt32(1)), RandomEIntegerOfWords(rand, 40),
+          RandomEIntegerOfWords(rand, 2100).Abs().Negate(),
+        };
+        for (EInteger b : bases) {
+          java.math.BigInteger bigB = ToBigInteger(b);
+          String msg = b + " " + m;
+          Assert.assertEquals(
+            msg,
+            FromBigInteger(bigB.mod(bigM)),
+            modulus.Mod(b));
+          Assert.assertEquals(
+            msg,
+            FromBigInteger(bigB.multiply(bigB.add(java.math.BigInteger.ONE))
+              .mod(bigM)),
+            modulus.Multiply(b, b.Add(EInteger.FromInt32(1))));
+          for (EInteger e : exponents) {
+            // Exponent 0 gives 1 even for modulus 1, unlike BigInteger
+            EInteger expected = e.isZero() ? EInteger.FromInt32(1) :
+              FromBigInteger(bigB.modPow(ToBigInteger(e), bigM));
+            Assert.assertEquals(msg + " " + e, expected, modulus.ModPow(b, e));
+            Assert.assertEquals(msg + " " + e, expected, b.ModPow(e, m));
+          }
+        }
+      }
+      try {
+        EIntegerModulus.Create(EInteger.FromInt32(0));
+        Assert.fail("Should have failed");
+      } catch (IllegalArgumentException ex) {
+        // NOTE: Intentionally empty
+      }
+      try {
+        EIntegerModulus.Create(EInteger.FromInt32(-7));
+        Assert.fail("Should have failed");
+      } catch (IllegalArgumentException ex) {
+        // NOTE: Intentionally empty
+      }
+      try {
+        EIntegerModulus.Create(EInteger.FromInt32(7)).ModPow(
+          EInteger.FromInt32(2),
+          EInteger.FromInt32(-1));
+        Assert.fail("Should have failed");
+      } catch (IllegalArgumentException ex) {
+        // NOTE: Intentionally empty
+      }
+    }
+
+    @Test
+    public void TestBuilder() {
+      java.util.Random rand = new java.util.Random(8008);
+      EInteger start = RandomEIntegerOfWords(rand, 20);
+      String startString = start.toString();
+      EIntegerBuilder builder = EIntegerBuilder.FromEInteger(start);
+      EInteger expected = start;
+      java.util.ArrayList<EInteger> snapshots =
+        new java.util.ArrayList<EInteger>();
+      java.util.ArrayList<String> snapshotStrings =
+        new java.util.ArrayList<String>();
+      for (int i = 0; i < 3000; ++i) {
+        int small = rand.nextInt(0x20000) - 0x10000;
+        EInteger operand = RandomEIntegerOfWords(rand, 1 + rand.nextInt(40));
+        switch (rand.nextInt(8)) {
+          case 0:
+            builder.AddAssign(operand);
+            expected = expected.Add(operand);
+            break;
+          case 1:
+            builder.AddAssign(small);
+            expected = expected.Add(small);
+            break;
+          case 2:
+            builder.SubtractAssign(operand);
+            expected = expected.Subtract(operand);
+            break;
+          case 3:
+            builder.MultiplyAssign(operand);
+            expected = expected.Multiply(operand);
+            break;
+          case 4:
+            builder.MultiplyAssign(small);
+            expected = expected.Multiply(small);
+            break;
+          case 5: {
+            int bits = rand.nextInt(200) - 100;
+            builder.ShiftLeftAssign(bits);
+            expected = expected.ShiftLeft(bits);
+            break;
+          }
+          case 6: {
+            EInteger divisor = rand.nextBoolean() ? operand :
+              EInteger.FromInt32(small == 0 ? 7 : small);
+            EInteger[] divrem = expected.DivRem(divisor);
+            Assert.assertEquals(divrem[1], builder.DivRemAssign(divisor));
+            expected = divrem[0];
+            break;
+          }
+          default:
+            if (rand.nextBoolean()) {
+              builder.SetValue(operand);
+            } else {
+              builder.SetValue(small);
+              operand = EInteger.FromInt32(small);
+            }
+            expected = operand;
+            break;
+        }
+        // Keep the values from growing without bound
+        if (expected.GetUnsignedBitLengthAsInt64() > 20000) {
+          builder.ShiftLeftAssign(-19000);
+          expected = expected.ShiftLeft(-19000);
+        }
+        Assert.assertEquals(expected.signum(), builder.signum());
+        Assert.assertEquals(expected.isZero(), builder.isZero());
+        if (rand.nextInt(4) == 0) {
+          // A snapshot must equal the EInteger computed the usual way
+          EInteger snapshot = builder.ToEInteger();
+          Assert.assertEquals(expected, snapshot);
+          Assert.assertEquals(expected.hashCode(), snapshot.hashCode());
+          snapshots.add(snapshot);
+          snapshotStrings.add(expected.toString());
+        }
+      }
+      // Snapshots are unchanged by later updates to the builder
+      for (int i = 0; i < snapshots.size(); ++i) {
+        Assert.assertEquals(
+          snapshotStrings.get(i),
+          snapshots.get(i).toString());
+        Assert.assertEquals(
+          EInteger.FromString(snapshotStrings.get(i)),
+          snapshots.get(i));
+      }
+      // And so is the value the builder started from
+      Assert.assertEquals(startString, start.toString());
+      EInteger value = RandomEIntegerOfWords(rand, 30);
+      String valueString = value.toString();
+      builder.SetValue(value).AddAssign(1).MultiplyAssign(value);
+      Assert.assertEquals(valueString, value.toString());
+      EInteger first = builder.ToEInteger();
+      EInteger second = builder.ToEInteger();
+      builder.AddAssign(value);
+      Assert.assertEquals(first, second);
+      Assert.assertEquals(value.Add(1).Multiply(value), first);
+      Assert.assertEquals(first.Add(value), builder.ToEInteger());
+    }
+
     @Test
     public void TestCanFitInInt() {
       RandomGenerator r = new RandomGenerator();
@@ -978,6 +1165,91 @@ import com.upokecenter.numbers.*;
       }
     }
 
+    // Product of the integers from 'first' to 'last' that differ from
+    // 'first' by a multiple of 'step'
+    private static java.math.BigInteger NaiveProduct(
+      int first,
+      int last,
+      int step) {
+      java.math.BigInteger ret = java.math.BigInteger.ONE;
+      for (int i = first; i <= last; i += step) {
+        ret = ret.multiply(java.math.BigInteger.valueOf(i));
+      }
+      return ret;
+    }
+
+    private static java.math.BigInteger NaiveBinomial(int n, int k) {
+      return (k < 0 || k > n) ? java.math.BigInteger.ZERO :
+        NaiveProduct(n - k + 1, n, 1).divide(NaiveProduct(1, k, 1));
+    }
+
+    @Test
+    public void TestCombinatorics() {
+      // Small values are read from tables or use a shortcut, and larger
+      // ones are found from their prime factorizations
+      for (int n = 0; n <= 70; ++n) {
+        Assert.assertEquals(
+          FromBigInteger(NaiveProduct(1, n, 1)),
+          EInteger.Factorial(n));
+        Assert.assertEquals(
+          FromBigInteger(NaiveProduct(2 - (n & 1), n, 2)),
+          EInteger.DoubleFactorial(n));
+        for (int k = -2; k <= n + 2; ++k) {
+          Assert.assertEquals(
+            n + " " + k,
+            FromBigInteger(NaiveBinomial(n, k)),
+            EInteger.Binomial(n, k));
+        }
+      }
+      Assert.assertEquals(EInteger.FromInt32(1), EInteger.DoubleFactorial(-1));
+      java.math.BigInteger primorial = java.math.BigInteger.ONE;
+      for (int n = -3; n <= 3000; ++n) {
+        if (n >= 2 && java.math.BigInteger.valueOf(n).isProbablePrime(50)) {
+          primorial = primorial.multiply(java.math.BigInteger.valueOf(n));
+        }
+        if (n <= 300 || n % 97 == 0) {
+          Assert.assertEquals(
+            String.valueOf(n),
+            FromBigInteger(primorial),
+            EInteger.Primorial(n));
+        }
+      }
+      int[] largeNs = { 1000, 3001, 10000 };
+      for (int n : largeNs) {
+        Assert.assertEquals(
+          FromBigInteger(NaiveProduct(1, n, 1)),
+          EInteger.Factorial(n));
+        Assert.assertEquals(
+          FromBigInteger(NaiveProduct(2 - (n & 1), n, 2)),
+          EInteger.DoubleFactorial(n));
+        int[] ks = { 0, 1, 7, n / 3, n / 2, n - 1, n, n + 1 };
+        for (int k : ks) {
+          Assert.assertEquals(
+            n + " " + k,
+            FromBigInteger(NaiveBinomial(n, k)),
+            EInteger.Binomial(n, k));
+        }
+      }
+      try {
+        EInteger.Factorial(-1);
+        Assert.fail("Should have failed");
+      } catch (IllegalArgumentException ex) {
+        // NOTE: Intentionally empty
+      }
+      try {
+        EInteger.DoubleFactorial(-2);
+        Assert.fail("Should have failed");
+      } catch (IllegalArgumentException ex) {
+        // NOTE: Intentionally empty
+      }
+      try {
+        EInteger.Binomial(-1, 0);
+        Assert.fail("Should have failed");
+      } catch (IllegalArgumentException ex) {
+        // NOTE: Intentionally empty
+      }
+    }
+
     @Test
     public void TestCompareTo() {
       RandomGenerator r = new RandomGenerator();
@@ -1161,6 +1433,254 @@ import com.upokecenter.numbers.*;
         throw new IllegalStateException("", ex);
       }
     }
+    @Test
+    public void TestDivideThresholds() {
+      java.util.Random rand = new java.util.Random(6007);
+      // Division is recursive for divisors of more than 201 words, and
+      // uses a Newton reciprocal for divisors of at least 2000 words with
+      // quotients of at least 500 words
+      int[] divisorSizes = { 200, 201, 202, 1999, 2000, 2001 };
+      int[] quotientSizes = { 1, 50, 499, 500, 501, 2100 };
+      for (int divisorSize : divisorSizes) {
+        for (int quotientSize : quotientSizes) {
+          EInteger d = RandomEIntegerOfWords(rand, divisorSize);
+          EInteger q = RandomEIntegerOfWords(rand, quotientSize);
+          EInteger[] dividends = {
+            RandomEIntegerOfWords(rand, divisorSize + quotientSize),
+            q.Multiply(d),
+            q.Abs().Multiply(d.Abs()).Add(d.Abs().Subtract(1)),
+            AllOnesInteger(divisorSize + quotientSize),
+          };
+          for (EInteger x : dividends) {
+            String msg = divisorSize + " " + quotientSize;
+            java.math.BigInteger[] bigDivRem =
+              ToBigInteger(x).divideAndRemainder(ToBigInteger(d));
+            EInteger[] divrem = x.DivRem(d);
+            Assert.assertEquals(msg, FromBigInteger(bigDivRem[0]), divrem[0]);
+            Assert.assertEquals(msg, FromBigInteger(bigDivRem[1]), divrem[1]);
+            Assert.assertEquals(msg, divrem[0], x.Divide(d));
+            Assert.assertEquals(msg, divrem[1], x.Remainder(d));
+          }
+        }
+      }
+    }
+
+    @Test
+    public void TestDivisor() {
+      java.util.Random rand = new java.util.Random(6006);
+      // A reciprocal is precomputed for divisors of 300 words or more
+      int[] sizes = { 1, 2, 5, 299, 300, 301, 700 };
+      for (int size : sizes) {
+        EInteger d = RandomEIntegerOfWords(rand, size);
+        for (int sign = 0; sign < 2; ++sign) {
+          d = d.Negate();
+          java.math.BigInteger bigD = ToBigInteger(d);
+          EIntegerDivisor divisor = EIntegerDivisor.Create(d);
+          Assert.assertEquals(d, divisor.getDivisor());
+          EInteger[] dividends = {
+            EInteger.FromInt32(0), EInteger.FromInt32(1),
+            EInteger.FromInt32(-1), d, d.Negate(),
+            d.Abs().Subtract(EInteger.FromInt32(1)),
+            d.Abs().Add(EInteger.FromInt32(1)).Negate(),
+            d.Multiply(EInteger.FromInt32(12345)),
+            d.Multiply(d).Subtract(EInteger.FromInt32(1)),
+            RandomEIntegerOfWords(rand, size / 2 + 1),
+            RandomEIntegerOfWords(rand, size + 1),
+            RandomEIntegerOfWords(rand, size * 2),
+            RandomEIntegerOfWords(rand, size * 3 + 7),
+          };
+          for (EInteger x : dividends) {
+            String msg = x + " " + d;
+            java.math.BigInteger[] bigDivRem =
+              ToBigInteger(x).divideAndRemainder(bigD);
+            EInteger quo = FromBigInteger(bigDivRem[0]);
+            EInteger rem = FromBigInteger(bigDivRem[1]);
+            EInteger[] divrem = divisor.DivRem(x);
+            Assert.assertEquals(msg, quo, divrem[0]);
+            Assert.assertEquals(msg, rem, divrem[1]);
+            Assert.assertEquals(msg, quo, divisor.Divide(x));
+            Assert.assertEquals(msg, rem, divisor.Remainder(x));
+            if (d.signum() > 0) {
+              Assert.assertEquals(
+                msg,
+                FromBigInteger(ToBigInteger(x).mod(bigD)),
+                divisor.Mod(x));
+            } else {
+              try {
+                divisor.Mod(x);
+                Assert.fail("Should have failed");
+              } catch (ArithmeticException ex) {
+                // NOTE: Intentionally empty
+              }
+            }
+          }
+        }
+      }
+      try {
+        EIntegerDivisor.Create(EInteger.FromInt32(0));
+        Assert.fail("Should have failed");
+      } catch (ArithmeticException ex) {
+        // NOTE: Intentionally empty
+      }
+    }
+
+    @Test
+    public void TestEncodedForm() {
+      EInteger big = EInteger.FromInt32(1).ShiftLeft(1000).Add(12345);
+      EInteger[] integers = {
+        EInteger.FromInt32(0), EInteger.FromInt32(1), EInteger.FromInt32(-1),
+        EInteger.FromInt32(63), EInteger.FromInt32(64), EInteger.FromInt32(127),
+        EInteger.FromInt32(128), EInteger.FromInt32(-128),
+        EInteger.FromInt32(16383), EInteger.FromInt32(16384),
+        EInteger.FromInt32(Integer.MAX_VALUE),
+        EInteger.FromInt32(Integer.MIN_VALUE),
+        EInteger.FromInt64(Long.MAX_VALUE), EInteger.FromInt64(Long.MIN_VALUE),
+        EInteger.FromInt64(Long.MAX_VALUE).Add(1),
+        EInteger.FromInt32(1).ShiftLeft(64),
+        EInteger.FromInt32(1).ShiftLeft(70).Subtract(1),
+        EInteger.FromInt32(1).ShiftLeft(70), big, big.Negate(),
+      };
+      java.util.Random rand = new java.util.Random(12345);
+      EInteger[] values = new EInteger[integers.length + 200];
+      System.arraycopy(integers, 0, values, 0, integers.length);
+      for (int i = integers.length; i < values.length; ++i) {
+        byte[] bytes = new byte[rand.nextInt(40) + 1];
+        rand.nextBytes(bytes);
+        values[i] = EInteger.FromBytes(bytes, true);
+      }
+      for (EInteger ei : values) {
+        byte[] bytes = ei.ToEncodedBytes();
+        Assert.assertEquals(ei.GetEncodedLength(), bytes.length);
+        Assert.assertEquals(ei, EInteger.FromEncodedBytes(bytes));
+        for (ByteBuffer buffer : TestCommon.ByteBuffers(bytes)) {
+          Assert.assertEquals(ei, EInteger.ReadEncoded(buffer));
+          Assert.assertFalse(buffer.hasRemaining());
+        }
+        // Writing to a heap buffer at an offset and to a direct buffer
+        ByteBuffer buffer = ByteBuffer.allocate(bytes.length + 5);
+        buffer.position(5);
+        ei.WriteEncoded(buffer);
+        Assert.assertFalse(buffer.hasRemaining());
+        TestCommon.AssertByteArraysEqual(
+          bytes,
+          buffer.array(),
+          5,
+          bytes.length);
+        buffer = ByteBuffer.allocateDirect(bytes.length);
+        ei.WriteEncoded(buffer);
+        buffer.flip();
+        byte[] written = new byte[bytes.length];
+        buffer.get(written);
+        TestCommon.AssertByteArraysEqual(bytes, written);
+        try {
+          ByteArrayOutputStream stream = new ByteArrayOutputStream();
+          ei.WriteEncoded(new DataOutputStream(stream));
+          TestCommon.AssertByteArraysEqual(bytes, stream.toByteArray());
+          DataInputStream input = new DataInputStream(
+            new ByteArrayInputStream(bytes));
+          Assert.assertEquals(ei, EInteger.ReadEncoded(input));
+          Assert.assertEquals(-1, input.read());
+        } catch (IOException ex) {
+          Assert.fail(ex.toString());
+        }
+        // Truncated encodings, and trailing bytes, are rejected
+        for (int i = 0; i < bytes.length; ++i) {
+          byte[] prefix = new byte[i];
+          System.arraycopy(bytes, 0, prefix, 0, i);
+          try {
+            EInteger.FromEncodedBytes(prefix);
+            Assert.fail("Should have failed");
+          } catch (IllegalArgumentException ex) {
+            // NOTE: Intentionally empty
+          }
+          buffer = ByteBuffer.wrap(prefix);
+          try {
+            EInteger.ReadEncoded(buffer);
+            Assert.fail("Should have failed");
+          } catch (BufferUnderflowException ex) {
+            Assert.assertEquals(0, buffer.position());
+          }
+          try {
+            EInteger.ReadEncoded(
+              new DataInputStream(new ByteArrayInputStream(prefix)));
+            Assert.fail("Should have failed");
+          } catch (EOFException ex) {
+            // NOTE: Intentionally empty
+          } catch (IOException ex) {
+            Assert.fail(ex.toString());
+          }
+        }
+        byte[] longer = new byte[bytes.length + 1];
+        System.arraycopy(bytes, 0, longer, 0, bytes.length);
+        try {
+          EInteger.FromEncodedBytes(longer);
+          Assert.fail("Should have failed");
+        } catch (IllegalArgumentException ex) {
+          // NOTE: Intentionally empty
+        }
+      }
+    }
+
+    @Test
+    public void TestEncodedFormInvalid() {
+      // An unsupported format version, encodings of infinity and NaN,
+      // negative zero, and overlong lengths
+      byte[][] invalid = {
+        new byte[] { 0x00, 0x01 },
+        new byte[] { 0x12 },
+        new byte[] { 0x14, 0x00 },
+        new byte[] { 0x11, 0x00 },
+        new byte[] { 0x10, (byte)0x80, 0x00 },
+        new byte[] { 0x10, (byte)0x81, 0x00 },
+        new byte[] {
+          0x10, (byte)0xff, (byte)0xff, (byte)0xff, (byte)0xff, (byte)0xff,
+          (byte)0xff, (byte)0xff, (byte)0xff, (byte)0xff, (byte)0x80, 0x00,
+        },
+      };
+      for (byte[] bytes : invalid) {
+        try {
+          EInteger.FromEncodedBytes(bytes);
+          Assert.fail("Should have failed");
+        } catch (IllegalArgumentException ex) {
+          // NOTE: Intentionally empty
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        try {
+          EInteger.ReadEncoded(buffer);
+          Assert.fail("Should have failed");
+        } catch (IllegalArgumentException ex) {
+          Assert.assertEquals(0, buffer.position());
+        }
+        try {
+          EInteger.ReadEncoded(
+            new DataInputStream(new ByteArrayInputStream(bytes)));
+          Assert.fail("Should have failed");
+        } catch (EOFException ex) {
+          Assert.fail(ex.toString());
+        } catch (IOException ex) {
+          // NOTE: Intentionally empty
+        }
+      }
+      // Random bytes either decode to a value whose encoding is the same
+      // bytes, or are rejected
+      java.util.Random rand = new java.util.Random(54321);
+      for (int i = 0; i < 1000; ++i) {
+        byte[] bytes = new byte[rand.nextInt(12) + 1];
+        rand.nextBytes(bytes);
+        // Use the supported version most of the time
+        if (rand.nextInt(4) != 0) {
+          bytes[0] = (byte)((bytes[0] & 0x0f) | 0x10);
+        }
+        EInteger ei;
+        try {
+          ei = EInteger.FromEncodedBytes(bytes);
+        } catch (IllegalArgumentException ex) {
+          continue;
+        }
+        TestCommon.AssertByteArraysEqual(bytes, ei.ToEncodedBytes());
+      }
+    }
+
     @Test
     public void TestEquals() {
       if (EInteger.FromInt32(1).equals(null)) {
@@ -1493,6 +2013,61 @@ import com.upokecenter.numbers.*;
         }
       }
     }
+    @Test
+    public void TestFromRadixStringThresholds() {
+      java.util.Random rand = new java.util.Random(4004);
+      // Digit strings of more than 72 digits are split into blocks of
+      // d*2^k digits, where d is 152 for radix 10; other radixes have
+      // other block sizes
+      int[] radixes = { 3, 10, 36 };
+      int[] lengths = {
+        71, 72, 73, 151, 152, 153, 303, 304, 305, 609, 1217, 5000, 40000,
+      };
+      for (int radix : radixes) {
+        for (int length : lengths) {
+          StringBuilder sb = new StringBuilder();
+          for (int i = 0; i < length; ++i) {
+            // Runs of zeros and of the largest digit at block edges
+            int digit = (i % 150 < 20) ? 0 : ((i % 150 < 40) ? radix - 1 :
+              rand.nextInt(radix));
+            sb.append(Character.forDigit(digit, radix));
+          }
+          String str = sb.toString();
+          String msg = radix + " " + length;
+          EInteger expected = FromBigInteger(
+            new java.math.BigInteger(str, radix));
+          Assert.assertEquals(
+            msg,
+            expected,
+            EInteger.FromRadixString(str, radix));
+          Assert.assertEquals(
+            msg,
+            expected.Negate(),
+            EInteger.FromRadixString("-" + str, radix));
+          Assert.assertEquals(
+            msg,
+            expected,
+            EInteger.FromRadixString(str.toCharArray(), radix));
+          byte[] bytes = new byte[length];
+          for (int i = 0; i < length; ++i) {
+            bytes[i] = (byte)str.charAt(i);
+          }
+          Assert.assertEquals(
+            msg,
+            expected,
+            EInteger.FromRadixString(bytes, radix));
+          Assert.assertEquals(
+            msg,
+            expected,
+            EInteger.FromRadixSubstring(
+              "xx" + str + "xx",
+              radix,
+              2,
+              length + 2));
+        }
+      }
+    }
+
     @Test
     public void TestFromRadixSubstring() {
       try {
@@ -1748,6 +2323,121 @@ import com.upokecenter.numbers.*;
       }
     }
 
+    @Test
+    public void TestFromStringSources() {
+      String[] fixedStrs = {
+        "0", "-0", "+0", "1", "-1", "123", "1.5", "1E5",
+        "123456789012345678901234567890", "10000000000000000000000000000000",
+        "", "-", "12a", " 1", "1 ", "0x10", "ff", "-FF", "DeadBeef", "1/2",
+      };
+      String[] strs = new String[fixedStrs.length + 300];
+      System.arraycopy(fixedStrs, 0, strs, 0, fixedStrs.length);
+      java.util.Random rand = new java.util.Random(1234);
+      for (int i = fixedStrs.length; i < strs.length; ++i) {
+        StringBuilder builder = new StringBuilder();
+        if (rand.nextInt(2) == 0) {
+          builder.append('-');
+        }
+        int digits = 1 + rand.nextInt(40);
+        for (int j = 0; j < digits; ++j) {
+          builder.append((char)('0' + rand.nextInt(10)));
+        }
+        strs[i] = builder.toString();
+      }
+      for (String str : strs) {
+        StringBuilder padded = new StringBuilder("#$").append(str).append('%');
+        byte[] bytes = str.getBytes(java.nio.charset.StandardCharsets.UTF_8);
+        String expected;
+        try {
+          expected = EInteger.FromString(str).toString();
+        } catch (NumberFormatException ex) {
+          expected = null;
+        }
+        for (CharSequence cs : TestCommon.CharSequences(str)) {
+          try {
+            Assert.assertEquals(
+              str,
+              expected,
+              EInteger.FromString(cs).toString());
+          } catch (NumberFormatException ex) {
+            Assert.assertNull(str, expected);
+          }
+          Assert.assertEquals(str.length(), cs.length());
+        }
+        try {
+          Assert.assertEquals(
+            str,
+            expected,
+            EInteger.FromSubstring(padded, 2, str.length() + 2).toString());
+        } catch (NumberFormatException ex) {
+          Assert.assertNull(str, expected);
+        }
+        for (ByteBuffer buffer : TestCommon.ByteBuffers(bytes)) {
+          try {
+            Assert.assertEquals(
+              str,
+              expected,
+              EInteger.FromString(buffer).toString());
+          } catch (NumberFormatException ex) {
+            Assert.assertNull(str, expected);
+          }
+          Assert.assertEquals(bytes.length, buffer.remaining());
+        }
+        // In base 16
+        try {
+          expected = EInteger.FromRadixString(str, 16).toString();
+        } catch (NumberFormatException ex) {
+          expected = null;
+        }
+        for (CharSequence cs : TestCommon.CharSequences(str)) {
+          try {
+            Assert.assertEquals(
+              str,
+              expected,
+              EInteger.FromRadixString(cs, 16).toString());
+          } catch (NumberFormatException ex) {
+            Assert.assertNull(str, expected);
+          }
+          Assert.assertEquals(str.length(), cs.length());
+        }
+        try {
+          Assert.assertEquals(
+            str,
+            expected,
+            EInteger.FromRadixSubstring(
+              padded,
+              16,
+              2,
+              str.length() + 2).toString());
+        } catch (NumberFormatException ex) {
+          Assert.assertNull(str, expected);
+        }
+        for (ByteBuffer buffer : TestCommon.ByteBuffers(bytes)) {
+          try {
+            Assert.assertEquals(
+              str,
+              expected,
+              EInteger.FromRadixString(buffer, 16).toString());
+          } catch (NumberFormatException ex) {
+            Assert.assertNull(str, expected);
+          }
+          Assert.assertEquals(bytes.length, buffer.remaining());
+        }
+      }
+      try {
+        EInteger.FromRadixString((CharSequence)null, 10);
+        Assert.fail("Should have failed");
+      } catch (NullPointerException ex) {
+        // NOTE: Intentionally empty
+      }
+      try {
+        EInteger.FromRadixString(ByteBuffer.allocate(1), 37);
+        Assert.fail("Should have failed");
+      } catch (IllegalArgumentException ex) {
+        // NOTE: Intentionally empty
+      }
+    }
+
     @Test
     public void TestFromStringInnerMinus() {
       String str = TestCommon.Repeat("1", 1000) + "-" + TestCommon.Repeat(
@@ -2233,6 +2923,118 @@ import com.upokecenter.numbers.*;
       TestGcdPair(eia, eib, gcd);
     }
 
+    private static void AssertExtendedGcd(EInteger a, EInteger b) {
+      String msg = a + " " + b;
+      EInteger[] egcd = a.ExtendedGcd(b);
+      Assert.assertEquals(
+        msg,
+        FromBigInteger(ToBigInteger(a).gcd(ToBigInteger(b))),
+        egcd[0]);
+      // Bezout identity
+      Assert.assertEquals(
+        msg,
+        egcd[0],
+        egcd[1].Multiply(a).Add(egcd[2].Multiply(b)));
+      if (egcd[0].isZero()) {
+        Assert.assertEquals(msg, EInteger.FromInt32(0), egcd[1]);
+        Assert.assertEquals(msg, EInteger.FromInt32(0), egcd[2]);
+      } else if (!b.isZero()) {
+        Assert.assertTrue(msg, egcd[1].signum() >= 0);
+        Assert.assertTrue(
+          msg,
+          egcd[1].compareTo(b.Abs().Divide(egcd[0])) < 0);
+      }
+      // ModInverse agrees with BigInteger, including for modulus 1 and
+      // for values that aren't invertible
+      if (b.signum() > 0) {
+        EInteger expected;
+        try {
+          expected = FromBigInteger(
+            ToBigInteger(a).modInverse(ToBigInteger(b)));
+        } catch (ArithmeticException ex) {
+          expected = null;
+        }
+        try {
+          EInteger inverse = a.ModInverse(b);
+          Assert.assertEquals(msg, expected, inverse);
+        } catch (ArithmeticException ex) {
+          Assert.assertNull(msg, expected);
+        }
+      }
+    }
+
+    @Test
+    public void TestExtendedGcd() {
+      java.util.Random rand = new java.util.Random(1414);
+      // Values of more than 12 words are reduced by half-GCD steps first
+      int[] sizes = { 1, 4, 12, 13, 40, 300 };
+      java.util.ArrayList<EInteger> values =
+        new java.util.ArrayList<EInteger>();
+      values.add(EInteger.FromInt32(0));
+      values.add(EInteger.FromInt32(1));
+      values.add(EInteger.FromInt32(-1));
+      values.add(EInteger.FromInt32(6));
+      values.add(EInteger.FromInt32(-35));
+      values.add(EInteger.FromString("18446744073709551616"));
+      EInteger common = RandomEIntegerOfWords(rand, 7).Abs();
+      for (int size : sizes) {
+        EInteger value = RandomEIntegerOfWords(rand, size);
+        values.add(value);
+        values.add(value.Negate().Subtract(EInteger.FromInt32(1)));
+        // Values with a common factor other than 1
+        values.add(value.Multiply(common));
+        values.add(RandomEIntegerOfWords(rand, size).Multiply(common));
+      }
+      for (EInteger a : values) {
+        for (EInteger b : values) {
+          AssertExtendedGcd(a, b);
+        }
+      }
+      // Consecutive Fibonacci numbers take the most Euclidean steps
+      EInteger fa = EInteger.FromInt32(1);
+      EInteger fb = EInteger.FromInt32(1);
+      for (int i = 0; i < 3000; ++i) {
+        EInteger t = fa.Add(fb);
+        fa = fb;
+        fb = t;
+      }
+      AssertExtendedGcd(fa, fb);
+      AssertExtendedGcd(fb, fa.Negate());
+      Assert.assertEquals(
+        EInteger.FromInt32(0),
+        EInteger.FromInt32(5).ModInverse(EInteger.FromInt32(1)));
+      Assert.assertEquals(
+        EInteger.FromInt32(0),
+        EInteger.FromInt32(0).ModInverse(EInteger.FromInt32(1)));
+      Assert.assertEquals(
+        EInteger.FromInt32(4),
+        EInteger.FromInt32(-3).ModInverse(EInteger.FromInt32(13)));
+      try {
+        EInteger.FromInt32(6).ModInverse(EInteger.FromInt32(9));
+        Assert.fail("Should have failed");
+      } catch (ArithmeticException ex) {
+        // NOTE: Intentionally empty
+      }
+      try {
+        EInteger.FromInt32(0).ModInverse(EInteger.FromInt32(7));
+        Assert.fail("Should have failed");
+      } catch (ArithmeticException ex) {
+        // NOTE: Intentionally empty
+      }
+      try {
+        EInteger.FromInt32(3).ModInverse(EInteger.FromInt32(-7));
+        Assert.fail("Should have failed");
+      } catch (IllegalArgumentException ex) {
+        // NOTE: Intentionally empty
+      }
+      try {
+        EInteger.FromInt32(3).ModInverse(EInteger.FromInt32(0));
+        Assert.fail("Should have failed");
+      } catch (IllegalArgumentException ex) {
+        // NOTE: Intentionally empty
+      }
+    }
+
     @Test
     public void TestGetBits() {
       // not implemented yet
@@ -2931,6 +3733,29 @@ import com.upokecenter.numbers.*;
         EInteger.FromInt32(inta).Multiply(intb));
     }
 
+    @Test
+    public void TestSquareThresholds() {
+      java.util.Random rand = new java.util.Random(1313);
+      // Squaring switches from Karatsuba to Toom-3 at 300 words and to
+      // Toom-4 at 800; odd word counts from 100 words up split unevenly
+      int[] sizes = {
+        99, 100, 101, 199, 201, 299, 300, 301, 401, 799, 800, 801,
+      };
+      for (int size : sizes) {
+        EInteger[] values = {
+          RandomEIntegerOfWords(rand, size), AllOnesInteger(size),
+          ZerosAndOnesInteger(size),
+          EInteger.FromInt32(1).ShiftLeft((size * 16) - 1),
+        };
+        for (EInteger x : values) {
+          java.math.BigInteger big = ToBigInteger(x);
+          EInteger expected = FromBigInteger(big.multiply(big));
+          Assert.assertEquals(String.valueOf(size), expected, x.Multiply(x));
+          Assert.assertEquals(String.valueOf(size), expected, x.Pow(2));
+        }
+      }
+    }
+
     @Test
     public void TestMultiply() {
       try {
@@ -3032,6 +3857,44 @@ import com.upokecenter.numbers.*;
       return ei;
     }
 
+    @Test
+    public void TestMultiplyThresholds() {
+      java.util.Random rand = new java.util.Random(5005);
+      // Multiplication uses Toom-3 from 100 words, Toom-4 from 400 and
+      // number-theoretic transforms from 1500; squaring uses transforms
+      // from 1000 words
+      int[] sizes = {
+        99, 100, 101, 399, 400, 401, 999, 1000, 1001, 1499, 1500, 1501,
+      };
+      for (int size : sizes) {
+        EInteger[] values = {
+          RandomEIntegerOfWords(rand, size), AllOnesInteger(size),
+        };
+        for (EInteger x : values) {
+          java.math.BigInteger bigX = ToBigInteger(x);
+          String msg = String.valueOf(size);
+          Assert.assertEquals(
+            msg,
+            FromBigInteger(bigX.multiply(bigX)),
+            x.Multiply(x));
+          int[] otherSizes = { size - 1, size, size + 1, 1500, 3000 };
+          for (int otherSize : otherSizes) {
+            EInteger y = RandomEIntegerOfWords(rand, otherSize);
+            Assert.assertEquals(
+              msg + " " + otherSize,
+              FromBigInteger(bigX.multiply(ToBigInteger(y))),
+              x.Multiply(y));
+          }
+        }
+      }
+      // The largest digits and the longest carries
+      EInteger ones = AllOnesInteger(4001);
+      EInteger onesMinus = ones.Subtract(1);
+      Assert.assertEquals(
+        FromBigInteger(ToBigInteger(ones).multiply(ToBigInteger(onesMinus))),
+        ones.Multiply(onesMinus));
+    }
+
     @Test(timeout = 5000)
     public void TestMultiplyDivideSpecific() {
       String
@@ -3275,11 +4138,317 @@ import com.upokecenter.numbers.*;
       DoTestPow(EInteger.FromInt32(-4), 3, EInteger.FromInt32(-64));
       DoTestPow(EInteger.FromInt32(-4), 4, EInteger.FromInt32(256));
     }
+    // Generates a random integer, which can be negative, with the given
+    // number of 16-bit words
+    private static EInteger RandomEIntegerOfWords(
+      java.util.Random rand,
+      int words) {
+      byte[] bytes = new byte[(words * 2) + 1];
+      rand.nextBytes(bytes);
+      bytes[bytes.length - 1] = (byte)(rand.nextBoolean() ? 0 : -1);
+      bytes[bytes.length - 2] |= (byte)0x80;
+      return EInteger.FromBytes(bytes, true);
+    }
+
+    private static EInteger[][] ProductTreeLists(java.util.Random rand) {
+      EInteger[] shared = {
+        RandomEIntegerOfWords(rand, 3).Abs(),
+        RandomEIntegerOfWords(rand, 50).Abs(),
+      };
+      java.util.ArrayList<EInteger[]> lists =
+        new java.util.ArrayList<EInteger[]>();
+      lists.add(new EInteger[0]);
+      lists.add(new EInteger[] { EInteger.FromInt32(0) });
+      lists.add(new EInteger[] { EInteger.FromInt32(-7) });
+      lists.add(new EInteger[] { RandomEIntegerOfWords(rand, 100) });
+      lists.add(new EInteger[] {
+        EInteger.FromInt32(6), EInteger.FromInt32(0), EInteger.FromInt32(-10),
+      });
+      lists.add(new EInteger[] {
+        EInteger.FromInt32(0), EInteger.FromInt32(5), EInteger.FromInt32(0),
+      });
+      int[] counts = { 2, 3, 5, 8, 17, 40 };
+      for (int count : counts) {
+        EInteger[] list = new EInteger[count];
+        for (int i = 0; i < count; ++i) {
+          list[i] = RandomEIntegerOfWords(rand, 1 + rand.nextInt(60));
+          if (rand.nextInt(3) == 0) {
+            // Some of the integers share factors
+            list[i] = list[i].Multiply(shared[rand.nextInt(shared.length)]);
+          }
+        }
+        if (count > 5) {
+          list[count / 2] = EInteger.FromInt32(1);
+        }
+        lists.add(list);
+      }
+      return lists.toArray(new EInteger[0][]);
+    }
+
+    @Test
+    public void TestProduct() {
+      java.util.Random rand = new java.util.Random(1515);
+      for (EInteger[] list : ProductTreeLists(rand)) {
+        EInteger expected = EInteger.FromInt32(1);
+        for (EInteger value : list) {
+          expected = expected.Multiply(value);
+        }
+        Assert.assertEquals(expected, EInteger.Product(list));
+      }
+      try {
+        EInteger.Product(null);
+        Assert.fail("Should have failed");
+      } catch (NullPointerException ex) {
+        // NOTE: Intentionally empty
+      }
+      try {
+        EInteger.Product(new EInteger[] { EInteger.FromInt32(1), null });
+        Assert.fail("Should have failed");
+      } catch (NullPointerException ex) {
+        // NOTE: Intentionally empty
+      }
+    }
+
+    @Test
+    public void TestRemainderAll() {
+      java.util.Random rand = new java.util.Random(1516);
+      EInteger[] dividends = {
+        EInteger.FromInt32(0), EInteger.FromInt32(-1),
+        RandomEIntegerOfWords(rand, 20), RandomEIntegerOfWords(rand, 500),
+        RandomEIntegerOfWords(rand, 4000),
+      };
+      for (EInteger[] list : ProductTreeLists(rand)) {
+        boolean hasZero = false;
+        for (EInteger value : list) {
+          hasZero |= value.isZero();
+        }
+        for (EInteger x : dividends) {
+          if (hasZero) {
+            try {
+              x.RemainderAll(list);
+              Assert.fail("Should have failed");
+            } catch (ArithmeticException ex) {
+              // NOTE: Intentionally empty
+            }
+            continue;
+          }
+          EInteger[] remainders = x.RemainderAll(list);
+          Assert.assertEquals(list.length, remainders.length);
+          for (int i = 0; i < list.length; ++i) {
+            Assert.assertEquals(x.Remainder(list[i]), remainders[i]);
+          }
+        }
+      }
+    }
+
+    @Test
+    public void TestBatchGcd() {
+      java.util.Random rand = new java.util.Random(1517);
+      for (EInteger[] list : ProductTreeLists(rand)) {
+        EInteger[] gcds = EInteger.BatchGcd(list);
+        Assert.assertEquals(list.length, gcds.length);
+        for (int i = 0; i < list.length; ++i) {
+          EInteger others = EInteger.FromInt32(1);
+          for (int j = 0; j < list.length; ++j) {
+            if (j != i) {
+              others = others.Multiply(list[j]);
+            }
+          }
+          Assert.assertEquals(list[i].Gcd(others), gcds[i]);
+        }
+      }
+      // None of these integers has a repeated prime factor, so each
+      // result is the least common multiple of the pairwise GCDs
+      EInteger[] list = {
+        EInteger.FromInt32(6), EInteger.FromInt32(35), EInteger.FromInt32(11),
+        EInteger.FromInt32(-143), EInteger.FromInt32(1),
+      };
+      EInteger[] gcds = EInteger.BatchGcd(list);
+      for (int i = 0; i < list.length; ++i) {
+        EInteger expected = EInteger.FromInt32(1);
+        for (int j = 0; j < list.length; ++j) {
+          if (j != i) {
+            EInteger gcd = list[i].Gcd(list[j]);
+            expected = expected.Multiply(gcd.Divide(expected.Gcd(gcd)));
+          }
+        }
+        Assert.assertEquals(expected, gcds[i]);
+      }
+    }
+
+    @Test
+    public void TestInt64Boundaries() {
+      // Values that fit in 64 bits are stored differently from other
+      // values; each of these must be the same however it is built
+      String[] strs = {
+        "0", "1", "-1", "2147483647", "-2147483648", "4294967295",
+        "-4294967296", "9223372036854775806", "9223372036854775807",
+        "9223372036854775808", "-9223372036854775807", "-9223372036854775808",
+        "-9223372036854775809", "18446744073709551615",
+        "-18446744073709551615", "18446744073709551616",
+        "-18446744073709551616",
+      };
+      java.math.BigInteger minLong = java.math.BigInteger.valueOf(
+          Long.MIN_VALUE);
+      java.math.BigInteger maxLong = java.math.BigInteger.valueOf(
+          Long.MAX_VALUE);
+      for (String str : strs) {
+        java.math.BigInteger big = new java.math.BigInteger(str);
+        boolean fits = big.compareTo(minLong) >= 0 &&
+          big.compareTo(maxLong) <= 0;
+        EInteger ei = EInteger.FromString(str);
+        byte[] bytes = big.toByteArray();
+        for (int i = 0; i < bytes.length / 2; ++i) {
+          byte b = bytes[i];
+          bytes[i] = bytes[bytes.length - 1 - i];
+          bytes[bytes.length - 1 - i] = b;
+        }
+        EInteger[] others = {
+          EInteger.FromBytes(bytes, true),
+          EInteger.FromRadixString(big.toString(16), 16),
+          ei.Add(EInteger.FromInt32(1)).Subtract(EInteger.FromInt32(1)),
+          ei.Subtract(EInteger.FromString("100000000000000000000000"))
+          .Add(EInteger.FromString("100000000000000000000000")),
+          ei.ShiftLeft(70).ShiftRight(70),
+          ei.Multiply(EInteger.FromInt32(3)).Divide(EInteger.FromInt32(3)),
+          ei.Negate().Negate(),
+          new EIntegerBuilder().SetValue(ei).ToEInteger(),
+          new EIntegerBuilder().AddAssign(ei).ToEInteger(),
+          EIntegerBuilder.FromEInteger(ei).MultiplyAssign(1).ToEInteger(),
+        };
+        for (EInteger other : others) {
+          Assert.assertEquals(str, ei, other);
+          Assert.assertEquals(str, ei.hashCode(), other.hashCode());
+          Assert.assertEquals(str, other.toString());
+          Assert.assertEquals(str, fits, other.CanFitInInt64());
+        }
+        Assert.assertEquals(str, ei.toString());
+        Assert.assertEquals(big.signum(), ei.signum());
+        Assert.assertEquals(
+          str,
+          big.bitLength(),
+          ei.GetSignedBitLengthAsInt64());
+        Assert.assertEquals(
+          str,
+          big.abs().bitLength(),
+          ei.GetUnsignedBitLengthAsInt64());
+        Assert.assertEquals(str, big.longValue(), ei.ToInt64Unchecked());
+        TestCommon.AssertByteArraysEqual(bytes, ei.ToBytes(true));
+        if (fits) {
+          Assert.assertEquals(str, big.longValue(), ei.ToInt64Checked());
+          Assert.assertEquals(str, ei, EInteger.FromInt64(big.longValue()));
+          Assert.assertEquals(
+            str,
+            ei.hashCode(),
+            EInteger.FromInt64(big.longValue()).hashCode());
+        } else {
+          try {
+            ei.ToInt64Checked();
+            Assert.fail(str);
+          } catch (ArithmeticException ex) {
+            // NOTE: Intentionally empty
+          }
+        }
+      }
+    }
+
+    @Test
+    public void TestParallelMultiplication() {
+      java.util.Random rand = new java.util.Random(2468);
+      // Sizes that use Toom-3, Toom-4 and number-theoretic transforms, and
+      // a size whose conversion to a string divides by reciprocals
+      int[] sizes = { 150, 500, 1800, 9000 };
+      EInteger[] values = new EInteger[sizes.length];
+      EInteger[] others = new EInteger[sizes.length];
+      EInteger[] products = new EInteger[sizes.length];
+      String[] strings = new String[sizes.length];
+      for (int i = 0; i < sizes.length; ++i) {
+        values[i] = RandomEIntegerOfWords(rand, sizes[i]);
+        others[i] = RandomEIntegerOfWords(rand, sizes[i]);
+        products[i] = values[i].Multiply(others[i]);
+        strings[i] = values[i].toString();
+      }
+      EInteger cube = values[2].Pow(3);
+      java.util.concurrent.ForkJoinPool pool = new
+      java.util.concurrent.ForkJoinPool(3);
+      try {
+        // A pool given to a single call, with the default threshold
+        for (int i = 0; i < sizes.length; ++i) {
+          Assert.assertEquals(products[i], values[i].Multiply(others[i], pool));
+          Assert.assertEquals(strings[i], values[i].ToRadixString(10, pool));
+        }
+        Assert.assertEquals(cube, values[2].Pow(EInteger.FromInt32(3), pool));
+        // A pool for all threads, with a threshold low enough that every
+        // size is split among threads
+        EInteger.SetParallelMultiplication(pool, 64);
+        for (int i = 0; i < sizes.length; ++i) {
+          Assert.assertEquals(products[i], values[i].Multiply(others[i]));
+          Assert.assertEquals(
+            products[i],
+            values[i].Multiply(others[i], null));
+          Assert.assertEquals(strings[i], values[i].toString());
+          Assert.assertEquals(
+            values[i].ToRadixString(16),
+            values[i].ToRadixString(16, pool));
+        }
+        Assert.assertEquals(cube, values[2].Pow(3));
+        Assert.assertEquals(cube, values[2].Pow(EInteger.FromInt32(3), pool));
+        try {
+          EInteger.SetParallelMultiplication(pool, 0);
+          Assert.fail("Should have failed");
+        } catch (IllegalArgumentException ex) {
+          // NOTE: Intentionally empty
+        }
+        // The threshold is ignored when turning off the pool
+        EInteger.SetParallelMultiplication(null, 0);
+        for (int i = 0; i < sizes.length; ++i) {
+          Assert.assertEquals(products[i], values[i].Multiply(others[i]));
+          Assert.assertEquals(strings[i], values[i].toString());
+        }
+      } finally {
+        // Restore the default threshold, then turn off the pool
+        EInteger.SetParallelMultiplication(pool, 8000);
+        EInteger.SetParallelMultiplication(null, 1);
+        pool.shutdown();
+      }
+    }
+
     @Test
     public void TestRemainder() {
       DoTestRemainder("2472320648", "2831812081", "2472320648");
       DoTestRemainder("-2472320648", "2831812081", "-2472320648");
     }
+    @Test
+    public void TestSchoolbookThreshold() {
+      java.util.Random rand = new java.util.Random(1001);
+      // Up to 32 words, multiplication uses the schoolbook method, with
+      // 32-bit limbs from 3 words; longer operands use Karatsuba
+      for (int size = 1; size <= 70; ++size) {
+        EInteger[] values = {
+          RandomEIntegerOfWords(rand, size), AllOnesInteger(size),
+        };
+        for (EInteger x : values) {
+          java.math.BigInteger bigX = ToBigInteger(x);
+          Assert.assertEquals(
+            FromBigInteger(bigX.multiply(bigX)),
+            x.Multiply(x));
+          int[] otherSizes = { 1, 2, 3, size - 1, size, size + 1, 33 };
+          for (int otherSize : otherSizes) {
+            if (otherSize <= 0) {
+              continue;
+            }
+            EInteger y = (otherSize == size) ?
+              AllOnesInteger(size).Subtract(x.Abs()).Add(1) :
+              RandomEIntegerOfWords(rand, otherSize);
+            Assert.assertEquals(
+              size + " " + otherSize,
+              FromBigInteger(bigX.multiply(ToBigInteger(y))),
+              x.Multiply(y));
+          }
+        }
+      }
+    }
+
     @Test
     public void TestShiftLeft() {
       EInteger bigint = EInteger.FromInt32(1);
@@ -3614,6 +4783,52 @@ import com.upokecenter.numbers.*;
       }
     }
 
+    @Test
+    public void TestToRadixStringThresholds() {
+      java.util.Random rand = new java.util.Random(3003);
+      // Values of 64 words or more are split by a tree of powers of the
+      // radix; at the lower levels of trees for values of several
+      // thousand words, those powers are divided by with reciprocals
+      int[] sizes = { 63, 64, 65, 127, 128, 129, 3300, 9000 };
+      int[] radixes = { 2, 3, 10, 16, 36 };
+      for (int size : sizes) {
+        EInteger x = RandomEIntegerOfWords(rand, size);
+        for (int radix : radixes) {
+          if (size > 3300 && radix != 10) {
+            continue;
+          }
+          String expected = ToBigInteger(x).toString(radix);
+          Assert.assertEquals(
+            size + " " + radix,
+            expected,
+            x.ToRadixString(radix).toLowerCase());
+          Assert.assertEquals(
+            size + " " + radix,
+            x,
+            EInteger.FromRadixString(expected, radix));
+        }
+      }
+      // Powers of 10 and their neighbors, around the powers in the tree
+      // and with long runs of zeros or nines in the low digits
+      for (int digits = 140; digits < 6000; digits = digits * 2 + 7) {
+        for (int delta = -20; delta <= 20; delta += 4) {
+          int k = digits + delta;
+          java.math.BigInteger big = java.math.BigInteger.TEN.pow(k);
+          java.math.BigInteger[] bigs = {
+            big, big.subtract(java.math.BigInteger.ONE),
+            big.add(java.math.BigInteger.ONE), big.negate(),
+            big.multiply(java.math.BigInteger.valueOf(123456789)),
+          };
+          for (java.math.BigInteger b : bigs) {
+            Assert.assertEquals(
+              String.valueOf(k),
+              b.toString(),
+              FromBigInteger(b).toString());
+          }
+        }
+      }
+    }
+
     @Test(timeout = 100000)
     public void TestToString() {
       EInteger bi = EInteger.FromInt64(3);
@@ -3641,6 +4856,116 @@ import com.upokecenter.numbers.*;
     public void TestValueOf() {
       // not implemented yet
     }
+    @Test
+    public void TestWriteRadixString() {
+      EInteger[] values = {
+        EInteger.FromInt32(0), EInteger.FromInt32(1), EInteger.FromInt32(-1),
+        EInteger.FromInt32(35), EInteger.FromInt32(36),
+        EInteger.FromInt32(Integer.MIN_VALUE),
+        EInteger.FromInt32(Integer.MAX_VALUE),
+        EInteger.FromInt64(Long.MIN_VALUE), EInteger.FromInt64(Long.MAX_VALUE),
+        EInteger.FromInt64(Long.MIN_VALUE).Subtract(1),
+        EInteger.FromInt32(1).ShiftLeft(64),
+        EInteger.FromInt32(1).ShiftLeft(300).Subtract(1),
+        EInteger.FromInt32(-7).Pow(400), null, null, null, null, null,
+      };
+      java.util.Random rand = new java.util.Random(2026);
+      for (int radix = 2; radix <= 36; ++radix) {
+        // Also 5 random values for each radix
+        for (int i = values.length - 5; i < values.length; ++i) {
+          values[i] = EInteger.FromInt64(rand.nextLong() >> rand.nextInt(64));
+        }
+        for (EInteger ei : values) {
+          String str = ei.ToRadixString(radix);
+          int length = str.length();
+          byte[] utf8 = str.getBytes(java.nio.charset.StandardCharsets.UTF_8);
+          Assert.assertEquals(str, length, ei.GetRadixStringLength(radix));
+          StringBuilder builder = new StringBuilder("abc");
+          try {
+            ei.WriteRadixString(builder, radix);
+          } catch (IOException ex) {
+            Assert.fail(ex.toString());
+          }
+          Assert.assertEquals("abc" + str, builder.toString());
+          char[] chars = new char[length + 3];
+          Assert.assertEquals(length, ei.WriteRadixString(chars, 3, radix));
+          Assert.assertEquals(str, new String(chars, 3, length));
+          byte[] bytes = new byte[length + 2];
+          Assert.assertEquals(length, ei.WriteRadixStringUtf8(bytes, 2, radix));
+          TestCommon.AssertByteArraysEqual(utf8, bytes, 2, length);
+          ByteBuffer buffer = ByteBuffer.allocate(length + 4);
+          buffer.position(1);
+          ei.WriteRadixStringUtf8(buffer, radix);
+          Assert.assertEquals(length + 1, buffer.position());
+          TestCommon.AssertByteArraysEqual(utf8, buffer.array(), 1, length);
+          buffer = ByteBuffer.allocateDirect(length);
+          ei.WriteRadixStringUtf8(buffer, radix);
+          Assert.assertFalse(buffer.hasRemaining());
+          buffer.flip();
+          byte[] written = new byte[length];
+          buffer.get(written);
+          TestCommon.AssertByteArraysEqual(utf8, written);
+          // Targets with too little room
+          try {
+            ei.WriteRadixString(new char[length + 2], 3, radix);
+            Assert.fail("Should have failed: " + str);
+          } catch (IllegalArgumentException ex) {
+            // NOTE: Intentionally empty
+          }
+          try {
+            ei.WriteRadixStringUtf8(new byte[length - 1], 0, radix);
+            Assert.fail("Should have failed: " + str);
+          } catch (IllegalArgumentException ex) {
+            // NOTE: Intentionally empty
+          }
+          buffer = ByteBuffer.allocate(length + 1);
+          buffer.position(2);
+          try {
+            ei.WriteRadixStringUtf8(buffer, radix);
+            Assert.fail("Should have failed: " + str);
+          } catch (BufferOverflowException ex) {
+            Assert.assertEquals(2, buffer.position());
+          }
+          buffer = ByteBuffer.allocateDirect(length - 1);
+          try {
+            ei.WriteRadixStringUtf8(buffer, radix);
+            Assert.fail("Should have failed: " + str);
+          } catch (BufferOverflowException ex) {
+            Assert.assertEquals(0, buffer.position());
+          }
+        }
+      }
+      // Long.MIN_VALUE in radixes other than 10, whose absolute value
+      // doesn't fit in a 64-bit signed integer
+      Assert.assertEquals(
+        "-1000000000000000000000000000000000000000000000000000000000000000",
+        EInteger.FromInt64(Long.MIN_VALUE).ToRadixString(2));
+      char[] chars = new char[17];
+      Assert.assertEquals(
+        17,
+        EInteger.FromInt64(Long.MIN_VALUE).WriteRadixString(chars, 0, 16));
+      Assert.assertEquals("-8000000000000000", new String(chars));
+      EInteger ei = EInteger.FromInt32(100);
+      try {
+        ei.GetRadixStringLength(1);
+        Assert.fail("Should have failed");
+      } catch (IllegalArgumentException ex) {
+        // NOTE: Intentionally empty
+      }
+      try {
+        ei.WriteRadixString(new char[10], 0, 37);
+        Assert.fail("Should have failed");
+      } catch (IllegalArgumentException ex) {
+        // NOTE: Intentionally empty
+      }
+      try {
+        ei.WriteRadixStringUtf8((ByteBuffer)null, 10);
+        Assert.fail("Should have failed");
+      } catch (NullPointerException ex) {
+        // NOTE: Intentionally empty
+      }
+    }
+
     @Test
     public void TestXor() {
       // not implemented yet
@@ -0,0 +1,253 @@
+package com.upokecenter.test;
+
+import java.nio.*;
+import org.junit.Assert;
+import org.junit.Test;
+import com.upokecenter.numbers.*;
+
+  public class ENumberScannerTest {
+    private static byte[] Ascii(String str) {
+      byte[] bytes = new byte[str.length()];
+      for (int i = 0; i < bytes.length; ++i) {
+        bytes[i] = (byte)str.charAt(i);
+      }
+      return bytes;
+    }
+
+    // Scans 'str' as every supported kind of input, with characters
+    // before and after it, and checks that each scan finds a number
+    // ending at 'end' (or none, if 'end' is -1)
+    private static ENumberScanner AssertScan(String str, int end) {
+      ENumberScanner scanner = new ENumberScanner();
+      boolean found = end >= 0;
+      int expectedEnd = found ? end : 0;
+      String padded = "xx" + str + "x";
+      Assert.assertEquals(str, found, scanner.Scan(str, 0, str.length()));
+      Assert.assertEquals(str, expectedEnd, scanner.getEndOffset());
+      Assert.assertEquals(
+        str,
+        found,
+        scanner.Scan(new StringBuilder(padded), 2, str.length()));
+      Assert.assertEquals(str, expectedEnd + 2, scanner.getEndOffset());
+      Assert.assertEquals(
+        str,
+        found,
+        scanner.Scan(padded.toCharArray(), 2, str.length()));
+      Assert.assertEquals(str, expectedEnd + 2, scanner.getEndOffset());
+      Assert.assertEquals(
+        str,
+        found,
+        scanner.Scan(Ascii(padded), 2, str.length()));
+      Assert.assertEquals(str, expectedEnd + 2, scanner.getEndOffset());
+      ByteBuffer direct = ByteBuffer.allocateDirect(padded.length());
+      direct.put(Ascii(padded));
+      direct.position(2).limit(2 + str.length());
+      Assert.assertEquals(str, found, scanner.Scan(direct));
+      Assert.assertEquals(str, expectedEnd + 2, scanner.getEndOffset());
+      Assert.assertEquals(2, direct.position());
+      ByteBuffer heap = ByteBuffer.wrap(Ascii(padded), 2, str.length());
+      Assert.assertEquals(str, found, scanner.Scan(heap));
+      Assert.assertEquals(str, expectedEnd + 2, scanner.getEndOffset());
+      Assert.assertEquals(2, heap.position());
+      Assert.assertEquals(str, found, scanner.Scan(str, 0, str.length()));
+      return scanner;
+    }
+
+    @Test
+    public void TestLongestPrefix() {
+      AssertScan("1", 1);
+      AssertScan("1e", 1);
+      AssertScan("1e+", 1);
+      AssertScan("1e-", 1);
+      AssertScan("1E5", 3);
+      AssertScan("1E+5x", 4);
+      AssertScan("1.5.5", 3);
+      AssertScan("12abc", 2);
+      AssertScan("-.5e-3-", 6);
+      AssertScan("1ee5", 1);
+      AssertScan("INFINI", 3);
+      AssertScan("Infinity", 8);
+      AssertScan("-infinityy", 9);
+      AssertScan("inf5", 3);
+      AssertScan("NaN00", 5);
+      AssertScan("nan12.5", 5);
+      AssertScan("sNaN", 4);
+      AssertScan("-snan7e", 6);
+      AssertScan("", -1);
+      AssertScan("-", -1);
+      AssertScan("+", -1);
+      AssertScan(".", -1);
+      AssertScan("-.", -1);
+      AssertScan("e5", -1);
+      AssertScan("IN", -1);
+      AssertScan("Na", -1);
+      AssertScan("sN", -1);
+      AssertScan(" 1", -1);
+      AssertScan("--1", -1);
+    }
+
+    @Test
+    public void TestKindSignAndDigits() {
+      ENumberScanner scanner = AssertScan("-0012.3400e5", 12);
+      Assert.assertEquals(ENumberScanner.KindFinite, scanner.getKind());
+      Assert.assertTrue(scanner.isNegative());
+      Assert.assertEquals(6, scanner.getDigitCount());
+      Assert.assertEquals(1, scanner.getExponent());
+      scanner = AssertScan("+0.000", 6);
+      Assert.assertEquals(ENumberScanner.KindFinite, scanner.getKind());
+      Assert.assertFalse(scanner.isNegative());
+      Assert.assertEquals(0, scanner.getDigitCount());
+      Assert.assertEquals(-3, scanner.getExponent());
+      scanner = AssertScan("-Infinity", 9);
+      Assert.assertEquals(ENumberScanner.KindInfinity, scanner.getKind());
+      Assert.assertTrue(scanner.isNegative());
+      Assert.assertEquals(0, scanner.getDigitCount());
+      Assert.assertEquals(0, scanner.getExponent());
+      scanner = AssertScan("NaN00", 5);
+      Assert.assertEquals(ENumberScanner.KindQuietNaN, scanner.getKind());
+      Assert.assertFalse(scanner.isNegative());
+      Assert.assertEquals(0, scanner.getDigitCount());
+      scanner = AssertScan("-sNaN0120", 9);
+      Assert.assertEquals(ENumberScanner.KindSignalingNaN, scanner.getKind());
+      Assert.assertTrue(scanner.isNegative());
+      Assert.assertEquals(3, scanner.getDigitCount());
+      scanner = AssertScan("x", -1);
+      Assert.assertEquals(ENumberScanner.KindNone, scanner.getKind());
+      Assert.assertFalse(scanner.isNegative());
+      Assert.assertEquals(0, scanner.getDigitCount());
+      Assert.assertEquals(0, scanner.getExponent());
+      Assert.assertEquals(
+        ENumberScanner.KindNone,
+        new ENumberScanner().getKind());
+    }
+
+    @Test
+    public void TestAgreesWithFromString() {
+      String[] strs = {
+        "0", "-0", "1", "1.", ".1", "1.5E10", "1.5e-10", "-1E+0", "00100",
+        "0.00100", "123456789012345678901234567890", "1E400", "-1E-400",
+        "Infinity", "-INF", "NaN", "-NaN123", "sNaN000", "1e", "1e+",
+        "INFINI", "NaN1.5", "1,000", "0x10", "1E5.5", "1_000",
+        "12345678901234567890.12345678901234567890E-12345",
+      };
+      ENumberScanner scanner = new ENumberScanner();
+      for (String str : strs) {
+        EDecimal ed;
+        try {
+          ed = EDecimal.FromString(str);
+        } catch (NumberFormatException ex) {
+          ed = null;
+        }
+        Assert.assertEquals(str, ed != null, scanner.IsValid(str));
+        if (ed == null) {
+          continue;
+        }
+        Assert.assertEquals(str, ed.isNegative(), scanner.isNegative());
+        if (ed.isFinite()) {
+          Assert.assertEquals(ENumberScanner.KindFinite, scanner.getKind());
+          Assert.assertEquals(
+            str,
+            ed.getExponent(),
+            EInteger.FromInt64(scanner.getExponent()));
+        }
+        EInteger mant = ed.getUnsignedMantissa();
+        long digits = mant.isZero() ? 0 : mant.GetDigitCountAsEInteger()
+          .ToInt64Checked();
+        if (!ed.IsInfinity()) {
+          Assert.assertEquals(str, digits, scanner.getDigitCount());
+        }
+      }
+    }
+
+    @Test
+    public void TestSaturatedExponent() {
+      ENumberScanner scanner = new ENumberScanner();
+      Assert.assertTrue(scanner.IsValid("1E9223372036854775807"));
+      Assert.assertEquals(Long.MAX_VALUE, scanner.getExponent());
+      Assert.assertTrue(scanner.IsValid("1E9223372036854775808"));
+      Assert.assertEquals(Long.MAX_VALUE, scanner.getExponent());
+      Assert.assertTrue(scanner.IsValid("1E99999999999999999999999"));
+      Assert.assertEquals(Long.MAX_VALUE, scanner.getExponent());
+      Assert.assertTrue(scanner.IsValid("1E-9223372036854775808"));
+      Assert.assertEquals(Long.MIN_VALUE, scanner.getExponent());
+      Assert.assertTrue(scanner.IsValid("1.5E-9223372036854775807"));
+      Assert.assertEquals(Long.MIN_VALUE, scanner.getExponent());
+      Assert.assertTrue(scanner.IsValid("1.5E-9223372036854775806"));
+      Assert.assertEquals(-Long.MAX_VALUE, scanner.getExponent());
+      Assert.assertTrue(scanner.IsValid("1.55E-9223372036854775807"));
+      Assert.assertEquals(Long.MIN_VALUE, scanner.getExponent());
+      Assert.assertTrue(scanner.IsValid("-1E-99999999999999999999999"));
+      Assert.assertEquals(Long.MIN_VALUE, scanner.getExponent());
+      Assert.assertTrue(scanner.IsValid("0.5E9223372036854775807"));
+      Assert.assertEquals(Long.MAX_VALUE - 1, scanner.getExponent());
+      Assert.assertTrue(scanner.IsValid("0.5E9223372036854775808"));
+      Assert.assertEquals(Long.MAX_VALUE, scanner.getExponent());
+    }
+
+    @Test
+    public void TestBufferPosition() {
+      byte[] bytes = Ascii("ab-1.5e3cd");
+      ByteBuffer heap = ByteBuffer.wrap(bytes);
+      heap.position(2).limit(8);
+      ENumberScanner scanner = new ENumberScanner();
+      Assert.assertTrue(scanner.IsValid(heap));
+      Assert.assertEquals(2, heap.position());
+      Assert.assertEquals(8, heap.limit());
+      Assert.assertEquals(8, scanner.getEndOffset());
+      // Slices and read-only buffers
+      ByteBuffer slice = heap.slice();
+      Assert.assertTrue(scanner.IsValid(slice));
+      Assert.assertEquals(6, scanner.getEndOffset());
+      Assert.assertEquals(0, slice.position());
+      ByteBuffer readOnly = heap.asReadOnlyBuffer();
+      Assert.assertTrue(scanner.IsValid(readOnly));
+      Assert.assertEquals(2, readOnly.position());
+      heap.limit(10);
+      Assert.assertFalse(scanner.IsValid(heap));
+      Assert.assertTrue(scanner.Scan(heap));
+      Assert.assertEquals(8, scanner.getEndOffset());
+      Assert.assertEquals(2, heap.position());
+      ByteBuffer direct = ByteBuffer.allocateDirect(bytes.length);
+      direct.put(bytes);
+      direct.position(3);
+      Assert.assertTrue(scanner.Scan(direct.asReadOnlyBuffer()));
+      Assert.assertEquals(8, scanner.getEndOffset());
+      Assert.assertFalse(scanner.isNegative());
+      Assert.assertEquals(3, direct.position());
+    }
+
+    @Test
+    public void TestArguments() {
+      ENumberScanner scanner = new ENumberScanner();
+      try {
+        scanner.Scan((CharSequence)null, 0, 0);
+        Assert.fail("Should have failed");
+      } catch (NullPointerException ex) {
+        // NOTE: Intentionally empty
+      }
+      try {
+        scanner.Scan((ByteBuffer)null);
+        Assert.fail("Should have failed");
+      } catch (NullPointerException ex) {
+        // NOTE: Intentionally empty
+      }
+      try {
+        scanner.Scan("123", 2, 2);
+        Assert.fail("Should have failed");
+      } catch (IllegalArgumentException ex) {
+        // NOTE: Intentionally empty
+      }
+      try {
+        scanner.Scan(new char[3], -1, 1);
+        Assert.fail("Should have failed");
+      } catch (IllegalArgumentException ex) {
+        // NOTE: Intentionally empty
+      }
+      try {
+        scanner.IsValid(new byte[3], 4, 0);
+        Assert.fail("Should have failed");
+      } catch (IllegalArgumentException ex) {
+        // NOTE: Intentionally empty
+      }
+    }
+  }
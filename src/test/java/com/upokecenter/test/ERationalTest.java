@@ -1,5 +1,7 @@
 package com.upokecenter.test;
 
+import java.io.*;
+import java.nio.*;
 import org.junit.Assert;
 import org.junit.Test;
 import com.upokecenter.util.*;
@@ -309,10 +311,165 @@ import com.upokecenter.numbers.*;
         Assert.assertEquals(er, er2);
       }
     }
+
+    @Test
+    public void TestFromStringSources() {
+      String[] fixedStrs = {
+        "0", "-0", "+0", "1", "-1", "123", "1.5", "-.5", "5.", "1E5", "1e-5",
+        "-1.25E+10", "00012.3400", "123456789012345678901234567890",
+        "-123456789012345678901234567890.5E-20", "1E400", "-1E-400",
+        "9007199254740993", "4.9406564584124654E-324", "Infinity", "-INF",
+        "NaN", "-NaN123", "sNaN", "", "-", ".", "1e", "1e+", "1..2", "12a",
+        " 1", "1 ", "0x10", "1,000", "1/2", "-3/4", "10/0", "7/-2",
+      };
+      String[] strs = new String[fixedStrs.length + 300];
+      System.arraycopy(fixedStrs, 0, strs, 0, fixedStrs.length);
+      java.util.Random rand = new java.util.Random(1234);
+      for (int i = fixedStrs.length; i < strs.length; ++i) {
+        StringBuilder builder = new StringBuilder();
+        if (rand.nextInt(2) == 0) {
+          builder.append('-');
+        }
+        int digits = 1 + rand.nextInt(40);
+        for (int j = 0; j < digits; ++j) {
+          builder.append((char)('0' + rand.nextInt(10)));
+        }
+        if (rand.nextInt(2) == 0) {
+          builder.insert(builder.length() - rand.nextInt(digits), '.');
+        }
+        builder.append('E').append(rand.nextInt(800) - 400);
+        strs[i] = builder.toString();
+      }
+      for (String str : strs) {
+        StringBuilder padded = new StringBuilder("#$").append(str).append('%');
+        byte[] bytes = str.getBytes(java.nio.charset.StandardCharsets.UTF_8);
+        String expected;
+        try {
+          expected = ERational.FromString(str).toString();
+        } catch (NumberFormatException ex) {
+          expected = null;
+        }
+        for (CharSequence cs : TestCommon.CharSequences(str)) {
+          try {
+            Assert.assertEquals(
+              str,
+              expected,
+              ERational.FromString(cs).toString());
+          } catch (NumberFormatException ex) {
+            Assert.assertNull(str, expected);
+          }
+          Assert.assertEquals(str.length(), cs.length());
+        }
+        try {
+          Assert.assertEquals(
+            str,
+            expected,
+            ERational.FromString(padded, 2, str.length()).toString());
+        } catch (NumberFormatException ex) {
+          Assert.assertNull(str, expected);
+        }
+        for (ByteBuffer buffer : TestCommon.ByteBuffers(bytes)) {
+          try {
+            Assert.assertEquals(
+              str,
+              expected,
+              ERational.FromString(buffer).toString());
+          } catch (NumberFormatException ex) {
+            Assert.assertNull(str, expected);
+          }
+          Assert.assertEquals(bytes.length, buffer.remaining());
+        }
+      }
+      try {
+        ERational.FromString((ByteBuffer)null);
+        Assert.fail("Should have failed");
+      } catch (NullPointerException ex) {
+        // NOTE: Intentionally empty
+      }
+    }
     @Test
     public void TestAdd() {
       // not implemented yet
     }
+
+    private static ERational RationalValue(
+      java.math.BigInteger num,
+      java.math.BigInteger den) {
+      return ERational.Create(
+          EInteger.FromString(num.toString()),
+          EInteger.FromString(den.toString()));
+    }
+
+    private static void AssertSameRational(
+      ERational expected,
+      ERational actual,
+      String msg) {
+      Assert.assertEquals(msg, expected, actual);
+      Assert.assertEquals(msg, expected.hashCode(), actual.hashCode());
+    }
+
+    @Test
+    public void TestInlineBoundaries() {
+      // Numerators and denominators less than 2^63 are stored inline and
+      // others are not; Add, Subtract, Multiply and Divide don't reduce
+      // their results, so those follow from the unreduced formulas
+      java.math.BigInteger two63 = java.math.BigInteger.ONE.shiftLeft(63);
+      java.math.BigInteger max = two63.subtract(java.math.BigInteger.ONE);
+      java.math.BigInteger[] nums = {
+        java.math.BigInteger.ONE, java.math.BigInteger.valueOf(-3),
+        java.math.BigInteger.ONE.shiftLeft(32), max, max.negate(), two63,
+        two63.negate(), two63.shiftLeft(1).subtract(java.math.BigInteger.ONE),
+      };
+      java.math.BigInteger[] dens = {
+        java.math.BigInteger.ONE, java.math.BigInteger.valueOf(2),
+        java.math.BigInteger.ONE.shiftLeft(31).add(java.math.BigInteger.ONE),
+        max, two63,
+      };
+      int count = nums.length * dens.length;
+      for (int i = 0; i < count; ++i) {
+        java.math.BigInteger na = nums[i / dens.length];
+        java.math.BigInteger da = dens[i % dens.length];
+        ERational a = RationalValue(na, da);
+        for (int j = 0; j < count; ++j) {
+          java.math.BigInteger nb = nums[j / dens.length];
+          java.math.BigInteger db = dens[j % dens.length];
+          ERational b = RationalValue(nb, db);
+          String msg = na + "/" + da + " " + nb + "/" + db;
+          java.math.BigInteger ad = na.multiply(db);
+          java.math.BigInteger bc = da.multiply(nb);
+          java.math.BigInteger bd = da.multiply(db);
+          AssertSameRational(RationalValue(ad.add(bc), bd), a.Add(b), msg);
+          AssertSameRational(
+            RationalValue(ad.subtract(bc), bd),
+            a.Subtract(b),
+            msg);
+          AssertSameRational(
+            RationalValue(na.multiply(nb), bd),
+            a.Multiply(b),
+            msg);
+          AssertSameRational(RationalValue(ad, bc), a.Divide(b), msg);
+          Assert.assertEquals(
+            msg,
+            ad.compareTo(bc),
+            Integer.signum(a.compareTo(b)));
+          // a - trunc(a/b)*b, which is (ad - trunc(ad/bc)*bc)/bd
+          Assert.assertEquals(
+            msg,
+            0,
+            RationalValue(ad.remainder(bc), bd).compareTo(a.Remainder(b)));
+        }
+      }
+      // Results that fit inline although an operand doesn't
+      ERational big = RationalValue(two63, java.math.BigInteger.ONE);
+      AssertSameRational(
+        ERational.Create(1, 1),
+        big.Subtract(RationalValue(max, java.math.BigInteger.ONE)),
+        "");
+      AssertSameRational(
+        ERational.Create(-Long.MAX_VALUE, 1),
+        big.Negate().Add(ERational.Create(1, 1)),
+        "");
+    }
     @Test
     public void TestCompareTo() {
       RandomGenerator r = new RandomGenerator();
@@ -445,6 +602,158 @@ import com.upokecenter.numbers.*;
         TestCommon.CompareTestEqual(erdiv, er);
       }
     }
+    @Test
+    public void TestEncodedForm() {
+      EInteger big = EInteger.FromInt32(1).ShiftLeft(1000).Add(12345);
+      EInteger[] integers = {
+        EInteger.FromInt32(0), EInteger.FromInt32(1), EInteger.FromInt32(-1),
+        EInteger.FromInt32(63), EInteger.FromInt32(64), EInteger.FromInt32(127),
+        EInteger.FromInt32(128), EInteger.FromInt32(-128),
+        EInteger.FromInt32(16383), EInteger.FromInt32(16384),
+        EInteger.FromInt32(Integer.MAX_VALUE),
+        EInteger.FromInt32(Integer.MIN_VALUE),
+        EInteger.FromInt64(Long.MAX_VALUE), EInteger.FromInt64(Long.MIN_VALUE),
+        EInteger.FromInt64(Long.MAX_VALUE).Add(1),
+        EInteger.FromInt32(1).ShiftLeft(64),
+        EInteger.FromInt32(1).ShiftLeft(70).Subtract(1),
+        EInteger.FromInt32(1).ShiftLeft(70), big, big.Negate(),
+      };
+      ERational[] values = new ERational[integers.length + 9];
+      for (int i = 0; i < integers.length; ++i) {
+        EInteger den = integers[(i * 7) % integers.length].Abs().Add(1);
+        values[i] = ERational.Create(integers[i], den);
+      }
+      String[] strs = {
+        "0", "-0", "1/3", "-7/12", "Infinity", "-Infinity", "NaN", "sNaN",
+        "-NaN42",
+      };
+      for (int i = 0; i < strs.length; ++i) {
+        values[integers.length + i] = ERational.FromString(strs[i]);
+      }
+      for (ERational er : values) {
+        byte[] bytes = er.ToEncodedBytes();
+        Assert.assertEquals(er.GetEncodedLength(), bytes.length);
+        Assert.assertEquals(er, ERational.FromEncodedBytes(bytes));
+        for (ByteBuffer buffer : TestCommon.ByteBuffers(bytes)) {
+          Assert.assertEquals(er, ERational.ReadEncoded(buffer));
+          Assert.assertFalse(buffer.hasRemaining());
+        }
+        // Writing to a heap buffer at an offset and to a direct buffer
+        ByteBuffer buffer = ByteBuffer.allocate(bytes.length + 5);
+        buffer.position(5);
+        er.WriteEncoded(buffer);
+        Assert.assertFalse(buffer.hasRemaining());
+        TestCommon.AssertByteArraysEqual(
+          bytes,
+          buffer.array(),
+          5,
+          bytes.length);
+        buffer = ByteBuffer.allocateDirect(bytes.length);
+        er.WriteEncoded(buffer);
+        buffer.flip();
+        byte[] written = new byte[bytes.length];
+        buffer.get(written);
+        TestCommon.AssertByteArraysEqual(bytes, written);
+        try {
+          ByteArrayOutputStream stream = new ByteArrayOutputStream();
+          er.WriteEncoded(new DataOutputStream(stream));
+          TestCommon.AssertByteArraysEqual(bytes, stream.toByteArray());
+          DataInputStream input = new DataInputStream(
+            new ByteArrayInputStream(bytes));
+          Assert.assertEquals(er, ERational.ReadEncoded(input));
+          Assert.assertEquals(-1, input.read());
+        } catch (IOException ex) {
+          Assert.fail(ex.toString());
+        }
+        // Truncated encodings, and trailing bytes, are rejected
+        for (int i = 0; i < bytes.length; ++i) {
+          byte[] prefix = new byte[i];
+          System.arraycopy(bytes, 0, prefix, 0, i);
+          try {
+            ERational.FromEncodedBytes(prefix);
+            Assert.fail("Should have failed");
+          } catch (IllegalArgumentException ex) {
+            // NOTE: Intentionally empty
+          }
+          buffer = ByteBuffer.wrap(prefix);
+          try {
+            ERational.ReadEncoded(buffer);
+            Assert.fail("Should have failed");
+          } catch (BufferUnderflowException ex) {
+            Assert.assertEquals(0, buffer.position());
+          }
+          try {
+            ERational.ReadEncoded(
+              new DataInputStream(new ByteArrayInputStream(prefix)));
+            Assert.fail("Should have failed");
+          } catch (EOFException ex) {
+            // NOTE: Intentionally empty
+          } catch (IOException ex) {
+            Assert.fail(ex.toString());
+          }
+        }
+        byte[] longer = new byte[bytes.length + 1];
+        System.arraycopy(bytes, 0, longer, 0, bytes.length);
+        try {
+          ERational.FromEncodedBytes(longer);
+          Assert.fail("Should have failed");
+        } catch (IllegalArgumentException ex) {
+          // NOTE: Intentionally empty
+        }
+      }
+    }
+
+    @Test
+    public void TestEncodedFormInvalid() {
+      // An unknown kind and a zero denominator
+      byte[][] invalid = {
+        new byte[] { 0x1e, 0x01 },
+        new byte[] { 0x10, 0x01, 0x00 },
+      };
+      for (byte[] bytes : invalid) {
+        try {
+          ERational.FromEncodedBytes(bytes);
+          Assert.fail("Should have failed");
+        } catch (IllegalArgumentException ex) {
+          // NOTE: Intentionally empty
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        try {
+          ERational.ReadEncoded(buffer);
+          Assert.fail("Should have failed");
+        } catch (IllegalArgumentException ex) {
+          Assert.assertEquals(0, buffer.position());
+        }
+        try {
+          ERational.ReadEncoded(
+            new DataInputStream(new ByteArrayInputStream(bytes)));
+          Assert.fail("Should have failed");
+        } catch (EOFException ex) {
+          Assert.fail(ex.toString());
+        } catch (IOException ex) {
+          // NOTE: Intentionally empty
+        }
+      }
+      // Random bytes either decode to a value whose encoding is the same
+      // bytes, or are rejected
+      java.util.Random rand = new java.util.Random(54324);
+      for (int i = 0; i < 1000; ++i) {
+        byte[] bytes = new byte[rand.nextInt(12) + 1];
+        rand.nextBytes(bytes);
+        // Use the supported version most of the time
+        if (rand.nextInt(4) != 0) {
+          bytes[0] = (byte)((bytes[0] & 0x0f) | 0x10);
+        }
+        ERational er;
+        try {
+          er = ERational.FromEncodedBytes(bytes);
+        } catch (IllegalArgumentException ex) {
+          continue;
+        }
+        TestCommon.AssertByteArraysEqual(bytes, er.ToEncodedBytes());
+      }
+    }
+
     @Test
     public void TestEquals() {
       if (ERational.One.equals(null)) {
@@ -1489,4 +1798,81 @@ import com.upokecenter.numbers.*;
     public void TestUnsignedNumerator() {
       // not implemented yet
     }
+
+    @Test
+    public void TestWriteString() {
+      String[] strs = {
+        "0", "-0", "1", "-1/3", "22/7", "123456789012345678901234567890/7",
+        "Infinity", "-Infinity", "NaN", "-NaN12", "sNaN",
+      };
+      ERational[] values = new ERational[strs.length + 500];
+      for (int i = 0; i < strs.length; ++i) {
+        values[i] = ERational.FromString(strs[i]);
+      }
+      java.util.Random rand = new java.util.Random(2025);
+      for (int i = strs.length; i < values.length; ++i) {
+        values[i] = ERational.Create(
+          EInteger.FromInt64(rand.nextLong() >> rand.nextInt(64)),
+          EInteger.FromInt64((rand.nextLong() >>> rand.nextInt(64)) | 1));
+      }
+      for (ERational er : values) {
+        String str = er.toString();
+        int length = str.length();
+        byte[] utf8 = str.getBytes(java.nio.charset.StandardCharsets.UTF_8);
+        Assert.assertEquals(str, length, er.GetStringLength());
+        StringBuilder builder = new StringBuilder("abc");
+        try {
+          er.WriteString(builder);
+        } catch (IOException ex) {
+          Assert.fail(ex.toString());
+        }
+        Assert.assertEquals("abc" + str, builder.toString());
+        char[] chars = new char[length + 3];
+        Assert.assertEquals(length, er.WriteString(chars, 3));
+        Assert.assertEquals(str, new String(chars, 3, length));
+        byte[] bytes = new byte[length + 2];
+        Assert.assertEquals(length, er.WriteStringUtf8(bytes, 2));
+        TestCommon.AssertByteArraysEqual(utf8, bytes, 2, length);
+        ByteBuffer buffer = ByteBuffer.allocate(length + 4);
+        buffer.position(1);
+        er.WriteStringUtf8(buffer);
+        Assert.assertEquals(length + 1, buffer.position());
+        TestCommon.AssertByteArraysEqual(utf8, buffer.array(), 1, length);
+        buffer = ByteBuffer.allocateDirect(length);
+        er.WriteStringUtf8(buffer);
+        Assert.assertFalse(buffer.hasRemaining());
+        buffer.flip();
+        byte[] written = new byte[length];
+        buffer.get(written);
+        TestCommon.AssertByteArraysEqual(utf8, written);
+        // Targets with too little room
+        try {
+          er.WriteString(new char[length + 2], 3);
+          Assert.fail("Should have failed: " + str);
+        } catch (IllegalArgumentException ex) {
+          // NOTE: Intentionally empty
+        }
+        try {
+          er.WriteStringUtf8(new byte[length - 1], 0);
+          Assert.fail("Should have failed: " + str);
+        } catch (IllegalArgumentException ex) {
+          // NOTE: Intentionally empty
+        }
+        buffer = ByteBuffer.allocate(length + 1);
+        buffer.position(2);
+        try {
+          er.WriteStringUtf8(buffer);
+          Assert.fail("Should have failed: " + str);
+        } catch (BufferOverflowException ex) {
+          Assert.assertEquals(2, buffer.position());
+        }
+        buffer = ByteBuffer.allocateDirect(length - 1);
+        try {
+          er.WriteStringUtf8(buffer);
+          Assert.fail("Should have failed: " + str);
+        } catch (BufferOverflowException ex) {
+          Assert.assertEquals(0, buffer.position());
+        }
+      }
+    }
   }
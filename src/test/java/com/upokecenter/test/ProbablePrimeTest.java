@@ -0,0 +1,150 @@
+package com.upokecenter.test;
+
+import org.junit.Assert;
+import org.junit.Test;
+import com.upokecenter.numbers.*;
+
+  public class ProbablePrimeTest {
+    private static void AssertPrime(String str) {
+      Assert.assertTrue(str, EInteger.FromString(str).IsProbablePrime());
+    }
+
+    private static void AssertComposite(String str) {
+      Assert.assertFalse(str, EInteger.FromString(str).IsProbablePrime());
+    }
+
+    @Test
+    public void TestSmallValues() {
+      Assert.assertFalse(EInteger.FromInt32(-7).IsProbablePrime());
+      Assert.assertFalse(EInteger.FromInt32(-2).IsProbablePrime());
+      Assert.assertFalse(EInteger.FromInt32(0).IsProbablePrime());
+      Assert.assertFalse(EInteger.FromInt32(1).IsProbablePrime());
+      Assert.assertTrue(EInteger.FromInt32(2).IsProbablePrime());
+      Assert.assertTrue(EInteger.FromInt32(3).IsProbablePrime());
+      Assert.assertFalse(EInteger.FromInt32(4).IsProbablePrime());
+      // Compare with trial division
+      for (int i = 0; i < 5000; ++i) {
+        boolean prime = i >= 2;
+        for (int j = 2; j * j <= i; ++j) {
+          if (i % j == 0) {
+            prime = false;
+            break;
+          }
+        }
+        Assert.assertEquals(
+          String.valueOf(i),
+          prime,
+          EInteger.FromInt32(i).IsProbablePrime());
+      }
+    }
+
+    @Test
+    public void TestKnownPrimes() {
+      AssertPrime("65537");
+      AssertPrime("2147483647");
+      AssertPrime("2147483659");
+      AssertPrime("4294967311");
+      // 2^61 - 1
+      AssertPrime("2305843009213693951");
+      // Largest prime less than 2^64
+      AssertPrime("18446744073709551557");
+      AssertPrime("18446744073709551629");
+      // 2^89 - 1
+      AssertPrime("618970019642690137449562111");
+      // 2^127 - 1
+      AssertPrime("170141183460469231731687303715884105727");
+      EInteger m521 = EInteger.FromInt32(1).ShiftLeft(521).Subtract(1);
+      Assert.assertTrue(m521.IsProbablePrime());
+      Assert.assertFalse(m521.Add(2).IsProbablePrime());
+      // Products of two large primes
+      AssertComposite("4611686014132420609");
+      Assert.assertFalse(m521.Multiply(EInteger.FromString(
+        "170141183460469231731687303715884105727")).IsProbablePrime());
+    }
+
+    @Test
+    public void TestCarmichaelNumbers() {
+      int[] carmichael = {
+        561, 1105, 1729, 2465, 2821, 6601, 8911, 10585, 15841, 29341,
+        41041, 46657, 52633, 62745, 63973, 75361, 101101, 115921,
+      };
+      for (int c : carmichael) {
+        Assert.assertFalse(
+          String.valueOf(c),
+          EInteger.FromInt32(c).IsProbablePrime());
+      }
+      // Carmichael numbers of the form (6k+1)(12k+1)(18k+1), for k = 121
+      // and k = 2400796, beyond the ranges of 32-bit and 64-bit integers
+      AssertComposite("2301745249");
+      AssertComposite("17933738520004641744049");
+    }
+
+    @Test
+    public void TestStrongPseudoprimesBase2() {
+      int[] spsp = {
+        2047, 3277, 4033, 4681, 8321, 15841, 29341, 42799, 49141, 52633,
+        65281, 74665, 80581, 85489, 88357, 90751,
+      };
+      for (int c : spsp) {
+        Assert.assertFalse(
+          String.valueOf(c),
+          EInteger.FromInt32(c).IsProbablePrime());
+      }
+      // Strong pseudoprimes to several bases, including 2
+      AssertComposite("3215031751");
+      AssertComposite("3825123056546413051");
+      AssertComposite("318665857834031151167461");
+    }
+
+    private static void AssertNextPrime(String value, String expected) {
+      Assert.assertEquals(
+        value,
+        EInteger.FromString(expected),
+        EInteger.FromString(value).NextProbablePrime());
+    }
+
+    @Test
+    public void TestNextProbablePrime() {
+      AssertNextPrime("-100", "2");
+      AssertNextPrime("0", "2");
+      AssertNextPrime("1", "2");
+      AssertNextPrime("2", "3");
+      AssertNextPrime("3", "5");
+      AssertNextPrime("4", "5");
+      AssertNextPrime("2147483629", "2147483647");
+      // From the range of 32-bit integers to beyond it
+      AssertNextPrime("2147483646", "2147483647");
+      AssertNextPrime("2147483647", "2147483659");
+      AssertNextPrime("4294967296", "4294967311");
+      // Across 2^64
+      AssertNextPrime("18446744073709551557", "18446744073709551629");
+      AssertNextPrime("18446744073709551615", "18446744073709551629");
+      AssertNextPrime(
+        "618970019642690137449562109",
+        "618970019642690137449562111");
+      AssertNextPrime(
+        "170141183460469231731687303715884105727",
+        "170141183460469231731687303715884105757");
+    }
+
+    @Test
+    public void TestNextProbablePrimeConsistency() {
+      // The sieve in NextProbablePrime must skip no probable prime
+      EInteger[] starts = {
+        EInteger.FromString("2147480000"),
+        EInteger.FromInt32(1).ShiftLeft(64).Subtract(3000),
+        EInteger.FromInt32(1).ShiftLeft(200).Add(12345),
+      };
+      for (EInteger start : starts) {
+        EInteger p = start.NextProbablePrime();
+        for (int i = 0; i < 40; ++i) {
+          EInteger next = p.NextProbablePrime();
+          for (EInteger k = p.Add(1); k.compareTo(next) < 0; k = k.Add(1)) {
+            Assert.assertFalse(k.toString(), k.IsProbablePrime());
+          }
+          Assert.assertTrue(next.toString(), next.IsProbablePrime());
+          p = next;
+        }
+      }
+    }
+  }
@@ -7,6 +7,7 @@ licensed under the Unlicense: https://unlicense.org/
 
  */
 
+import java.nio.*;
 import org.junit.Assert;
 
   public final class TestCommon {
@@ -98,6 +99,41 @@ private TestCommon() {
       return neg ? -ret : ret;
     }
 
+    // Gets byte buffers whose remaining bytes are 'bytes': a heap buffer
+    // at an offset into its array, a slice of it, a read-only copy of it,
+    // and the same three for a direct buffer. All are independent, so
+    // reading from one doesn't move another's position.
+    public static ByteBuffer[] ByteBuffers(byte[] bytes) {
+      byte[] padded = new byte[bytes.length + 3];
+      System.arraycopy(bytes, 0, padded, 2, bytes.length);
+      ByteBuffer heap = ByteBuffer.wrap(padded, 2, bytes.length);
+      ByteBuffer direct = ByteBuffer.allocateDirect(padded.length);
+      direct.put(padded);
+      direct.position(2);
+      direct.limit(2 + bytes.length);
+      return new ByteBuffer[] {
+        heap, heap.slice(), heap.asReadOnlyBuffer(), direct, direct.slice(),
+        direct.asReadOnlyBuffer(),
+      };
+    }
+
+    // Gets character sequences whose characters are those of 'str': a
+    // string builder, and heap and direct character buffers, some of
+    // whose positions aren't 0
+    public static CharSequence[] CharSequences(String str) {
+      String padded = "#$" + str + "%";
+      CharBuffer heap = CharBuffer.wrap(padded.toCharArray(), 2, str.length());
+      CharBuffer direct = ByteBuffer.allocateDirect(padded.length() * 2)
+        .asCharBuffer();
+      direct.put(padded);
+      direct.position(2);
+      direct.limit(2 + str.length());
+      return new CharSequence[] {
+        new StringBuilder(str), CharBuffer.wrap(str), heap, heap.slice(),
+        direct,
+      };
+    }
+
     public static void AssertByteArraysEqual(byte[] arr1, byte[] arr2) {
       if (!ByteArraysEqual(arr1, arr2)) {
         Assert.fail("Expected " + ToByteArrayString(arr1) + ",\ngot..... " +